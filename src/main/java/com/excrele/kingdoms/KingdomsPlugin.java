@@ -48,6 +48,8 @@ public class KingdomsPlugin extends JavaPlugin {
     private ChallengeManager challengeManager;
     private TrustManager trustManager;
     private WarManager warManager;
+    private com.excrele.kingdoms.manager.ProtectionManager protectionManager;
+    private com.excrele.kingdoms.util.MaterialCategories materialCategories;
     private BankManager bankManager;
     private ClaimEconomyManager claimEconomyManager;
     private VaultManager vaultManager;
@@ -61,6 +63,8 @@ public class KingdomsPlugin extends JavaPlugin {
     private AdvancedFeaturesManager advancedFeaturesManager;
     private com.excrele.kingdoms.manager.AchievementManager achievementManager;
     private com.excrele.kingdoms.manager.EnhancedLeaderboardManager enhancedLeaderboardManager;
+    private com.excrele.kingdoms.expansion.KingdomsExpansion placeholderExpansion;
+    private com.excrele.kingdoms.manager.KingdomReadModel readModel;
     private com.excrele.kingdoms.manager.MailManager mailManager;
     private com.excrele.kingdoms.manager.SiegeManager siegeManager;
     private com.excrele.kingdoms.manager.RaidManager raidManager;
@@ -81,7 +85,6 @@ public class KingdomsPlugin extends JavaPlugin {
     private com.excrele.kingdoms.manager.ReputationManager reputationManager;
     private com.excrele.kingdoms.manager.NotificationManager notificationManager;
     private com.excrele.kingdoms.util.DataCache dataCache;
-    private com.excrele.kingdoms.util.ChunkLoadingOptimizer chunkOptimizer;
     private DynmapIntegration dynmapIntegration;
     private UnminedIntegration unminedIntegration;
     private WorldGuardIntegration worldGuardIntegration;
@@ -92,6 +95,10 @@ public class KingdomsPlugin extends JavaPlugin {
     private File kingdomsFile;
     private SaveQueue saveQueue;
     private BatchSaveTask batchSaveTask;
+    private com.excrele.kingdoms.task.KingdomScheduler kingdomScheduler;
+    private com.excrele.kingdoms.task.SlicedExecutor slicedExecutor;
+    private com.excrele.kingdoms.storage.StartupLoader startupLoader; // Only while managers are being built
+    private final java.util.Map<String, Long> startupTimings = new java.util.LinkedHashMap<>(); // manager -> load ms
 
     @Override
     public void onEnable() {
@@ -120,12 +127,14 @@ public class KingdomsPlugin extends JavaPlugin {
             batchSaveTask.saveNow();
         }
         
-        // Force synchronous saves on shutdown
+        // Take final snapshots and let the writer finish them
         kingdomManager.saveKingdoms(kingdomsConfig, kingdomsFile, false);
         challengeManager.savePlayerData(false);
         if (advancedMemberManager != null) {
             advancedMemberManager.saveAllData(false);
         }
+        savePlayerIds();
+        saveQueue.shutdown(getConfig().getLong("save-queue.shutdown-timeout", 30000L));
         
         // Disable integrations
         if (dynmapIntegration != null) dynmapIntegration.disable();
@@ -134,6 +143,33 @@ public class KingdomsPlugin extends JavaPlugin {
         if (griefPreventionIntegration != null) griefPreventionIntegration.disable();
         if (discordSRVIntegration != null) discordSRVIntegration.disable();
         
+        if (placeholderExpansion != null) {
+            placeholderExpansion.getCache().shutdown();
+        }
+        if (readModel != null) {
+            readModel.shutdown();
+        }
+        if (kingdomScheduler != null) {
+            kingdomScheduler.shutdown(); // Writes last-run times
+        }
+        if (slicedExecutor != null) {
+            slicedExecutor.shutdown();
+        }
+        if (activityManager != null) {
+            activityManager.shutdown(); // Saves playtime and contributions not yet flushed
+        }
+        if (statisticsManager != null) {
+            statisticsManager.shutdown(); // Saves the last aggregated analytics
+        }
+        if (enhancedLeaderboardManager != null) {
+            enhancedLeaderboardManager.shutdown(); // Writes season scores not yet flushed
+        }
+        if (claimEconomyManager != null) {
+            claimEconomyManager.shutdown(); // Writes the biome summary
+        }
+        if (bankManager != null) {
+            bankManager.shutdown(); // Writes the rest of the bank journal
+        }
         if (storageManager != null) {
             storageManager.close();
         }
@@ -153,54 +189,61 @@ public class KingdomsPlugin extends JavaPlugin {
     }
 
     private void initializeManagers() {
-        // Initialize save queue for async operations
-        saveQueue = new SaveQueue();
+        // Initialize save queue; its writer thread does the file writes
+        saveQueue = timed("saveQueue", () -> new SaveQueue(getLogger(), getConfig().getInt("save-queue.capacity", 256)));
         
-        storageManager = new StorageManager(this);
-        kingdomManager = new KingdomManager(this, kingdomsConfig, kingdomsFile); // Pass plugin instance
+        com.excrele.kingdoms.util.PlayerIds.load(new File(getDataFolder(), "players.yml"), getLogger()); // Before member lists are loaded
+        storageManager = timed("storageManager", () -> new StorageManager(this));
+        kingdomManager = timed("kingdomManager", () -> new KingdomManager(this, kingdomsConfig, kingdomsFile)); // Pass plugin instance
         kingdomManager.setSaveQueue(saveQueue); // Set save queue
-        worldManager = new WorldManager(this);
-        claimManager = new ClaimManager(kingdomManager);
+        readModel = timed("readModel", () -> new com.excrele.kingdoms.manager.KingdomReadModel(this));
+        startupLoader = startLoader(); // Bulk-loads per-kingdom tables while the managers below are built
+        worldManager = timed("worldManager", () -> new WorldManager(this));
+        worldManager.verifyClaimCounts(); // Per-world counts against the claims loaded from storage
+        claimManager = timed("claimManager", () -> new ClaimManager(kingdomManager));
         claimManager.setWorldManager(worldManager); // Set world manager after creation
-        flagManager = new FlagManager(this);
-        challengeManager = new ChallengeManager(this);
+        flagManager = timed("flagManager", () -> new FlagManager(this));
+        challengeManager = timed("challengeManager", () -> new ChallengeManager(this));
         challengeManager.setSaveQueue(saveQueue); // Set save queue
-        trustManager = new TrustManager(this);
-        warManager = new WarManager(this);
-        bankManager = new BankManager(this);
-        claimEconomyManager = new ClaimEconomyManager(this, kingdomManager, claimManager, bankManager);
-        vaultManager = new VaultManager(this);
-        activityManager = new ActivityManager(this);
-        customizationManager = new CustomizationManager(this);
-        communicationManager = new CommunicationManager(this);
-        visualManager = new com.excrele.kingdoms.manager.VisualManager(this);
-        advancedMemberManager = new AdvancedMemberManager(this);
+        trustManager = timed("trustManager", () -> new TrustManager(this));
+        warManager = timed("warManager", () -> new WarManager(this));
+        protectionManager = timed("protectionManager", () -> new com.excrele.kingdoms.manager.ProtectionManager(this));
+        materialCategories = timed("materialCategories", () -> new com.excrele.kingdoms.util.MaterialCategories(getConfig().getConfigurationSection("protection.materials")));
+        bankManager = timed("bankManager", () -> new BankManager(this));
+        claimEconomyManager = timed("claimEconomyManager", () -> new ClaimEconomyManager(this, kingdomManager, claimManager, bankManager));
+        vaultManager = timed("vaultManager", () -> new VaultManager(this));
+        activityManager = timed("activityManager", () -> new ActivityManager(this));
+        customizationManager = timed("customizationManager", () -> new CustomizationManager(this));
+        communicationManager = timed("communicationManager", () -> new CommunicationManager(this));
+        visualManager = timed("visualManager", () -> new com.excrele.kingdoms.manager.VisualManager(this));
+        advancedMemberManager = timed("advancedMemberManager", () -> new AdvancedMemberManager(this));
         advancedMemberManager.setSaveQueue(saveQueue); // Set save queue
-        statisticsManager = new StatisticsManager(this);
-        advancedFeaturesManager = new AdvancedFeaturesManager(this);
-        achievementManager = new com.excrele.kingdoms.manager.AchievementManager(this);
-        enhancedLeaderboardManager = new com.excrele.kingdoms.manager.EnhancedLeaderboardManager(this);
-        mailManager = new com.excrele.kingdoms.manager.MailManager(this);
-        siegeManager = new com.excrele.kingdoms.manager.SiegeManager(this);
-        raidManager = new com.excrele.kingdoms.manager.RaidManager(this);
-        taxManager = new com.excrele.kingdoms.manager.TaxManager(this);
-        tradeRouteManager = new com.excrele.kingdoms.manager.TradeRouteManager(this);
-        advancedChallengeManager = new com.excrele.kingdoms.manager.AdvancedChallengeManager(this);
-        structureManager = new com.excrele.kingdoms.manager.StructureManager(this);
-        resourceManager = new com.excrele.kingdoms.manager.ResourceManager(this);
-        diplomacyManager = new com.excrele.kingdoms.manager.DiplomacyManager(this);
-        hologramManager = new com.excrele.kingdoms.util.HologramManager(this);
-        themeManager = new com.excrele.kingdoms.manager.ThemeManager(this);
-        bannerManager = new com.excrele.kingdoms.manager.BannerManager(this);
-        advancedPermissionManager = new com.excrele.kingdoms.manager.AdvancedPermissionManager(this);
-        outpostManager = new com.excrele.kingdoms.manager.OutpostManager(this);
-        automatedKingdomManager = new com.excrele.kingdoms.manager.AutomatedKingdomManager(this);
-        advancedEconomyManager = new com.excrele.kingdoms.manager.AdvancedEconomyManager(this);
-        enhancedWarManager = new com.excrele.kingdoms.manager.EnhancedWarManager(this, warManager);
-        reputationManager = new com.excrele.kingdoms.manager.ReputationManager(this);
-        notificationManager = new com.excrele.kingdoms.manager.NotificationManager(this);
-        dataCache = new com.excrele.kingdoms.util.DataCache(getConfig().getLong("cache.expiry-time", 300000L)); // 5 minutes
-        chunkOptimizer = new com.excrele.kingdoms.util.ChunkLoadingOptimizer(this);
+        statisticsManager = timed("statisticsManager", () -> new StatisticsManager(this));
+        advancedFeaturesManager = timed("advancedFeaturesManager", () -> new AdvancedFeaturesManager(this));
+        achievementManager = timed("achievementManager", () -> new com.excrele.kingdoms.manager.AchievementManager(this));
+        enhancedLeaderboardManager = timed("enhancedLeaderboardManager", () -> new com.excrele.kingdoms.manager.EnhancedLeaderboardManager(this));
+        mailManager = timed("mailManager", () -> new com.excrele.kingdoms.manager.MailManager(this));
+        siegeManager = timed("siegeManager", () -> new com.excrele.kingdoms.manager.SiegeManager(this));
+        raidManager = timed("raidManager", () -> new com.excrele.kingdoms.manager.RaidManager(this));
+        taxManager = timed("taxManager", () -> new com.excrele.kingdoms.manager.TaxManager(this));
+        tradeRouteManager = timed("tradeRouteManager", () -> new com.excrele.kingdoms.manager.TradeRouteManager(this));
+        advancedChallengeManager = timed("advancedChallengeManager", () -> new com.excrele.kingdoms.manager.AdvancedChallengeManager(this));
+        structureManager = timed("structureManager", () -> new com.excrele.kingdoms.manager.StructureManager(this));
+        resourceManager = timed("resourceManager", () -> new com.excrele.kingdoms.manager.ResourceManager(this));
+        diplomacyManager = timed("diplomacyManager", () -> new com.excrele.kingdoms.manager.DiplomacyManager(this));
+        hologramManager = timed("hologramManager", () -> new com.excrele.kingdoms.util.HologramManager(this));
+        themeManager = timed("themeManager", () -> new com.excrele.kingdoms.manager.ThemeManager(this));
+        bannerManager = timed("bannerManager", () -> new com.excrele.kingdoms.manager.BannerManager(this));
+        advancedPermissionManager = timed("advancedPermissionManager", () -> new com.excrele.kingdoms.manager.AdvancedPermissionManager(this));
+        outpostManager = timed("outpostManager", () -> new com.excrele.kingdoms.manager.OutpostManager(this));
+        automatedKingdomManager = timed("automatedKingdomManager", () -> new com.excrele.kingdoms.manager.AutomatedKingdomManager(this));
+        advancedEconomyManager = timed("advancedEconomyManager", () -> new com.excrele.kingdoms.manager.AdvancedEconomyManager(this));
+        enhancedWarManager = timed("enhancedWarManager", () -> new com.excrele.kingdoms.manager.EnhancedWarManager(this, warManager));
+        reputationManager = timed("reputationManager", () -> new com.excrele.kingdoms.manager.ReputationManager(this));
+        notificationManager = timed("notificationManager", () -> new com.excrele.kingdoms.manager.NotificationManager(this));
+        dataCache = timed("dataCache", () -> new com.excrele.kingdoms.util.DataCache(getConfig().getLong("cache.expiry-time", 300000L))); // 5 minutes
+        startupLoader = null; // Loaded data now lives in the managers
+        logStartupTimings();
         
         // Initialize integrations
         dynmapIntegration = new DynmapIntegration(this);
@@ -220,6 +263,40 @@ public class KingdomsPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(vaultGUI, this);
     }
 
+    /**
+     * Queue a write of players.yml if a player's UUID or name binding changed
+     */
+    public void savePlayerIds() {
+        com.excrele.kingdoms.util.PlayerIds.save(new File(getDataFolder(), "players.yml"), saveQueue, getLogger());
+    }
+
+    /**
+     * Construct a manager and record how long it took to load
+     */
+    private <T> T timed(String name, java.util.function.Supplier<T> factory) {
+        long start = System.nanoTime();
+        T manager = factory.get();
+        startupTimings.put(name, (System.nanoTime() - start) / 1_000_000L);
+        return manager;
+    }
+
+    private void logStartupTimings() {
+        long total = startupTimings.values().stream().mapToLong(Long::longValue).sum();
+        String slowest = startupTimings.entrySet().stream()
+            .filter(entry -> entry.getValue() > 0)
+            .sorted(java.util.Map.Entry.<String, Long>comparingByValue().reversed())
+            .map(entry -> entry.getKey() + " " + entry.getValue() + "ms")
+            .collect(java.util.stream.Collectors.joining(", "));
+        getLogger().info("Managers loaded in " + total + "ms" + (slowest.isEmpty() ? "" : ": " + slowest));
+        startupTimings.clear();
+    }
+
+    private com.excrele.kingdoms.storage.StartupLoader startLoader() {
+        return new com.excrele.kingdoms.storage.StartupLoader(storageManager.getAdapter(),
+            new java.util.HashSet<>(kingdomManager.getKingdoms().keySet()),
+            getConfig().getInt("storage.loader-threads", 3), getLogger());
+    }
+
     private void registerCommands() {
         KingdomCommand kingdomCommand = new KingdomCommand(this);
         com.excrele.kingdoms.command.KingdomCommandTabCompleter kingdomTabCompleter = 
@@ -262,17 +339,35 @@ public class KingdomsPlugin extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new com.excrele.kingdoms.listener.ClaimProtectionListener(), this);
         getServer().getPluginManager().registerEvents(new com.excrele.kingdoms.listener.EnhancedProtectionListener(), this);
         getServer().getPluginManager().registerEvents(new com.excrele.kingdoms.listener.ActivityListener(this), this);
+        getServer().getPluginManager().registerEvents(new com.excrele.kingdoms.listener.ChunkLoadListener(this), this);
     }
 
     private void startTasks() {
         new PerkTask().runTaskTimer(this, 0L, 100L); // Every 5 seconds
-        new com.excrele.kingdoms.task.AutoFeaturesTask().runTaskTimer(this, 0L, 20L); // Every second
+        
+        // Long maintenance jobs, run a few milliseconds per tick
+        slicedExecutor = new com.excrele.kingdoms.task.SlicedExecutor(this);
+        slicedExecutor.start();
+        
+        // Automatic kingdom jobs, run by wall-clock deadline
+        kingdomScheduler = new com.excrele.kingdoms.task.KingdomScheduler(this, saveQueue);
+        new com.excrele.kingdoms.task.AutoFeaturesTask().schedule(this, kingdomScheduler);
+        kingdomScheduler.start();
         
         // Start batch save task (every 60 seconds = 1200 ticks)
         long saveInterval = getConfig().getLong("batch-save-interval", 1200L);
         batchSaveTask = new BatchSaveTask(this, saveQueue, saveInterval);
         batchSaveTask.start();
         
+        // Flush merged write-behind storage writes (every 5 seconds by default)
+        long writeBehindInterval = getConfig().getLong("storage.write-behind.flush-interval", 100L);
+        new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                storageManager.getWriteBehind().flush();
+            }
+        }.runTaskTimer(this, writeBehindInterval, writeBehindInterval);
+        
         // Check for season end every hour (72000 ticks)
         if (enhancedLeaderboardManager != null) {
             new org.bukkit.scheduler.BukkitRunnable() {
@@ -286,7 +381,8 @@ public class KingdomsPlugin extends JavaPlugin {
 
     private void registerPlaceholderAPI() {
         if (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            new com.excrele.kingdoms.expansion.KingdomsExpansion(this).register();
+            placeholderExpansion = new com.excrele.kingdoms.expansion.KingdomsExpansion(this);
+            placeholderExpansion.register();
             getLogger().info("PlaceholderAPI expansion registered!");
         }
     }
@@ -308,6 +404,8 @@ public class KingdomsPlugin extends JavaPlugin {
     public ChallengeManager getChallengeManager() { return challengeManager; }
     public TrustManager getTrustManager() { return trustManager; }
     public WarManager getWarManager() { return warManager; }
+    public com.excrele.kingdoms.manager.ProtectionManager getProtectionManager() { return protectionManager; }
+    public com.excrele.kingdoms.util.MaterialCategories getMaterialCategories() { return materialCategories; }
     public BankManager getBankManager() { return bankManager; }
     public ClaimEconomyManager getClaimEconomyManager() { return claimEconomyManager; }
     public VaultManager getVaultManager() { return vaultManager; }
@@ -321,6 +419,10 @@ public class KingdomsPlugin extends JavaPlugin {
     public AdvancedFeaturesManager getAdvancedFeaturesManager() { return advancedFeaturesManager; }
     public com.excrele.kingdoms.manager.AchievementManager getAchievementManager() { return achievementManager; }
     public com.excrele.kingdoms.manager.EnhancedLeaderboardManager getEnhancedLeaderboardManager() { return enhancedLeaderboardManager; }
+    public com.excrele.kingdoms.expansion.KingdomsExpansion getPlaceholderExpansion() { return placeholderExpansion; }
+    public com.excrele.kingdoms.manager.KingdomReadModel getReadModel() { return readModel; }
+    public com.excrele.kingdoms.task.KingdomScheduler getKingdomScheduler() { return kingdomScheduler; }
+    public com.excrele.kingdoms.task.SlicedExecutor getSlicedExecutor() { return slicedExecutor; }
     public com.excrele.kingdoms.manager.MailManager getMailManager() { return mailManager; }
     public com.excrele.kingdoms.manager.SiegeManager getSiegeManager() { return siegeManager; }
     public com.excrele.kingdoms.manager.RaidManager getRaidManager() { return raidManager; }
@@ -341,13 +443,18 @@ public class KingdomsPlugin extends JavaPlugin {
     public com.excrele.kingdoms.manager.ReputationManager getReputationManager() { return reputationManager; }
     public com.excrele.kingdoms.manager.NotificationManager getNotificationManager() { return notificationManager; }
     public com.excrele.kingdoms.util.DataCache getDataCache() { return dataCache; }
-    public com.excrele.kingdoms.util.ChunkLoadingOptimizer getChunkOptimizer() { return chunkOptimizer; }
     public DynmapIntegration getDynmapIntegration() { return dynmapIntegration; }
     public UnminedIntegration getUnminedIntegration() { return unminedIntegration; }
     public WorldGuardIntegration getWorldGuardIntegration() { return worldGuardIntegration; }
     public GriefPreventionIntegration getGriefPreventionIntegration() { return griefPreventionIntegration; }
     public DiscordSRVIntegration getDiscordSRVIntegration() { return discordSRVIntegration; }
     public StorageManager getStorageManager() { return storageManager; }
+    public SaveQueue getSaveQueue() { return saveQueue; }
+    
+    /**
+     * Startup bulk loads, or null once every manager has been built
+     */
+    public com.excrele.kingdoms.storage.StartupLoader getStartupLoader() { return startupLoader; }
     
     /**
      * Get the Kingdoms API instance.
@@ -4,8 +4,10 @@ import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.api.hook.HookManager;
 import com.excrele.kingdoms.manager.*;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.util.ClaimGrid;
 import org.bukkit.Chunk;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
 
 import java.util.List;
 
@@ -124,6 +126,38 @@ public class KingdomsAPI {
         return plugin.getKingdomManager().getKingdomByChunk(chunk);
     }
     
+    /**
+     * Get a kingdom by chunk coordinates without loading the chunk.
+     * 
+     * @param world The world
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return The kingdom that owns the chunk, or null if unclaimed
+     */
+    public Kingdom getKingdomAt(World world, int chunkX, int chunkZ) {
+        if (plugin == null || plugin.getKingdomManager() == null) {
+            return null;
+        }
+        return plugin.getKingdomManager().getKingdomAt(world, chunkX, chunkZ);
+    }
+    
+    /**
+     * Get ownership of a rectangle of chunks without loading any of them.
+     * 
+     * @param world The world
+     * @param minChunkX The minimum chunk X coordinate (inclusive)
+     * @param minChunkZ The minimum chunk Z coordinate (inclusive)
+     * @param maxChunkX The maximum chunk X coordinate (inclusive)
+     * @param maxChunkZ The maximum chunk Z coordinate (inclusive)
+     * @return A compact ownership grid, or null if the plugin is not initialized
+     */
+    public ClaimGrid getClaimGrid(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        if (plugin == null || plugin.getKingdomManager() == null) {
+            return null;
+        }
+        return plugin.getKingdomManager().getClaimGrid(world, minChunkX, minChunkZ, maxChunkX, maxChunkZ);
+    }
+    
     /**
      * Get all kingdoms.
      * 
@@ -146,8 +180,22 @@ public class KingdomsAPI {
         if (plugin == null || plugin.getClaimManager() == null) {
             return false;
         }
-        String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        return plugin.getKingdomManager().getClaimedChunks().containsKey(key);
+        return plugin.getKingdomManager().isChunkClaimed(chunk);
+    }
+    
+    /**
+     * Check if a chunk is claimed by coordinates without loading it.
+     * 
+     * @param world The world
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return True if the chunk is claimed
+     */
+    public boolean isChunkClaimed(World world, int chunkX, int chunkZ) {
+        if (plugin == null || plugin.getKingdomManager() == null) {
+            return false;
+        }
+        return plugin.getKingdomManager().isChunkClaimed(world, chunkX, chunkZ);
     }
     
     /**
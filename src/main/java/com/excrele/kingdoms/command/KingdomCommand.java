@@ -225,7 +225,7 @@ public class KingdomCommand implements CommandExecutor {
                         com.excrele.kingdoms.api.event.KingdomMemberLeaveEvent.LeaveReason.VOLUNTARY);
                 plugin.getServer().getPluginManager().callEvent(leaveEvent);
                 
-                leaveKingdom.getMembers().remove(sender.getName());
+                leaveKingdom.removeMember(sender.getName());
                 kingdomManager.removePlayerKingdom(sender.getName());
                 sender.sendMessage("You have left " + playerKingdom);
                 kingdomManager.saveKingdoms(plugin.getKingdomsConfig(), plugin.getKingdomsFile());
@@ -279,7 +279,7 @@ public class KingdomCommand implements CommandExecutor {
                         claimPlayer.sendMessage("§cClaim manager not initialized!");
                         return true;
                     }
-                    java.util.List<Chunk> chunksToClaim = claimManager.claimChunksInRadius(claimKingdom, claimChunk, radius);
+                    java.util.List<int[]> chunksToClaim = claimManager.claimChunksInRadius(claimKingdom, claimChunk, radius);
                     
                     if (chunksToClaim.isEmpty()) {
                         claimPlayer.sendMessage("§cNo chunks could be claimed in that radius!");
@@ -295,9 +295,9 @@ public class KingdomCommand implements CommandExecutor {
                                 com.excrele.kingdoms.util.EconomyManager.format(totalCost) + 
                                 " §7(" + chunksToClaim.size() + " chunks × " + 
                                 com.excrele.kingdoms.util.EconomyManager.format(claimCost) + ")");
-                            // Unclaim the chunks we just claimed
-                            for (Chunk chunk : chunksToClaim) {
-                                claimManager.unclaimChunk(claimKingdom, chunk);
+                            // Unclaim the chunks we just claimed (they surround the player, so are loaded)
+                            for (int[] tile : chunksToClaim) {
+                                claimManager.unclaimChunk(claimKingdom, claimChunk.getWorld().getChunkAt(tile[0], tile[1]));
                             }
                             return true;
                         }
@@ -307,11 +307,11 @@ public class KingdomCommand implements CommandExecutor {
                     }
                     
                     // Visual effects for each chunk
-                    for (Chunk chunk : chunksToClaim) {
-                        org.bukkit.Location claimPlayerLoc = claimPlayer.getLocation();
-                        if (claimPlayerLoc == null) continue;
-                        org.bukkit.block.Block block = chunk.getBlock(8, claimPlayerLoc.getBlockY(), 8);
-                        org.bukkit.Location chunkCenter = block.getLocation();
+                    org.bukkit.Location claimPlayerLoc = claimPlayer.getLocation();
+                    for (int[] tile : chunksToClaim) {
+                        if (claimPlayerLoc == null) break;
+                        org.bukkit.Location chunkCenter = new org.bukkit.Location(claimChunk.getWorld(),
+                            (tile[0] << 4) + 8, claimPlayerLoc.getBlockY(), (tile[1] << 4) + 8);
                         com.excrele.kingdoms.util.VisualEffects.playClaimEffects(claimPlayer, chunkCenter);
                     }
                     
@@ -768,7 +768,7 @@ public class KingdomCommand implements CommandExecutor {
                     return true;
                 }
                 String targetPlayer = args[1];
-                if (!promoteKingdom.getMembers().contains(targetPlayer) && !promoteKingdom.getKing().equals(targetPlayer)) {
+                if (!promoteKingdom.hasMember(targetPlayer) && !promoteKingdom.getKing().equals(targetPlayer)) {
                     promotePlayer.sendMessage("Player is not in your kingdom!");
                     return true;
                 }
@@ -811,11 +811,11 @@ public class KingdomCommand implements CommandExecutor {
                     kickPlayer.sendMessage("Cannot kick the king!");
                     return true;
                 }
-                if (!kickKingdom.getMembers().contains(kickTarget)) {
+                if (!kickKingdom.hasMember(kickTarget)) {
                     kickPlayer.sendMessage("Player is not in your kingdom!");
                     return true;
                 }
-                kickKingdom.getMembers().remove(kickTarget);
+                kickKingdom.removeMember(kickTarget);
                 kickKingdom.getMemberRoles().remove(kickTarget);
                 kickKingdom.getMemberContributions().remove(kickTarget);
                 kingdomManager.removePlayerKingdom(kickTarget);
@@ -868,7 +868,7 @@ public class KingdomCommand implements CommandExecutor {
                             return true;
                         }
                         String titleTarget = args[2];
-                        if (!memberKingdom.getMembers().contains(titleTarget) && !memberKingdom.getKing().equals(titleTarget)) {
+                        if (!memberKingdom.hasMember(titleTarget) && !memberKingdom.getKing().equals(titleTarget)) {
                             memberPlayer.sendMessage("§cPlayer is not in your kingdom!");
                             return true;
                         }
@@ -907,7 +907,7 @@ public class KingdomCommand implements CommandExecutor {
                             return true;
                         }
                         String permTarget = args[2];
-                        if (!memberKingdom.getMembers().contains(permTarget) && !memberKingdom.getKing().equals(permTarget)) {
+                        if (!memberKingdom.hasMember(permTarget) && !memberKingdom.getKing().equals(permTarget)) {
                             memberPlayer.sendMessage("§cPlayer is not in your kingdom!");
                             return true;
                         }
@@ -950,7 +950,7 @@ public class KingdomCommand implements CommandExecutor {
                             return true;
                         }
                         String noteTarget = args[2];
-                        if (!memberKingdom.getMembers().contains(noteTarget) && !memberKingdom.getKing().equals(noteTarget)) {
+                        if (!memberKingdom.hasMember(noteTarget) && !memberKingdom.getKing().equals(noteTarget)) {
                             memberPlayer.sendMessage("§cPlayer is not in your kingdom!");
                             return true;
                         }
@@ -1241,6 +1241,7 @@ public class KingdomCommand implements CommandExecutor {
                         if (requestingK != null) {
                             requestingK.addAlliance(allianceAccepterKingdom);
                             pendingAllianceRequests.remove(allianceAccepterKingdom);
+                            plugin.getProtectionManager().invalidateRelations(allianceAccepterKingdom, requestingKingdom);
                             
                             // Visual effects
                             com.excrele.kingdoms.util.VisualEffects.playAllianceEffects(allianceAccepter);
@@ -1344,6 +1345,7 @@ public class KingdomCommand implements CommandExecutor {
                         if (removeK != null) {
                             removeK.removeAlliance(allianceRemoverKingdom);
                         }
+                        plugin.getProtectionManager().invalidateRelations(allianceRemoverKingdom, removeKingdom);
                         allianceRemover.sendMessage("§cAlliance with " + removeKingdom + " dissolved.");
                         kingdomManager.saveKingdoms(plugin.getKingdomsConfig(), plugin.getKingdomsFile());
                         return true;
@@ -1736,7 +1738,7 @@ public class KingdomCommand implements CommandExecutor {
             }
             case "admin" -> {
                 if (args.length < 2) {
-                    sender.sendMessage("Usage: /" + label + " admin <list|dissolve|forceunclaim|setflag>");
+                    sender.sendMessage("Usage: /" + label + " admin <list|dissolve|forceunclaim|setflag|storage|regions|placeholders>");
                     return true;
                 }
                 if (!sender.hasPermission("kingdoms.admin")) {
@@ -1805,6 +1807,177 @@ public class KingdomCommand implements CommandExecutor {
                         sender.sendMessage("Kingdom-wide flags are deprecated. Use per-chunk flags instead.");
                         return true;
                     }
+                    case "storage" -> {
+                        com.excrele.kingdoms.storage.WriteBehindBuffer writeBehind = plugin.getStorageManager().getWriteBehind();
+                        sender.sendMessage("§6=== Storage (" + plugin.getStorageManager().getStorageType() + ") ===");
+                        sender.sendMessage("§7Write-behind pending: §e" + writeBehind.getPendingCount());
+                        sender.sendMessage("§7Writes requested: §e" + writeBehind.getMarkedCount()
+                            + " §7merged: §e" + writeBehind.getMergedCount()
+                            + " §7written: §e" + writeBehind.getFlushedCount()
+                            + " §7in §e" + writeBehind.getFlushCount() + " §7flushes");
+                        com.excrele.kingdoms.storage.StorageExecutor executor = plugin.getStorageManager().getAdapter().getExecutor();
+                        if (executor != null) {
+                            sender.sendMessage("§7Async queue: §e" + executor.getPendingCount()
+                                + " §7completed: §e" + executor.getCompletedCount()
+                                + " §7failed: §e" + executor.getFailedCount()
+                                + " §7stalls: §e" + executor.getStallCount());
+                        }
+                        com.excrele.kingdoms.util.SaveQueue saveQueue = plugin.getSaveQueue();
+                        sender.sendMessage("§7File saves waiting: §e" + saveQueue.size() + " §7deferred, §e"
+                            + saveQueue.getBacklog() + "§7/§e" + saveQueue.getCapacity() + " §7for the writer");
+                        sender.sendMessage("§7File writes: §e" + saveQueue.getWrittenCount()
+                            + " §7collapsed: §e" + (saveQueue.getCollapsedCount() + saveQueue.getMergedCount())
+                            + " §7failed: §e" + saveQueue.getFailedCount()
+                            + " §7throttled: §e" + saveQueue.getDeferredCount()
+                            + " §7over capacity: §e" + saveQueue.getOverflowCount());
+                        sender.sendMessage("§7Write time: §e" + String.format("%.1f", saveQueue.getAverageWriteMillis())
+                            + "ms §7avg, §e" + String.format("%.1f", saveQueue.getMaxWriteMillis())
+                            + "ms §7max, latency §e" + String.format("%.1f", saveQueue.getAverageLatencyMillis()) + "ms");
+                        com.excrele.kingdoms.manager.ActivityManager activityManager = plugin.getActivityManager();
+                        sender.sendMessage("§7Activity cached: §e" + activityManager.getOnlineCount() + " §7online, §e"
+                            + activityManager.getCachedCount() + " §7recent, §e" + activityManager.getPendingCount() + " §7unsaved");
+                        sender.sendMessage("§7Activity loads: §e" + activityManager.getLoadCount()
+                            + " §7records written: §e" + activityManager.getFlushedCount()
+                            + " §7in §e" + activityManager.getFlushCount() + " §7batches");
+                        com.excrele.kingdoms.storage.BankLedger ledger = plugin.getBankManager().getLedger();
+                        sender.sendMessage("§7Bank ledger: §e" + ledger.getAccountCount() + " §7accounts, §e"
+                            + ledger.getTransactionCount() + " §7transactions, §e" + ledger.getPendingCount()
+                            + " §7unjournaled, §e" + ledger.getFlushCount() + " §7journal flushes");
+                        sender.sendMessage("§7Player ids: §e" + com.excrele.kingdoms.util.PlayerIds.size()
+                            + " §7assigned, §e" + com.excrele.kingdoms.util.PlayerIds.boundCount() + " §7with a UUID");
+                        com.excrele.kingdoms.manager.EnhancedLeaderboardManager leaderboardManager = plugin.getEnhancedLeaderboardManager();
+                        if (leaderboardManager != null) {
+                            sender.sendMessage("§7Season scores: §e" + leaderboardManager.getPendingSeasonScores()
+                                + " §7unsaved, §e" + leaderboardManager.getSeasonFlushCount() + " §7flushes");
+                        }
+                        return true;
+                    }
+                    case "placeholders" -> {
+                        com.excrele.kingdoms.expansion.KingdomsExpansion expansion = plugin.getPlaceholderExpansion();
+                        if (expansion == null) {
+                            sender.sendMessage("§cPlaceholderAPI is not installed.");
+                            return true;
+                        }
+                        com.excrele.kingdoms.expansion.PlaceholderCache placeholderCache = expansion.getCache();
+                        sender.sendMessage("§6=== Placeholders ===");
+                        sender.sendMessage("§7Snapshots: §e" + placeholderCache.getKingdomCount() + " §7kingdoms, §e"
+                            + placeholderCache.getPlayerCount() + " §7players, rebuilt §e" + placeholderCache.getKingdomBuildCount()
+                            + "§7/§e" + placeholderCache.getPlayerBuildCount() + " §7times");
+                        // Busiest placeholders first
+                        expansion.getMetrics().entrySet().stream()
+                            .filter(entry -> entry.getValue().getHits() > 0)
+                            .sorted((a, b) -> Long.compare(b.getValue().getTotalNanos(), a.getValue().getTotalNanos()))
+                            .limit(10)
+                            .forEach(entry -> sender.sendMessage("§e" + entry.getKey() + "§7: §e" + entry.getValue().getHits()
+                                + " §7calls, §e" + String.format("%.1f", entry.getValue().getAverageMicros()) + "µs §7avg"));
+                        return true;
+                    }
+                    case "perf" -> {
+                        com.excrele.kingdoms.task.SlicedExecutor executor = plugin.getSlicedExecutor();
+                        if (executor == null) {
+                            sender.sendMessage("§cThe sliced executor is not running.");
+                            return true;
+                        }
+                        sender.sendMessage("§6=== Sliced Jobs === §7(budget §e" + executor.getBudgetMicros() + "µs§7/tick, §e"
+                            + executor.getActiveCount() + " §7running, §e" + executor.getBusyTicks() + " §7busy ticks, §e"
+                            + executor.getOverBudgetTicks() + " §7over budget)");
+                        com.excrele.kingdoms.manager.ClaimEconomyManager claimEconomy = plugin.getClaimEconomyManager();
+                        sender.sendMessage("§7Claim valuations: §e" + claimEconomy.getValuationHits() + " §7cached, §e"
+                            + claimEconomy.getValuationMisses() + " §7computed, §e" + claimEconomy.getBiomeSummarySize() + " §7chunk biomes recorded");
+                        for (com.excrele.kingdoms.task.SlicedExecutor.Job job : executor.getJobs()) {
+                            String state = job.isFinished() ? "§adone" : "§erunning§7, §e" + job.getBacklog() + " §7left";
+                            sender.sendMessage("§e" + job.getName() + "§7: " + state + "§7, §e" + job.getProcessed() + " §7steps over §e"
+                                + job.getTicks() + " §7ticks, §e" + String.format("%.0f", job.getAverageTickMicros()) + "µs §7avg / §e"
+                                + job.getMaxTickNanos() / 1000 + "µs §7max per tick");
+                        }
+                        return true;
+                    }
+                    case "jobs" -> {
+                        com.excrele.kingdoms.task.KingdomScheduler scheduler = plugin.getKingdomScheduler();
+                        if (scheduler == null) {
+                            sender.sendMessage("§cThe job scheduler is not running.");
+                            return true;
+                        }
+                        long now = System.currentTimeMillis();
+                        sender.sendMessage("§6=== Scheduled Jobs === §7(" + scheduler.getCheckCount() + " checks)");
+                        for (com.excrele.kingdoms.task.KingdomScheduler.Job job : scheduler.getJobs()) {
+                            sender.sendMessage("§e" + job.getName() + "§7: next in §e" + Math.max(0L, (job.getDueAt() - now) / 1000)
+                                + "s§7, §e" + job.getRuns() + " §7runs, §e" + String.format("%.2f", job.getAverageMillis())
+                                + "ms §7avg, late §e" + String.format("%.0f", job.getAverageLateness()) + "ms §7avg / §e"
+                                + job.getMaxLateness() + "ms §7max");
+                        }
+                        return true;
+                    }
+                    case "regions" -> {
+                        com.excrele.kingdoms.storage.ClaimRegionStore regionStore = kingdomManager.getRegionStore();
+                        String regionsSub = args.length >= 3 ? args[2].toLowerCase() : "info";
+                        if (regionsSub.equals("import")) {
+                            if (args.length < 4) {
+                                sender.sendMessage("Usage: /" + label + " admin regions import <yaml|sqlite|mysql>");
+                                return true;
+                            }
+                            com.excrele.kingdoms.storage.StorageType importType;
+                            try {
+                                importType = com.excrele.kingdoms.storage.StorageType.valueOf(args[3].toUpperCase());
+                            } catch (IllegalArgumentException e) {
+                                sender.sendMessage("Unknown storage type: " + args[3]);
+                                return true;
+                            }
+                            sender.sendMessage("§7Reading claims from " + importType + " storage...");
+                            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                                java.util.Map<String, String> importedClaims;
+                                com.excrele.kingdoms.storage.StorageAdapter source = null;
+                                try {
+                                    source = plugin.getStorageManager().openAdapter(importType);
+                                    importedClaims = source.loadAllClaims();
+                                } catch (RuntimeException e) {
+                                    plugin.getServer().getScheduler().runTask(plugin, () ->
+                                        sender.sendMessage("§cCould not read " + importType + " storage: " + e.getMessage()));
+                                    return;
+                                } finally {
+                                    if (source != null) source.close();
+                                }
+                                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                                    int imported = kingdomManager.importClaims(importedClaims);
+                                    kingdomManager.saveKingdoms(plugin.getKingdomsConfig(), plugin.getKingdomsFile(), true);
+                                    sender.sendMessage("§aImported " + imported + " of " + importedClaims.size()
+                                        + " claims (already claimed chunks and unknown kingdoms are skipped)");
+                                });
+                            });
+                            return true;
+                        }
+                        if (regionStore == null) {
+                            sender.sendMessage("Claim region files are not in use. Set storage.type to REGION to enable them.");
+                            return true;
+                        }
+                        if (regionsSub.equals("benchmark")) {
+                            String claimsYaml = com.excrele.kingdoms.storage.ClaimRegionBenchmark.captureYaml(kingdomManager.getKingdoms().values());
+                            sender.sendMessage("§7Benchmarking claim loading...");
+                            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                                try {
+                                    com.excrele.kingdoms.storage.ClaimRegionBenchmark.Result result =
+                                        com.excrele.kingdoms.storage.ClaimRegionBenchmark.run(regionStore, claimsYaml);
+                                    plugin.getServer().getScheduler().runTask(plugin, () -> {
+                                        sender.sendMessage("§6=== Claim Load Benchmark ===");
+                                        sender.sendMessage("§7Region files: §e" + result.regionClaims() + " §7claims in §e"
+                                            + String.format("%.2f", result.regionMillis()) + "ms");
+                                        sender.sendMessage("§7YAML claim lists: §e" + result.yamlClaims() + " §7claims in §e"
+                                            + String.format("%.2f", result.yamlMillis()) + "ms");
+                                    });
+                                } catch (Exception e) {
+                                    plugin.getServer().getScheduler().runTask(plugin, () ->
+                                        sender.sendMessage("§cBenchmark failed: " + e.getMessage()));
+                                }
+                            });
+                            return true;
+                        }
+                        sender.sendMessage("§6=== Claim Regions ===");
+                        sender.sendMessage("§7Region files: §e" + regionStore.getRegionCount()
+                            + " §7kingdom ids: §e" + regionStore.getPaletteSize());
+                        sender.sendMessage("§7Loaded in: §e" + regionStore.getLastLoadMillis()
+                            + "ms §7slot writes: §e" + regionStore.getSlotWriteCount());
+                        return true;
+                    }
                 }
                 return true;
             }
@@ -1841,14 +2014,14 @@ public class KingdomCommand implements CommandExecutor {
                 }
                 
                 if (args.length >= 2 && args[1].equalsIgnoreCase("heatmap")) {
-                    java.util.Map<Chunk, Double> heatmap = plugin.getStatisticsManager().generateActivityHeatmap(statsKingdomName2);
+                    java.util.Map<com.excrele.kingdoms.model.ClaimAnalytics, Double> heatmap = plugin.getStatisticsManager().generateActivityHeatmap(statsKingdomName2);
                     statsPlayer2.sendMessage("§6=== Activity Heatmap ===");
                     statsPlayer2.sendMessage("§7Most Active Claims:");
                     heatmap.entrySet().stream()
                         .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
                         .limit(10)
                         .forEach(entry -> {
-                            statsPlayer2.sendMessage("§7Chunk (" + entry.getKey().getX() + ", " + entry.getKey().getZ() + "): §e" + String.format("%.2f", entry.getValue()));
+                            statsPlayer2.sendMessage("§7Chunk (" + entry.getKey().getChunkX() + ", " + entry.getKey().getChunkZ() + "): §e" + String.format("%.2f", entry.getValue()));
                         });
                     return true;
                 }
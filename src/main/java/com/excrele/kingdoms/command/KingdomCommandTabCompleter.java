@@ -301,7 +301,7 @@ public class KingdomCommandTabCompleter implements TabCompleter {
                     break;
                 }
                 if (args.length == 2) {
-                    String[] adminSubs = {"list", "dissolve", "forceunclaim", "setflag"};
+                    String[] adminSubs = {"list", "dissolve", "forceunclaim", "setflag", "storage", "regions", "placeholders", "jobs", "perf"};
                     for (String sub : adminSubs) {
                         if (sub.toLowerCase().startsWith(args[1].toLowerCase())) {
                             completions.add(sub);
@@ -312,8 +312,21 @@ public class KingdomCommandTabCompleter implements TabCompleter {
                         args[1].equalsIgnoreCase("setflag")) {
                         return getKingdomNames(args[2]);
                     }
+                    if (args[1].equalsIgnoreCase("regions")) {
+                        for (String sub : new String[] {"info", "benchmark", "import"}) {
+                            if (sub.startsWith(args[2].toLowerCase())) {
+                                completions.add(sub);
+                            }
+                        }
+                    }
                 } else if (args.length == 4) {
-                    if (args[1].equalsIgnoreCase("forceunclaim")) {
+                    if (args[1].equalsIgnoreCase("regions") && args[2].equalsIgnoreCase("import")) {
+                        for (String type : new String[] {"yaml", "sqlite", "mysql"}) {
+                            if (type.startsWith(args[3].toLowerCase())) {
+                                completions.add(type);
+                            }
+                        }
+                    } else if (args[1].equalsIgnoreCase("forceunclaim")) {
                         // World:x:z format - no completion
                         break;
                     } else if (args[1].equalsIgnoreCase("setflag")) {
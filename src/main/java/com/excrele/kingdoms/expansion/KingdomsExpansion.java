@@ -1,15 +1,84 @@
 package com.excrele.kingdoms.expansion;
 
 import com.excrele.kingdoms.KingdomsPlugin;
-import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.manager.KingdomReadModel.KingdomView;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
 public class KingdomsExpansion extends PlaceholderExpansion {
+    /**
+     * Computes one placeholder
+     */
+    @FunctionalInterface
+    private interface Resolver {
+        String resolve(Request request);
+    }
+
+    /**
+     * Calls and time spent resolving one placeholder
+     */
+    public static final class Metric {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public long getHits() { return hits.sum(); }
+        public long getTotalNanos() { return nanos.sum(); }
+        public double getAverageMicros() {
+            long count = hits.sum();
+            return count > 0 ? nanos.sum() / 1000.0 / count : 0.0;
+        }
+    }
+
+    private record Placeholder(Resolver resolver, Metric metric) {}
+
+    /**
+     * One placeholder request; snapshots are fetched on first use
+     */
+    private final class Request {
+        final Player player;
+        final String playerName;
+        final String kingdomName;
+        final KingdomView view; // Membership, roles, alliances and plain kingdom fields
+        private PlaceholderCache.KingdomSnapshot kingdomSnapshot;
+        private PlaceholderCache.PlayerSnapshot playerSnapshot;
+
+        Request(Player player, KingdomView view) {
+            this.player = player;
+            this.playerName = player.getName();
+            this.kingdomName = view.name();
+            this.view = view;
+        }
+
+        PlaceholderCache.KingdomSnapshot kingdomSnapshot() {
+            if (kingdomSnapshot == null) kingdomSnapshot = cache.kingdom(kingdomName, view.version());
+            return kingdomSnapshot;
+        }
+
+        PlaceholderCache.PlayerSnapshot playerSnapshot() {
+            if (playerSnapshot == null) playerSnapshot = cache.player(playerName, kingdomName);
+            return playerSnapshot;
+        }
+    }
+
     private final KingdomsPlugin plugin;
+    private final PlaceholderCache cache;
+    private final Map<String, Placeholder> placeholders; // identifier -> resolver, built once
+    private final Map<String, Metric> metrics;
 
     public KingdomsExpansion(KingdomsPlugin plugin) {
         this.plugin = plugin;
+        this.cache = new PlaceholderCache(plugin);
+        this.placeholders = new HashMap<>();
+        registerPlaceholders();
+        Map<String, Metric> byIdentifier = new TreeMap<>();
+        placeholders.forEach((identifier, placeholder) -> byIdentifier.put(identifier, placeholder.metric()));
+        this.metrics = Collections.unmodifiableMap(byIdentifier);
     }
 
     @Override
@@ -38,319 +107,162 @@ public class KingdomsExpansion extends PlaceholderExpansion {
             return "";
         }
 
-        String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(player.getName());
-        if (kingdomName == null) {
-            return switch (identifier.toLowerCase()) {
-                case "has_kingdom", "in_kingdom" -> "false";
-                default -> "";
-            };
+        // Often called off the server thread; everything comes from the published read model and snapshots
+        String id = identifier.toLowerCase();
+        KingdomView view = plugin.getReadModel().get().getKingdomOf(player.getName());
+        if (view == null) {
+            return id.equals("has_kingdom") || id.equals("in_kingdom") ? "false" : "";
         }
 
-        Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
-        if (kingdom == null) {
-            return "";
+        Placeholder placeholder = placeholders.get(id);
+        if (placeholder == null) {
+            return null;
         }
+        long start = System.nanoTime();
+        String value = placeholder.resolver().resolve(new Request(player, view));
+        placeholder.metric().nanos.add(System.nanoTime() - start);
+        placeholder.metric().hits.increment();
+        return value;
+    }
 
-        return switch (identifier.toLowerCase()) {
-            // Player kingdom info
-            case "kingdom" -> kingdomName;
-            case "kingdom_name" -> kingdomName;
-            case "has_kingdom", "in_kingdom" -> "true";
-            
-            // Player role
-            case "role" -> kingdom.getRole(player.getName()).getDisplayName();
-            case "role_name" -> kingdom.getRole(player.getName()).name();
-            
-            // Kingdom level and XP
-            case "level" -> String.valueOf(kingdom.getLevel());
-            case "xp" -> String.valueOf(kingdom.getXp());
-            case "xp_formatted" -> formatNumber(kingdom.getXp());
-            case "xp_required" -> {
-                int currentLevel = kingdom.getLevel();
-                int required = currentLevel * currentLevel * 1000;
-                yield String.valueOf(required);
-            }
-            case "xp_progress" -> {
-                int currentLevel = kingdom.getLevel();
-                int required = currentLevel * currentLevel * 1000;
-                int current = kingdom.getXp();
-                yield String.valueOf(Math.min(100, (current * 100) / required));
-            }
-            case "xp_progress_bar" -> {
-                int currentLevel = kingdom.getLevel();
-                int required = currentLevel * currentLevel * 1000;
-                int current = kingdom.getXp();
-                int progress = Math.min(100, (current * 100) / required);
-                yield generateProgressBar(progress, 20);
-            }
-            
-            // Kingdom members
-            case "members" -> String.valueOf(kingdom.getMembers().size() + 1); // +1 for king
-            case "members_count" -> String.valueOf(kingdom.getMembers().size() + 1);
-            case "king" -> kingdom.getKing();
-            case "is_king" -> kingdom.getKing().equals(player.getName()) ? "true" : "false";
-            
-            // Claims
-            case "claims" -> String.valueOf(kingdom.getCurrentClaimChunks());
-            case "claims_current" -> String.valueOf(kingdom.getCurrentClaimChunks());
-            case "claims_max" -> String.valueOf(kingdom.getMaxClaimChunks());
-            case "claims_remaining" -> String.valueOf(kingdom.getMaxClaimChunks() - kingdom.getCurrentClaimChunks());
-            
-            // Contributions
-            case "contribution" -> String.valueOf(kingdom.getContribution(player.getName()));
-            case "contribution_formatted" -> formatNumber(kingdom.getContribution(player.getName()));
-            case "total_contributions" -> {
-                int total = kingdom.getMemberContributions().values().stream().mapToInt(Integer::intValue).sum();
-                yield String.valueOf(total);
-            }
-            case "total_contributions_formatted" -> {
-                int total = kingdom.getMemberContributions().values().stream().mapToInt(Integer::intValue).sum();
-                yield formatNumber(total);
-            }
-            
-            // Challenges
-            case "challenges_completed" -> String.valueOf(kingdom.getTotalChallengesCompleted());
-            case "challenges_completed_formatted" -> formatNumber(kingdom.getTotalChallengesCompleted());
-            
-            // Alliances
-            case "alliances" -> String.valueOf(kingdom.getAlliances().size());
-            case "alliances_count" -> String.valueOf(kingdom.getAlliances().size());
-            case "alliances_list" -> String.join(", ", kingdom.getAlliances());
-            case "has_alliances" -> kingdom.getAlliances().isEmpty() ? "false" : "true";
-            
-            // Kingdom age
-            case "age_days" -> {
-                long days = (System.currentTimeMillis() / 1000 - kingdom.getCreatedAt()) / 86400;
-                yield String.valueOf(days);
-            }
-            case "age_formatted" -> {
-                long days = (System.currentTimeMillis() / 1000 - kingdom.getCreatedAt()) / 86400;
-                yield formatDays(days);
-            }
-            
-            // Leaderboard positions (requires calculation)
-            case "rank_level" -> String.valueOf(getRank(kingdom, "level"));
-            case "rank_xp" -> String.valueOf(getRank(kingdom, "xp"));
-            case "rank_members" -> String.valueOf(getRank(kingdom, "members"));
-            case "rank_challenges" -> String.valueOf(getRank(kingdom, "challenges"));
-            
-            // Bank
-            case "bank_balance" -> {
-                double balance = plugin.getBankManager().getBalance(kingdomName);
-                yield String.format("%.2f", balance);
-            }
-            case "bank_balance_formatted" -> {
-                double balance = plugin.getBankManager().getBalance(kingdomName);
-                yield plugin.getServer().getPluginManager().getPlugin("Vault") != null ?
-                    com.excrele.kingdoms.util.EconomyManager.format(balance) : String.format("%.2f", balance);
-            }
-            
-            // Activity
-            case "activity_last_login" -> {
-                com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getActivity(player.getName());
-                if (activity != null) {
-                    long days = activity.getDaysSinceLastLogin();
-                    yield days == 0 ? "Today" : days + " days ago";
-                }
-                yield "Never";
-            }
-            case "activity_playtime" -> {
-                com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getActivity(player.getName());
-                if (activity != null) {
-                    long hours = activity.getTotalPlaytime() / 3600;
-                    yield String.valueOf(hours);
-                }
-                yield "0";
-            }
-            case "activity_playtime_formatted" -> {
-                com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getActivity(player.getName());
-                if (activity != null) {
-                    long total = activity.getTotalPlaytime();
-                    long hours = total / 3600;
-                    long minutes = (total % 3600) / 60;
-                    yield hours + "h " + minutes + "m";
-                }
-                yield "0h 0m";
-            }
-            
-            // Member Title
-            case "member_title" -> {
-                com.excrele.kingdoms.manager.AdvancedMemberManager manager = plugin.getAdvancedMemberManager();
-                if (manager != null) {
-                    com.excrele.kingdoms.model.MemberTitle title = manager.getMemberTitle(kingdomName, player.getName());
-                    yield title != null ? title.getFormattedTitle() : "";
-                }
-                yield "";
-            }
-            case "member_title_raw" -> {
-                com.excrele.kingdoms.manager.AdvancedMemberManager manager = plugin.getAdvancedMemberManager();
-                if (manager != null) {
-                    com.excrele.kingdoms.model.MemberTitle title = manager.getMemberTitle(kingdomName, player.getName());
-                    yield title != null ? title.getTitle() : "";
-                }
-                yield "";
-            }
-            
-            // Kingdom Health Score
-            case "health_score" -> {
-                if (plugin.getStatisticsManager() != null) {
-                    double score = plugin.getStatisticsManager().calculateKingdomHealthScore(kingdomName);
-                    yield String.format("%.1f", score);
-                }
-                yield "0.0";
-            }
-            case "health_score_int" -> {
-                if (plugin.getStatisticsManager() != null) {
-                    double score = plugin.getStatisticsManager().calculateKingdomHealthScore(kingdomName);
-                    yield String.valueOf((int) score);
-                }
-                yield "0";
-            }
-            
-            // Vault
-            case "vault_items" -> {
-                if (plugin.getVaultManager() != null) {
-                    org.bukkit.inventory.Inventory vault = plugin.getVaultManager().getVault(kingdom);
-                    if (vault != null) {
-                        int count = 0;
-                        for (org.bukkit.inventory.ItemStack item : vault.getContents()) {
-                            if (item != null && !item.getType().isAir()) count++;
-                        }
-                        yield String.valueOf(count);
-                    }
-                }
-                yield "0";
-            }
-            
-            // Customization
-            case "motto" -> {
-                if (plugin.getCustomizationManager() != null) {
-                    com.excrele.kingdoms.model.KingdomCustomization custom = plugin.getCustomizationManager().getCustomization(kingdomName);
-                    yield custom != null && custom.getMotto() != null ? custom.getMotto() : "";
-                }
-                yield "";
-            }
-            case "color" -> {
-                if (plugin.getCustomizationManager() != null) {
-                    com.excrele.kingdoms.model.KingdomCustomization custom = plugin.getCustomizationManager().getCustomization(kingdomName);
-                    yield custom != null && custom.getColorCode() != null ? custom.getColorCode() : "§7";
-                }
-                yield "§7";
-            }
-            
-            // Wars
-            case "wars_active" -> {
-                if (plugin.getWarManager() != null) {
-                    java.util.List<com.excrele.kingdoms.model.War> wars = plugin.getWarManager().getActiveWars(kingdomName);
-                    yield String.valueOf(wars != null ? wars.size() : 0);
-                }
-                yield "0";
-            }
-            case "at_war" -> {
-                if (plugin.getWarManager() != null) {
-                    java.util.List<com.excrele.kingdoms.model.War> wars = plugin.getWarManager().getActiveWars(kingdomName);
-                    yield (wars != null && !wars.isEmpty()) ? "true" : "false";
-                }
-                yield "false";
-            }
-            
-            // Trusts
-            case "trusts_count" -> {
-                if (plugin.getTrustManager() != null) {
-                    java.util.Map<String, java.util.Set<com.excrele.kingdoms.model.TrustPermission>> trusts = plugin.getTrustManager().getAllTrusts(kingdomName);
-                    yield String.valueOf(trusts != null ? trusts.size() : 0);
-                }
-                yield "0";
-            }
-            
-            // Advanced Features
-            case "waypoints_count" -> {
-                if (plugin.getAdvancedFeaturesManager() != null) {
-                    java.util.Map<String, com.excrele.kingdoms.model.Waypoint> waypoints = plugin.getAdvancedFeaturesManager().getWaypoints(kingdomName);
-                    yield String.valueOf(waypoints != null ? waypoints.size() : 0);
-                }
-                yield "0";
-            }
-            case "farms_count" -> {
-                if (plugin.getAdvancedFeaturesManager() != null) {
-                    java.util.Map<String, com.excrele.kingdoms.model.KingdomFarm> farms = plugin.getAdvancedFeaturesManager().getFarms(kingdomName);
-                    yield String.valueOf(farms != null ? farms.size() : 0);
-                }
-                yield "0";
-            }
-            case "workshops_count" -> {
-                if (plugin.getAdvancedFeaturesManager() != null) {
-                    // Would need to add getWorkshops method
-                    yield "0";
-                }
-                yield "0";
-            }
-            case "auto_claim_enabled" -> {
-                if (plugin.getAdvancedFeaturesManager() != null) {
-                    yield plugin.getAdvancedFeaturesManager().isAutoClaimEnabled(player) ? "true" : "false";
-                }
-                yield "false";
-            }
-            
-            // Statistics
-            case "growth_rate" -> {
-                if (plugin.getStatisticsManager() != null) {
-                    java.util.List<com.excrele.kingdoms.manager.StatisticsManager.GrowthData> growth = plugin.getStatisticsManager().getGrowthData(kingdomName);
-                    if (growth != null && growth.size() >= 2) {
-                        com.excrele.kingdoms.manager.StatisticsManager.GrowthData latest = growth.get(growth.size() - 1);
-                        com.excrele.kingdoms.manager.StatisticsManager.GrowthData previous = growth.get(growth.size() - 2);
-                        int levelGrowth = latest.level - previous.level;
-                        yield String.valueOf(levelGrowth);
-                    }
-                }
-                yield "0";
-            }
-            
-            // Communication
-            case "announcements_count" -> {
-                if (plugin.getCommunicationManager() != null) {
-                    java.util.List<com.excrele.kingdoms.model.KingdomAnnouncement> anns = plugin.getCommunicationManager().getAnnouncements(kingdomName);
-                    yield String.valueOf(anns != null ? anns.size() : 0);
-                }
-                yield "0";
-            }
-            case "events_upcoming" -> {
-                if (plugin.getCommunicationManager() != null) {
-                    java.util.List<com.excrele.kingdoms.model.KingdomEvent> events = plugin.getCommunicationManager().getEvents(kingdomName);
-                    if (events != null) {
-                        long now = System.currentTimeMillis() / 1000;
-                        long count = events.stream().filter(e -> e.getScheduledTime() > now).count();
-                        yield String.valueOf(count);
-                    }
-                }
-                yield "0";
-            }
-            
-            // Claim Economy
-            case "claims_for_sale" -> {
-                if (plugin.getClaimEconomyManager() != null) {
-                    // Would need method to get count
-                    yield "0";
-                }
-                yield "0";
-            }
-            
-            // World-specific
-            case "claims_in_world" -> {
-                String worldName = player.getWorld().getName();
-                int count = 0;
-                for (java.util.List<org.bukkit.Chunk> claimGroup : kingdom.getClaims()) {
-                    for (org.bukkit.Chunk chunk : claimGroup) {
-                        if (chunk.getWorld().getName().equals(worldName)) {
-                            count++;
-                        }
-                    }
-                }
-                yield String.valueOf(count);
-            }
-            
-            default -> null;
-        };
+    /**
+     * Per-placeholder call metrics, by identifier
+     */
+    public Map<String, Metric> getMetrics() {
+        return metrics;
+    }
+
+    public PlaceholderCache getCache() {
+        return cache;
+    }
+
+    private void register(Resolver resolver, String... identifiers) {
+        for (String identifier : identifiers) {
+            placeholders.put(identifier, new Placeholder(resolver, new Metric()));
+        }
+    }
+
+    private void registerPlaceholders() {
+        // Player kingdom info
+        register(r -> r.kingdomName, "kingdom", "kingdom_name");
+        register(r -> "true", "has_kingdom", "in_kingdom");
+
+        // Player role
+        register(r -> r.view.getRole(r.playerName).getDisplayName(), "role");
+        register(r -> r.view.getRole(r.playerName).name(), "role_name");
+
+        // Kingdom level and XP
+        register(r -> String.valueOf(r.view.level()), "level");
+        register(r -> String.valueOf(r.view.xp()), "xp");
+        register(r -> formatNumber(r.view.xp()), "xp_formatted");
+        register(r -> String.valueOf(r.view.level() * r.view.level() * 1000), "xp_required");
+        register(r -> String.valueOf(xpProgress(r.view)), "xp_progress");
+        register(r -> generateProgressBar(xpProgress(r.view), 20), "xp_progress_bar");
+
+        // Kingdom members
+        register(r -> String.valueOf(r.view.members().size() + 1), "members", "members_count"); // +1 for king
+        register(r -> r.view.king(), "king");
+        register(r -> r.view.king().equals(r.playerName) ? "true" : "false", "is_king");
+
+        // Claims
+        register(r -> String.valueOf(r.view.claims()), "claims", "claims_current");
+        register(r -> String.valueOf(r.view.maxClaims()), "claims_max");
+        register(r -> String.valueOf(r.view.maxClaims() - r.view.claims()), "claims_remaining");
+
+        // Contributions
+        register(r -> String.valueOf(r.view.getContribution(r.playerName)), "contribution");
+        register(r -> formatNumber(r.view.getContribution(r.playerName)), "contribution_formatted");
+        register(r -> String.valueOf(r.kingdomSnapshot().totalContributions()), "total_contributions");
+        register(r -> formatNumber(r.kingdomSnapshot().totalContributions()), "total_contributions_formatted");
+
+        // Challenges
+        register(r -> String.valueOf(r.view.challenges()), "challenges_completed");
+        register(r -> formatNumber(r.view.challenges()), "challenges_completed_formatted");
+
+        // Alliances
+        register(r -> String.valueOf(r.view.alliances().size()), "alliances", "alliances_count");
+        register(r -> String.join(", ", r.view.alliances()), "alliances_list");
+        register(r -> r.view.alliances().isEmpty() ? "false" : "true", "has_alliances");
+
+        // Kingdom age
+        register(r -> String.valueOf(ageDays(r.view)), "age_days");
+        register(r -> formatDays(ageDays(r.view)), "age_formatted");
+
+        // Leaderboard positions
+        register(r -> String.valueOf(getRank(r.kingdomName, "level")), "rank_level");
+        register(r -> String.valueOf(getRank(r.kingdomName, "xp")), "rank_xp");
+        register(r -> String.valueOf(getRank(r.kingdomName, "members")), "rank_members");
+        register(r -> String.valueOf(getRank(r.kingdomName, "challenges")), "rank_challenges");
+
+        // Bank
+        register(r -> String.format("%.2f", plugin.getBankManager().getBalance(r.kingdomName)), "bank_balance");
+        register(r -> {
+            double balance = plugin.getBankManager().getBalance(r.kingdomName);
+            return plugin.getServer().getPluginManager().getPlugin("Vault") != null ?
+                com.excrele.kingdoms.util.EconomyManager.format(balance) : String.format("%.2f", balance);
+        }, "bank_balance_formatted");
+
+        // Activity
+        register(r -> {
+            long days = r.playerSnapshot().daysSinceLogin();
+            if (days < 0) return "Never";
+            return days == 0 ? "Today" : days + " days ago";
+        }, "activity_last_login");
+        register(r -> String.valueOf(Math.max(0, r.playerSnapshot().playtime()) / 3600), "activity_playtime");
+        register(r -> {
+            long total = Math.max(0, r.playerSnapshot().playtime());
+            return total / 3600 + "h " + (total % 3600) / 60 + "m";
+        }, "activity_playtime_formatted");
+
+        // Member Title
+        register(r -> r.playerSnapshot().title(), "member_title");
+        register(r -> r.playerSnapshot().titleRaw(), "member_title_raw");
+
+        // Kingdom Health Score
+        register(r -> String.format("%.1f", r.kingdomSnapshot().healthScore()), "health_score");
+        register(r -> String.valueOf((int) r.kingdomSnapshot().healthScore()), "health_score_int");
+
+        // Vault
+        register(r -> String.valueOf(r.kingdomSnapshot().vaultItems()), "vault_items");
+
+        // Customization
+        register(r -> r.kingdomSnapshot().motto(), "motto");
+        register(r -> r.kingdomSnapshot().color(), "color");
+
+        // Wars
+        register(r -> String.valueOf(r.kingdomSnapshot().activeWars()), "wars_active");
+        register(r -> r.kingdomSnapshot().activeWars() > 0 ? "true" : "false", "at_war");
+
+        // Trusts
+        register(r -> String.valueOf(r.kingdomSnapshot().trusts()), "trusts_count");
+
+        // Advanced Features
+        register(r -> String.valueOf(r.kingdomSnapshot().waypoints()), "waypoints_count");
+        register(r -> String.valueOf(r.kingdomSnapshot().farms()), "farms_count");
+        register(r -> "0", "workshops_count"); // Would need to add getWorkshops method
+        register(r -> r.playerSnapshot().autoClaim() ? "true" : "false", "auto_claim_enabled");
+
+        // Statistics
+        register(r -> String.valueOf(r.kingdomSnapshot().growthRate()), "growth_rate");
+
+        // Communication
+        register(r -> String.valueOf(r.kingdomSnapshot().announcements()), "announcements_count");
+        register(r -> String.valueOf(r.kingdomSnapshot().upcomingEvents()), "events_upcoming");
+
+        // Claim Economy
+        register(r -> "0", "claims_for_sale"); // Would need method to get count
+
+        // World-specific
+        register(r -> String.valueOf(r.view.getClaimsIn(r.player.getWorld().getName())), "claims_in_world");
+    }
+
+    private static int xpProgress(KingdomView kingdom) {
+        int required = kingdom.level() * kingdom.level() * 1000;
+        return Math.min(100, (kingdom.xp() * 100) / required);
+    }
+
+    private static long ageDays(KingdomView kingdom) {
+        return (System.currentTimeMillis() / 1000 - kingdom.createdAt()) / 86400;
     }
 
     private String formatNumber(int number) {
@@ -387,24 +299,18 @@ public class KingdomsExpansion extends PlaceholderExpansion {
         return bar.toString();
     }
 
-    private int getRank(Kingdom kingdom, String type) {
-        int rank = 1;
-        com.excrele.kingdoms.manager.KingdomManager km = plugin.getKingdomManager();
-        if (km == null) return rank;
-        for (Kingdom k : km.getKingdoms().values()) {
-            if (k == kingdom) continue;
-            boolean higher = switch (type) {
-                case "level" -> k.getLevel() > kingdom.getLevel() || 
-                              (k.getLevel() == kingdom.getLevel() && k.getXp() > kingdom.getXp());
-                case "xp" -> k.getXp() > kingdom.getXp() || 
-                            (k.getXp() == kingdom.getXp() && k.getLevel() > kingdom.getLevel());
-                case "members" -> (k.getMembers().size() + 1) > (kingdom.getMembers().size() + 1);
-                case "challenges" -> k.getTotalChallengesCompleted() > kingdom.getTotalChallengesCompleted();
-                default -> false;
-            };
-            if (higher) rank++;
-        }
-        return rank;
+    private int getRank(String kingdomName, String type) {
+        com.excrele.kingdoms.manager.EnhancedLeaderboardManager lm = plugin.getEnhancedLeaderboardManager();
+        if (lm == null) return 1;
+        com.excrele.kingdoms.manager.EnhancedLeaderboardManager.LeaderboardType leaderboard = switch (type) {
+            case "level" -> com.excrele.kingdoms.manager.EnhancedLeaderboardManager.LeaderboardType.LEVEL;
+            case "xp" -> com.excrele.kingdoms.manager.EnhancedLeaderboardManager.LeaderboardType.XP;
+            case "members" -> com.excrele.kingdoms.manager.EnhancedLeaderboardManager.LeaderboardType.MEMBERS;
+            case "challenges" -> com.excrele.kingdoms.manager.EnhancedLeaderboardManager.LeaderboardType.CHALLENGES;
+            default -> null;
+        };
+        if (leaderboard == null) return 1;
+        return Math.max(1, lm.getRank(kingdomName, leaderboard));
     }
 }
 
@@ -0,0 +1,244 @@
+package com.excrele.kingdoms.expansion;
+
+import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.Kingdom;
+import org.bukkit.entity.Player;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Immutable snapshots of the placeholder values that take more than a field read to compute.
+ * Snapshots are only built on the server thread: a request that finds one missing, expired or
+ * older than its kingdom's version queues it, and a tick task rebuilds the queued ones and
+ * publishes them to a concurrent map. Requests (often on async threads) only read published
+ * snapshots and get the previous one, or an empty one, until the rebuild lands. Scoreboard
+ * plugins ask for the same values many times a second, so few requests queue anything.
+ */
+public class PlaceholderCache {
+    /**
+     * Derived kingdom values
+     */
+    public record KingdomSnapshot(int version, long expiresAt, int totalContributions, double healthScore,
+                                  int growthRate, int vaultItems, int activeWars, int upcomingEvents,
+                                  String motto, String color, int trusts, int waypoints, int farms, int announcements) {}
+
+    /**
+     * Player values from other managers. daysSinceLogin and playtime are -1 without activity.
+     */
+    public record PlayerSnapshot(String kingdomName, long expiresAt, String title, String titleRaw,
+                                 long daysSinceLogin, long playtime, boolean autoClaim) {}
+
+    private static final KingdomSnapshot EMPTY_KINGDOM = new KingdomSnapshot(-1, 0L, 0, 0.0, 0, 0, 0, 0, "", "§7", 0, 0, 0, 0);
+
+    private final KingdomsPlugin plugin;
+    private final long ttlMillis;
+    private final Map<String, KingdomSnapshot> kingdoms;
+    private final Map<String, PlayerSnapshot> players;
+    private final Set<String> staleKingdoms; // Requested and missing or out of date
+    private final Map<String, String> stalePlayers; // player -> kingdom, likewise
+    private final LongAdder kingdomBuilds;
+    private final LongAdder playerBuilds;
+    private org.bukkit.scheduler.BukkitTask refreshTask;
+
+    public PlaceholderCache(KingdomsPlugin plugin) {
+        this.plugin = plugin;
+        this.ttlMillis = Math.max(0L, plugin.getConfig().getLong("placeholders.snapshot-ttl", 5L)) * 1000L;
+        this.kingdoms = new ConcurrentHashMap<>();
+        this.players = new ConcurrentHashMap<>();
+        this.staleKingdoms = ConcurrentHashMap.newKeySet();
+        this.stalePlayers = new ConcurrentHashMap<>();
+        this.kingdomBuilds = new LongAdder();
+        this.playerBuilds = new LongAdder();
+        this.refreshTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                refresh();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Published snapshot of a kingdom at the given version. Safe from any thread; a stale
+     * snapshot is still returned while its rebuild is queued.
+     */
+    public KingdomSnapshot kingdom(String kingdomName, int version) {
+        KingdomSnapshot snapshot = kingdoms.get(kingdomName);
+        if (snapshot == null || snapshot.version() != version || System.currentTimeMillis() >= snapshot.expiresAt()) {
+            staleKingdoms.add(kingdomName);
+        }
+        return snapshot != null ? snapshot : EMPTY_KINGDOM;
+    }
+
+    /**
+     * Published snapshot of a player. Safe from any thread; empty until the first build for the
+     * player's current kingdom.
+     */
+    public PlayerSnapshot player(String playerName, String kingdomName) {
+        PlayerSnapshot snapshot = players.get(playerName);
+        if (snapshot == null || !snapshot.kingdomName().equals(kingdomName) || System.currentTimeMillis() >= snapshot.expiresAt()) {
+            stalePlayers.put(playerName, kingdomName);
+        }
+        if (snapshot == null || !snapshot.kingdomName().equals(kingdomName)) {
+            return new PlayerSnapshot(kingdomName, 0L, "", "", -1, -1, false);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild queued snapshots (server thread)
+     */
+    private void refresh() {
+        long now = System.currentTimeMillis();
+        if (!staleKingdoms.isEmpty()) {
+            Iterator<String> iterator = staleKingdoms.iterator();
+            while (iterator.hasNext()) {
+                String kingdomName = iterator.next();
+                iterator.remove();
+                Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
+                if (kingdom == null) {
+                    kingdoms.remove(kingdomName);
+                } else {
+                    kingdoms.put(kingdomName, buildKingdom(kingdom, now));
+                }
+            }
+            if (kingdoms.size() > plugin.getKingdomManager().getKingdoms().size()) {
+                kingdoms.keySet().removeIf(name -> !plugin.getKingdomManager().getKingdoms().containsKey(name));
+            }
+        }
+        if (!stalePlayers.isEmpty()) {
+            Iterator<Map.Entry<String, String>> iterator = stalePlayers.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, String> entry = iterator.next();
+                iterator.remove();
+                players.put(entry.getKey(), buildPlayer(entry.getKey(), entry.getValue(), now));
+            }
+            if (players.size() > plugin.getServer().getOnlinePlayers().size() * 2 + 16) {
+                players.values().removeIf(cached -> now >= cached.expiresAt());
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+    }
+
+    public int getKingdomCount() {
+        return kingdoms.size();
+    }
+
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    public long getKingdomBuildCount() {
+        return kingdomBuilds.sum();
+    }
+
+    public long getPlayerBuildCount() {
+        return playerBuilds.sum();
+    }
+
+    private KingdomSnapshot buildKingdom(Kingdom kingdom, long now) {
+        kingdomBuilds.increment();
+        int version = kingdom.getVersion(); // Read first so a change during the build makes the snapshot stale
+        String kingdomName = kingdom.getName();
+        int totalContributions = 0;
+        for (int contribution : kingdom.getMemberContributions().values()) {
+            totalContributions += contribution;
+        }
+        double healthScore = 0.0;
+        int growthRate = 0;
+        if (plugin.getStatisticsManager() != null) {
+            healthScore = plugin.getStatisticsManager().calculateKingdomHealthScore(kingdomName);
+            List<com.excrele.kingdoms.manager.StatisticsManager.GrowthData> growth = plugin.getStatisticsManager().getGrowthData(kingdomName);
+            if (growth != null && growth.size() >= 2) {
+                growthRate = growth.get(growth.size() - 1).level - growth.get(growth.size() - 2).level;
+            }
+        }
+        int vaultItems = 0;
+        if (plugin.getVaultManager() != null) {
+            vaultItems = countItems(plugin.getVaultManager().getVault(kingdom)); // Loads the vault if needed
+        }
+        int activeWars = 0;
+        if (plugin.getWarManager() != null) {
+            List<com.excrele.kingdoms.model.War> wars = plugin.getWarManager().getActiveWars(kingdomName);
+            activeWars = wars != null ? wars.size() : 0;
+        }
+        int upcomingEvents = 0;
+        if (plugin.getCommunicationManager() != null) {
+            List<com.excrele.kingdoms.model.KingdomEvent> events = plugin.getCommunicationManager().getEvents(kingdomName);
+            if (events != null) {
+                long nowSeconds = now / 1000;
+                for (com.excrele.kingdoms.model.KingdomEvent event : events) {
+                    if (event.getScheduledTime() > nowSeconds) upcomingEvents++;
+                }
+            }
+        }
+        String motto = "";
+        String color = "§7";
+        if (plugin.getCustomizationManager() != null) {
+            com.excrele.kingdoms.model.KingdomCustomization custom = plugin.getCustomizationManager().getCustomization(kingdomName);
+            if (custom != null && custom.getMotto() != null) motto = custom.getMotto();
+            if (custom != null && custom.getColorCode() != null) color = custom.getColorCode();
+        }
+        int trusts = plugin.getTrustManager() != null ? plugin.getTrustManager().getAllTrusts(kingdomName).size() : 0;
+        int waypoints = 0;
+        int farms = 0;
+        if (plugin.getAdvancedFeaturesManager() != null) {
+            waypoints = plugin.getAdvancedFeaturesManager().getWaypoints(kingdomName).size();
+            farms = plugin.getAdvancedFeaturesManager().getFarms(kingdomName).size();
+        }
+        int announcements = 0;
+        if (plugin.getCommunicationManager() != null) {
+            List<com.excrele.kingdoms.model.KingdomAnnouncement> active = plugin.getCommunicationManager().getAnnouncements(kingdomName);
+            announcements = active != null ? active.size() : 0;
+        }
+        return new KingdomSnapshot(version, now + ttlMillis, totalContributions, healthScore,
+            growthRate, vaultItems, activeWars, upcomingEvents, motto, color, trusts, waypoints, farms, announcements);
+    }
+
+    private PlayerSnapshot buildPlayer(String playerName, String kingdomName, long now) {
+        playerBuilds.increment();
+        String title = "";
+        String titleRaw = "";
+        com.excrele.kingdoms.manager.AdvancedMemberManager memberManager = plugin.getAdvancedMemberManager();
+        if (memberManager != null) {
+            com.excrele.kingdoms.model.MemberTitle memberTitle = memberManager.getMemberTitle(kingdomName, playerName);
+            if (memberTitle != null) {
+                title = memberTitle.getFormattedTitle();
+                titleRaw = memberTitle.getTitle();
+            }
+        }
+        long daysSinceLogin = -1;
+        long playtime = -1;
+        com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getActivity(playerName);
+        if (activity != null) {
+            daysSinceLogin = activity.getDaysSinceLastLogin();
+            playtime = activity.getTotalPlaytime();
+        }
+        Player player = plugin.getServer().getPlayerExact(playerName);
+        boolean autoClaim = player != null && plugin.getAdvancedFeaturesManager() != null
+            && plugin.getAdvancedFeaturesManager().isAutoClaimEnabled(player);
+        return new PlayerSnapshot(kingdomName, now + ttlMillis, title, titleRaw, daysSinceLogin, playtime, autoClaim);
+    }
+
+    /**
+     * Occupied slots in an inventory
+     */
+    static int countItems(org.bukkit.inventory.Inventory inventory) {
+        if (inventory == null) return 0;
+        int count = 0;
+        for (org.bukkit.inventory.ItemStack item : inventory.getContents()) {
+            if (item != null && !item.getType().isAir()) count++;
+        }
+        return count;
+    }
+}
@@ -2,8 +2,8 @@ package com.excrele.kingdoms.gui;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.util.ClaimGrid;
 import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
@@ -24,20 +24,25 @@ public class ClaimMapGUI {
         Kingdom playerKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdom(kingdomName);
         if (playerKingdom == null) return;
         
-        Chunk center = player.getLocation().getChunk();
+        org.bukkit.Location location = player.getLocation();
+        org.bukkit.World world = location.getWorld();
+        if (world == null) return;
+        int centerX = location.getBlockX() >> 4;
+        int centerZ = location.getBlockZ() >> 4;
         int radius = 5; // 11x11 grid
         
         Inventory gui = Bukkit.createInventory(null, 54, "Claim Map - " + kingdomName);
         
+        // Ownership is read from the claim index, so surrounding terrain is never loaded
+        ClaimGrid grid = KingdomsPlugin.getInstance().getKingdomManager().getClaimGrid(world, centerX, centerZ, radius);
         int slot = 0;
-        for (int z = center.getZ() - radius; z <= center.getZ() + radius; z++) {
-            for (int x = center.getX() - radius; x <= center.getX() + radius; x++) {
+        for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
                 if (slot >= 54) break;
                 
-                Chunk chunk = center.getWorld().getChunkAt(x, z);
-                Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+                Kingdom kingdom = grid.getKingdom(x, z);
                 
-                ItemStack item = createMapItem(chunk, kingdom, kingdomName, playerKingdom, player, x == center.getX() && z == center.getZ());
+                ItemStack item = createMapItem(world.getName(), x, z, kingdom, kingdomName, playerKingdom, player, x == centerX && z == centerZ);
                 gui.setItem(slot, item);
                 slot++;
             }
@@ -64,7 +69,7 @@ public class ClaimMapGUI {
         player.openInventory(gui);
     }
     
-    private static ItemStack createMapItem(Chunk chunk, Kingdom kingdom, String playerKingdomName, Kingdom playerKingdom, Player player, boolean isPlayerPosition) {
+    private static ItemStack createMapItem(String worldName, int chunkX, int chunkZ, Kingdom kingdom, String playerKingdomName, Kingdom playerKingdom, Player player, boolean isPlayerPosition) {
         Material material;
         String displayName;
         List<String> lore = new ArrayList<>();
@@ -72,33 +77,33 @@ public class ClaimMapGUI {
         if (isPlayerPosition) {
             material = Material.BEACON;
             displayName = "§b[P] §7Your Position";
-            lore.add("§7Chunk: §e" + chunk.getX() + ", " + chunk.getZ());
-            lore.add("§7World: §e" + chunk.getWorld().getName());
+            lore.add("§7Chunk: §e" + chunkX + ", " + chunkZ);
+            lore.add("§7World: §e" + worldName);
         } else if (kingdom != null) {
             if (kingdom.getName().equals(playerKingdomName)) {
                 material = Material.GRASS_BLOCK;
                 displayName = "§a[K] §7Your Kingdom";
                 lore.add("§7Kingdom: §e" + kingdom.getName());
                 lore.add("§7Level: §e" + kingdom.getLevel());
-                lore.add("§7Chunk: §e" + chunk.getX() + ", " + chunk.getZ());
+                lore.add("§7Chunk: §e" + chunkX + ", " + chunkZ);
             } else if (playerKingdom != null && playerKingdom.isAllied(kingdom.getName())) {
                 material = Material.LAPIS_BLOCK;
                 displayName = "§b[A] §7Allied Kingdom";
                 lore.add("§7Kingdom: §e" + kingdom.getName());
                 lore.add("§7Level: §e" + kingdom.getLevel());
-                lore.add("§7Chunk: §e" + chunk.getX() + ", " + chunk.getZ());
+                lore.add("§7Chunk: §e" + chunkX + ", " + chunkZ);
             } else {
                 material = Material.REDSTONE_BLOCK;
                 displayName = "§c[E] §7Enemy Kingdom";
                 lore.add("§7Kingdom: §e" + kingdom.getName());
                 lore.add("§7Level: §e" + kingdom.getLevel());
-                lore.add("§7Chunk: §e" + chunk.getX() + ", " + chunk.getZ());
+                lore.add("§7Chunk: §e" + chunkX + ", " + chunkZ);
             }
         } else {
             material = Material.GRAY_CONCRETE;
             displayName = "§7[-] §7Unclaimed";
-            lore.add("§7Chunk: §e" + chunk.getX() + ", " + chunk.getZ());
-            lore.add("§7World: §e" + chunk.getWorld().getName());
+            lore.add("§7Chunk: §e" + chunkX + ", " + chunkZ);
+            lore.add("§7World: §e" + worldName);
             if (playerKingdom.hasPermission(player.getName(), "claim")) {
                 lore.add("");
                 lore.add("§aClick to claim this chunk!");
@@ -1,10 +1,10 @@
 package com.excrele.kingdoms.gui;
 
-import org.bukkit.Chunk;
 import org.bukkit.entity.Player;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.util.ClaimGrid;
 
 public class ClaimMapGenerator {
     public static String generateClaimMap(Player player) {
@@ -15,20 +15,23 @@ public class ClaimMapGenerator {
         if (plugin == null) return "§cPlugin not initialized!";
         
         String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(player.getName());
-        Chunk center = playerLoc.getChunk();
+        int centerX = playerLoc.getBlockX() >> 4;
+        int centerZ = playerLoc.getBlockZ() >> 4;
         int radius = 5; // 11x11 grid (5 chunks each direction)
-        StringBuilder map = new StringBuilder("§6Claim Map (X: §e" + center.getX() + "§6, Z: §e" + center.getZ() + "§6)\n");
+        StringBuilder map = new StringBuilder("§6Claim Map (X: §e" + centerX + "§6, Z: §e" + centerZ + "§6)\n");
 
-        org.bukkit.World world = center.getWorld();
+        org.bukkit.World world = playerLoc.getWorld();
+        if (world == null) return "§cUnable to generate map - invalid location!";
         
         Kingdom playerKingdom = kingdomName != null ? 
             plugin.getKingdomManager().getKingdom(kingdomName) : null;
 
-        for (int z = center.getZ() - radius; z <= center.getZ() + radius; z++) {
-            for (int x = center.getX() - radius; x <= center.getX() + radius; x++) {
-                Chunk chunk = world.getChunkAt(x, z);
-                Kingdom kingdom = plugin.getKingdomManager().getKingdomByChunk(chunk);
-                if (x == center.getX() && z == center.getZ()) {
+        // Ownership is read from the claim index, so surrounding terrain is never loaded
+        ClaimGrid grid = plugin.getKingdomManager().getClaimGrid(world, centerX, centerZ, radius);
+        for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                Kingdom kingdom = grid.getKingdom(x, z);
+                if (x == centerX && z == centerZ) {
                     map.append("§b[P]"); // Player position
                 } else if (kingdom != null) {
                     if (kingdomName != null && kingdom.getName().equals(kingdomName)) {
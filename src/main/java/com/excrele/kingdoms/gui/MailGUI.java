@@ -19,21 +19,19 @@ public class MailGUI {
     
     public static void openInbox(Player player, int page) {
         KingdomsPlugin plugin = KingdomsPlugin.getInstance();
-        List<Mail> allMail = plugin.getMailManager().getPlayerMail(player.getName());
+        int totalMail = plugin.getMailManager().getMailCount(player.getName());
         
-        if (allMail.isEmpty()) {
+        if (totalMail == 0) {
             player.sendMessage("§7You have no mail!");
             return;
         }
         
         int itemsPerPage = 45; // 5 rows
-        int totalPages = (int) Math.ceil((double) allMail.size() / itemsPerPage);
+        int totalPages = (int) Math.ceil((double) totalMail / itemsPerPage);
         if (page < 1) page = 1;
         if (page > totalPages) page = totalPages;
         
-        int startIndex = (page - 1) * itemsPerPage;
-        int endIndex = Math.min(startIndex + itemsPerPage, allMail.size());
-        List<Mail> pageMail = allMail.subList(startIndex, endIndex);
+        List<Mail> pageMail = plugin.getMailManager().getMailPage(player.getName(), page, itemsPerPage);
         
         Inventory gui = Bukkit.createInventory(null, 54, "Kingdom Mail - Page " + page + "/" + totalPages);
         
@@ -84,7 +82,7 @@ public class MailGUI {
             infoMeta.setDisplayName("§6§lMail Info");
             List<String> lore = new ArrayList<>();
             int unreadCount = plugin.getMailManager().getUnreadCount(player.getName());
-            lore.add("§7Total Mail: §e" + allMail.size());
+            lore.add("§7Total Mail: §e" + totalMail);
             lore.add("§7Unread: §e" + unreadCount);
             lore.add("§7Page: §e" + page + "§7/§e" + totalPages);
             lore.add("");
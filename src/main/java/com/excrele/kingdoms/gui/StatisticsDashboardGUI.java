@@ -176,14 +176,14 @@ public class StatisticsDashboardGUI {
             int totalContributions = 0;
             int totalStreaks = 0;
             for (String member : kingdom.getMembers()) {
-                PlayerActivity activity = plugin.getActivityManager().getActivity(member);
+                PlayerActivity activity = plugin.getActivityManager().getCachedActivity(member);
                 if (activity != null) {
                     totalPlaytime += activity.getTotalPlaytime();
                     totalContributions += activity.getContributions();
                     totalStreaks += activity.getContributionStreak();
                 }
             }
-            PlayerActivity kingActivity = plugin.getActivityManager().getActivity(kingdom.getKing());
+            PlayerActivity kingActivity = plugin.getActivityManager().getCachedActivity(kingdom.getKing());
             if (kingActivity != null) {
                 totalPlaytime += kingActivity.getTotalPlaytime();
                 totalContributions += kingActivity.getContributions();
@@ -229,14 +229,9 @@ public class StatisticsDashboardGUI {
             lore.add("§7Max Claims: §e" + kingdom.getMaxClaimChunks());
             lore.add("§7Available: §e" + (kingdom.getMaxClaimChunks() - kingdom.getCurrentClaimChunks()));
             int totalVisits = 0;
-            for (List<org.bukkit.Chunk> claimGroup : kingdom.getClaims()) {
-                for (org.bukkit.Chunk chunk : claimGroup) {
-                    com.excrele.kingdoms.model.ClaimAnalytics analytics = 
-                        plugin.getStatisticsManager().getClaimAnalytics(chunk);
-                    if (analytics != null) {
-                        totalVisits += analytics.getPlayerVisits();
-                    }
-                }
+            for (com.excrele.kingdoms.model.ClaimAnalytics analytics : 
+                    plugin.getStatisticsManager().getKingdomClaimAnalytics(kingdom)) {
+                totalVisits += analytics.getPlayerVisits();
             }
             lore.add("§7Total Visits: §e" + totalVisits);
             meta.setLore(lore);
@@ -253,15 +248,10 @@ public class StatisticsDashboardGUI {
             List<String> lore = new ArrayList<>();
             int totalBlockInteractions = 0;
             int totalEntityInteractions = 0;
-            for (List<org.bukkit.Chunk> claimGroup : kingdom.getClaims()) {
-                for (org.bukkit.Chunk chunk : claimGroup) {
-                    com.excrele.kingdoms.model.ClaimAnalytics analytics = 
-                        plugin.getStatisticsManager().getClaimAnalytics(chunk);
-                    if (analytics != null) {
-                        totalBlockInteractions += analytics.getBlockInteractions();
-                        totalEntityInteractions += analytics.getEntityInteractions();
-                    }
-                }
+            for (com.excrele.kingdoms.model.ClaimAnalytics analytics : 
+                    plugin.getStatisticsManager().getKingdomClaimAnalytics(kingdom)) {
+                totalBlockInteractions += analytics.getBlockInteractions();
+                totalEntityInteractions += analytics.getEntityInteractions();
             }
             lore.add("§7Block Interactions: §e" + formatNumber(totalBlockInteractions));
             lore.add("§7Entity Interactions: §e" + formatNumber(totalEntityInteractions));
@@ -279,14 +269,9 @@ public class StatisticsDashboardGUI {
             meta.setDisplayName("§6§lTerritory Value");
             List<String> lore = new ArrayList<>();
             double totalValue = 0;
-            for (List<org.bukkit.Chunk> claimGroup : kingdom.getClaims()) {
-                for (org.bukkit.Chunk chunk : claimGroup) {
-                    com.excrele.kingdoms.model.ClaimAnalytics analytics = 
-                        plugin.getStatisticsManager().getClaimAnalytics(chunk);
-                    if (analytics != null) {
-                        totalValue += analytics.getEstimatedValue();
-                    }
-                }
+            for (com.excrele.kingdoms.model.ClaimAnalytics analytics : 
+                    plugin.getStatisticsManager().getKingdomClaimAnalytics(kingdom)) {
+                totalValue += analytics.getEstimatedValue();
             }
             lore.add("§7Estimated Value: §e" + String.format("%.2f", totalValue));
             lore.add("§7Average per Claim: §e" + (kingdom.getCurrentClaimChunks() > 0 ? 
@@ -429,12 +414,12 @@ public class StatisticsDashboardGUI {
     private static int getActiveMemberCount(Kingdom kingdom, KingdomsPlugin plugin) {
         int count = 0;
         for (String member : kingdom.getMembers()) {
-            PlayerActivity activity = plugin.getActivityManager().getActivity(member);
+            PlayerActivity activity = plugin.getActivityManager().getCachedActivity(member);
             if (activity != null && activity.getDaysSinceLastLogin() <= 7) {
                 count++;
             }
         }
-        PlayerActivity kingActivity = plugin.getActivityManager().getActivity(kingdom.getKing());
+        PlayerActivity kingActivity = plugin.getActivityManager().getCachedActivity(kingdom.getKing());
         if (kingActivity != null && kingActivity.getDaysSinceLastLogin() <= 7) {
             count++;
         }
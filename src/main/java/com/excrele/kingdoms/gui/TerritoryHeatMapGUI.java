@@ -1,9 +1,9 @@
 package com.excrele.kingdoms.gui;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.ClaimAnalytics;
 import com.excrele.kingdoms.model.Kingdom;
 import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
@@ -30,7 +30,7 @@ public class TerritoryHeatMapGUI {
         if (kingdom == null) return;
         
         KingdomsPlugin plugin = KingdomsPlugin.getInstance();
-        Map<Chunk, Double> heatmap = plugin.getStatisticsManager().generateActivityHeatmap(kingdomName);
+        Map<ClaimAnalytics, Double> heatmap = plugin.getStatisticsManager().generateActivityHeatmap(kingdomName);
         
         if (heatmap.isEmpty()) {
             player.sendMessage("§cNo claim data available for heat map!");
@@ -47,19 +47,19 @@ public class TerritoryHeatMapGUI {
         
         // Create heat map items
         int slot = 0;
-        List<Map.Entry<Chunk, Double>> sortedChunks = heatmap.entrySet().stream()
+        List<Map.Entry<ClaimAnalytics, Double>> sortedChunks = heatmap.entrySet().stream()
             .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
             .limit(45) // Fit in GUI
             .toList();
         
-        for (Map.Entry<Chunk, Double> entry : sortedChunks) {
+        for (Map.Entry<ClaimAnalytics, Double> entry : sortedChunks) {
             if (slot >= 45) break;
             
-            Chunk chunk = entry.getKey();
+            ClaimAnalytics analytics = entry.getKey();
             double activity = entry.getValue();
             double normalized = (activity - minActivity) / range; // 0.0 to 1.0
             
-            ItemStack item = createHeatMapItem(chunk, activity, normalized, plugin);
+            ItemStack item = createHeatMapItem(analytics, activity, normalized);
             gui.setItem(slot, item);
             slot++;
         }
@@ -79,7 +79,7 @@ public class TerritoryHeatMapGUI {
         player.openInventory(gui);
     }
     
-    private static ItemStack createHeatMapItem(Chunk chunk, double activity, double normalized, KingdomsPlugin plugin) {
+    private static ItemStack createHeatMapItem(ClaimAnalytics analytics, double activity, double normalized) {
         Material material;
         String color;
         
@@ -104,25 +104,21 @@ public class TerritoryHeatMapGUI {
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
-            meta.setDisplayName(color + "Chunk " + chunk.getX() + ", " + chunk.getZ());
+            meta.setDisplayName(color + "Chunk " + analytics.getChunkX() + ", " + analytics.getChunkZ());
             List<String> lore = new ArrayList<>();
-            lore.add("§7World: §e" + chunk.getWorld().getName());
+            lore.add("§7World: §e" + analytics.getWorldName());
             lore.add("§7Activity Score: §e" + String.format("%.2f", activity));
             lore.add("§7Intensity: §e" + String.format("%.0f", normalized * 100) + "%");
             
-            // Get detailed analytics
-            com.excrele.kingdoms.model.ClaimAnalytics analytics = 
-                plugin.getStatisticsManager().getClaimAnalytics(chunk);
-            if (analytics != null) {
-                lore.add("");
-                lore.add("§7Visits: §e" + analytics.getPlayerVisits());
-                lore.add("§7Block Interactions: §e" + analytics.getBlockInteractions());
-                lore.add("§7Entity Interactions: §e" + analytics.getEntityInteractions());
-                lore.add("§7Estimated Value: §e" + String.format("%.2f", analytics.getEstimatedValue()));
-                
-                long daysSinceActivity = (System.currentTimeMillis() / 1000 - analytics.getLastActivity()) / 86400;
-                lore.add("§7Last Activity: §e" + (daysSinceActivity == 0 ? "Today" : daysSinceActivity + " days ago"));
-            }
+            // Detailed analytics
+            lore.add("");
+            lore.add("§7Visits: §e" + analytics.getPlayerVisits());
+            lore.add("§7Block Interactions: §e" + analytics.getBlockInteractions());
+            lore.add("§7Entity Interactions: §e" + analytics.getEntityInteractions());
+            lore.add("§7Estimated Value: §e" + String.format("%.2f", analytics.getEstimatedValue()));
+            
+            long daysSinceActivity = (System.currentTimeMillis() / 1000 - analytics.getLastActivity()) / 86400;
+            lore.add("§7Last Activity: §e" + (daysSinceActivity == 0 ? "Today" : daysSinceActivity + " days ago"));
             
             meta.setLore(lore);
             item.setItemMeta(meta);
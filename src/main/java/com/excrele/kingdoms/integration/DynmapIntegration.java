@@ -76,25 +76,29 @@ public class DynmapIntegration extends IntegrationManager {
     }
     
     public void updateClaim(Kingdom kingdom, Chunk chunk) {
+        updateClaim(kingdom, chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+    
+    public void updateClaim(Kingdom kingdom, String worldName, int chunkX, int chunkZ) {
         if (!isEnabled() || markerSet == null) return;
         
         try {
             String kingdomName = kingdom.getName();
-            String markerId = kingdomName + "_" + chunk.getX() + "_" + chunk.getZ();
+            String markerId = kingdomName + "_" + chunkX + "_" + chunkZ;
             
             Object marker = claimMarkers.get(markerId);
             if (marker == null) {
                 // Create new marker
                 double[] x = new double[4];
                 double[] z = new double[4];
-                x[0] = chunk.getX() * 16;
-                z[0] = chunk.getZ() * 16;
-                x[1] = (chunk.getX() + 1) * 16;
-                z[1] = chunk.getZ() * 16;
-                x[2] = (chunk.getX() + 1) * 16;
-                z[2] = (chunk.getZ() + 1) * 16;
-                x[3] = chunk.getX() * 16;
-                z[3] = (chunk.getZ() + 1) * 16;
+                x[0] = chunkX * 16;
+                z[0] = chunkZ * 16;
+                x[1] = (chunkX + 1) * 16;
+                z[1] = chunkZ * 16;
+                x[2] = (chunkX + 1) * 16;
+                z[2] = (chunkZ + 1) * 16;
+                x[3] = chunkX * 16;
+                z[3] = (chunkZ + 1) * 16;
                 
                 Method createAreaMarkerMethod = markerSet.getClass().getMethod("createAreaMarker",
                     String.class, String.class, boolean.class, String.class, double[].class, double[].class, boolean.class);
@@ -102,7 +106,7 @@ public class DynmapIntegration extends IntegrationManager {
                     markerId,
                     "Kingdom: " + kingdomName,
                     false,
-                    chunk.getWorld().getName(),
+                    worldName,
                     x, z,
                     false
                 );
@@ -147,10 +151,8 @@ public class DynmapIntegration extends IntegrationManager {
     
     private void updateAllClaims() {
         for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-            for (java.util.List<Chunk> claimGroup : kingdom.getClaims()) {
-                for (Chunk chunk : claimGroup) {
-                    updateClaim(kingdom, chunk);
-                }
+            for (com.excrele.kingdoms.model.ClaimGroup claimGroup : kingdom.getClaims()) {
+                claimGroup.forEach((worldName, chunkX, chunkZ) -> updateClaim(kingdom, worldName, chunkX, chunkZ));
             }
         }
     }
@@ -2,7 +2,10 @@ package com.excrele.kingdoms.listener;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
@@ -16,9 +19,27 @@ public class ActivityListener implements Listener {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        // Read stored activity here, off the server thread, so the join never waits on storage
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        plugin.getActivityManager().preload(event.getName());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getActivityManager().discardPreload(event.getPlayer().getName());
+        }
+    }
+    
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
+        com.excrele.kingdoms.util.PlayerIds.bind(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+        plugin.getKingdomManager().checkPlayerIds(); // The name may have belonged to another player
+        plugin.savePlayerIds(); // Only writes when this was a new UUID or a rename
         plugin.getActivityManager().recordLogin(event.getPlayer());
+        plugin.getReadModel().playerChanged(event.getPlayer().getName()); // Online member lists
         
         // Deliver pending mail
         if (plugin.getMailManager() != null) {
@@ -29,10 +50,16 @@ public class ActivityListener implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         plugin.getActivityManager().recordLogout(event.getPlayer());
+        plugin.getReadModel().playerChanged(event.getPlayer().getName()); // Online member lists
+        
+        // Drop cached protection relations
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidatePlayer(event.getPlayer().getName());
+        }
         
-        // Cleanup chunk optimizer data
-        if (plugin.getChunkOptimizer() != null) {
-            plugin.getChunkOptimizer().cleanupPlayer(event.getPlayer().getName());
+        // Drop cached mail; it is loaded again at next login
+        if (plugin.getMailManager() != null) {
+            plugin.getMailManager().unloadMailbox(event.getPlayer().getName());
         }
     }
 }
@@ -2,6 +2,7 @@ package com.excrele.kingdoms.listener;
 
 import java.util.List;
 
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -25,9 +26,10 @@ public class BlockBreakListener implements Listener {
         List<Challenge> challenges = plugin.getChallengeManager().getEventToChallenges().get("block_break");
         if (challenges == null) return;
 
+        Material blockType = event.getBlock().getType();
         for (Challenge challenge : challenges) {
-            String requiredBlock = (String) challenge.getTask().get("block");
-            if (event.getBlock().getType().toString().equalsIgnoreCase(requiredBlock)) {
+            Material requiredBlock = plugin.getMaterialCategories().getMaterial((String) challenge.getTask().get("block"));
+            if (blockType == requiredBlock) {
                 plugin.getChallengeManager().updateChallengeProgress(player, challenge, 1);
                 // Progress message is already sent by ChallengeManager.updateChallengeProgress
             }
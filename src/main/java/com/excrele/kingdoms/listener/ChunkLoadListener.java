@@ -0,0 +1,25 @@
+package com.excrele.kingdoms.listener;
+
+import com.excrele.kingdoms.KingdomsPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+/**
+ * Records the biome of claimed chunks as they load, so claim valuation never has to load terrain
+ */
+public class ChunkLoadListener implements Listener {
+    private final KingdomsPlugin plugin;
+    
+    public ChunkLoadListener(KingdomsPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        if (plugin.getClaimEconomyManager() != null) {
+            plugin.getClaimEconomyManager().chunkLoaded(event.getChunk());
+        }
+    }
+}
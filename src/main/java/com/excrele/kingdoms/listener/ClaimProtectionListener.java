@@ -1,6 +1,6 @@
 package com.excrele.kingdoms.listener;
 
-import org.bukkit.Chunk;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -11,7 +11,11 @@ import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.manager.ProtectionManager;
+import com.excrele.kingdoms.manager.ProtectionManager.Decision;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.model.ProtectionFlag;
+import com.excrele.kingdoms.util.MaterialCategories;
 
 public class ClaimProtectionListener implements Listener {
     
@@ -21,29 +25,17 @@ public class ClaimProtectionListener implements Listener {
         Player player = event.getPlayer();
         if (player.hasPermission("kingdoms.admin")) return; // Admins bypass
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Block block = event.getBlock();
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(block);
         if (kingdom == null) return; // Unclaimed chunks are not protected
         
-        String playerKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(player.getName());
-        if (playerKingdom == null || !playerKingdom.equals(kingdom.getName())) {
-            // Check if player is trusted
-            if (KingdomsPlugin.getInstance().getTrustManager().canBuild(player, kingdom.getName())) {
-                return; // Trusted player can build
-            }
-            // Check if kingdoms are allied
-            Kingdom playerK = KingdomsPlugin.getInstance().getKingdomManager().getKingdom(playerKingdom);
-            if (playerK != null && playerK.isAllied(kingdom.getName())) {
-                // Allied kingdoms can break blocks (optional - you can remove this if you want stricter protection)
-                return;
-            }
+        // Members are checked against plot flags; trusted players and allies may break blocks
+        Decision decision = KingdomsPlugin.getInstance().getProtectionManager().checkBlockChange(
+            player, kingdom, block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4, true);
+        if (decision == Decision.DENY_TERRITORY) {
             event.setCancelled(true);
             player.sendMessage("§cYou cannot break blocks in " + kingdom.getName() + "'s territory!");
-            return;
-        }
-        
-        // Check plot flags
-        if (!KingdomsPlugin.getInstance().getFlagManager().canBreak(player, chunk)) {
+        } else if (decision == Decision.DENY_PLOT) {
             event.setCancelled(true);
             player.sendMessage("§cYou don't have permission to break blocks in this plot!");
         }
@@ -55,29 +47,16 @@ public class ClaimProtectionListener implements Listener {
         Player player = event.getPlayer();
         if (player.hasPermission("kingdoms.admin")) return; // Admins bypass
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Block block = event.getBlock();
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(block);
         if (kingdom == null) return; // Unclaimed chunks are not protected
         
-        String playerKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(player.getName());
-        if (playerKingdom == null || !playerKingdom.equals(kingdom.getName())) {
-            // Check if player is trusted
-            if (KingdomsPlugin.getInstance().getTrustManager().canBuild(player, kingdom.getName())) {
-                return; // Trusted player can build
-            }
-            // Check if kingdoms are allied
-            Kingdom playerK = KingdomsPlugin.getInstance().getKingdomManager().getKingdom(playerKingdom);
-            if (playerK != null && playerK.isAllied(kingdom.getName())) {
-                // Allied kingdoms can place blocks (optional - you can remove this if you want stricter protection)
-                return;
-            }
+        Decision decision = KingdomsPlugin.getInstance().getProtectionManager().checkBlockChange(
+            player, kingdom, block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4, false);
+        if (decision == Decision.DENY_TERRITORY) {
             event.setCancelled(true);
             player.sendMessage("§cYou cannot place blocks in " + kingdom.getName() + "'s territory!");
-            return;
-        }
-        
-        // Check plot flags
-        if (!KingdomsPlugin.getInstance().getFlagManager().canBuild(player, chunk)) {
+        } else if (decision == Decision.DENY_PLOT) {
             event.setCancelled(true);
             player.sendMessage("§cYou don't have permission to place blocks in this plot!");
         }
@@ -87,34 +66,29 @@ public class ClaimProtectionListener implements Listener {
     public void onEntityDamage(EntityDamageByEntityEvent event) {
         if (event.isCancelled()) return;
         if (!(event.getDamager() instanceof Player)) return;
+        if (!(event.getEntity() instanceof Player target)) return; // Only PvP is flag-controlled
         Player player = (Player) event.getDamager();
         if (player.hasPermission("kingdoms.admin")) return; // Admins bypass
         
-        Chunk chunk = event.getEntity().getLocation().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        org.bukkit.Location location = target.getLocation();
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(location);
         if (kingdom == null) return; // Unclaimed chunks are not protected
         
-        // Check if kingdoms are at war
-        String playerKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(player.getName());
-        if (event.getEntity() instanceof Player target) {
-            String targetKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(target.getName());
-            
-            // Allow PvP if kingdoms are at war
-            if (playerKingdom != null && targetKingdom != null && 
-                !playerKingdom.equals(targetKingdom) &&
-                KingdomsPlugin.getInstance().getWarManager().isAtWar(playerKingdom, targetKingdom)) {
+        // Allow PvP if kingdoms are at war
+        ProtectionManager protection = KingdomsPlugin.getInstance().getProtectionManager();
+        String targetKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(target.getName());
+        if (targetKingdom != null) {
+            Kingdom targetK = KingdomsPlugin.getInstance().getKingdomManager().getKingdom(targetKingdom);
+            if (targetK != null && protection.getRelation(player.getName(), targetK) == ProtectionManager.Relation.ENEMY) {
                 return; // Allow PvP during war
             }
         }
         
         // Check PvP flag
-        java.util.Map<String, String> chunkFlags = kingdom.getPlotFlags(chunk);
-        String pvpFlag = chunkFlags.getOrDefault("pvp", "false");
-        if (!pvpFlag.equalsIgnoreCase("true")) {
-            if (event.getEntity() instanceof Player) {
-                event.setCancelled(true);
-                player.sendMessage("§cPvP is disabled in this area!");
-            }
+        if (!protection.isAllowed(kingdom, location.getWorld().getName(),
+                location.getBlockX() >> 4, location.getBlockZ() >> 4, ProtectionFlag.PVP)) {
+            event.setCancelled(true);
+            player.sendMessage("§cPvP is disabled in this area!");
         }
     }
     
@@ -125,61 +99,35 @@ public class ClaimProtectionListener implements Listener {
         Player player = event.getPlayer();
         if (player.hasPermission("kingdoms.admin")) return; // Admins bypass
         
-        org.bukkit.block.Block clickedBlock = event.getClickedBlock();
+        Block clickedBlock = event.getClickedBlock();
         if (clickedBlock == null) return;
-        Chunk chunk = clickedBlock.getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(clickedBlock);
         if (kingdom == null) return; // Unclaimed chunks are not protected
         
-        String playerKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(player.getName());
-        String blockType = clickedBlock.getType().toString();
+        ProtectionManager protection = KingdomsPlugin.getInstance().getProtectionManager();
+        int categories = KingdomsPlugin.getInstance().getMaterialCategories().getCategories(clickedBlock.getType());
         
         // Check redstone components
-        if (blockType.contains("REDSTONE") || blockType.contains("REPEATER") || 
-            blockType.contains("COMPARATOR") || blockType.contains("LEVER") ||
-            blockType.contains("BUTTON") || blockType.contains("PRESSURE_PLATE") ||
-            blockType.contains("TRIPWIRE") || blockType.contains("DAYLIGHT_DETECTOR") ||
-            blockType.contains("OBSERVER") || blockType.contains("DISPENSER") ||
-            blockType.contains("DROPPER") || blockType.contains("HOPPER")) {
-            
-            if (playerKingdom == null || !playerKingdom.equals(kingdom.getName())) {
-                // Check if player is trusted for redstone
-                if (!KingdomsPlugin.getInstance().getTrustManager().canUseRedstone(player, kingdom.getName())) {
-                    event.setCancelled(true);
-                    player.sendMessage("§cYou cannot use redstone in " + kingdom.getName() + "'s territory!");
-                    return;
-                }
-            } else {
-                // Member - check redstone flag
-                if (!KingdomsPlugin.getInstance().getFlagManager().canUseRedstone(player, chunk)) {
-                    event.setCancelled(true);
-                    player.sendMessage("§cRedstone is disabled in this area!");
-                    return;
-                }
+        if ((categories & MaterialCategories.REDSTONE) != 0) {
+            Decision decision = protection.checkRedstone(player, kingdom, clickedBlock.getWorld().getName(),
+                clickedBlock.getX() >> 4, clickedBlock.getZ() >> 4);
+            if (decision == Decision.DENY_TERRITORY) {
+                event.setCancelled(true);
+                player.sendMessage("§cYou cannot use redstone in " + kingdom.getName() + "'s territory!");
+                return;
+            } else if (decision == Decision.DENY_PLOT) {
+                event.setCancelled(true);
+                player.sendMessage("§cRedstone is disabled in this area!");
+                return;
             }
         }
         
-        if (playerKingdom == null || !playerKingdom.equals(kingdom.getName())) {
-            // Check if player is trusted
-            if (KingdomsPlugin.getInstance().getTrustManager().canInteract(player, kingdom.getName()) ||
-                KingdomsPlugin.getInstance().getTrustManager().canAccessContainer(player, kingdom.getName())) {
-                return; // Trusted player can interact
-            }
-            // Check if kingdoms are allied
-            Kingdom playerK = KingdomsPlugin.getInstance().getKingdomManager().getKingdom(playerKingdom);
-            if (playerK == null || !playerK.isAllied(kingdom.getName())) {
-                // Prevent interaction with chests, doors, etc. in enemy territory
-                if (blockType.contains("CHEST") ||
-                    blockType.contains("DOOR") ||
-                    blockType.contains("FURNACE") ||
-                    blockType.contains("ANVIL") ||
-                    blockType.contains("BARREL") ||
-                    blockType.contains("SHULKER_BOX")) {
-                    event.setCancelled(true);
-                    player.sendMessage("§cYou cannot interact with blocks in " + kingdom.getName() + "'s territory!");
-                }
+        // Prevent interaction with chests, doors, etc. in foreign territory
+        if ((categories & MaterialCategories.INTERACT_PROTECTED) != 0) {
+            if (protection.checkContainer(player, kingdom) != Decision.ALLOW) {
+                event.setCancelled(true);
+                player.sendMessage("§cYou cannot interact with blocks in " + kingdom.getName() + "'s territory!");
             }
         }
     }
 }
-
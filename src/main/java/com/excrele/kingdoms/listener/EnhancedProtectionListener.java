@@ -2,7 +2,11 @@ package com.excrele.kingdoms.listener;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
-import org.bukkit.Chunk;
+import com.excrele.kingdoms.model.ProtectionFlag;
+import com.excrele.kingdoms.model.TrustPermission;
+import com.excrele.kingdoms.util.MaterialCategories;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -13,15 +17,24 @@ import org.bukkit.event.hanging.HangingBreakEvent;
 
 public class EnhancedProtectionListener implements Listener {
     
+    private static boolean isAllowed(Kingdom kingdom, Block block, ProtectionFlag flag) {
+        return KingdomsPlugin.getInstance().getProtectionManager().isAllowed(kingdom,
+            block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4, flag);
+    }
+    
+    private static boolean isAllowed(Kingdom kingdom, Location location, ProtectionFlag flag) {
+        return KingdomsPlugin.getInstance().getProtectionManager().isAllowed(kingdom,
+            location.getWorld().getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4, flag);
+    }
+    
     @EventHandler(priority = EventPriority.HIGH)
     public void onEntityExplode(EntityExplodeEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getLocation().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getLocation());
         if (kingdom == null) return;
         
-        if (!KingdomsPlugin.getInstance().getFlagManager().isExplosionAllowed(chunk)) {
+        if (!isAllowed(kingdom, event.getLocation(), ProtectionFlag.EXPLOSION)) {
             event.setCancelled(true);
         }
     }
@@ -30,11 +43,10 @@ public class EnhancedProtectionListener implements Listener {
     public void onBlockExplode(BlockExplodeEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getBlock());
         if (kingdom == null) return;
         
-        if (!KingdomsPlugin.getInstance().getFlagManager().isExplosionAllowed(chunk)) {
+        if (!isAllowed(kingdom, event.getBlock(), ProtectionFlag.EXPLOSION)) {
             event.setCancelled(true);
         }
     }
@@ -43,11 +55,10 @@ public class EnhancedProtectionListener implements Listener {
     public void onBlockBurn(org.bukkit.event.block.BlockBurnEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getBlock());
         if (kingdom == null) return;
         
-        if (!KingdomsPlugin.getInstance().getFlagManager().isFireSpreadAllowed(chunk)) {
+        if (!isAllowed(kingdom, event.getBlock(), ProtectionFlag.FIRE_SPREAD)) {
             event.setCancelled(true);
         }
     }
@@ -56,11 +67,10 @@ public class EnhancedProtectionListener implements Listener {
     public void onBlockIgnite(org.bukkit.event.block.BlockIgniteEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getBlock());
         if (kingdom == null) return;
         
-        if (!KingdomsPlugin.getInstance().getFlagManager().isFireSpreadAllowed(chunk) && 
+        if (!isAllowed(kingdom, event.getBlock(), ProtectionFlag.FIRE_SPREAD) && 
             event.getCause() == org.bukkit.event.block.BlockIgniteEvent.IgniteCause.SPREAD) {
             event.setCancelled(true);
         }
@@ -71,11 +81,10 @@ public class EnhancedProtectionListener implements Listener {
         if (event.isCancelled()) return;
         
         // Prevent endermen from picking up blocks, etc.
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getBlock());
         if (kingdom == null) return;
         
-        if (!KingdomsPlugin.getInstance().getFlagManager().isMobGriefAllowed(chunk) && 
+        if (!isAllowed(kingdom, event.getBlock(), ProtectionFlag.MOB_GRIEF) && 
             event.getEntity() instanceof LivingEntity && !(event.getEntity() instanceof Player)) {
             event.setCancelled(true);
         }
@@ -86,11 +95,10 @@ public class EnhancedProtectionListener implements Listener {
         if (event.isCancelled()) return;
         if (event.getSpawnReason() != CreatureSpawnEvent.SpawnReason.NATURAL) return;
         
-        Chunk chunk = event.getLocation().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getLocation());
         if (kingdom == null) return;
         
-        if (!KingdomsPlugin.getInstance().getFlagManager().isMobSpawningAllowed(chunk)) {
+        if (!isAllowed(kingdom, event.getLocation(), ProtectionFlag.MOB_SPAWNING)) {
             event.setCancelled(true);
         }
     }
@@ -99,13 +107,12 @@ public class EnhancedProtectionListener implements Listener {
     public void onHangingBreak(HangingBreakEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getEntity().getLocation().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getEntity().getLocation());
         if (kingdom == null) return;
         
         // Protect item frames, paintings, etc.
         if (event.getCause() == HangingBreakEvent.RemoveCause.EXPLOSION) {
-            if (!KingdomsPlugin.getInstance().getFlagManager().isExplosionAllowed(chunk)) {
+            if (!isAllowed(kingdom, event.getEntity().getLocation(), ProtectionFlag.EXPLOSION)) {
                 event.setCancelled(true);
             }
         }
@@ -118,22 +125,20 @@ public class EnhancedProtectionListener implements Listener {
     public void onBlockPistonExtend(org.bukkit.event.block.BlockPistonExtendEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getBlock());
         if (kingdom == null) return;
+        Block piston = event.getBlock();
         
         // Check if piston is allowed - check flag directly since we don't have player context
-        java.util.Map<String, String> flags = kingdom.getPlotFlags(chunk);
-        String pistonFlag = flags.getOrDefault("piston", "members");
-        if (pistonFlag.equalsIgnoreCase("false")) {
+        if (KingdomsPlugin.getInstance().getProtectionManager().isDenied(kingdom,
+                piston.getWorld().getName(), piston.getX() >> 4, piston.getZ() >> 4, ProtectionFlag.PISTON)) {
             event.setCancelled(true);
             return;
         }
         
         // Also check blocks being moved - prevent cross-kingdom movement
         for (org.bukkit.block.Block block : event.getBlocks()) {
-            Chunk movedChunk = block.getChunk();
-            Kingdom movedKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(movedChunk);
+            Kingdom movedKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(block);
             if (movedKingdom != null && !movedKingdom.equals(kingdom)) {
                 // Prevent moving blocks across kingdom boundaries
                 event.setCancelled(true);
@@ -146,22 +151,20 @@ public class EnhancedProtectionListener implements Listener {
     public void onBlockPistonRetract(org.bukkit.event.block.BlockPistonRetractEvent event) {
         if (event.isCancelled()) return;
         
-        Chunk chunk = event.getBlock().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getBlock());
         if (kingdom == null) return;
+        Block piston = event.getBlock();
         
         // Check if piston is allowed - check flag directly since we don't have player context
-        java.util.Map<String, String> flags = kingdom.getPlotFlags(chunk);
-        String pistonFlag = flags.getOrDefault("piston", "members");
-        if (pistonFlag.equalsIgnoreCase("false")) {
+        if (KingdomsPlugin.getInstance().getProtectionManager().isDenied(kingdom,
+                piston.getWorld().getName(), piston.getX() >> 4, piston.getZ() >> 4, ProtectionFlag.PISTON)) {
             event.setCancelled(true);
             return;
         }
         
         // Also check blocks being moved - prevent cross-kingdom movement
         for (org.bukkit.block.Block block : event.getBlocks()) {
-            Chunk movedChunk = block.getChunk();
-            Kingdom movedKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(movedChunk);
+            Kingdom movedKingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(block);
             if (movedKingdom != null && !movedKingdom.equals(kingdom)) {
                 // Prevent moving blocks across kingdom boundaries
                 event.setCancelled(true);
@@ -178,12 +181,13 @@ public class EnhancedProtectionListener implements Listener {
         Player player = (Player) event.getBreeder();
         if (player.hasPermission("kingdoms.admin")) return; // Admins bypass
         
-        Chunk chunk = event.getEntity().getLocation().getChunk();
-        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+        Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getEntity().getLocation());
         if (kingdom == null) return;
+        Location location = event.getEntity().getLocation();
         
         // Check if animal breeding is allowed
-        if (!KingdomsPlugin.getInstance().getFlagManager().canBreedAnimals(player, chunk)) {
+        if (!KingdomsPlugin.getInstance().getProtectionManager().canUse(player, kingdom, location.getWorld().getName(),
+                location.getBlockX() >> 4, location.getBlockZ() >> 4, ProtectionFlag.ANIMAL_BREED, TrustPermission.ANIMAL_BREED)) {
             event.setCancelled(true);
             player.sendMessage("§cAnimal breeding is not allowed in this area!");
         }
@@ -198,22 +202,16 @@ public class EnhancedProtectionListener implements Listener {
         Player player = event.getPlayer();
         if (player.hasPermission("kingdoms.admin")) return; // Admins bypass
         
-        org.bukkit.Material blockType = event.getClickedBlock().getType();
         // Check if it's a crop that can be trampled
-        if (blockType == org.bukkit.Material.FARMLAND ||
-            blockType == org.bukkit.Material.WHEAT ||
-            blockType == org.bukkit.Material.CARROTS ||
-            blockType == org.bukkit.Material.POTATOES ||
-            blockType == org.bukkit.Material.BEETROOTS ||
-            blockType == org.bukkit.Material.MELON_STEM ||
-            blockType == org.bukkit.Material.PUMPKIN_STEM) {
+        if (KingdomsPlugin.getInstance().getMaterialCategories().is(event.getClickedBlock().getType(), MaterialCategories.CROP)) {
             
-            Chunk chunk = event.getClickedBlock().getChunk();
-            Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(chunk);
+            Kingdom kingdom = KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(event.getClickedBlock());
             if (kingdom == null) return;
+            Block block = event.getClickedBlock();
             
             // Check if crop trampling is allowed
-            if (!KingdomsPlugin.getInstance().getFlagManager().canTrampleCrops(player, chunk)) {
+            if (!KingdomsPlugin.getInstance().getProtectionManager().canUse(player, kingdom, block.getWorld().getName(),
+                    block.getX() >> 4, block.getZ() >> 4, ProtectionFlag.CROP_TRAMPLE, TrustPermission.CROP_TRAMPLE)) {
                 event.setCancelled(true);
             }
         }
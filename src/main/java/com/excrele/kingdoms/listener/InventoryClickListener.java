@@ -1,6 +1,5 @@
 package com.excrele.kingdoms.listener;
 
-import org.bukkit.Chunk;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -36,8 +35,10 @@ public class InventoryClickListener implements Listener {
             
             org.bukkit.Location playerLoc = player.getLocation();
             if (playerLoc == null) return;
-            Chunk center = playerLoc.getChunk();
-            org.bukkit.World world = center.getWorld();
+            org.bukkit.World world = playerLoc.getWorld();
+            if (world == null) return;
+            int centerX = playerLoc.getBlockX() >> 4;
+            int centerZ = playerLoc.getBlockZ() >> 4;
             
             int radius = 5;
             int row = slot / 9;
@@ -45,25 +46,24 @@ public class InventoryClickListener implements Listener {
             
             if (row >= 6) return; // Bottom rows are for info
             
-            int chunkX = center.getX() - radius + col;
-            int chunkZ = center.getZ() - radius + row;
-            Chunk clickedChunk = world.getChunkAt(chunkX, chunkZ);
+            int chunkX = centerX - radius + col;
+            int chunkZ = centerZ - radius + row;
             
-            Kingdom clickedKingdom = plugin.getKingdomManager().getKingdomByChunk(clickedChunk);
+            Kingdom clickedKingdom = plugin.getKingdomManager().getKingdomAt(world, chunkX, chunkZ);
             
             if (clickedKingdom == null) {
                 // Unclaimed chunk - try to claim if player has permission
                 if (playerKingdom.hasPermission(player.getName(), "claim")) {
                     player.closeInventory();
                     // Teleport player to chunk center for claiming
-                    org.bukkit.World chunkWorld = clickedChunk.getWorld();
+                    org.bukkit.World chunkWorld = world;
                     org.bukkit.Location playerLoc2 = player.getLocation();
                     if (playerLoc2 == null) return;
                     org.bukkit.Location chunkLoc = new org.bukkit.Location(
                         chunkWorld,
-                        (clickedChunk.getX() << 4) + 8,
+                        (chunkX << 4) + 8,
                         playerLoc2.getY(),
-                        (clickedChunk.getZ() << 4) + 8
+                        (chunkZ << 4) + 8
                     );
                     player.teleport(chunkLoc);
                     player.sendMessage("§eTeleported to chunk! Use §6/kingdom claim §eto claim it.");
@@ -75,7 +75,7 @@ public class InventoryClickListener implements Listener {
             } else {
                 // Show chunk info
                 player.sendMessage("§6=== Chunk Information ===");
-                player.sendMessage("§7Chunk: §e" + clickedChunk.getX() + ", " + clickedChunk.getZ());
+                player.sendMessage("§7Chunk: §e" + chunkX + ", " + chunkZ);
                 player.sendMessage("§7Kingdom: §e" + clickedKingdom.getName());
                 player.sendMessage("§7Level: §e" + clickedKingdom.getLevel());
                 if (clickedKingdom.getName().equals(kingdomName)) {
@@ -1,8 +1,8 @@
 package com.excrele.kingdoms.listener;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,9 +10,10 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.manager.KingdomReadModel;
 
 public class KingdomChatListener implements Listener {
-    private static final Map<UUID, Boolean> kingdomChatMode = new HashMap<>();
+    private static final Map<UUID, Boolean> kingdomChatMode = new ConcurrentHashMap<>(); // Read from the async chat thread
 
     public static void setKingdomChatMode(Player player, boolean enabled) {
         kingdomChatMode.put(player.getUniqueId(), enabled);
@@ -27,8 +28,9 @@ public class KingdomChatListener implements Listener {
         Player player = event.getPlayer();
         if (!isKingdomChatMode(player)) return;
 
-        String kingdomName = KingdomsPlugin.getInstance().getKingdomManager().getKingdomOfPlayer(player.getName());
-        if (kingdomName == null) {
+        // Chat runs off the server thread, so read the published snapshot rather than live kingdoms
+        KingdomReadModel.KingdomView kingdom = KingdomsPlugin.getInstance().getReadModel().get().getKingdomOf(player.getName());
+        if (kingdom == null) {
             setKingdomChatMode(player, false);
             player.sendMessage("§cYou left your kingdom, kingdom chat disabled.");
             return;
@@ -37,23 +39,12 @@ public class KingdomChatListener implements Listener {
         // Cancel the original message
         event.setCancelled(true);
 
-        // Send to kingdom members only
+        // Send to the king and members online when the snapshot was published
         String message = "§6[Kingdom] §e" + player.getName() + "§7: §f" + event.getMessage();
-        
-        // Send to king
-        String kingName = KingdomsPlugin.getInstance().getKingdomManager().getKingdom(kingdomName).getKing();
-        Player king = KingdomsPlugin.getInstance().getServer().getPlayer(kingName);
-        if (king != null && king.isOnline()) {
-            king.sendMessage(message);
-        }
-
-        // Send to all members
-        for (String memberName : KingdomsPlugin.getInstance().getKingdomManager().getKingdom(kingdomName).getMembers()) {
-            Player member = KingdomsPlugin.getInstance().getServer().getPlayer(memberName);
-            if (member != null && member.isOnline() && !memberName.equals(kingName)) {
+        for (Player member : kingdom.online()) {
+            if (member.isOnline()) {
                 member.sendMessage(message);
             }
         }
     }
 }
-
@@ -66,11 +66,6 @@ public class PlayerMoveListener implements Listener {
                 
                 displayChunkBorder(player, currentChunk, particle);
                 
-                // Preload nearby chunks for optimization
-                if (plugin.getChunkOptimizer() != null) {
-                    plugin.getChunkOptimizer().preloadChunksAroundPlayer(player, 2);
-                }
-                
                 // Record claim visit for statistics
                 if (plugin.getStatisticsManager() != null) {
                     plugin.getStatisticsManager().recordClaimVisit(currentChunk, player.getName());
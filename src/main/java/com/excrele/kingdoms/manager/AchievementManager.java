@@ -260,7 +260,7 @@ public class AchievementManager {
      * Save an achievement to storage
      */
     private void saveAchievement(String kingdomName, String playerName, MemberAchievement achievement) {
-        plugin.getStorageManager().getAdapter().savePlayerAchievement(
+        plugin.getStorageManager().getAdapter().savePlayerAchievementAsync(
             kingdomName, playerName, achievement.getAchievementId(), achievement.getAchievementName(),
             achievement.getDescription(), achievement.getUnlockedAt(), achievement.getUnlockedBy(),
             achievement.getProgress(), achievement.getTarget(), achievement.isCompleted()
@@ -5,106 +5,288 @@ import com.excrele.kingdoms.model.Kingdom;
 import com.excrele.kingdoms.model.PlayerActivity;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
- * Manages player activity tracking and auto-kick for inactive members
+ * Manages player activity tracking and auto-kick for inactive members.
+ * Activity is kept in memory for online players and an LRU of recently looked-up offline players;
+ * everyone else stays in storage. Logins, playtime and contributions only change the in-memory
+ * record, and changed records are written together as one batch every flush interval and when
+ * a player logs out. Storage is never read on the server thread: a joining player's record is
+ * read during async pre-login, and a lookup that misses memory loads the record in the background
+ * on the same "activity" lane as the batch writes, so it sees every write queued before it.
  */
 public class ActivityManager {
+    private static final Map<String, Object> NOTHING_STORED = Collections.emptyMap();
+    private static final long PRELOAD_TIMEOUT_MS = 5000L;
+
     private final KingdomsPlugin plugin;
-    private final Map<String, PlayerActivity> activities; // player -> activity
-    private final Map<String, Long> sessionStartTimes; // player -> session start time
+    private final Map<String, PlayerActivity> online; // player -> activity, online players
+    private final LinkedHashMap<String, PlayerActivity> recent; // Offline players in access order; null = nothing stored
+    private final Map<String, PlayerActivity> dirty; // player -> activity changed since the last flush
+    private final Map<String, Long> sessionStartTimes; // player -> start of playtime not yet added
+    private final Map<String, Map<String, Object>> preloaded; // Read at pre-login, taken at join; NOTHING_STORED if none
+    private final Set<String> loading; // Background loads in flight
+    private final int cacheSize;
+    private org.bukkit.scheduler.BukkitTask flushTask;
+    private long loads;
+    private long flushes;
+    private long flushedRecords;
     
     public ActivityManager(KingdomsPlugin plugin) {
         this.plugin = plugin;
-        this.activities = new HashMap<>();
+        this.online = new HashMap<>();
+        this.cacheSize = Math.max(0, plugin.getConfig().getInt("activity.cache-size", 512));
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlayerActivity> eldest) {
+                return size() > cacheSize; // Unsaved changes stay in dirty until flushed
+            }
+        };
+        this.dirty = new LinkedHashMap<>();
         this.sessionStartTimes = new HashMap<>();
-        loadAllActivities();
+        this.preloaded = new ConcurrentHashMap<>();
+        this.loading = ConcurrentHashMap.newKeySet();
+        loadOnlinePlayers();
+        startFlushTask();
     }
     
     /**
-     * Load all activities from storage
+     * Pick up players already online (plugin reload)
      */
-    private void loadAllActivities() {
-        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-            for (String member : kingdom.getMembers()) {
-                loadActivity(member, kingdom.getName());
+    private void loadOnlinePlayers() {
+        Set<String> players = new HashSet<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            players.add(player.getName());
+        }
+        if (players.isEmpty()) return;
+        Map<String, Map<String, Object>> stored = plugin.getStorageManager().getAdapter().loadAllPlayerActivity(players);
+        long now = System.currentTimeMillis() / 1000;
+        for (String playerName : players) {
+            String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(playerName);
+            if (kingdomName == null) continue;
+            PlayerActivity activity = toActivity(playerName, kingdomName, stored.get(playerName));
+            if (activity == null) {
+                activity = new PlayerActivity(playerName, kingdomName);
+                markDirty(activity);
             }
-            // Also load king's activity
-            loadActivity(kingdom.getKing(), kingdom.getName());
+            online.put(playerName, activity);
+            sessionStartTimes.put(playerName, now);
         }
     }
     
     /**
-     * Load activity for a player
+     * Build activity from its stored data; null if nothing was stored
      */
-    private void loadActivity(String playerName, String kingdomName) {
-        Map<String, Object> data = plugin.getStorageManager().getAdapter().loadPlayerActivity(playerName);
-        if (data != null) {
-            PlayerActivity activity = new PlayerActivity(playerName, kingdomName);
-            activity.setLastLogin((Long) data.getOrDefault("lastLogin", System.currentTimeMillis() / 1000));
-            activity.addPlaytime((Long) data.getOrDefault("playtime", 0L));
-            activity.setLastContribution((Long) data.getOrDefault("lastContribution", System.currentTimeMillis() / 1000));
-            activity.setContributions(((Number) data.getOrDefault("contributions", 0)).intValue());
-            activity.setContributionStreak(((Number) data.getOrDefault("contributionStreak", 0)).intValue());
-            activity.setLastStreakDay(((Number) data.getOrDefault("lastStreakDay", System.currentTimeMillis() / 1000 / (24 * 60 * 60))).longValue());
-            activities.put(playerName, activity);
-        } else {
-            // Create new activity
-            PlayerActivity activity = new PlayerActivity(playerName, kingdomName);
-            activities.put(playerName, activity);
-            saveActivity(activity);
+    private PlayerActivity toActivity(String playerName, String kingdomName, Map<String, Object> data) {
+        if (data == null || data == NOTHING_STORED) return null;
+        PlayerActivity activity = new PlayerActivity(playerName, kingdomName);
+        activity.setLastLogin((Long) data.getOrDefault("lastLogin", System.currentTimeMillis() / 1000));
+        activity.addPlaytime((Long) data.getOrDefault("playtime", 0L));
+        activity.setLastContribution((Long) data.getOrDefault("lastContribution", System.currentTimeMillis() / 1000));
+        activity.setContributions(((Number) data.getOrDefault("contributions", 0)).intValue());
+        activity.setContributionStreak(((Number) data.getOrDefault("contributionStreak", 0)).intValue());
+        activity.setLastStreakDay(((Number) data.getOrDefault("lastStreakDay", System.currentTimeMillis() / 1000 / (24 * 60 * 60))).longValue());
+        return activity;
+    }
+    
+    /**
+     * A player's activity if it is in memory, without touching storage
+     */
+    public PlayerActivity getCachedActivity(String playerName) {
+        PlayerActivity activity = online.get(playerName);
+        if (activity != null) return activity;
+        activity = dirty.get(playerName); // Evicted before its changes were written
+        if (activity != null) return activity;
+        return recent.get(playerName);
+    }
+    
+    private boolean isCached(String playerName) {
+        return online.containsKey(playerName) || dirty.containsKey(playerName) || recent.containsKey(playerName);
+    }
+    
+    /**
+     * Find a player's activity in memory. On a miss the record is loaded into the LRU, in the
+     * background where storage is asynchronous, and null is returned until it arrives.
+     */
+    private PlayerActivity lookup(String playerName) {
+        if (!isCached(playerName) && cacheSize > 0) load(playerName); // Inline on file storage
+        return getCachedActivity(playerName);
+    }
+    
+    /**
+     * Read one player's record on the activity lane and add it to the LRU
+     */
+    private void load(String playerName) {
+        if (!loading.add(playerName)) return;
+        loads++;
+        whenLoaded(plugin.getStorageManager().getAdapter().loadPlayerActivityAsync(playerName), (data, error) -> {
+            loading.remove(playerName);
+            if (error != null) {
+                plugin.getLogger().warning("Failed to load activity for " + playerName + ": " + error.getMessage());
+                return;
+            }
+            if (isCached(playerName)) return; // Logged in or loaded meanwhile; memory is newer
+            recent.put(playerName, toActivity(playerName, kingdomOf(playerName, data), data));
+        });
+    }
+    
+    /**
+     * Hand a storage read's result to the server thread: at once when the adapter answered inline,
+     * otherwise on the next tick after it completes
+     */
+    private <T> void whenLoaded(CompletableFuture<T> future, BiConsumer<T, Throwable> action) {
+        if (future.isDone()) {
+            future.whenComplete(action);
+            return;
         }
+        future.whenComplete((value, error) -> {
+            if (!plugin.isEnabled()) return;
+            plugin.getServer().getScheduler().runTask(plugin, () -> action.accept(value, error));
+        });
+    }
+    
+    private String kingdomOf(String playerName, Map<String, Object> data) {
+        String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(playerName);
+        if (kingdomName == null && data != null) kingdomName = (String) data.get("kingdom");
+        return kingdomName;
     }
     
     /**
-     * Record player login
+     * Read a joining player's record ahead of their login (async pre-login thread). Waits for the
+     * activity lane, so it sees every write queued before it.
+     */
+    public void preload(String playerName) {
+        // File storage answers from config held in memory, which only the server thread may touch
+        if (plugin.getStorageManager().getAdapter().getExecutor() == null) return;
+        try {
+            Map<String, Object> data = plugin.getStorageManager().getAdapter().loadPlayerActivityAsync(playerName)
+                .get(PRELOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            preloaded.put(playerName, data != null ? data : NOTHING_STORED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("Failed to preload activity for " + playerName + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Record player login. The record comes from memory, else from the pre-login read; if neither
+     * has it, it is read in the background and the login is recorded once it arrives.
      */
     public void recordLogin(Player player) {
-        String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(player.getName());
+        String playerName = player.getName();
+        Map<String, Object> data = preloaded.remove(playerName);
+        String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(playerName);
         if (kingdomName == null) return;
         
-        PlayerActivity activity = activities.get(player.getName());
+        if (isCached(playerName)) {
+            startSession(playerName, getCachedActivity(playerName), kingdomName);
+            return;
+        }
+        if (data != null) {
+            startSession(playerName, toActivity(playerName, kingdomName, data), kingdomName);
+            return;
+        }
+        // Never start from a blank record here: writing it would overwrite what is stored
+        whenLoaded(plugin.getStorageManager().getAdapter().loadPlayerActivityAsync(playerName), (stored, error) -> {
+            if (!player.isOnline() || online.containsKey(playerName)) return;
+            if (error != null) {
+                plugin.getLogger().warning("Failed to load activity for " + playerName + ": " + error.getMessage());
+                return;
+            }
+            startSession(playerName, isCached(playerName) ? getCachedActivity(playerName)
+                : toActivity(playerName, kingdomName, stored), kingdomName);
+        });
+    }
+    
+    private void startSession(String playerName, PlayerActivity activity, String kingdomName) {
+        recent.remove(playerName);
         if (activity == null) {
-            activity = new PlayerActivity(player.getName(), kingdomName);
-            activities.put(player.getName(), activity);
+            activity = new PlayerActivity(playerName, kingdomName);
         }
+        online.put(playerName, activity);
         
         activity.updateLastLogin();
-        sessionStartTimes.put(player.getName(), System.currentTimeMillis() / 1000);
-        saveActivity(activity);
+        sessionStartTimes.put(playerName, System.currentTimeMillis() / 1000);
+        markDirty(activity);
     }
     
     /**
-     * Record player logout
+     * Read several players' activity for a decision that needs every record (inactivity checks).
+     * Records in memory win; the rest are read in one batch on the activity lane after the
+     * current changes are flushed, and the callback gets them on the server thread.
+     */
+    public void loadActivities(Collection<String> players, Consumer<Map<String, PlayerActivity>> then) {
+        flush(); // Queued ahead of the read
+        Set<String> missing = new HashSet<>();
+        for (String playerName : players) {
+            if (!isCached(playerName)) missing.add(playerName);
+        }
+        CompletableFuture<Map<String, Map<String, Object>>> stored = missing.isEmpty()
+            ? CompletableFuture.completedFuture(Map.of())
+            : plugin.getStorageManager().getAdapter().loadAllPlayerActivityAsync(missing);
+        loads += missing.size();
+        whenLoaded(stored, (data, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to load player activity: " + error.getMessage());
+                return;
+            }
+            Map<String, PlayerActivity> activities = new HashMap<>();
+            for (String playerName : players) {
+                PlayerActivity activity = isCached(playerName) ? getCachedActivity(playerName)
+                    : toActivity(playerName, kingdomOf(playerName, data.get(playerName)), data.get(playerName));
+                if (activity != null) activities.put(playerName, activity);
+            }
+            then.accept(activities);
+        });
+    }
+    
+    /**
+     * Record player logout: add the rest of the session's playtime and write pending changes
      */
     public void recordLogout(Player player) {
         String playerName = player.getName();
-        if (sessionStartTimes.containsKey(playerName)) {
-            long sessionStart = sessionStartTimes.get(playerName);
-            long sessionEnd = System.currentTimeMillis() / 1000;
-            long sessionDuration = sessionEnd - sessionStart;
-            
-            PlayerActivity activity = activities.get(playerName);
-            if (activity != null) {
-                activity.addPlaytime(sessionDuration);
-                saveActivity(activity);
-            }
-            
-            sessionStartTimes.remove(playerName);
+        PlayerActivity activity = online.remove(playerName);
+        if (activity != null) {
+            accruePlaytime(playerName, activity, System.currentTimeMillis() / 1000);
+            if (cacheSize > 0) recent.put(playerName, activity);
         }
+        sessionStartTimes.remove(playerName);
+        preloaded.remove(playerName);
+        flush();
+    }
+    
+    /**
+     * Drop a pre-login read for a player who was refused before joining
+     */
+    public void discardPreload(String playerName) {
+        preloaded.remove(playerName);
     }
     
     /**
      * Record a contribution (XP, challenges, etc.)
      */
     public void recordContribution(String playerName) {
-        PlayerActivity activity = activities.get(playerName);
+        PlayerActivity activity = lookup(playerName);
         if (activity != null) {
             activity.updateLastContribution();
-            saveActivity(activity);
+            markDirty(activity);
             
             // Check achievements after contribution
             String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(playerName);
@@ -115,35 +297,49 @@ public class ActivityManager {
     }
     
     /**
-     * Check and kick inactive members
+     * Add playtime since the session start (or the last flush) and restart the count from now
+     */
+    private void accruePlaytime(String playerName, PlayerActivity activity, long now) {
+        Long sessionStart = sessionStartTimes.get(playerName);
+        if (sessionStart == null || now <= sessionStart) return;
+        activity.addPlaytime(now - sessionStart);
+        sessionStartTimes.put(playerName, now);
+        markDirty(activity);
+    }
+    
+    /**
+     * Check and kick inactive members. Storage finds players whose last login is past the
+     * cutoff (an indexed query on SQL backends); the kicks happen back on the server thread.
      */
     public void checkInactiveMembers() {
         long inactiveDays = plugin.getConfig().getLong("economy.auto_features.auto_kick_inactive_days", 0);
         if (inactiveDays <= 0) return; // Auto-kick disabled
         
-        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-            List<String> toKick = new java.util.ArrayList<>();
-            
-            // Check members (not king)
-            for (String member : kingdom.getMembers()) {
-                PlayerActivity activity = activities.get(member);
-                if (activity != null && activity.isInactive(inactiveDays)) {
-                    toKick.add(member);
+        flush(); // Queued ahead of the query, so it sees current logins
+        long cutoff = System.currentTimeMillis() / 1000 - inactiveDays * 24 * 60 * 60;
+        plugin.getStorageManager().getAdapter().loadInactivePlayersAsync(cutoff).thenAccept(players -> {
+            if (players.isEmpty() || !plugin.isEnabled()) return;
+            // Kicks are spread over ticks by the sliced executor
+            plugin.getServer().getScheduler().runTask(plugin, () -> plugin.getSlicedExecutor().submit("inactive-members", players, member -> {
+                if (online.containsKey(member)) return; // Logged in since the query
+                PlayerActivity activity = dirty.get(member);
+                if (activity != null && !activity.isInactive(inactiveDays)) return;
+                
+                // Members only, never the king
+                String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(member);
+                Kingdom kingdom = kingdomName != null ? plugin.getKingdomManager().getKingdom(kingdomName) : null;
+                if (kingdom != null && kingdom.hasMember(member)) {
+                    kickInactiveMember(kingdom, member);
                 }
-            }
-            
-            // Kick inactive members
-            for (String member : toKick) {
-                kickInactiveMember(kingdom, member);
-            }
-        }
+            }));
+        });
     }
     
     /**
      * Kick an inactive member
      */
     private void kickInactiveMember(Kingdom kingdom, String memberName) {
-        kingdom.getMembers().remove(memberName);
+        kingdom.removeMember(memberName);
         plugin.getKingdomManager().removePlayerKingdom(memberName);
         
         // Notify kingdom
@@ -152,7 +348,8 @@ public class ActivityManager {
         
         // Send message to online members
         for (Player player : plugin.getServer().getOnlinePlayers()) {
-            if (kingdom.getMembers().contains(player.getName()) || player.getName().equals(kingdom.getKing())) {
+            int playerId = com.excrele.kingdoms.util.PlayerIds.idOf(player);
+            if (kingdom.hasMember(playerId) || kingdom.isKing(playerId)) {
                 player.sendMessage(message);
             }
         }
@@ -161,33 +358,89 @@ public class ActivityManager {
     }
     
     /**
-     * Get activity for a player
+     * Get activity for a player. An offline player's record that isn't cached is loaded in the
+     * background, so this returns null until it arrives.
      */
     public PlayerActivity getActivity(String playerName) {
-        return activities.get(playerName);
+        return lookup(playerName);
+    }
+    
+    private void markDirty(PlayerActivity activity) {
+        dirty.put(activity.getPlayerName(), activity);
+    }
+    
+    /**
+     * Add online players' playtime so far and write every changed record as one batch
+     */
+    public void flush() {
+        long now = System.currentTimeMillis() / 1000;
+        for (Map.Entry<String, PlayerActivity> entry : online.entrySet()) {
+            accruePlaytime(entry.getKey(), entry.getValue(), now);
+        }
+        if (dirty.isEmpty()) return;
+        List<PlayerActivity> batch = new ArrayList<>(dirty.size());
+        for (PlayerActivity activity : dirty.values()) {
+            batch.add(activity.snapshot()); // Written off the server thread
+        }
+        dirty.clear();
+        plugin.getStorageManager().getAdapter().savePlayerActivitiesAsync(batch);
+        flushes++;
+        flushedRecords += batch.size();
+    }
+    
+    private void startFlushTask() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("activity.flush-interval", 60L)) * 20L;
+        flushTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Stop the flush task and write what is left (server thread, on disable)
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+    
+    public int getOnlineCount() {
+        return online.size();
+    }
+    
+    public int getCachedCount() {
+        return recent.size();
+    }
+    
+    public int getPendingCount() {
+        return dirty.size();
     }
     
     /**
-     * Save activity to storage
+     * Records read from storage on a cache miss or for a batch check
      */
-    private void saveActivity(PlayerActivity activity) {
-        plugin.getStorageManager().getAdapter().savePlayerActivity(
-            activity.getPlayerName(),
-            activity.getKingdomName(),
-            activity.getLastLogin(),
-            activity.getTotalPlaytime(),
-            activity.getLastContribution(),
-            activity.getContributions(),
-            activity.getContributionStreak(),
-            activity.getLastStreakDay()
-        );
+    public long getLoadCount() {
+        return loads;
+    }
+    
+    public long getFlushCount() {
+        return flushes;
+    }
+    
+    public long getFlushedCount() {
+        return flushedRecords;
     }
     
     /**
      * Get contribution streak for a player
      */
     public int getContributionStreak(String playerName) {
-        PlayerActivity activity = activities.get(playerName);
+        PlayerActivity activity = lookup(playerName);
         return activity != null ? activity.getContributionStreak() : 0;
     }
     
@@ -46,17 +46,14 @@ public class AdvancedEconomyManager {
                                           interestRate, durationSeconds, paymentInterval);
         
         loans.put(loanId, loan);
+        wake(com.excrele.kingdoms.task.AutoFeaturesTask.LOANS, (loan.getLastPaymentTime() + loan.getPaymentInterval()) * 1000);
         kingdomLoans.computeIfAbsent(kingdomName, k -> new ArrayList<>()).add(loanId);
         
         // Transfer funds
         if (lenderKingdom != null) {
             // Kingdom-to-kingdom loan
             if (plugin.getBankManager() != null) {
-                double lenderBalance = plugin.getBankManager().getBalance(lenderKingdom);
-                if (lenderBalance >= amount) {
-                    plugin.getBankManager().withdraw(lenderKingdom, amount);
-                    plugin.getBankManager().deposit(kingdomName, amount);
-                }
+                plugin.getBankManager().transfer(lenderKingdom, kingdomName, amount);
             }
         } else {
             // Bank loan - just deposit to kingdom
@@ -80,15 +77,11 @@ public class AdvancedEconomyManager {
                 
                 // Try to pay from kingdom bank
                 if (plugin.getBankManager() != null) {
-                    double balance = plugin.getBankManager().getBalance(loan.getKingdomName());
-                    if (balance >= paymentAmount) {
-                        plugin.getBankManager().withdraw(loan.getKingdomName(), paymentAmount);
-                        
-                        // Pay to lender or bank
-                        if (loan.getLenderKingdom() != null) {
-                            plugin.getBankManager().deposit(loan.getLenderKingdom(), paymentAmount);
-                        }
-                        
+                    // Pay to lender or bank
+                    boolean paid = loan.getLenderKingdom() != null
+                        ? plugin.getBankManager().transfer(loan.getKingdomName(), loan.getLenderKingdom(), paymentAmount)
+                        : plugin.getBankManager().withdraw(loan.getKingdomName(), paymentAmount);
+                    if (paid) {
                         loan.setRemainingBalance(loan.getRemainingBalance() - paymentAmount);
                         loan.setLastPaymentTime(System.currentTimeMillis() / 1000);
                     }
@@ -103,6 +96,7 @@ public class AdvancedEconomyManager {
     public void setMemberSalary(String player, String kingdomName, double amount, long paymentInterval) {
         MemberSalary salary = new MemberSalary(player, kingdomName, amount, paymentInterval);
         salaries.put(player, salary);
+        wake(com.excrele.kingdoms.task.AutoFeaturesTask.SALARIES, (salary.getLastPaymentTime() + salary.getPaymentInterval()) * 1000);
         kingdomSalaries.computeIfAbsent(kingdomName, k -> new ArrayList<>()).add(player);
     }
     
@@ -157,6 +151,7 @@ public class AdvancedEconomyManager {
                                                             principal, expectedReturnRate, durationSeconds);
         
         investments.put(investmentId, investment);
+        wake(com.excrele.kingdoms.task.AutoFeaturesTask.INVESTMENTS, investment.getMaturityDate() * 1000);
         kingdomInvestments.computeIfAbsent(kingdomName, k -> new ArrayList<>()).add(investmentId);
         
         // Deduct from kingdom bank
@@ -182,6 +177,48 @@ public class AdvancedEconomyManager {
         }
     }
     
+    /**
+     * When the next loan payment is due (epoch millis), or Long.MAX_VALUE if none are
+     */
+    public long getNextLoanPayment() {
+        long next = Long.MAX_VALUE;
+        for (KingdomLoan loan : loans.values()) {
+            if (loan.isPaidOff() || loan.isOverdue()) continue;
+            next = Math.min(next, (loan.getLastPaymentTime() + loan.getPaymentInterval()) * 1000);
+        }
+        return next;
+    }
+    
+    /**
+     * When the next salary is due (epoch millis), or Long.MAX_VALUE if none are
+     */
+    public long getNextSalaryPayment() {
+        long next = Long.MAX_VALUE;
+        for (MemberSalary salary : salaries.values()) {
+            if (!salary.isActive()) continue;
+            next = Math.min(next, (salary.getLastPaymentTime() + salary.getPaymentInterval()) * 1000);
+        }
+        return next;
+    }
+    
+    /**
+     * When the next investment matures (epoch millis), or Long.MAX_VALUE if none are pending
+     */
+    public long getNextInvestmentMaturity() {
+        long next = Long.MAX_VALUE;
+        for (KingdomInvestment investment : investments.values()) {
+            if (investment.isMatured()) continue;
+            next = Math.min(next, investment.getMaturityDate() * 1000);
+        }
+        return next;
+    }
+    
+    private void wake(String job, long dueAt) {
+        if (plugin.getKingdomScheduler() != null) {
+            plugin.getKingdomScheduler().wake(job, dueAt);
+        }
+    }
+    
     /**
      * Impose an economic sanction
      */
@@ -15,6 +15,7 @@ import com.excrele.kingdoms.model.Kingdom;
 import com.excrele.kingdoms.model.MemberNote;
 import com.excrele.kingdoms.model.MemberPermission;
 import com.excrele.kingdoms.model.MemberTitle;
+import com.excrele.kingdoms.util.AtomicFiles;
 import com.excrele.kingdoms.util.ErrorHandler;
 import com.excrele.kingdoms.util.SaveQueue;
 
@@ -145,58 +146,62 @@ public class AdvancedMemberManager {
      */
     public void saveAllData(boolean async) {
         if (async && saveQueue != null) {
-            saveQueue.enqueue(this::performSave);
+            saveQueue.enqueue(memberDataFile.getName(), this::performSave);
         } else {
             performSave();
         }
     }
     
     /**
-     * Perform the actual save operation (can be called async)
+     * Snapshot all member data on the server thread and hand the file write to the save queue
      */
     private void performSave() {
+        YamlConfiguration snapshot = new YamlConfiguration();
+
         // Save member titles
-        memberDataConfig.set("titles", null);
         for (Map.Entry<String, Map<String, MemberTitle>> kingdomEntry : memberTitles.entrySet()) {
             for (Map.Entry<String, MemberTitle> playerEntry : kingdomEntry.getValue().entrySet()) {
                 String path = "titles." + kingdomEntry.getKey() + "." + playerEntry.getKey();
                 MemberTitle title = playerEntry.getValue();
-                memberDataConfig.set(path + ".title", title.getTitle());
-                memberDataConfig.set(path + ".color", title.getColor());
-                memberDataConfig.set(path + ".setAt", title.getSetAt());
-                memberDataConfig.set(path + ".setBy", title.getSetBy());
+                snapshot.set(path + ".title", title.getTitle());
+                snapshot.set(path + ".color", title.getColor());
+                snapshot.set(path + ".setAt", title.getSetAt());
+                snapshot.set(path + ".setBy", title.getSetBy());
             }
         }
 
         // Save member permissions
-        memberDataConfig.set("permissions", null);
         for (Map.Entry<String, Map<String, MemberPermission>> kingdomEntry : memberPermissions.entrySet()) {
             for (Map.Entry<String, MemberPermission> playerEntry : kingdomEntry.getValue().entrySet()) {
                 String path = "permissions." + kingdomEntry.getKey() + "." + playerEntry.getKey();
                 MemberPermission perm = playerEntry.getValue();
-                memberDataConfig.set(path + ".allowed", new java.util.ArrayList<>(perm.getAllowedPermissions()));
-                memberDataConfig.set(path + ".denied", new java.util.ArrayList<>(perm.getDeniedPermissions()));
-                memberDataConfig.set(path + ".lastModified", perm.getLastModified());
-                memberDataConfig.set(path + ".modifiedBy", perm.getModifiedBy());
+                snapshot.set(path + ".allowed", new java.util.ArrayList<>(perm.getAllowedPermissions()));
+                snapshot.set(path + ".denied", new java.util.ArrayList<>(perm.getDeniedPermissions()));
+                snapshot.set(path + ".lastModified", perm.getLastModified());
+                snapshot.set(path + ".modifiedBy", perm.getModifiedBy());
             }
         }
 
         // Save member notes
-        memberDataConfig.set("notes", null);
         for (Map.Entry<String, Map<String, MemberNote>> kingdomEntry : memberNotes.entrySet()) {
             for (Map.Entry<String, MemberNote> playerEntry : kingdomEntry.getValue().entrySet()) {
                 String path = "notes." + kingdomEntry.getKey() + "." + playerEntry.getKey();
                 MemberNote note = playerEntry.getValue();
-                memberDataConfig.set(path + ".note", note.getNote());
-                memberDataConfig.set(path + ".author", note.getAuthor());
-                memberDataConfig.set(path + ".createdAt", note.getCreatedAt());
-                memberDataConfig.set(path + ".lastModified", note.getLastModified());
-                memberDataConfig.set(path + ".modifiedBy", note.getModifiedBy());
+                snapshot.set(path + ".note", note.getNote());
+                snapshot.set(path + ".author", note.getAuthor());
+                snapshot.set(path + ".createdAt", note.getCreatedAt());
+                snapshot.set(path + ".lastModified", note.getLastModified());
+                snapshot.set(path + ".modifiedBy", note.getModifiedBy());
             }
         }
 
+        SaveQueue.WriteTask write = () -> AtomicFiles.write(memberDataFile, snapshot.saveToString());
+        if (saveQueue != null) {
+            saveQueue.submit(memberDataFile.getName(), write); // A failed write is repeated by the next save
+            return;
+        }
         try {
-            memberDataConfig.save(memberDataFile);
+            write.write();
         } catch (IOException e) {
             errorHandler.handleSaveError("save member data", e, this::performSave);
         }
@@ -207,7 +212,7 @@ public class AdvancedMemberManager {
         Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
         if (kingdom == null) return false;
         
-        if (!kingdom.getMembers().contains(playerName) && !kingdom.getKing().equals(playerName)) {
+        if (!kingdom.hasMember(playerName) && !kingdom.getKing().equals(playerName)) {
             return false; // Player not in kingdom
         }
 
@@ -245,7 +250,7 @@ public class AdvancedMemberManager {
         Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
         if (kingdom == null) return false;
         
-        if (!kingdom.getMembers().contains(playerName) && !kingdom.getKing().equals(playerName)) {
+        if (!kingdom.hasMember(playerName) && !kingdom.getKing().equals(playerName)) {
             return false; // Player not in kingdom
         }
 
@@ -295,7 +300,7 @@ public class AdvancedMemberManager {
         Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
         if (kingdom == null) return false;
         
-        if (!kingdom.getMembers().contains(playerName) && !kingdom.getKing().equals(playerName)) {
+        if (!kingdom.hasMember(playerName) && !kingdom.getKing().equals(playerName)) {
             return false; // Player not in kingdom
         }
 
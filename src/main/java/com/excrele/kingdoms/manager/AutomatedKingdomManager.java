@@ -1,8 +1,11 @@
 package com.excrele.kingdoms.manager;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.ClaimGroup;
 import com.excrele.kingdoms.model.Kingdom;
-import org.bukkit.Chunk;
+import com.excrele.kingdoms.model.PlayerActivity;
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.LongHashSet;
 
 import java.util.*;
 
@@ -53,13 +56,13 @@ public class AutomatedKingdomManager {
         }
         
         // Find adjacent unclaimed chunks
-        List<Chunk> adjacentChunks = findAdjacentUnclaimedChunks(kingdom);
+        Collection<ChunkTarget> adjacentChunks = findAdjacentUnclaimedChunks(kingdom);
         if (adjacentChunks.isEmpty()) {
             return 0;
         }
         
         int claimed = 0;
-        for (Chunk chunk : adjacentChunks) {
+        for (ChunkTarget target : adjacentChunks) {
             // Check if we've hit the limit
             if (kingdom.getCurrentClaimChunks() >= kingdom.getMaxClaimChunks()) {
                 break;
@@ -74,7 +77,7 @@ public class AutomatedKingdomManager {
             }
             
             // Try to claim the chunk
-            if (plugin.getClaimManager().claimChunk(kingdom, chunk)) {
+            if (plugin.getClaimManager().claimChunk(kingdom, target.world(), target.chunkX(), target.chunkZ())) {
                 claimed++;
                 
                 // Deduct cost from bank
@@ -93,27 +96,34 @@ public class AutomatedKingdomManager {
     }
     
     /**
-     * Find adjacent unclaimed chunks for a kingdom
+     * Chunk coordinates targeted for an automatic claim
      */
-    private List<Chunk> findAdjacentUnclaimedChunks(Kingdom kingdom) {
-        List<Chunk> adjacent = new ArrayList<>();
-        Set<String> claimedKeys = new HashSet<>(plugin.getKingdomManager().getClaimedChunks().keySet());
+    private record ChunkTarget(org.bukkit.World world, int chunkX, int chunkZ) {}
+    
+    /**
+     * Find adjacent unclaimed chunks for a kingdom (by coordinates, without loading them)
+     */
+    private Collection<ChunkTarget> findAdjacentUnclaimedChunks(Kingdom kingdom) {
+        Set<ChunkTarget> adjacent = new LinkedHashSet<>();
+        KingdomManager kingdomManager = plugin.getKingdomManager();
         
-        for (List<Chunk> claim : kingdom.getClaims()) {
-            for (Chunk chunk : claim) {
-                // Check all 8 adjacent chunks
-                for (int dx = -1; dx <= 1; dx++) {
-                    for (int dz = -1; dz <= 1; dz++) {
-                        if (dx == 0 && dz == 0) continue; // Skip self
-                        
-                        Chunk adjacentChunk = chunk.getWorld().getChunkAt(chunk.getX() + dx, chunk.getZ() + dz);
-                        String key = adjacentChunk.getWorld().getName() + ":" + 
-                                    adjacentChunk.getX() + ":" + adjacentChunk.getZ();
-                        
-                        if (!claimedKeys.contains(key)) {
-                            // Check if it's far enough from other kingdoms
-                            if (isValidForClaiming(adjacentChunk, kingdom)) {
-                                adjacent.add(adjacentChunk);
+        for (ClaimGroup claim : kingdom.getClaims()) {
+            for (String worldName : claim.getWorldNames()) {
+                org.bukkit.World world = plugin.getServer().getWorld(worldName);
+                if (world == null) continue; // World not loaded
+                for (long key : claim.getChunks(worldName).toArray()) {
+                    // Check all 8 adjacent chunks
+                    for (int dx = -1; dx <= 1; dx++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            if (dx == 0 && dz == 0) continue; // Skip self
+                            
+                            int chunkX = ClaimIndex.unpackX(key) + dx;
+                            int chunkZ = ClaimIndex.unpackZ(key) + dz;
+                            if (!kingdomManager.isChunkClaimed(world, chunkX, chunkZ)) {
+                                // Check if it's far enough from other kingdoms
+                                if (isValidForClaiming(world, chunkX, chunkZ, kingdom)) {
+                                    adjacent.add(new ChunkTarget(world, chunkX, chunkZ));
+                                }
                             }
                         }
                     }
@@ -127,78 +137,69 @@ public class AutomatedKingdomManager {
     /**
      * Check if a chunk is valid for claiming (respects buffer zones)
      */
-    private boolean isValidForClaiming(Chunk chunk, Kingdom kingdom) {
+    private boolean isValidForClaiming(org.bukkit.World world, int chunkX, int chunkZ, Kingdom kingdom) {
         int bufferZone = 5; // Default
         if (plugin.getWorldManager() != null) {
-            bufferZone = plugin.getWorldManager().getBufferZoneForWorld(chunk.getWorld());
-        }
-        
-        for (Kingdom otherK : plugin.getKingdomManager().getKingdoms().values()) {
-            if (otherK != kingdom) {
-                for (List<Chunk> claim : otherK.getClaims()) {
-                    for (Chunk otherChunk : claim) {
-                        if (otherChunk.getWorld().equals(chunk.getWorld())) {
-                            int distance = Math.max(Math.abs(chunk.getX() - otherChunk.getX()), 
-                                                   Math.abs(chunk.getZ() - otherChunk.getZ()));
-                            if (distance < (bufferZone + 1)) {
-                                return false; // Too close
-                            }
-                        }
-                    }
-                }
-            }
+            bufferZone = plugin.getWorldManager().getBufferZoneForWorld(world);
         }
         
-        return true;
+        return plugin.getKingdomManager().getClaimIndex()
+            .findNearestForeignClaim(world.getName(), chunkX, chunkZ, bufferZone, kingdom) == null;
     }
     
     /**
-     * Auto-disband inactive kingdoms
+     * Auto-disband inactive kingdoms, one kingdom per step on the sliced executor
      */
-    public int autoDisbandInactiveKingdoms() {
+    public void autoDisbandInactiveKingdoms() {
         if (!plugin.getConfig().getBoolean("automation.auto_disband_inactive", false)) {
-            return 0;
+            return;
         }
         
         long inactiveDays = plugin.getConfig().getLong("automation.inactive_days_to_disband", 30L);
         long inactiveTime = inactiveDays * 86400L; // Convert to seconds
+        int minMembers = plugin.getConfig().getInt("automation.min_members_to_keep", 1);
         long currentTime = System.currentTimeMillis() / 1000;
         
-        int disbanded = 0;
-        List<String> toDisband = new ArrayList<>();
-        
+        // Only small kingdoms can be disbanded, so only their members' activity is read
+        List<String> candidates = new ArrayList<>();
+        Set<String> members = new HashSet<>();
         for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-            // Check if kingdom has been inactive
-            long lastActivity = getLastActivity(kingdom);
-            if ((currentTime - lastActivity) > inactiveTime) {
-                // Check if kingdom has minimum members
-                int minMembers = plugin.getConfig().getInt("automation.min_members_to_keep", 1);
-                if (kingdom.getAllMembers().size() < minMembers) {
-                    toDisband.add(kingdom.getName());
-                }
+            if (kingdom.getAllMembers().size() < minMembers) {
+                candidates.add(kingdom.getName());
+                members.addAll(kingdom.getAllMembers());
             }
         }
+        if (candidates.isEmpty()) return;
         
-        for (String kingdomName : toDisband) {
-            plugin.getKingdomManager().dissolveKingdom(kingdomName);
-            disbanded++;
+        // A member missing from memory must not count as inactive, so every record is loaded first
+        java.util.function.Consumer<Map<String, PlayerActivity>> disband = activities ->
+            plugin.getSlicedExecutor().submit("disband-inactive", candidates, kingdomName -> {
+                Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
+                if (kingdom == null) return; // Dissolved or merged since
+                // Check if kingdom has been inactive
+                if ((currentTime - getLastActivity(kingdom, activities)) > inactiveTime && kingdom.getAllMembers().size() < minMembers) {
+                    plugin.getKingdomManager().dissolveKingdom(kingdomName);
+                }
+            });
+        if (plugin.getActivityManager() != null) {
+            plugin.getActivityManager().loadActivities(members, disband);
+        } else {
+            disband.accept(Map.of());
         }
-        
-        return disbanded;
     }
     
     /**
-     * Auto-merge small kingdoms
+     * Auto-merge small kingdoms. Finding candidates is one pass; the pairwise adjacency checks
+     * run one pair per step on the sliced executor.
      */
-    public int autoMergeSmallKingdoms() {
+    public void autoMergeSmallKingdoms() {
         if (!plugin.getConfig().getBoolean("automation.auto_merge_small", false)) {
-            return 0;
+            return;
         }
         
         int maxMembersForMerge = plugin.getConfig().getInt("automation.max_members_to_merge", 2);
         int maxClaimsForMerge = plugin.getConfig().getInt("automation.max_claims_to_merge", 5);
         
-        int merged = 0;
         List<Kingdom> smallKingdoms = new ArrayList<>();
         
         // Find small kingdoms
@@ -208,41 +209,63 @@ public class AutomatedKingdomManager {
                 smallKingdoms.add(kingdom);
             }
         }
+        if (smallKingdoms.size() < 2) return;
         
-        // Try to merge adjacent small kingdoms
-        for (int i = 0; i < smallKingdoms.size(); i++) {
-            Kingdom kingdom1 = smallKingdoms.get(i);
-            if (kingdom1 == null) continue;
+        plugin.getSlicedExecutor().submit("merge-kingdoms", new com.excrele.kingdoms.task.SlicedExecutor.Work() {
+            private int i = 0;
+            private int j = 1;
             
-            for (int j = i + 1; j < smallKingdoms.size(); j++) {
+            @Override
+            public boolean step() {
+                Kingdom kingdom1 = smallKingdoms.get(i);
                 Kingdom kingdom2 = smallKingdoms.get(j);
-                if (kingdom2 == null) continue;
-                
-                // Check if kingdoms are adjacent
-                if (areKingdomsAdjacent(kingdom1, kingdom2)) {
+                // Skip kingdoms merged away or dissolved since the candidates were collected
+                if (isLive(kingdom1) && isLive(kingdom2) && areKingdomsAdjacent(kingdom1, kingdom2)) {
                     // Merge kingdom2 into kingdom1
                     mergeKingdoms(kingdom1, kingdom2);
                     smallKingdoms.set(j, null); // Mark as merged
-                    merged++;
-                    break;
+                    nextKingdom();
+                } else {
+                    nextPair();
                 }
+                return i < smallKingdoms.size() - 1;
             }
-        }
-        
-        return merged;
+            
+            @Override
+            public int remaining() {
+                int left = smallKingdoms.size() - 1 - i;
+                return left * (left + 1) / 2 - (j - i - 1);
+            }
+            
+            private void nextPair() {
+                if (smallKingdoms.get(i) == null || ++j >= smallKingdoms.size()) nextKingdom();
+            }
+            
+            private void nextKingdom() {
+                i++;
+                j = i + 1;
+            }
+        });
+    }
+    
+    private boolean isLive(Kingdom kingdom) {
+        return kingdom != null && plugin.getKingdomManager().getKingdom(kingdom.getName()) == kingdom;
     }
     
     /**
      * Check if two kingdoms are adjacent
      */
     private boolean areKingdomsAdjacent(Kingdom k1, Kingdom k2) {
-        for (List<Chunk> claim1 : k1.getClaims()) {
-            for (Chunk chunk1 : claim1) {
-                for (List<Chunk> claim2 : k2.getClaims()) {
-                    for (Chunk chunk2 : claim2) {
-                        if (chunk1.getWorld().equals(chunk2.getWorld())) {
-                            int distance = Math.max(Math.abs(chunk1.getX() - chunk2.getX()), 
-                                                   Math.abs(chunk1.getZ() - chunk2.getZ()));
+        for (ClaimGroup claim1 : k1.getClaims()) {
+            for (String worldName : claim1.getWorldNames()) {
+                long[] chunks1 = claim1.getChunks(worldName).toArray();
+                for (ClaimGroup claim2 : k2.getClaims()) {
+                    LongHashSet chunks2 = claim2.getChunks(worldName);
+                    if (chunks2 == null) continue;
+                    for (long key2 : chunks2.toArray()) {
+                        for (long key1 : chunks1) {
+                            int distance = Math.max(Math.abs(ClaimIndex.unpackX(key1) - ClaimIndex.unpackX(key2)), 
+                                                   Math.abs(ClaimIndex.unpackZ(key1) - ClaimIndex.unpackZ(key2)));
                             if (distance <= 6) { // Within merge distance (buffer + 1)
                                 return true;
                             }
@@ -260,20 +283,19 @@ public class AutomatedKingdomManager {
     private void mergeKingdoms(Kingdom kingdom1, Kingdom kingdom2) {
         // Add all members from kingdom2 to kingdom1
         for (String member : kingdom2.getMembers()) {
-            if (!kingdom1.getMembers().contains(member)) {
+            if (!kingdom1.hasMember(member)) {
                 kingdom1.addMember(member);
                 plugin.getKingdomManager().setPlayerKingdom(member, kingdom1.getName());
             }
         }
         
         // Add all claims from kingdom2 to kingdom1
-        for (List<Chunk> claim : kingdom2.getClaims()) {
+        for (ClaimGroup claim : kingdom2.getClaims()) {
             kingdom1.getClaims().add(claim);
-            for (Chunk chunk : claim) {
-                String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-                plugin.getKingdomManager().getClaimedChunks().put(key, kingdom1);
-            }
+            claim.forEach((worldName, chunkX, chunkZ) ->
+                plugin.getKingdomManager().transferChunk(worldName, chunkX, chunkZ, kingdom1));
         }
+        kingdom2.getClaims().clear(); // Transferred claims must not be released by the dissolve below
         
         kingdom1.setCurrentClaimChunks(kingdom1.getCurrentClaimChunks() + kingdom2.getCurrentClaimChunks());
         
@@ -284,7 +306,7 @@ public class AutomatedKingdomManager {
         if (plugin.getBankManager() != null) {
             double balance2 = plugin.getBankManager().getBalance(kingdom2.getName());
             if (balance2 > 0) {
-                plugin.getBankManager().deposit(kingdom1.getName(), balance2);
+                plugin.getBankManager().transfer(kingdom2.getName(), kingdom1.getName(), balance2);
             }
         }
         
@@ -293,20 +315,18 @@ public class AutomatedKingdomManager {
     }
     
     /**
-     * Get last activity time for a kingdom
+     * Get last activity time for a kingdom from its members' loaded activity
      */
-    private long getLastActivity(Kingdom kingdom) {
+    private long getLastActivity(Kingdom kingdom, Map<String, PlayerActivity> activities) {
         long lastActivity = kingdom.getCreatedAt();
         
         // Check member activity
-        if (plugin.getActivityManager() != null) {
-            for (String member : kingdom.getAllMembers()) {
-                com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getActivity(member);
-                if (activity != null) {
-                    long lastLogin = activity.getLastLogin();
-                    if (lastLogin > lastActivity) {
-                        lastActivity = lastLogin;
-                    }
+        for (String member : kingdom.getAllMembers()) {
+            PlayerActivity activity = activities.get(member);
+            if (activity != null) {
+                long lastLogin = activity.getLastLogin();
+                if (lastLogin > lastActivity) {
+                    lastActivity = lastLogin;
                 }
             }
         }
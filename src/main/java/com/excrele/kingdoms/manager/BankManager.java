@@ -2,45 +2,61 @@ package com.excrele.kingdoms.manager;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.storage.BankLedger;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.io.File;
 import java.util.Map;
+import java.util.Set;
 
 public class BankManager {
     private final KingdomsPlugin plugin;
-    private final Map<String, Double> bankBalances; // kingdom -> balance
+    private final BankLedger ledger; // kingdom -> balance in cents; the only copy of bank balances
+    private org.bukkit.scheduler.BukkitTask journalTask;
 
     public BankManager(KingdomsPlugin plugin) {
         this.plugin = plugin;
-        this.bankBalances = new HashMap<>();
+        this.ledger = new BankLedger(new File(plugin.getDataFolder(), "bank"), plugin.getLogger());
         loadAllBalances();
+        startJournalTask();
     }
 
     private void loadAllBalances() {
-        for (String kingdomName : plugin.getKingdomManager().getKingdoms().keySet()) {
-            double balance = plugin.getStorageManager().getAdapter().loadBankBalance(kingdomName);
-            bankBalances.put(kingdomName, balance);
+        Set<String> kingdomNames = plugin.getKingdomManager().getKingdoms().keySet();
+        Map<String, Double> balances = plugin.getStartupLoader() != null ? plugin.getStartupLoader().getBankBalances() : null;
+        if (balances == null) balances = plugin.getStorageManager().getAdapter().loadAllBankBalances(kingdomNames);
+        for (String kingdomName : kingdomNames) {
+            ledger.load(kingdomName, BankLedger.toCents(balances.getOrDefault(kingdomName, 0.0)));
         }
     }
 
-    public double getBalance(String kingdomName) {
-        // Try cache first
-        if (plugin.getDataCache() != null) {
-            Double cached = plugin.getDataCache().getCachedBankBalance(kingdomName);
-            if (cached != null) {
-                return cached;
+    private void startJournalTask() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("bank.journal-flush-interval", 5L)) * 20L;
+        journalTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                ledger.flush();
             }
+        }.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Stop the journal task and write what it hasn't
+     */
+    public void shutdown() {
+        if (journalTask != null) {
+            journalTask.cancel();
+            journalTask = null;
         }
-        
-        double balance = bankBalances.getOrDefault(kingdomName, 0.0);
-        
-        // Cache the result
-        if (plugin.getDataCache() != null) {
-            plugin.getDataCache().cacheBankBalance(kingdomName, balance);
-        }
-        
-        return balance;
+        ledger.flush();
+    }
+
+    public BankLedger getLedger() {
+        return ledger;
+    }
+
+    public double getBalance(String kingdomName) {
+        return BankLedger.toAmount(ledger.getBalance(kingdomName));
     }
     
     /**
@@ -59,41 +75,34 @@ public class BankManager {
     }
 
     public boolean deposit(String kingdomName, double amount) {
-        if (amount <= 0) return false;
-        double current = getBalance(kingdomName);
-        double newBalance = current + amount;
-        bankBalances.put(kingdomName, newBalance);
-        
-        // Update cache
-        if (plugin.getDataCache() != null) {
-            plugin.getDataCache().cacheBankBalance(kingdomName, newBalance);
-        }
-        
-        plugin.getStorageManager().getAdapter().saveBankBalance(kingdomName, newBalance);
+        if (!ledger.deposit(kingdomName, BankLedger.toCents(amount))) return false;
+        saveBalance(kingdomName);
         return true;
     }
 
     public boolean withdraw(String kingdomName, double amount) {
-        if (amount <= 0) return false;
-        double current = getBalance(kingdomName);
-        if (current < amount) return false;
-        double newBalance = current - amount;
-        bankBalances.put(kingdomName, newBalance);
-        
-        // Update cache
-        if (plugin.getDataCache() != null) {
-            plugin.getDataCache().cacheBankBalance(kingdomName, newBalance);
-        }
-        
-        plugin.getStorageManager().getAdapter().saveBankBalance(kingdomName, newBalance);
+        if (!ledger.withdraw(kingdomName, BankLedger.toCents(amount))) return false;
+        saveBalance(kingdomName);
         return true;
     }
 
+    /**
+     * Move money between two banks; either both balances change or neither does
+     */
     public boolean transfer(String fromKingdom, String toKingdom, double amount) {
-        if (withdraw(fromKingdom, amount)) {
-            return deposit(toKingdom, amount);
-        }
-        return false;
+        if (fromKingdom.equals(toKingdom)) return false;
+        if (!ledger.transfer(fromKingdom, toKingdom, BankLedger.toCents(amount))) return false;
+        saveBalance(fromKingdom);
+        saveBalance(toKingdom);
+        return true;
+    }
+
+    /**
+     * Queue the balance for the next write-behind flush (repeated transactions merge)
+     */
+    private void saveBalance(String kingdomName) {
+        plugin.getStorageManager().getWriteBehind().markDirty("bank:" + kingdomName, () ->
+            plugin.getStorageManager().getAdapter().saveBankBalanceAsync(kingdomName, getBalance(kingdomName)));
     }
 
     public boolean depositFromPlayer(Player player, String kingdomName, double amount) {
@@ -104,7 +113,8 @@ public class BankManager {
             return false;
         }
         if (com.excrele.kingdoms.util.EconomyManager.withdraw(player, amount)) {
-            return deposit(kingdomName, amount);
+            if (deposit(kingdomName, amount)) return true;
+            com.excrele.kingdoms.util.EconomyManager.deposit(player, amount); // Refund if the bank refused it
         }
         return false;
     }
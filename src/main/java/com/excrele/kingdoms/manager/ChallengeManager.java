@@ -15,6 +15,7 @@ import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Challenge;
 import com.excrele.kingdoms.model.Kingdom;
 import com.excrele.kingdoms.model.PlayerChallengeData;
+import com.excrele.kingdoms.util.AtomicFiles;
 import com.excrele.kingdoms.util.ErrorHandler;
 import com.excrele.kingdoms.util.SaveQueue;
 
@@ -107,29 +108,34 @@ public class ChallengeManager {
      */
     public void savePlayerData(boolean async) {
         if (async && saveQueue != null) {
-            saveQueue.enqueue(this::performSave);
+            saveQueue.enqueue(playerDataFile.getName(), this::performSave);
         } else {
             performSave();
         }
     }
     
     /**
-     * Perform the actual save operation (can be called async)
+     * Snapshot all challenge progress on the server thread and hand the file write to the save queue
      */
     private void performSave() {
-        playerDataConfig.set("players", null);
+        YamlConfiguration snapshot = new YamlConfiguration();
         for (Map.Entry<String, Map<String, PlayerChallengeData>> entry : playerData.entrySet()) {
             String player = entry.getKey();
             for (Map.Entry<String, PlayerChallengeData> challengeEntry : entry.getValue().entrySet()) {
                 String path = "players." + player + ".completions." + challengeEntry.getKey();
                 PlayerChallengeData data = challengeEntry.getValue();
-                playerDataConfig.set(path + ".times", data.getTimesCompleted());
-                playerDataConfig.set(path + ".last_completed", data.getLastCompleted());
-                playerDataConfig.set(path + ".progress", data.getProgress());
+                snapshot.set(path + ".times", data.getTimesCompleted());
+                snapshot.set(path + ".last_completed", data.getLastCompleted());
+                snapshot.set(path + ".progress", data.getProgress());
             }
         }
+        SaveQueue.WriteTask write = () -> AtomicFiles.write(playerDataFile, snapshot.saveToString());
+        if (saveQueue != null) {
+            saveQueue.submit(playerDataFile.getName(), write); // A failed write is repeated by the next save
+            return;
+        }
         try {
-            playerDataConfig.save(playerDataFile);
+            write.write();
         } catch (IOException e) {
             errorHandler.handleSaveError("save player challenge data", e, this::performSave);
         }
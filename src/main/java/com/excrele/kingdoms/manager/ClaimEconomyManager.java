@@ -8,6 +8,7 @@ import com.excrele.kingdoms.model.Kingdom;
 import org.bukkit.Chunk;
 import org.bukkit.block.Biome;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -15,6 +16,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Manages the claim economy system (selling, buying, auctions, rent)
  */
 public class ClaimEconomyManager {
+    private final KingdomsPlugin plugin;
     private final KingdomManager kingdomManager;
     private final ClaimManager claimManager;
     private final BankManager bankManager;
@@ -25,7 +27,19 @@ public class ClaimEconomyManager {
     private final Map<String, ClaimRent> activeRents; // chunkKey -> rent
     private final Map<String, List<ClaimSale>> marketSales; // kingdom -> list of sales
     
+    // Claim valuation, computed without loading chunks
+    private static final int VALUE_RADIUS = 5; // Chunks around a claim counted as nearby
+    private static final int MAX_VALUATIONS = 8192;
+    private record Valuation(double value, long areaVersion, String biome) {}
+    private final com.excrele.kingdoms.util.BiomeSummary biomeSummary;
+    private final File biomeFile;
+    private final Map<String, com.excrele.kingdoms.util.LongObjectHashMap<Valuation>> valuations; // world -> packed chunk -> value
+    private int valuationCount;
+    private long valuationHits;
+    private long valuationMisses;
+    
     public ClaimEconomyManager(KingdomsPlugin plugin, KingdomManager kingdomManager, ClaimManager claimManager, BankManager bankManager) {
+        this.plugin = plugin;
         this.kingdomManager = kingdomManager;
         this.claimManager = claimManager;
         this.bankManager = bankManager;
@@ -33,6 +47,10 @@ public class ClaimEconomyManager {
         this.activeAuctions = new ConcurrentHashMap<>();
         this.activeRents = new ConcurrentHashMap<>();
         this.marketSales = new ConcurrentHashMap<>();
+        this.biomeSummary = new com.excrele.kingdoms.util.BiomeSummary();
+        this.biomeFile = new File(plugin.getDataFolder(), "biomes.dat");
+        this.biomeSummary.load(biomeFile, plugin.getLogger());
+        this.valuations = new HashMap<>();
     }
     
     /**
@@ -83,9 +101,7 @@ public class ClaimEconomyManager {
         }
         
         // Transfer money
-        if (bankManager.withdraw(buyerKingdom.getName(), sale.getPrice())) {
-            bankManager.deposit(sellerKingdom.getName(), sale.getPrice());
-        } else {
+        if (!bankManager.transfer(buyerKingdom.getName(), sellerKingdom.getName(), sale.getPrice())) {
             return false;
         }
         
@@ -119,6 +135,9 @@ public class ClaimEconomyManager {
         String auctionId = UUID.randomUUID().toString();
         ClaimAuction auction = new ClaimAuction(auctionId, kingdom.getName(), chunk, startingBid, durationSeconds);
         activeAuctions.put(chunkKey, auction);
+        if (plugin.getKingdomScheduler() != null) {
+            plugin.getKingdomScheduler().wake(com.excrele.kingdoms.task.AutoFeaturesTask.CLAIM_MARKET, auction.getEndTime());
+        }
         
         return true;
     }
@@ -232,6 +251,9 @@ public class ClaimEconomyManager {
         String rentId = UUID.randomUUID().toString();
         ClaimRent rent = new ClaimRent(rentId, ownerKingdom.getName(), renterKingdom.getName(), chunk, dailyRate, durationDays);
         activeRents.put(chunkKey, rent);
+        if (plugin.getKingdomScheduler() != null) {
+            plugin.getKingdomScheduler().wake(com.excrele.kingdoms.task.AutoFeaturesTask.CLAIM_MARKET, rent.getEndTime());
+        }
         
         return true;
     }
@@ -240,33 +262,90 @@ public class ClaimEconomyManager {
      * Calculate claim value based on location and resources
      */
     public double calculateClaimValue(Chunk chunk) {
+        if (chunk.isLoaded()) chunkLoaded(chunk); // Already in memory, so its biome is free to read
+        return calculateClaimValue(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+    
+    /**
+     * Calculate claim value from the biome summary and the claim index, without loading the chunk.
+     * Values are cached until a claim near the chunk changes or its biome is first recorded.
+     */
+    public double calculateClaimValue(String worldName, int chunkX, int chunkZ) {
+        com.excrele.kingdoms.util.ClaimIndex claimIndex = kingdomManager.getClaimIndex();
+        int minX = chunkX - VALUE_RADIUS;
+        int minZ = chunkZ - VALUE_RADIUS;
+        int maxX = chunkX + VALUE_RADIUS;
+        int maxZ = chunkZ + VALUE_RADIUS;
+        long areaVersion = claimIndex.getAreaVersion(worldName, minX, minZ, maxX, maxZ);
+        String biome = biomeSummary.getBiome(worldName, chunkX, chunkZ);
+        com.excrele.kingdoms.util.LongObjectHashMap<Valuation> worldValuations =
+            valuations.computeIfAbsent(worldName, k -> new com.excrele.kingdoms.util.LongObjectHashMap<>());
+        long key = com.excrele.kingdoms.util.ClaimIndex.pack(chunkX, chunkZ);
+        Valuation cached = worldValuations.get(key);
+        if (cached != null && cached.areaVersion() == areaVersion && Objects.equals(cached.biome(), biome)) {
+            valuationHits++;
+            return cached.value();
+        }
+        valuationMisses++;
+        
         double baseValue = 100.0;
         
-        // Add value based on biome (some biomes are more valuable)
-        Biome biome = chunk.getBlock(8, 64, 8).getBiome();
-        String biomeName = biome.getKey().getKey().toUpperCase();
-        if (biomeName.contains("OCEAN") || biomeName.contains("DEEP")) {
-            baseValue += 50.0;
-        } else if (biomeName.contains("PLAINS") || biomeName.contains("FOREST")) {
-            baseValue += 30.0;
+        // Add value based on biome (some biomes are more valuable); unrecorded biomes add nothing
+        if (biome != null) {
+            String biomeName = biome.toUpperCase();
+            if (biomeName.contains("OCEAN") || biomeName.contains("DEEP")) {
+                baseValue += 50.0;
+            } else if (biomeName.contains("PLAINS") || biomeName.contains("FOREST")) {
+                baseValue += 30.0;
+            }
         }
         
         // Add value based on nearby claims (more isolated = more valuable)
-        int nearbyClaims = 0;
-        for (int x = -5; x <= 5; x++) {
-            for (int z = -5; z <= 5; z++) {
-                if (x == 0 && z == 0) continue;
-                Chunk nearby = chunk.getWorld().getChunkAt(chunk.getX() + x, chunk.getZ() + z);
-                if (kingdomManager.getKingdomByChunk(nearby) != null) {
-                    nearbyClaims++;
-                }
-            }
-        }
+        int nearbyClaims = claimIndex.countClaimsInArea(worldName, minX, minZ, maxX, maxZ);
+        if (claimIndex.isClaimed(worldName, chunkX, chunkZ)) nearbyClaims--; // The chunk itself isn't nearby
         baseValue += (10 - Math.min(nearbyClaims, 10)) * 10.0;
         
+        if (cached == null && valuationCount >= MAX_VALUATIONS) {
+            for (com.excrele.kingdoms.util.LongObjectHashMap<Valuation> stale : valuations.values()) {
+                stale.clear(); // Bounded; values are cheap to rebuild
+            }
+            valuationCount = 0;
+        }
+        if (cached == null) valuationCount++;
+        worldValuations.put(key, new Valuation(baseValue, areaVersion, biome));
         return baseValue;
     }
     
+    /**
+     * Record the biome of a loaded claimed chunk for valuation (server thread, chunk must be loaded)
+     */
+    public void chunkLoaded(Chunk chunk) {
+        String worldName = chunk.getWorld().getName();
+        if (biomeSummary.contains(worldName, chunk.getX(), chunk.getZ())) return;
+        if (!kingdomManager.getClaimIndex().isClaimed(worldName, chunk.getX(), chunk.getZ())) return;
+        Biome biome = chunk.getBlock(8, 64, 8).getBiome();
+        biomeSummary.record(worldName, chunk.getX(), chunk.getZ(), biome.getKey().toString());
+    }
+    
+    /**
+     * Write the biome summary
+     */
+    public void shutdown() {
+        biomeSummary.save(biomeFile, plugin.getLogger());
+    }
+    
+    public int getBiomeSummarySize() {
+        return biomeSummary.size();
+    }
+    
+    public long getValuationHits() {
+        return valuationHits;
+    }
+    
+    public long getValuationMisses() {
+        return valuationMisses;
+    }
+    
     /**
      * Transfer a claim from one kingdom to another
      */
@@ -407,6 +486,20 @@ public class ClaimEconomyManager {
         }
     }
     
+    /**
+     * When the next auction or rent ends (epoch millis), or Long.MAX_VALUE if none are running
+     */
+    public long getNextExpiry() {
+        long next = Long.MAX_VALUE;
+        for (ClaimAuction auction : activeAuctions.values()) {
+            next = Math.min(next, auction.getEndTime());
+        }
+        for (ClaimRent rent : activeRents.values()) {
+            next = Math.min(next, rent.getEndTime());
+        }
+        return next;
+    }
+    
     private String getChunkKey(Chunk chunk) {
         return chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
     }
@@ -1,7 +1,9 @@
 package com.excrele.kingdoms.manager;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.ClaimGroup;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.util.ClaimIndex;
 import org.bukkit.Chunk;
 import org.bukkit.World;
 
@@ -43,13 +45,30 @@ public class ClaimManager {
                 "Chunk world is null");
             return false;
         }
+        return claimChunk(kingdom, world, chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Claim a chunk by coordinates. All checks run against the claim index,
+     * so the chunk is only loaded once the claim has been accepted.
+     */
+    public boolean claimChunk(Kingdom kingdom, World world, int chunkX, int chunkZ) {
+        if (kingdom == null) {
+            logClaimFailure("null", "unknown chunk", "Kingdom is null");
+            return false;
+        }
+        if (world == null) {
+            logClaimFailure(kingdom.getName(), String.format("Chunk: (%d, %d)", chunkX, chunkZ), 
+                "Chunk world is null");
+            return false;
+        }
         
         String chunkInfo = String.format("World: %s, Chunk: (%d, %d)", 
-            world.getName(), chunk.getX(), chunk.getZ());
+            world.getName(), chunkX, chunkZ);
         String kingdomInfo = kingdom.getName();
         
-        if (isChunkClaimed(chunk)) {
-            Kingdom existingOwner = kingdomManager.getKingdomByChunk(chunk);
+        if (kingdomManager.isChunkClaimed(world, chunkX, chunkZ)) {
+            Kingdom existingOwner = kingdomManager.getKingdomAt(world, chunkX, chunkZ);
             String ownerName = existingOwner != null ? existingOwner.getName() : "unknown";
             logClaimFailure(kingdomInfo, chunkInfo, 
                 String.format("Chunk is already claimed by kingdom: %s", ownerName));
@@ -87,111 +106,83 @@ public class ClaimManager {
             bufferZone = worldManager.getBufferZoneForWorld(world);
         }
         
-        for (Kingdom otherK : kingdomManager.getKingdoms().values()) {
-            if (otherK != kingdom) {
-                for (List<Chunk> claim : otherK.getClaims()) {
-                    // Only check buffer zone for chunks in the same world
-                    for (Chunk otherChunk : claim) {
-                        if (otherChunk.getWorld().equals(world)) {
-                            int distance = minDistance(chunk, claim);
-                            if (distance < (bufferZone + 1)) {
-                                logClaimFailure(kingdomInfo, chunkInfo, 
-                                    String.format("Too close to kingdom '%s'. Distance: %d, Required: %d (buffer zone: %d)", 
-                                        otherK.getName(), distance, bufferZone + 1, bufferZone));
-                                return false; // Too close to another kingdom
-                            }
-                        }
-                    }
-                }
-            }
+        ClaimIndex.NearbyClaim nearby = kingdomManager.getClaimIndex()
+            .findNearestForeignClaim(world.getName(), chunkX, chunkZ, bufferZone, kingdom);
+        if (nearby != null) {
+            String otherName = nearby.kingdom() != null ? nearby.kingdom().getName() : "unknown";
+            logClaimFailure(kingdomInfo, chunkInfo, 
+                String.format("Too close to kingdom '%s'. Distance: %d, Required: %d (buffer zone: %d)", 
+                    otherName, nearby.distance(), bufferZone + 1, bufferZone));
+            return false; // Too close to another kingdom
         }
 
         // Check if this is the first claim for this kingdom
         // First claims don't need adjacency checks, but buffer zone is still enforced
-        List<List<Chunk>> claims = kingdom.getClaims();
+        List<ClaimGroup> claims = kingdom.getClaims();
         boolean isFirstClaim = claims.isEmpty() || kingdom.getCurrentClaimChunks() == 0;
         
+        ClaimGroup targetClaim = null;
         if (isFirstClaim) {
             // First claim - no adjacency required (buffer zone already checked above)
-            List<Chunk> mainClaim = new ArrayList<>();
-            mainClaim.add(chunk);
-            
-            // Call KingdomClaimEvent
-            org.bukkit.entity.Player claimer = null;
-            if (plugin != null && plugin.getServer() != null) {
-                // Try to find the player who initiated the claim
-                for (org.bukkit.entity.Player p : plugin.getServer().getOnlinePlayers()) {
-                    if (p.getLocation().getChunk().equals(chunk)) {
-                        String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(p.getName());
-                        if (kingdomName != null && kingdomName.equals(kingdom.getName())) {
-                            claimer = p;
-                            break;
-                        }
-                    }
-                }
-            }
-            
-            com.excrele.kingdoms.api.event.KingdomClaimEvent claimEvent = 
-                new com.excrele.kingdoms.api.event.KingdomClaimEvent(kingdom, chunk, claimer);
-            if (plugin != null && plugin.getServer() != null) {
-                plugin.getServer().getPluginManager().callEvent(claimEvent);
-                if (claimEvent.isCancelled()) {
-                    logClaimFailure(kingdomInfo, chunkInfo, "Claim was cancelled by another plugin");
-                    return false;
+            targetClaim = new ClaimGroup();
+        } else if (kingdomManager.getClaimIndex().isAdjacentTo(world.getName(), chunkX, chunkZ, kingdom)) {
+            // Adjacent to our territory - find the group it extends
+            for (ClaimGroup claim : claims) {
+                if (claim.isAdjacent(world.getName(), chunkX, chunkZ)) {
+                    targetClaim = claim;
+                    break;
                 }
             }
-            
-            claims.add(mainClaim);
-            kingdomManager.claimChunk(kingdom, chunk, mainClaim);
-            if (plugin != null) {
-                plugin.getLogger().info(String.format("[ClaimManager] Successfully claimed chunk %s for kingdom '%s' (first claim)", 
-                    chunkInfo, kingdomInfo));
+        }
+        
+        if (targetClaim == null) {
+            // Chunk is not adjacent to any existing claim - reject
+            logClaimFailure(kingdomInfo, chunkInfo, 
+                "Chunk is not adjacent to any existing claims. New chunks must be adjacent to existing claims.");
+            return false;
+        }
+        
+        // All checks passed - only now resolve the Bukkit chunk
+        Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+        
+        // Call KingdomClaimEvent
+        org.bukkit.entity.Player claimer = findActingPlayer(kingdom, world, chunkX, chunkZ);
+        com.excrele.kingdoms.api.event.KingdomClaimEvent claimEvent = 
+            new com.excrele.kingdoms.api.event.KingdomClaimEvent(kingdom, chunk, claimer);
+        if (plugin != null && plugin.getServer() != null) {
+            plugin.getServer().getPluginManager().callEvent(claimEvent);
+            if (claimEvent.isCancelled()) {
+                logClaimFailure(kingdomInfo, chunkInfo, "Claim was cancelled by another plugin");
+                return false;
             }
-            return true;
         }
-
-        // Check if chunk is adjacent to any existing claim
-        for (List<Chunk> claim : claims) {
-            if (isAdjacent(chunk, claim)) {
-                // Call KingdomClaimEvent
-                org.bukkit.entity.Player claimer = null;
-                if (plugin != null && plugin.getServer() != null) {
-                    // Try to find the player who initiated the claim
-                    for (org.bukkit.entity.Player p : plugin.getServer().getOnlinePlayers()) {
-                        if (p.getLocation().getChunk().equals(chunk)) {
-                            String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(p.getName());
-                            if (kingdomName != null && kingdomName.equals(kingdom.getName())) {
-                                claimer = p;
-                                break;
-                            }
-                        }
-                    }
-                }
-                
-                com.excrele.kingdoms.api.event.KingdomClaimEvent claimEvent = 
-                    new com.excrele.kingdoms.api.event.KingdomClaimEvent(kingdom, chunk, claimer);
-                if (plugin != null && plugin.getServer() != null) {
-                    plugin.getServer().getPluginManager().callEvent(claimEvent);
-                    if (claimEvent.isCancelled()) {
-                        logClaimFailure(kingdomInfo, chunkInfo, "Claim was cancelled by another plugin");
-                        return false;
-                    }
-                }
-                
-                claim.add(chunk);
-                kingdomManager.claimChunk(kingdom, chunk, claim);
-                if (plugin != null) {
-                    plugin.getLogger().info(String.format("[ClaimManager] Successfully claimed chunk %s for kingdom '%s' (adjacent claim)", 
-                        chunkInfo, kingdomInfo));
+        
+        if (isFirstClaim) {
+            claims.add(targetClaim);
+        }
+        kingdomManager.claimChunk(kingdom, world.getName(), chunkX, chunkZ, targetClaim);
+        if (plugin != null) {
+            plugin.getLogger().info(String.format("[ClaimManager] Successfully claimed chunk %s for kingdom '%s' (%s)", 
+                chunkInfo, kingdomInfo, isFirstClaim ? "first claim" : "adjacent claim"));
+        }
+        return true;
+    }
+    
+    /**
+     * Find the online kingdom member standing in a chunk (the likely initiator of a claim change)
+     */
+    private org.bukkit.entity.Player findActingPlayer(Kingdom kingdom, World world, int chunkX, int chunkZ) {
+        if (plugin == null || plugin.getServer() == null) return null;
+        for (org.bukkit.entity.Player p : plugin.getServer().getOnlinePlayers()) {
+            org.bukkit.Location loc = p.getLocation();
+            if (world.equals(loc.getWorld()) && (loc.getBlockX() >> 4) == chunkX && (loc.getBlockZ() >> 4) == chunkZ) {
+                String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(p.getName());
+                if (kingdomName != null && kingdomName.equals(kingdom.getName())) {
+                    return p;
                 }
-                return true;
             }
         }
-
-        // Chunk is not adjacent to any existing claim - reject
-        logClaimFailure(kingdomInfo, chunkInfo, 
-            "Chunk is not adjacent to any existing claims. New chunks must be adjacent to existing claims.");
-        return false;
+        return null;
     }
     
     private void logClaimFailure(String kingdomName, String chunkInfo, String reason) {
@@ -203,25 +194,12 @@ public class ClaimManager {
     }
 
     public boolean unclaimChunk(Kingdom kingdom, Chunk chunk) {
-        String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        if (!kingdomManager.getClaimedChunks().containsKey(key) || kingdomManager.getKingdomByChunk(chunk) != kingdom) {
+        if (kingdomManager.getKingdomByChunk(chunk) != kingdom) {
             return false;
         }
         
         // Call KingdomUnclaimEvent
-        org.bukkit.entity.Player unclaimer = null;
-        if (plugin != null && plugin.getServer() != null) {
-            // Try to find the player who initiated the unclaim
-            for (org.bukkit.entity.Player p : plugin.getServer().getOnlinePlayers()) {
-                if (p.getLocation().getChunk().equals(chunk)) {
-                    String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(p.getName());
-                    if (kingdomName != null && kingdomName.equals(kingdom.getName())) {
-                        unclaimer = p;
-                        break;
-                    }
-                }
-            }
-        }
+        org.bukkit.entity.Player unclaimer = findActingPlayer(kingdom, chunk.getWorld(), chunk.getX(), chunk.getZ());
         
         com.excrele.kingdoms.api.event.KingdomUnclaimEvent unclaimEvent = 
             new com.excrele.kingdoms.api.event.KingdomUnclaimEvent(kingdom, chunk, unclaimer);
@@ -229,40 +207,18 @@ public class ClaimManager {
             plugin.getServer().getPluginManager().callEvent(unclaimEvent);
         }
         
-        for (List<Chunk> claim : kingdom.getClaims()) {
-            if (claim.contains(chunk)) {
-                claim.remove(chunk);
-                if (claim.isEmpty()) kingdom.getClaims().remove(claim);
-                kingdomManager.unclaimChunk(chunk);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private int chebyshevDistance(Chunk c1, Chunk c2) {
-        return Math.max(Math.abs(c1.getX() - c2.getX()), Math.abs(c1.getZ() - c2.getZ()));
-    }
-
-    private int minDistance(Chunk C, List<Chunk> claim) {
-        int minDist = Integer.MAX_VALUE;
-        for (Chunk chunk : claim) {
-            int dist = chebyshevDistance(C, chunk);
-            if (dist < minDist) minDist = dist;
-        }
-        return minDist;
+        String worldName = chunk.getWorld().getName();
+        ClaimGroup claim = kingdom.getClaimGroup(worldName, chunk.getX(), chunk.getZ());
+        if (claim == null) return false;
+        claim.remove(worldName, chunk.getX(), chunk.getZ());
+        if (claim.isEmpty()) kingdom.getClaims().remove(claim);
+        kingdom.markDirty();
+        kingdomManager.unclaimChunk(worldName, chunk.getX(), chunk.getZ());
+        return true;
     }
 
-    private boolean isAdjacent(Chunk C, List<Chunk> claim) {
-        for (Chunk chunk : claim) {
-            if (chebyshevDistance(C, chunk) == 1) return true;
-        }
-        return false;
-    }
-
-    private boolean isChunkClaimed(Chunk C) {
-        String key = C.getWorld().getName() + ":" + C.getX() + ":" + C.getZ();
-        return kingdomManager.getClaimedChunks().containsKey(key);
+    private int chebyshevDistance(int x1, int z1, int x2, int z2) {
+        return Math.max(Math.abs(x1 - x2), Math.abs(z1 - z2));
     }
 
     /**
@@ -271,47 +227,56 @@ public class ClaimManager {
      * @param kingdom The kingdom claiming the chunks
      * @param centerChunk The center chunk
      * @param radius The radius in chunks (Chebyshev distance)
-     * @return List of successfully claimed chunks
+     * @return Coordinates {x, z} of the successfully claimed chunks (nothing is loaded to return them)
      */
-    public java.util.List<Chunk> claimChunksInRadius(Kingdom kingdom, Chunk centerChunk, int radius) {
-        java.util.List<Chunk> claimedChunks = new ArrayList<>();
+    public java.util.List<int[]> claimChunksInRadius(Kingdom kingdom, Chunk centerChunk, int radius) {
+        java.util.List<int[]> claimedChunks = new ArrayList<>();
         
         // Limit radius to prevent abuse
         if (radius < 1) radius = 1;
         if (radius > 10) radius = 10; // Max radius of 10 chunks
         
-        // Get all chunks in radius
-        java.util.List<Chunk> chunksInRadius = new ArrayList<>();
-        for (int x = centerChunk.getX() - radius; x <= centerChunk.getX() + radius; x++) {
-            for (int z = centerChunk.getZ() - radius; z <= centerChunk.getZ() + radius; z++) {
-                Chunk chunk = centerChunk.getWorld().getChunkAt(x, z);
-                int distance = chebyshevDistance(centerChunk, chunk);
-                if (distance <= radius) {
-                    chunksInRadius.add(chunk);
+        World world = centerChunk.getWorld();
+        int centerX = centerChunk.getX();
+        int centerZ = centerChunk.getZ();
+        
+        // Snapshot ownership of the area by coordinates only (no chunk loading)
+        com.excrele.kingdoms.util.ClaimGrid grid = kingdomManager.getClaimGrid(world, centerX, centerZ, radius);
+        
+        // Collect unclaimed tiles in radius
+        java.util.List<int[]> candidates = new ArrayList<>();
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                if (!grid.isClaimed(x, z)) {
+                    candidates.add(new int[] { x, z });
                 }
             }
         }
         
-        // Sort chunks by distance from center (closest first)
-        chunksInRadius.sort((c1, c2) -> {
-            int dist1 = chebyshevDistance(centerChunk, c1);
-            int dist2 = chebyshevDistance(centerChunk, c2);
-            return Integer.compare(dist1, dist2);
-        });
+        // Sort tiles by distance from center (closest first)
+        candidates.sort((c1, c2) -> Integer.compare(
+            chebyshevDistance(centerX, centerZ, c1[0], c1[1]),
+            chebyshevDistance(centerX, centerZ, c2[0], c2[1])));
         
-        // Try to claim each chunk
-        for (Chunk chunk : chunksInRadius) {
+        // Try to claim each tile
+        for (int[] tile : candidates) {
             // Check if we've hit the claim limit
             if (kingdom.getCurrentClaimChunks() >= kingdom.getMaxClaimChunks()) {
                 break;
             }
             
-            // Try to claim the chunk
-            if (claimChunk(kingdom, chunk)) {
-                claimedChunks.add(chunk);
+            // Skip tiles that cannot touch our territory yet (avoids a failed claim attempt)
+            if (kingdom.getCurrentClaimChunks() > 0
+                && !kingdomManager.getClaimIndex().isAdjacentTo(world.getName(), tile[0], tile[1], kingdom)) {
+                continue;
+            }
+            
+            // Try to claim the tile
+            if (claimChunk(kingdom, world, tile[0], tile[1])) {
+                claimedChunks.add(tile);
             }
         }
         
         return claimedChunks;
     }
-}
\ No newline at end of file
+}
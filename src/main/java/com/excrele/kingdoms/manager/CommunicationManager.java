@@ -13,6 +13,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * Manages kingdom communication (announcements, events, notifications)
  */
 public class CommunicationManager {
+    private static final long[] REMINDER_OFFSETS = {3600, 900, 60}; // Seconds before an event starts
+    
     private final KingdomsPlugin plugin;
     private final Map<String, List<KingdomAnnouncement>> announcements; // kingdomName -> announcements
     private final Map<String, List<KingdomEvent>> events; // kingdomName -> events
@@ -114,6 +116,9 @@ public class CommunicationManager {
         KingdomEvent event = new KingdomEvent(id, kingdom.getName(), name, description, location, scheduledTime);
         
         events.computeIfAbsent(kingdom.getName(), k -> new ArrayList<>()).add(event);
+        if (plugin.getKingdomScheduler() != null) {
+            plugin.getKingdomScheduler().wake(com.excrele.kingdoms.task.AutoFeaturesTask.EVENT_REMINDERS, getNextReminder());
+        }
         
         // Notify all online members
         broadcastEvent(kingdom, event);
@@ -206,6 +211,34 @@ public class CommunicationManager {
         return "in " + (seconds / 86400) + " days";
     }
     
+    /**
+     * When the next event reminder is due (epoch millis), or Long.MAX_VALUE if none are. Reminders
+     * match the exact second, so the reminder job runs on this deadline rather than on a poll.
+     */
+    public long getNextReminder() {
+        long now = System.currentTimeMillis() / 1000;
+        long next = Long.MAX_VALUE;
+        for (List<KingdomEvent> kingdomEvents : events.values()) {
+            for (KingdomEvent event : kingdomEvents) {
+                if (!event.isActive() || event.getScheduledTime() <= now) continue;
+                for (long before : REMINDER_OFFSETS) {
+                    long at = event.getScheduledTime() - before;
+                    if (at > now) {
+                        next = Math.min(next, at * 1000);
+                    }
+                }
+            }
+        }
+        return next;
+    }
+    
+    private static boolean isReminderTime(long timeUntil) {
+        for (long before : REMINDER_OFFSETS) {
+            if (timeUntil == before) return true;
+        }
+        return false;
+    }
+    
     /**
      * Check and notify about upcoming events
      */
@@ -219,7 +252,7 @@ public class CommunicationManager {
                 
                 long timeUntil = event.getTimeUntil();
                 // Notify 1 hour before, 15 minutes before, and 1 minute before
-                if (timeUntil == 3600 || timeUntil == 900 || timeUntil == 60) {
+                if (isReminderTime(timeUntil)) {
                     String message = "§6§l[Event Reminder] §r§e" + event.getName() + 
                         " §7starts " + formatTimeUntil(timeUntil);
                     
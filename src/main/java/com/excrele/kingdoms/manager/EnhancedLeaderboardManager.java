@@ -19,12 +19,30 @@ public class EnhancedLeaderboardManager {
     private String currentSeasonType; // "weekly" or "monthly"
     private int seasonNumber;
     
-    // Seasonal scores: seasonId -> kingdomName -> score
-    private final Map<String, Map<String, Integer>> seasonalScores;
+    // Points gained this season, one column per leaderboard type
+    private final com.excrele.kingdoms.storage.SeasonScoreStore seasonScores;
+    private org.bukkit.scheduler.BukkitTask flushTask;
+    private org.bukkit.scheduler.BukkitTask refreshTask;
+    
+    // Current standings, one ranking per type, guarded by this; only the server thread writes them
+    private final Map<LeaderboardType, com.excrele.kingdoms.util.RankIndex> rankings;
+    private final Set<String> changedKingdoms; // Kingdoms whose tracked scores changed since they were indexed
+    private long derivedRefreshedAt; // Last rebuild of the STREAKS, HEALTH and GROWTH rankings (ms, server thread)
+    private volatile boolean derivedRead = true; // A derived ranking was read since its last rebuild
+    private long rankLookups;
+    private long reindexed;
     
     // Leaderboard types
     public enum LeaderboardType {
-        LEVEL, XP, MEMBERS, CHALLENGES, CONTRIBUTIONS, STREAKS, HEALTH, GROWTH
+        LEVEL, XP, MEMBERS, CHALLENGES, CONTRIBUTIONS, STREAKS, HEALTH, GROWTH;
+        
+        /**
+         * Whether the score only changes through the kingdom itself, so it can be re-indexed as it changes.
+         * The others depend on member activity and statistics and are rebuilt periodically.
+         */
+        public boolean isTracked() {
+            return this != STREAKS && this != HEALTH && this != GROWTH;
+        }
     }
     
     // Season types
@@ -45,12 +63,29 @@ public class EnhancedLeaderboardManager {
     
     public EnhancedLeaderboardManager(KingdomsPlugin plugin) {
         this.plugin = plugin;
-        this.seasonalScores = new ConcurrentHashMap<>();
+        this.seasonScores = new com.excrele.kingdoms.storage.SeasonScoreStore(
+            new java.io.File(plugin.getDataFolder(), "seasons"), LeaderboardType.values().length, plugin.getLogger());
+        this.rankings = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            rankings.put(type, new com.excrele.kingdoms.util.RankIndex());
+        }
+        this.changedKingdoms = ConcurrentHashMap.newKeySet();
+        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
+            kingdomAdded(kingdom);
+        }
         this.currentSeasonStart = System.currentTimeMillis() / 1000;
         this.currentSeasonType = plugin.getConfig().getString("leaderboards.season_type", "weekly");
         this.seasonNumber = plugin.getConfig().getInt("leaderboards.season_number", 1);
         calculateSeasonEnd();
         loadSeasonalData();
+        startFlushTask();
+        update();
+        refreshTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                update();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
     }
     
     private void calculateSeasonEnd() {
@@ -59,11 +94,61 @@ public class EnhancedLeaderboardManager {
     }
     
     private void loadSeasonalData() {
-        // Load from config/storage
         String seasonId = getCurrentSeasonId();
-        Map<String, Integer> scores = new HashMap<>();
-        // Load scores from storage adapter if needed
-        seasonalScores.put(seasonId, scores);
+        seasonScores.open(seasonId);
+        if (!seasonScores.exists()) {
+            migrateConfigScores(seasonId);
+        }
+    }
+    
+    /**
+     * Move scores older versions kept in config.yml (leaderboards.seasons.<season>.<kingdom>_<TYPE>) into the journal
+     */
+    private void migrateConfigScores(String seasonId) {
+        org.bukkit.configuration.ConfigurationSection section =
+            plugin.getConfig().getConfigurationSection("leaderboards.seasons." + seasonId);
+        if (section == null) return;
+        for (String key : section.getKeys(false)) {
+            for (LeaderboardType type : LeaderboardType.values()) {
+                String suffix = "_" + type.name();
+                if (key.endsWith(suffix)) {
+                    seasonScores.add(key.substring(0, key.length() - suffix.length()), type.ordinal(), section.getInt(key));
+                    break;
+                }
+            }
+        }
+        seasonScores.flush();
+        plugin.getConfig().set("leaderboards.seasons." + seasonId, null);
+        plugin.saveConfig();
+        plugin.getLogger().info("Migrated season " + seasonId + " scores from config.yml");
+    }
+    
+    /**
+     * Flush changed season scores off the server thread every interval
+     */
+    private void startFlushTask() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("leaderboards.flush-interval", 30L)) * 20L;
+        flushTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                seasonScores.flush();
+            }
+        }.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Stop the flush task and write the remaining season scores (server thread, on disable)
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        seasonScores.flush();
     }
     
     /**
@@ -89,11 +174,10 @@ public class EnhancedLeaderboardManager {
      */
     private void endSeason() {
         String seasonId = getCurrentSeasonId();
-        Map<String, Integer> scores = seasonalScores.getOrDefault(seasonId, new HashMap<>());
         
         // Get top kingdoms for each leaderboard type
         for (LeaderboardType type : LeaderboardType.values()) {
-            List<Map.Entry<String, Integer>> topKingdoms = getTopKingdomsForType(type, scores, 3);
+            List<Map.Entry<String, Integer>> topKingdoms = seasonScores.top(type.ordinal(), 3);
             
             // Distribute rewards
             distributeRewards(type, topKingdoms, seasonId);
@@ -102,8 +186,8 @@ public class EnhancedLeaderboardManager {
         // Announce season end
         announceSeasonEnd(seasonId);
         
-        // Save season results
-        saveSeasonResults(seasonId, scores);
+        // Save season results; the season's journal is kept as its record
+        seasonScores.flush();
     }
     
     /**
@@ -114,8 +198,7 @@ public class EnhancedLeaderboardManager {
         seasonNumber++;
         calculateSeasonEnd();
         
-        String newSeasonId = getCurrentSeasonId();
-        seasonalScores.put(newSeasonId, new HashMap<>());
+        seasonScores.open(getCurrentSeasonId());
         
         // Announce new season
         announceSeasonStart();
@@ -130,92 +213,191 @@ public class EnhancedLeaderboardManager {
      * Get leaderboard for a specific type
      */
     public List<Map.Entry<String, Integer>> getLeaderboard(LeaderboardType type, int limit, boolean seasonal) {
-        Map<String, Integer> scores;
-        
-        if (seasonal) {
-            String seasonId = getCurrentSeasonId();
-            Map<String, Integer> seasonalData = seasonalScores.getOrDefault(seasonId, new HashMap<>());
-            // Extract scores for this specific type
-            scores = new HashMap<>();
-            for (Map.Entry<String, Integer> entry : seasonalData.entrySet()) {
-                if (entry.getKey().endsWith("_" + type.name())) {
-                    String kingdomName = entry.getKey().replace("_" + type.name(), "");
-                    scores.put(kingdomName, entry.getValue());
+        // If no seasonal data, use current scores
+        if (seasonal && seasonScores.size(type.ordinal()) > 0) {
+            return seasonScores.top(type.ordinal(), limit);
+        }
+        return getTopKingdoms(type, limit);
+    }
+    
+    /**
+     * Top kingdoms by current score, read from the ranking without sorting. Safe from any thread;
+     * score changes show up after the next tick.
+     */
+    public synchronized List<Map.Entry<String, Integer>> getTopKingdoms(LeaderboardType type, int limit) {
+        if (!type.isTracked()) derivedRead = true;
+        List<Map.Entry<String, Integer>> top = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : rankings.get(type).top(limit)) {
+            top.add(Map.entry(entry.getKey(), entry.getValue().intValue()));
+        }
+        return top;
+    }
+    
+    /**
+     * A kingdom's current position (1 = best; tied kingdoms share a rank), or 0 if unknown.
+     * Safe from any thread, like getTopKingdoms.
+     */
+    public synchronized int getRank(String kingdomName, LeaderboardType type) {
+        rankLookups++;
+        if (!type.isTracked()) derivedRead = true;
+        return rankings.get(type).rank(kingdomName);
+    }
+    
+    /**
+     * Start ranking a kingdom and follow its score changes
+     */
+    public void kingdomAdded(Kingdom kingdom) {
+        kingdom.setScoreListener(changed -> changedKingdoms.add(changed.getName()));
+        changedKingdoms.add(kingdom.getName());
+    }
+    
+    /**
+     * Drop a dissolved kingdom from every ranking
+     */
+    public synchronized void kingdomRemoved(String kingdomName) {
+        changedKingdoms.remove(kingdomName);
+        seasonScores.remove(kingdomName);
+        for (com.excrele.kingdoms.util.RankIndex ranking : rankings.values()) {
+            ranking.remove(kingdomName);
+        }
+    }
+    
+    /**
+     * Bring the rankings up to date (server thread): re-index kingdoms that changed, and rebuild the
+     * periodic rankings once stale if anyone read them. Scores are computed before taking the lock,
+     * so readers only wait for the index updates.
+     */
+    private void update() {
+        Map<String, Kingdom> kingdoms = plugin.getKingdomManager().getKingdoms();
+        if (!changedKingdoms.isEmpty()) {
+            List<String> removed = new ArrayList<>();
+            List<Kingdom> changed = new ArrayList<>();
+            List<int[]> scores = new ArrayList<>(); // score and tie breaker per tracked type, in changed order
+            Iterator<String> iterator = changedKingdoms.iterator();
+            while (iterator.hasNext()) {
+                String kingdomName = iterator.next();
+                iterator.remove();
+                Kingdom kingdom = kingdoms.get(kingdomName);
+                if (kingdom == null) {
+                    removed.add(kingdomName);
+                    continue;
                 }
+                int[] values = new int[LeaderboardType.values().length * 2];
+                for (LeaderboardType tracked : LeaderboardType.values()) {
+                    if (!tracked.isTracked()) continue;
+                    values[tracked.ordinal() * 2] = calculateScore(kingdom, tracked);
+                    values[tracked.ordinal() * 2 + 1] = tieBreaker(kingdom, tracked);
+                }
+                changed.add(kingdom);
+                scores.add(values);
             }
-            // If no seasonal data, use current scores
-            if (scores.isEmpty()) {
-                scores = calculateCurrentScores(type);
+            synchronized (this) {
+                for (String kingdomName : removed) {
+                    for (LeaderboardType tracked : LeaderboardType.values()) {
+                        if (tracked.isTracked()) rankings.get(tracked).remove(kingdomName);
+                    }
+                }
+                for (int i = 0; i < changed.size(); i++) {
+                    int[] values = scores.get(i);
+                    for (LeaderboardType tracked : LeaderboardType.values()) {
+                        if (!tracked.isTracked()) continue;
+                        rankings.get(tracked).put(changed.get(i).getName(), values[tracked.ordinal() * 2], values[tracked.ordinal() * 2 + 1]);
+                    }
+                }
+                reindexed += removed.size() + changed.size();
+            }
+        }
+        long now = System.currentTimeMillis();
+        long interval = plugin.getConfig().getLong("leaderboards.refresh-interval", 60L) * 1000L;
+        if (derivedRead && now - derivedRefreshedAt >= interval) {
+            derivedRead = false;
+            derivedRefreshedAt = now;
+            Map<LeaderboardType, Map<String, Integer>> derivedScores = new EnumMap<>(LeaderboardType.class);
+            for (LeaderboardType derived : LeaderboardType.values()) {
+                if (derived.isTracked()) continue;
+                Map<String, Integer> typeScores = new HashMap<>();
+                for (Kingdom kingdom : kingdoms.values()) {
+                    typeScores.put(kingdom.getName(), calculateScore(kingdom, derived));
+                }
+                derivedScores.put(derived, typeScores);
+            }
+            synchronized (this) {
+                for (Map.Entry<LeaderboardType, Map<String, Integer>> entry : derivedScores.entrySet()) {
+                    com.excrele.kingdoms.util.RankIndex ranking = rankings.get(entry.getKey());
+                    ranking.clear();
+                    entry.getValue().forEach((kingdomName, score) -> ranking.put(kingdomName, score, 0));
+                }
             }
-        } else {
-            scores = calculateCurrentScores(type);
         }
-        
-        return scores.entrySet().stream()
-            .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .toList();
     }
     
     /**
-     * Calculate current scores for a leaderboard type
+     * Calculate a kingdom's current score for a leaderboard type
      */
-    private Map<String, Integer> calculateCurrentScores(LeaderboardType type) {
-        Map<String, Integer> scores = new HashMap<>();
-        
-        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-            int score = switch (type) {
-                case LEVEL -> kingdom.getLevel();
-                case XP -> kingdom.getXp();
-                case MEMBERS -> kingdom.getMembers().size() + 1;
-                case CHALLENGES -> kingdom.getTotalChallengesCompleted();
-                case CONTRIBUTIONS -> kingdom.getMemberContributions().values().stream()
-                    .mapToInt(Integer::intValue).sum();
-                case STREAKS -> calculateAverageStreak(kingdom);
-                case HEALTH -> (int) plugin.getStatisticsManager().calculateKingdomHealthScore(kingdom.getName());
-                case GROWTH -> (int) (plugin.getStatisticsManager().calculateGrowthScore(kingdom.getName()) * 10);
-            };
-            scores.put(kingdom.getName(), score);
-        }
-        
-        return scores;
+    private int calculateScore(Kingdom kingdom, LeaderboardType type) {
+        return switch (type) {
+            case LEVEL -> kingdom.getLevel();
+            case XP -> kingdom.getXp();
+            case MEMBERS -> kingdom.getMembers().size() + 1;
+            case CHALLENGES -> kingdom.getTotalChallengesCompleted();
+            case CONTRIBUTIONS -> kingdom.getMemberContributions().values().stream()
+                .mapToInt(Integer::intValue).sum();
+            case STREAKS -> calculateAverageStreak(kingdom);
+            case HEALTH -> (int) plugin.getStatisticsManager().calculateKingdomHealthScore(kingdom.getName());
+            case GROWTH -> (int) (plugin.getStatisticsManager().calculateGrowthScore(kingdom.getName()) * 10);
+        };
+    }
+    
+    // Level ties are decided by XP and XP ties by level
+    private int tieBreaker(Kingdom kingdom, LeaderboardType type) {
+        return switch (type) {
+            case LEVEL -> kingdom.getXp();
+            case XP -> kingdom.getLevel();
+            default -> 0;
+        };
+    }
+    
+    /**
+     * Rank lookups served since startup
+     */
+    public synchronized long getRankLookupCount() {
+        return rankLookups;
+    }
+    
+    /**
+     * Kingdom score changes applied to the rankings since startup
+     */
+    public synchronized long getReindexCount() {
+        return reindexed;
     }
     
     /**
-     * Update seasonal scores
+     * Update seasonal scores (written to the season journal on the next flush)
      */
     public void updateSeasonalScore(String kingdomName, LeaderboardType type, int points) {
-        String seasonId = getCurrentSeasonId();
-        Map<String, Integer> scores = seasonalScores.computeIfAbsent(seasonId, k -> new HashMap<>());
-        
         // For seasonal, we track points gained during the season
-        String key = kingdomName + "_" + type.name();
-        scores.put(key, scores.getOrDefault(key, 0) + points);
-        
-        // Save to config
-        plugin.getConfig().set("leaderboards.seasons." + seasonId + "." + key, scores.get(key));
-        plugin.saveConfig();
+        seasonScores.add(kingdomName, type.ordinal(), points);
     }
     
     /**
-     * Get top kingdoms for a specific type
+     * Points a kingdom gained this season
      */
-    private List<Map.Entry<String, Integer>> getTopKingdomsForType(LeaderboardType type, 
-                                                                    Map<String, Integer> scores, 
-                                                                    int limit) {
-        Map<String, Integer> typeScores = new HashMap<>();
-        
-        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
-            if (entry.getKey().endsWith("_" + type.name())) {
-                String kingdomName = entry.getKey().replace("_" + type.name(), "");
-                typeScores.put(kingdomName, entry.getValue());
-            }
-        }
-        
-        return typeScores.entrySet().stream()
-            .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .toList();
+    public int getSeasonalScore(String kingdomName, LeaderboardType type) {
+        return seasonScores.get(kingdomName, type.ordinal());
+    }
+    
+    /**
+     * Season scores waiting to be written
+     */
+    public int getPendingSeasonScores() {
+        return seasonScores.getPendingCount();
+    }
+    
+    /**
+     * Season journal flushes that wrote something
+     */
+    public long getSeasonFlushCount() {
+        return seasonScores.getFlushCount();
     }
     
     /**
@@ -340,21 +522,21 @@ public class EnhancedLeaderboardManager {
     }
     
     /**
-     * Calculate average streak for a kingdom
+     * Calculate average streak for a kingdom over the members whose activity is in memory
      */
     private int calculateAverageStreak(Kingdom kingdom) {
         int totalStreak = 0;
         int count = 0;
         
         for (String member : kingdom.getMembers()) {
-            com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getActivity(member);
+            com.excrele.kingdoms.model.PlayerActivity activity = plugin.getActivityManager().getCachedActivity(member);
             if (activity != null) {
                 totalStreak += activity.getContributionStreak();
                 count++;
             }
         }
         
-        com.excrele.kingdoms.model.PlayerActivity kingActivity = plugin.getActivityManager().getActivity(kingdom.getKing());
+        com.excrele.kingdoms.model.PlayerActivity kingActivity = plugin.getActivityManager().getCachedActivity(kingdom.getKing());
         if (kingActivity != null) {
             totalStreak += kingActivity.getContributionStreak();
             count++;
@@ -363,15 +545,6 @@ public class EnhancedLeaderboardManager {
         return count > 0 ? totalStreak / count : 0;
     }
     
-    /**
-     * Save season results
-     */
-    private void saveSeasonResults(String seasonId, Map<String, Integer> scores) {
-        // Save to config or storage
-        plugin.getConfig().set("leaderboards.seasons." + seasonId, scores);
-        plugin.saveConfig();
-    }
-    
     /**
      * Get time remaining in current season
      */
@@ -177,6 +177,10 @@ public class EnhancedWarManager {
         }
         
         ceasefire.setStatus(Ceasefire.CeasefireStatus.ACTIVE);
+        if (plugin.getKingdomScheduler() != null) {
+            plugin.getKingdomScheduler().wake(com.excrele.kingdoms.task.AutoFeaturesTask.CEASEFIRES,
+                (ceasefire.getExpirationTime() + 1) * 1000);
+        }
         
         addWarHistoryEntry(ceasefire.getWarId(), "Ceasefire accepted", 
             ceasefire.getAcceptingKingdom() + " accepted ceasefire from " + 
@@ -217,6 +221,10 @@ public class EnhancedWarManager {
                                                             winnerKingdom, reparationAmount, dueDate);
                 
                 warReparations.put(reparationId, reparation);
+                if (plugin.getKingdomScheduler() != null) {
+                    plugin.getKingdomScheduler().wake(com.excrele.kingdoms.task.AutoFeaturesTask.REPARATIONS,
+                        (dueDate + 1) * 1000);
+                }
                 kingdomReparations.computeIfAbsent(loserKingdom, k -> new ArrayList<>()).add(reparationId);
                 
                 addWarHistoryEntry(warId, "War ended with reparations", 
@@ -283,18 +291,41 @@ public class EnhancedWarManager {
             
             // Try to auto-pay from kingdom bank
             if (plugin.getBankManager() != null) {
-                double balance = plugin.getBankManager().getBalance(reparation.getPayingKingdom());
                 double remaining = reparation.getRemainingAmount();
                 
-                if (balance >= remaining) {
-                    plugin.getBankManager().withdraw(reparation.getPayingKingdom(), remaining);
-                    plugin.getBankManager().deposit(reparation.getReceivingKingdom(), remaining);
+                if (plugin.getBankManager().transfer(reparation.getPayingKingdom(), reparation.getReceivingKingdom(), remaining)) {
                     reparation.addPayment(remaining);
                 }
             }
         }
     }
     
+    /**
+     * When the next unpaid reparation becomes overdue (epoch millis), or Long.MAX_VALUE if none will.
+     * Reparations already overdue are retried on the job's period.
+     */
+    public long getNextReparationDue() {
+        long now = System.currentTimeMillis() / 1000;
+        long next = Long.MAX_VALUE;
+        for (WarReparation reparation : warReparations.values()) {
+            if (reparation.isPaidOff() || reparation.getDueDate() < now) continue;
+            next = Math.min(next, (reparation.getDueDate() + 1) * 1000);
+        }
+        return next;
+    }
+    
+    /**
+     * When the next active ceasefire expires (epoch millis), or Long.MAX_VALUE if none are active
+     */
+    public long getNextCeasefireExpiry() {
+        long next = Long.MAX_VALUE;
+        for (Ceasefire ceasefire : ceasefires.values()) {
+            if (ceasefire.getStatus() != Ceasefire.CeasefireStatus.ACTIVE) continue;
+            next = Math.min(next, (ceasefire.getExpirationTime() + 1) * 1000);
+        }
+        return next;
+    }
+    
     /**
      * Check for expired ceasefires
      */
@@ -2,6 +2,7 @@ package com.excrele.kingdoms.manager;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.util.PlayerIds;
 import org.bukkit.Chunk;
 import org.bukkit.entity.Player;
 
@@ -19,9 +20,10 @@ public class FlagManager {
         if (kingdom == null) return true; // Unclaimed chunks are buildable
         Map<String, String> flags = kingdom.getPlotFlags(chunk);
         String buildFlag = flags.getOrDefault("build", "members");
+        int playerId = PlayerIds.idOf(player);
         return switch (buildFlag) {
-            case "king" -> kingdom.getKing().equals(player.getName());
-            case "members" -> kingdom.getKing().equals(player.getName()) || kingdom.getMembers().contains(player.getName());
+            case "king" -> kingdom.isKing(playerId);
+            case "members" -> kingdom.isKing(playerId) || kingdom.hasMember(playerId);
             default -> true;
         };
     }
@@ -31,9 +33,10 @@ public class FlagManager {
         if (kingdom == null) return true;
         Map<String, String> flags = kingdom.getPlotFlags(chunk);
         String breakFlag = flags.getOrDefault("break", "members");
+        int playerId = PlayerIds.idOf(player);
         return switch (breakFlag) {
-            case "king" -> kingdom.getKing().equals(player.getName());
-            case "members" -> kingdom.getKing().equals(player.getName()) || kingdom.getMembers().contains(player.getName());
+            case "king" -> kingdom.isKing(playerId);
+            case "members" -> kingdom.isKing(playerId) || kingdom.hasMember(playerId);
             default -> true;
         };
     }
@@ -49,8 +52,11 @@ public class FlagManager {
             player.sendMessage("You don't have permission to set plot flags!");
             return;
         }
-        Map<String, String> flags = kingdom.getPlotFlags(chunk);
+        Map<String, String> flags = kingdom.getOrCreatePlotFlags(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
         flags.put(flag, value);
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidateChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+        }
         plugin.getKingdomManager().saveKingdoms(plugin.getKingdomsConfig(), plugin.getKingdomsFile());
         player.sendMessage("Flag " + flag + " set to " + value + " for chunk!");
     }
@@ -2,42 +2,68 @@ package com.excrele.kingdoms.manager;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.ClaimGroup;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.storage.ClaimRegionStore;
+import com.excrele.kingdoms.util.AtomicFiles;
 import com.excrele.kingdoms.util.ClaimCache;
+import com.excrele.kingdoms.util.ClaimGrid;
+import com.excrele.kingdoms.util.ClaimIndex;
 import com.excrele.kingdoms.util.ErrorHandler;
+import com.excrele.kingdoms.util.LongObjectHashMap;
+import com.excrele.kingdoms.util.PlayerIds;
 import com.excrele.kingdoms.util.SaveQueue;
 
 public class KingdomManager {
+    private static final int MAX_LOADED_GROUPS = 4096; // Guards against corrupt group indices in region files
     private final KingdomsPlugin plugin; // Add plugin reference
     private final Map<String, Kingdom> kingdoms;
-    private final Map<String, Kingdom> claimedChunks;
-    private final Map<String, String> playerToKingdom;
+    private final ClaimIndex claimIndex;
+    private final LongObjectHashMap<String> playerToKingdom; // player id -> kingdom
+    private int playerIdEpoch; // PlayerIds.epoch() when playerToKingdom was last built
     private final FileConfiguration kingdomsConfig;
     private final File kingdomsFile;
+    private final File kingdomsFolder; // One <name>.yml per kingdom
+    private final Set<String> removedKingdoms; // Dissolved since the last save; their files are deleted
+    private final Set<String> unwrittenKingdoms; // Kingdom files (and "region:<name>" claims) queued or failed; the old kingdoms section is kept while any are
+    private volatile boolean legacyKingdoms; // kingdoms.yml still holds the old all-in-one section
     private final ClaimCache claimCache;
     private final ErrorHandler errorHandler;
     private SaveQueue saveQueue;
+    private ClaimRegionStore regionStore; // REGION storage: claims live in region files, not the kingdom files
 
     public KingdomManager(KingdomsPlugin plugin, FileConfiguration kingdomsConfig, File kingdomsFile) {
         this.plugin = plugin; // Initialize plugin
         this.kingdoms = new HashMap<>();
-        this.claimedChunks = new HashMap<>();
-        this.playerToKingdom = new HashMap<>();
+        this.claimIndex = new ClaimIndex();
+        this.playerToKingdom = new LongObjectHashMap<>();
+        this.playerIdEpoch = PlayerIds.epoch();
         this.kingdomsConfig = kingdomsConfig;
         this.kingdomsFile = kingdomsFile;
-        this.claimCache = new ClaimCache(1000); // Cache up to 1000 chunks
+        this.kingdomsFolder = new File(kingdomsFile.getParentFile(), "kingdoms");
+        this.removedKingdoms = ConcurrentHashMap.newKeySet(); // Failed deletes are re-added by the writer
+        this.unwrittenKingdoms = ConcurrentHashMap.newKeySet(); // Shared by every batch, since the queue collapses writes across them
+        this.claimCache = new ClaimCache(claimIndex, 1024); // Direct-mapped front for hot lookups
         this.errorHandler = new ErrorHandler(plugin);
+        this.regionStore = plugin.getStorageManager() != null ? plugin.getStorageManager().getClaimRegions() : null;
         loadKingdoms();
     }
     
@@ -49,183 +75,349 @@ public class KingdomManager {
     }
 
     private void loadKingdoms() {
-        if (!kingdomsConfig.contains("kingdoms")) return;
+        long start = System.nanoTime();
+        Set<String> regionKingdoms = new HashSet<>(); // Saved without a claims list; their claims are in region files
+
+        // One file per kingdom under kingdoms/
+        File[] files = kingdomsFolder.listFiles((dir, fileName) -> fileName.endsWith(".yml"));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName().substring(0, file.getName().length() - 4);
+                YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+                Kingdom kingdom = readKingdom(config, name);
+                if (kingdom == null) continue;
+                kingdom.clearDirty(); // Matches its file
+                registerLoadedKingdom(kingdom);
+                if (!config.isList("claims")) regionKingdoms.add(name);
+            }
+        }
+
+        // Kingdoms still in the old single kingdoms.yml are loaded dirty, so the next save migrates them
         org.bukkit.configuration.ConfigurationSection kingdomsSection = kingdomsConfig.getConfigurationSection("kingdoms");
-        if (kingdomsSection == null) return;
-        for (String name : kingdomsSection.getKeys(false)) {
-            String path = "kingdoms." + name;
-            String kingName = kingdomsConfig.getString(path + ".king");
-            if (kingName == null) {
-                if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
-                    plugin.getLogger().warning("Kingdom " + name + " has no king, skipping...");
+        if (kingdomsSection != null) {
+            legacyKingdoms = !kingdomsSection.getKeys(false).isEmpty();
+            for (String name : kingdomsSection.getKeys(false)) {
+                org.bukkit.configuration.ConfigurationSection section = kingdomsSection.getConfigurationSection(name);
+                if (section == null || kingdoms.containsKey(name)) continue; // Already migrated
+                Kingdom kingdom = readKingdom(section, name);
+                if (kingdom != null) registerLoadedKingdom(kingdom);
+            }
+        }
+
+        loadRegionClaims(regionKingdoms);
+        plugin.getLogger().info("Loaded " + kingdoms.size() + " kingdoms and " + claimIndex.size() + " claims in "
+            + (System.nanoTime() - start) / 1_000_000L + "ms");
+    }
+
+    /**
+     * Load the claims kept in region files. With REGION storage the files stay mapped for writing and
+     * kingdoms whose file still lists its claims are converted into them; with any other storage the
+     * files are only read (for kingdoms saved while REGION was active) and those kingdoms are saved
+     * with their claims again.
+     */
+    private void loadRegionClaims(Set<String> regionKingdoms) {
+        File folder = new File(plugin.getDataFolder(), "regions");
+        boolean active = regionStore != null;
+        if (!active && (regionKingdoms.isEmpty() || !ClaimRegionStore.exists(folder))) return;
+        ClaimRegionStore store = active ? regionStore : new ClaimRegionStore(folder, plugin.getLogger());
+        int[] orphaned = new int[1];
+        int loaded;
+        try {
+            loaded = store.load((worldName, chunkX, chunkZ, kingdomName, group) -> {
+                Kingdom kingdom = kingdoms.get(kingdomName);
+                if (kingdom == null) {
+                    orphaned[0]++; // Kingdom file missing or unreadable; leave the slot alone
+                } else if (regionKingdoms.contains(kingdomName)) {
+                    addLoadedClaim(kingdom, worldName, chunkX, chunkZ, group);
+                    if (!active) kingdom.markDirty();
+                } else if (active) {
+                    store.clearClaim(worldName, chunkX, chunkZ); // Stale; the claims in its file are converted below
                 }
-                continue;
+            });
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to load claim regions: " + e.getMessage());
+            if (active) disableRegionStore();
+            return;
+        }
+        if (!active) {
+            store.close();
+            plugin.getLogger().info("Restored " + loaded + " claims from region files into the kingdom files");
+            return;
+        }
+
+        int converted = 0;
+        try {
+            for (Kingdom kingdom : kingdoms.values()) {
+                if (regionKingdoms.contains(kingdom.getName())) continue;
+                syncRegionClaims(kingdom);
+                kingdom.markDirty(); // Rewritten without its claims list
+                converted++;
             }
-            Kingdom kingdom = new Kingdom(name, kingName);
-            kingdom.getMembers().addAll(kingdomsConfig.getStringList(path + ".members"));
-            kingdom.setCurrentClaimChunks(kingdomsConfig.getInt(path + ".currentClaimChunks"));
-            kingdom.addXp(kingdomsConfig.getInt(path + ".xp"));
-            kingdom.setLevel(kingdomsConfig.getInt(path + ".level", 1));
-            kingdom.setCreatedAt(kingdomsConfig.getLong(path + ".createdAt", System.currentTimeMillis() / 1000));
-            kingdom.setTotalChallengesCompleted(kingdomsConfig.getInt(path + ".totalChallengesCompleted", 0));
-            kingdom.getAlliances().addAll(kingdomsConfig.getStringList(path + ".alliances"));
-            
-            // Load member contributions
-            if (kingdomsConfig.contains(path + ".memberContributions")) {
-                org.bukkit.configuration.ConfigurationSection contributionsSection = kingdomsConfig.getConfigurationSection(path + ".memberContributions");
-                if (contributionsSection != null) {
-                    for (String player : contributionsSection.getKeys(false)) {
-                        kingdom.getMemberContributions().put(player, kingdomsConfig.getInt(path + ".memberContributions." + player));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to convert claims to region files: " + e.getMessage());
+            disableRegionStore();
+            return;
+        }
+        plugin.getLogger().info("Loaded " + loaded + " claims from " + store.getRegionCount() + " region files in "
+            + store.getLastLoadMillis() + "ms" + (converted > 0 ? ", converted " + converted + " kingdoms" : "")
+            + (orphaned[0] > 0 ? ", skipped " + orphaned[0] + " claims of unknown kingdoms" : ""));
+    }
+
+    private void addLoadedClaim(Kingdom kingdom, String worldName, int chunkX, int chunkZ, int group) {
+        List<ClaimGroup> groups = kingdom.getClaims();
+        int index = group >= 0 && group < MAX_LOADED_GROUPS ? group : 0;
+        while (groups.size() <= index) {
+            groups.add(new ClaimGroup());
+        }
+        groups.get(index).add(worldName, chunkX, chunkZ);
+        claimIndex.claim(worldName, chunkX, chunkZ, kingdom);
+    }
+
+    /**
+     * Stop using region files after an error; every kingdom is saved with its claims list again
+     */
+    private void disableRegionStore() {
+        plugin.getLogger().severe("Keeping claims in the kingdom files instead");
+        regionStore = null;
+        for (Kingdom kingdom : kingdoms.values()) {
+            kingdom.markDirty();
+        }
+    }
+
+    /**
+     * Write every chunk a kingdom owns, with its claim group index, to the region files.
+     * Slots that already match are left alone.
+     */
+    private void syncRegionClaims(Kingdom kingdom) throws IOException {
+        List<ClaimGroup> groups = kingdom.getClaims();
+        try {
+            for (int i = 0; i < groups.size(); i++) {
+                int group = i;
+                groups.get(i).forEach((worldName, chunkX, chunkZ) -> {
+                    if (claimIndex.getKingdomAt(worldName, chunkX, chunkZ) != kingdom) return; // Unclaimed or transferred
+                    try {
+                        regionStore.setClaim(worldName, chunkX, chunkZ, kingdom.getName(), group);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeRegionClaim(Kingdom kingdom, String worldName, int chunkX, int chunkZ) {
+        if (regionStore == null) return;
+        try {
+            regionStore.setClaim(worldName, chunkX, chunkZ, kingdom.getName(), groupOf(kingdom, worldName, chunkX, chunkZ));
+        } catch (IOException e) {
+            kingdom.markDirty(); // The next save retries through syncRegionClaims
+            plugin.getLogger().severe("Failed to write claim region for " + worldName + ":" + chunkX + ":" + chunkZ + ": " + e.getMessage());
+        }
+    }
+
+    private static int groupOf(Kingdom kingdom, String worldName, int chunkX, int chunkZ) {
+        List<ClaimGroup> groups = kingdom.getClaims();
+        for (int i = 0; i < groups.size(); i++) {
+            if (groups.get(i).contains(worldName, chunkX, chunkZ)) return i;
+        }
+        return 0;
+    }
+
+    private void registerLoadedKingdom(Kingdom kingdom) {
+        String name = kingdom.getName();
+        kingdoms.put(name, kingdom);
+        claimIndex.registerKingdom(kingdom);
+        indexPlayers(kingdom);
+    }
+
+    private void indexPlayers(Kingdom kingdom) {
+        playerToKingdom.put(PlayerIds.idOf(kingdom.getKing()), kingdom.getName());
+        for (String member : kingdom.getMembers()) {
+            playerToKingdom.put(PlayerIds.idOf(member), kingdom.getName());
+        }
+    }
+
+    /**
+     * Re-resolve every kingdom's member ids and the player index if a name moved to another id
+     * (a new player took a name). Call after PlayerIds.bind, on the server thread.
+     */
+    public void checkPlayerIds() {
+        int epoch = PlayerIds.epoch();
+        if (epoch == playerIdEpoch) return;
+        playerIdEpoch = epoch;
+        playerToKingdom.clear();
+        for (Kingdom kingdom : kingdoms.values()) {
+            kingdom.syncMemberIds();
+            indexPlayers(kingdom);
+        }
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidateAll();
+        }
+    }
+
+    /**
+     * Read a kingdom from its section (the root of its own file, or kingdoms.&lt;name&gt; in the old layout)
+     */
+    private Kingdom readKingdom(org.bukkit.configuration.ConfigurationSection section, String name) {
+        String kingName = section.getString("king");
+        if (kingName == null) {
+            if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
+                plugin.getLogger().warning("Kingdom " + name + " has no king, skipping...");
+            }
+            return null;
+        }
+        Kingdom kingdom = new Kingdom(name, kingName);
+        kingdom.loadMembers(section.getStringList("members"));
+        kingdom.setCurrentClaimChunks(section.getInt("currentClaimChunks"));
+        kingdom.addXp(section.getInt("xp"));
+        kingdom.setLevel(section.getInt("level", 1));
+        kingdom.setCreatedAt(section.getLong("createdAt", System.currentTimeMillis() / 1000));
+        kingdom.setTotalChallengesCompleted(section.getInt("totalChallengesCompleted", 0));
+        kingdom.getAlliances().addAll(section.getStringList("alliances"));
+        
+        // Load member contributions
+        if (section.contains("memberContributions")) {
+            org.bukkit.configuration.ConfigurationSection contributionsSection = section.getConfigurationSection("memberContributions");
+            if (contributionsSection != null) {
+                for (String player : contributionsSection.getKeys(false)) {
+                    kingdom.getMemberContributions().put(player, section.getInt("memberContributions." + player));
                 }
             }
-            
-            // Load member roles
-            if (kingdomsConfig.contains(path + ".memberRoles")) {
-                org.bukkit.configuration.ConfigurationSection rolesSection = kingdomsConfig.getConfigurationSection(path + ".memberRoles");
-                if (rolesSection != null) {
-                    for (String player : rolesSection.getKeys(false)) {
-                        String roleName = kingdomsConfig.getString(path + ".memberRoles." + player);
-                        if (roleName != null) {
-                            try {
-                                com.excrele.kingdoms.model.MemberRole role = com.excrele.kingdoms.model.MemberRole.valueOf(roleName.toUpperCase());
-                                kingdom.setRole(player, role);
-                            } catch (IllegalArgumentException e) {
-                                if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
-                                    plugin.getLogger().warning("Invalid role for player " + player + " in kingdom " + name + ": " + roleName);
-                                }
+        }
+        
+        // Load member roles
+        if (section.contains("memberRoles")) {
+            org.bukkit.configuration.ConfigurationSection rolesSection = section.getConfigurationSection("memberRoles");
+            if (rolesSection != null) {
+                for (String player : rolesSection.getKeys(false)) {
+                    String roleName = section.getString("memberRoles." + player);
+                    if (roleName != null) {
+                        try {
+                            com.excrele.kingdoms.model.MemberRole role = com.excrele.kingdoms.model.MemberRole.valueOf(roleName.toUpperCase());
+                            kingdom.setRole(player, role);
+                        } catch (IllegalArgumentException e) {
+                            if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
+                                plugin.getLogger().warning("Invalid role for player " + player + " in kingdom " + name + ": " + roleName);
                             }
                         }
                     }
                 }
             }
+        }
 
-            // Load spawn location (backward compatibility)
-            if (kingdomsConfig.contains(path + ".spawn")) {
-                String worldName = kingdomsConfig.getString(path + ".spawn.world");
-                if (worldName != null) {
-                    World world = plugin.getServer().getWorld(worldName); // Use plugin.getServer()
-                    if (world != null) {
-                        double x = kingdomsConfig.getDouble(path + ".spawn.x");
-                        double y = kingdomsConfig.getDouble(path + ".spawn.y");
-                        double z = kingdomsConfig.getDouble(path + ".spawn.z");
-                        float yaw = (float) kingdomsConfig.getDouble(path + ".spawn.yaw");
-                        float pitch = (float) kingdomsConfig.getDouble(path + ".spawn.pitch");
-                        kingdom.setSpawn(new Location(world, x, y, z, yaw, pitch));
-                    }
+        // Load spawn location (backward compatibility)
+        if (section.contains("spawn")) {
+            String worldName = section.getString("spawn.world");
+            if (worldName != null) {
+                World world = plugin.getServer().getWorld(worldName); // Use plugin.getServer()
+                if (world != null) {
+                    double x = section.getDouble("spawn.x");
+                    double y = section.getDouble("spawn.y");
+                    double z = section.getDouble("spawn.z");
+                    float yaw = (float) section.getDouble("spawn.yaw");
+                    float pitch = (float) section.getDouble("spawn.pitch");
+                    kingdom.setSpawn(new Location(world, x, y, z, yaw, pitch));
                 }
             }
-            
-            // Load multiple spawn points
-            if (kingdomsConfig.contains(path + ".spawns")) {
-                org.bukkit.configuration.ConfigurationSection spawnsSection = kingdomsConfig.getConfigurationSection(path + ".spawns");
-                if (spawnsSection != null) {
-                    for (String spawnName : spawnsSection.getKeys(false)) {
-                        String worldName = kingdomsConfig.getString(path + ".spawns." + spawnName + ".world");
-                        if (worldName != null) {
-                            World world = plugin.getServer().getWorld(worldName);
-                            if (world != null) {
-                                double x = kingdomsConfig.getDouble(path + ".spawns." + spawnName + ".x");
-                                double y = kingdomsConfig.getDouble(path + ".spawns." + spawnName + ".y");
-                                double z = kingdomsConfig.getDouble(path + ".spawns." + spawnName + ".z");
-                                float yaw = (float) kingdomsConfig.getDouble(path + ".spawns." + spawnName + ".yaw", 0.0);
-                                float pitch = (float) kingdomsConfig.getDouble(path + ".spawns." + spawnName + ".pitch", 0.0);
-                                kingdom.addSpawn(spawnName, new Location(world, x, y, z, yaw, pitch));
-                            }
+        }
+        
+        // Load multiple spawn points
+        if (section.contains("spawns")) {
+            org.bukkit.configuration.ConfigurationSection spawnsSection = section.getConfigurationSection("spawns");
+            if (spawnsSection != null) {
+                for (String spawnName : spawnsSection.getKeys(false)) {
+                    String worldName = section.getString("spawns." + spawnName + ".world");
+                    if (worldName != null) {
+                        World world = plugin.getServer().getWorld(worldName);
+                        if (world != null) {
+                            double x = section.getDouble("spawns." + spawnName + ".x");
+                            double y = section.getDouble("spawns." + spawnName + ".y");
+                            double z = section.getDouble("spawns." + spawnName + ".z");
+                            float yaw = (float) section.getDouble("spawns." + spawnName + ".yaw", 0.0);
+                            float pitch = (float) section.getDouble("spawns." + spawnName + ".pitch", 0.0);
+                            kingdom.addSpawn(spawnName, new Location(world, x, y, z, yaw, pitch));
                         }
                     }
                 }
             }
+        }
 
-            // Load plot types
-            if (kingdomsConfig.contains(path + ".plotTypes")) {
-                org.bukkit.configuration.ConfigurationSection plotTypesSection = kingdomsConfig.getConfigurationSection(path + ".plotTypes");
-                if (plotTypesSection == null) continue;
-                for (String chunkKey : plotTypesSection.getKeys(false)) {
-                    String[] coords = chunkKey.split(":");
-                    if (coords.length < 3) continue; // Invalid chunk key format
-                    World world = plugin.getServer().getWorld(coords[0]); // Use plugin.getServer()
-                    if (world != null) {
-                        try {
-                            Chunk chunk = world.getChunkAt(Integer.parseInt(coords[1]), Integer.parseInt(coords[2]));
-                            String plotType = kingdomsConfig.getString(path + ".plotTypes." + chunkKey);
-                            if (plotType != null) {
-                                kingdom.setPlotType(chunk, plotType);
-                            }
-                        } catch (NumberFormatException e) {
-                            if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
-                                plugin.getLogger().warning("Invalid chunk coordinates in plotTypes for kingdom " + name + ": " + chunkKey);
-                            }
-                        }
+        // Load plot types
+        if (section.isConfigurationSection("plotTypes")) {
+            org.bukkit.configuration.ConfigurationSection plotTypesSection = section.getConfigurationSection("plotTypes");
+            for (String chunkKey : plotTypesSection.getKeys(false)) {
+                String[] coords = chunkKey.split(":");
+                if (coords.length < 3) continue; // Invalid chunk key format
+                try {
+                    int chunkX = Integer.parseInt(coords[1]);
+                    int chunkZ = Integer.parseInt(coords[2]);
+                    String plotType = section.getString("plotTypes." + chunkKey);
+                    if (plotType != null) {
+                        kingdom.setPlotType(coords[0], chunkX, chunkZ, plotType);
+                    }
+                } catch (NumberFormatException e) {
+                    if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
+                        plugin.getLogger().warning("Invalid chunk coordinates in plotTypes for kingdom " + name + ": " + chunkKey);
                     }
                 }
             }
+        }
 
-            // Load per-chunk flags
-            if (kingdomsConfig.contains(path + ".chunkFlags")) {
-                org.bukkit.configuration.ConfigurationSection chunkFlagsSection = kingdomsConfig.getConfigurationSection(path + ".chunkFlags");
-                if (chunkFlagsSection == null) continue;
-                for (String chunkKey : chunkFlagsSection.getKeys(false)) {
-                    String[] coords = chunkKey.split(":");
-                    if (coords.length < 3) continue; // Invalid chunk key format
-                    World world = plugin.getServer().getWorld(coords[0]); // Use plugin.getServer()
-                    if (world != null) {
-                        try {
-                            Chunk chunk = world.getChunkAt(Integer.parseInt(coords[1]), Integer.parseInt(coords[2]));
-                            Map<String, String> flags = new HashMap<>();
-                            org.bukkit.configuration.ConfigurationSection flagSection = kingdomsConfig.getConfigurationSection(path + ".chunkFlags." + chunkKey);
-                            if (flagSection != null) {
-                                for (String flag : flagSection.getKeys(false)) {
-                                    String flagValue = kingdomsConfig.getString(path + ".chunkFlags." + chunkKey + "." + flag);
-                                    if (flagValue != null) {
-                                        flags.put(flag, flagValue);
-                                    }
-                                }
-                            }
-                            kingdom.getChunkFlags().put(chunk, flags);
-                        } catch (NumberFormatException e) {
-                            if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
-                                plugin.getLogger().warning("Invalid chunk coordinates in chunkFlags for kingdom " + name + ": " + chunkKey);
+        // Load per-chunk flags
+        if (section.isConfigurationSection("chunkFlags")) {
+            org.bukkit.configuration.ConfigurationSection chunkFlagsSection = section.getConfigurationSection("chunkFlags");
+            for (String chunkKey : chunkFlagsSection.getKeys(false)) {
+                String[] coords = chunkKey.split(":");
+                if (coords.length < 3) continue; // Invalid chunk key format
+                try {
+                    int chunkX = Integer.parseInt(coords[1]);
+                    int chunkZ = Integer.parseInt(coords[2]);
+                    org.bukkit.configuration.ConfigurationSection flagSection = section.getConfigurationSection("chunkFlags." + chunkKey);
+                    if (flagSection != null) {
+                        Map<String, String> flags = kingdom.getOrCreatePlotFlags(coords[0], chunkX, chunkZ);
+                        for (String flag : flagSection.getKeys(false)) {
+                            String flagValue = section.getString("chunkFlags." + chunkKey + "." + flag);
+                            if (flagValue != null) {
+                                flags.put(flag, flagValue);
                             }
                         }
                     }
+                } catch (NumberFormatException e) {
+                    if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
+                        plugin.getLogger().warning("Invalid chunk coordinates in chunkFlags for kingdom " + name + ": " + chunkKey);
+                    }
                 }
             }
+        }
 
-            // Load claims
-            if (kingdomsConfig.contains(path + ".claims")) {
-                @SuppressWarnings("unchecked")
-                List<List<String>> claimList = (List<List<String>>) kingdomsConfig.getList(path + ".claims");
-                if (claimList == null) continue;
-                for (List<String> tier : claimList) {
-                    List<Chunk> chunks = new ArrayList<>();
-                    for (String chunkKey : tier) {
-                        String[] coords = chunkKey.split(":");
-                        if (coords.length < 3) continue; // Invalid chunk key format
-                        World world = plugin.getServer().getWorld(coords[0]); // Use plugin.getServer()
-                        if (world != null) {
-                            try {
-                                Chunk chunk = world.getChunkAt(Integer.parseInt(coords[1]), Integer.parseInt(coords[2]));
-                                chunks.add(chunk);
-                                String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-                                claimedChunks.put(key, kingdom);
-                            } catch (NumberFormatException e) {
-                                if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
-                                    plugin.getLogger().warning("Invalid chunk coordinates in claims for kingdom " + name + ": " + chunkKey);
-                                }
-                            }
+        // Load claims
+        if (section.isList("claims")) {
+            @SuppressWarnings("unchecked")
+            List<List<String>> claimList = (List<List<String>>) section.getList("claims");
+            for (List<String> tier : claimList) {
+                ClaimGroup group = new ClaimGroup();
+                for (String chunkKey : tier) {
+                    String[] coords = chunkKey.split(":");
+                    if (coords.length < 3) continue; // Invalid chunk key format
+                    try {
+                        int chunkX = Integer.parseInt(coords[1]);
+                        int chunkZ = Integer.parseInt(coords[2]);
+                        group.add(coords[0], chunkX, chunkZ);
+                        claimIndex.claim(coords[0], chunkX, chunkZ, kingdom);
+                    } catch (NumberFormatException e) {
+                        if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
+                            plugin.getLogger().warning("Invalid chunk coordinates in claims for kingdom " + name + ": " + chunkKey);
                         }
                     }
-                    kingdom.getClaims().add(chunks);
                 }
-            }
-
-            kingdoms.put(name, kingdom);
-            playerToKingdom.put(kingdom.getKing(), name);
-            for (String member : kingdom.getMembers()) {
-                playerToKingdom.put(member, name);
+                kingdom.getClaims().add(group);
             }
         }
+
+
+        return kingdom;
     }
 
     public void saveKingdoms(FileConfiguration kingdomsConfig, File kingdomsFile) {
@@ -233,117 +425,224 @@ public class KingdomManager {
     }
     
     /**
-     * Save kingdoms synchronously or asynchronously
+     * Save changed kingdoms. Snapshots are taken now and written by the save queue's writer thread;
+     * with async the snapshot is deferred to the next batch, so repeated saves are captured once.
      */
     public void saveKingdoms(FileConfiguration kingdomsConfig, File kingdomsFile, boolean async) {
         if (async && saveQueue != null) {
-            // Queue for async save
-            saveQueue.enqueue(() -> performSave(kingdomsConfig, kingdomsFile));
+            saveQueue.enqueue("kingdoms", () -> performSave(kingdomsConfig, kingdomsFile));
         } else {
-            // Immediate save
             performSave(kingdomsConfig, kingdomsFile);
         }
     }
     
     /**
-     * Perform the actual save operation (can be called async)
+     * Snapshot every dirty kingdom into its own file write and delete the files of dissolved
+     * kingdoms. Unchanged kingdoms are not serialized at all. Runs on the server thread.
      */
     private void performSave(FileConfiguration kingdomsConfig, File kingdomsFile) {
-        kingdomsConfig.set("kingdoms", null);
+        boolean saved = false;
         for (Kingdom kingdom : kingdoms.values()) {
-            String path = "kingdoms." + kingdom.getName();
-            kingdomsConfig.set(path + ".king", kingdom.getKing());
-            kingdomsConfig.set(path + ".members", kingdom.getMembers());
-            kingdomsConfig.set(path + ".currentClaimChunks", kingdom.getCurrentClaimChunks());
-            kingdomsConfig.set(path + ".xp", kingdom.getXp());
-            kingdomsConfig.set(path + ".level", kingdom.getLevel());
-            kingdomsConfig.set(path + ".createdAt", kingdom.getCreatedAt());
-            kingdomsConfig.set(path + ".totalChallengesCompleted", kingdom.getTotalChallengesCompleted());
-            kingdomsConfig.set(path + ".alliances", kingdom.getAlliances());
-            
-            // Save member contributions
-            kingdomsConfig.set(path + ".memberContributions", null);
-            for (Map.Entry<String, Integer> entry : kingdom.getMemberContributions().entrySet()) {
-                kingdomsConfig.set(path + ".memberContributions." + entry.getKey(), entry.getValue());
-            }
-            
-            // Save member roles
-            kingdomsConfig.set(path + ".memberRoles", null);
-            for (Map.Entry<String, com.excrele.kingdoms.model.MemberRole> entry : kingdom.getMemberRoles().entrySet()) {
-                kingdomsConfig.set(path + ".memberRoles." + entry.getKey(), entry.getValue().name());
-            }
-
-            // Save spawn location (backward compatibility)
-            if (kingdom.getSpawn() != null) {
-                Location spawn = kingdom.getSpawn();
-                if (spawn.getWorld() != null) {
-                    kingdomsConfig.set(path + ".spawn.world", spawn.getWorld().getName());
-                    kingdomsConfig.set(path + ".spawn.x", spawn.getX());
-                    kingdomsConfig.set(path + ".spawn.y", spawn.getY());
-                    kingdomsConfig.set(path + ".spawn.z", spawn.getZ());
-                    kingdomsConfig.set(path + ".spawn.yaw", spawn.getYaw());
-                    kingdomsConfig.set(path + ".spawn.pitch", spawn.getPitch());
+            if (!kingdom.isDirty()) continue;
+            saved = true;
+            boolean regionFailed = false;
+            if (regionStore != null) {
+                try {
+                    syncRegionClaims(kingdom); // Group indices shift when empty groups are removed
+                    unwrittenKingdoms.remove("region:" + kingdom.getName());
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Failed to write claim regions for " + kingdom.getName() + ": " + e.getMessage());
+                    regionFailed = true;
+                    unwrittenKingdoms.add("region:" + kingdom.getName()); // Keeps the old kingdoms section, which still has the claims
                 }
             }
-            
-            // Save multiple spawn points
-            kingdomsConfig.set(path + ".spawns", null);
-            for (Map.Entry<String, Location> entry : kingdom.getSpawns().entrySet()) {
-                Location spawnLoc = entry.getValue();
-                if (spawnLoc != null && spawnLoc.getWorld() != null) {
-                    String spawnKey = entry.getKey();
-                    kingdomsConfig.set(path + ".spawns." + spawnKey + ".world", spawnLoc.getWorld().getName());
-                    kingdomsConfig.set(path + ".spawns." + spawnKey + ".x", spawnLoc.getX());
-                    kingdomsConfig.set(path + ".spawns." + spawnKey + ".y", spawnLoc.getY());
-                    kingdomsConfig.set(path + ".spawns." + spawnKey + ".z", spawnLoc.getZ());
-                    kingdomsConfig.set(path + ".spawns." + spawnKey + ".yaw", spawnLoc.getYaw());
-                    kingdomsConfig.set(path + ".spawns." + spawnKey + ".pitch", spawnLoc.getPitch());
+            YamlConfiguration snapshot = new YamlConfiguration();
+            writeKingdom(snapshot, kingdom);
+            kingdom.clearDirty();
+            if (regionFailed) kingdom.markDirty(); // Retried by the next save
+            String name = kingdom.getName();
+            File file = getKingdomFile(name);
+            unwrittenKingdoms.add(name);
+            write("kingdom:" + name, () -> {
+                try {
+                    createKingdomsFolder();
+                    AtomicFiles.write(file, snapshot.saveToString());
+                    unwrittenKingdoms.remove(name);
+                } catch (IOException e) {
+                    unwrittenKingdoms.add(name); // An earlier write of this kingdom may have cleared it meanwhile
+                    retrySave(kingdomsConfig, kingdomsFile, kingdom);
+                    throw e;
                 }
-            }
-
-            // Save plot types
-            kingdomsConfig.set(path + ".plotTypes", null);
-            for (Map.Entry<Chunk, String> entry : kingdom.getPlotTypes().entrySet()) {
-                Chunk chunk = entry.getKey();
-                if (chunk.getWorld() != null) {
-                    String chunkKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-                    kingdomsConfig.set(path + ".plotTypes." + chunkKey, entry.getValue());
+            });
+        }
+        for (String name : removedKingdoms) {
+            removedKingdoms.remove(name);
+            if (kingdoms.containsKey(name)) continue; // Re-founded under the same name; its write replaces the file
+            File file = getKingdomFile(name);
+            unwrittenKingdoms.add(name);
+            write("kingdom:" + name, () -> {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                    unwrittenKingdoms.remove(name);
+                } catch (IOException e) {
+                    unwrittenKingdoms.add(name);
+                    removedKingdoms.add(name);
+                    retrySave(kingdomsConfig, kingdomsFile, null);
+                    throw e;
                 }
-            }
-
-            // Save per-chunk flags
-            kingdomsConfig.set(path + ".chunkFlags", null);
-            for (Map.Entry<Chunk, Map<String, String>> entry : kingdom.getChunkFlags().entrySet()) {
-                Chunk chunk = entry.getKey();
-                if (chunk.getWorld() != null) {
-                    String chunkKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-                    for (Map.Entry<String, String> flag : entry.getValue().entrySet()) {
-                        kingdomsConfig.set(path + ".chunkFlags." + chunkKey + "." + flag.getKey(), flag.getValue());
-                    }
+            });
+        }
+        if (saved && regionStore != null) {
+            ClaimRegionStore store = regionStore;
+            write("claim-regions", store::force); // Slots are already in the page cache; this makes them durable
+        }
+        if (legacyKingdoms) {
+            // Every kingdom has its own file once this batch is written; drop the old section
+            kingdomsConfig.set("kingdoms", null);
+            String contents = kingdomsConfig.saveToString();
+            write("kingdoms.yml", () -> {
+                // Checks every batch's kingdom writes: a later batch may have replaced this task
+                if (!unwrittenKingdoms.isEmpty()) {
+                    throw new IOException("Kept the old kingdoms section because a kingdom file was not written");
                 }
-            }
+                AtomicFiles.write(kingdomsFile, contents);
+                legacyKingdoms = false;
+            });
+        }
+    }
 
-            // Save claims
-            List<List<String>> claimList = new ArrayList<>();
-            for (List<Chunk> tier : kingdom.getClaims()) {
-                List<String> chunks = new ArrayList<>();
-                for (Chunk chunk : tier) {
-                    if (chunk.getWorld() != null) {
-                        chunks.add(chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ());
-                    }
-                }
-                claimList.add(chunks);
-            }
-            kingdomsConfig.set(path + ".claims", claimList);
+    private void write(String target, SaveQueue.WriteTask task) {
+        if (saveQueue != null) {
+            saveQueue.submit(target, task);
+            return;
         }
         try {
-            kingdomsConfig.save(kingdomsFile);
+            task.write();
         } catch (IOException e) {
-            errorHandler.handleSaveError("save kingdoms", e, () -> performSave(kingdomsConfig, kingdomsFile));
+            errorHandler.handleSaveError("save " + target, e, null);
         }
     }
 
-    public void addKingdom(Kingdom kingdom) { kingdoms.put(kingdom.getName(), kingdom); }
+    private void createKingdomsFolder() throws IOException {
+        if (!kingdomsFolder.isDirectory() && !kingdomsFolder.mkdirs()) {
+            throw new IOException("Could not create " + kingdomsFolder.getPath());
+        }
+    }
+
+    /**
+     * Save again on the server thread after a failed write (called by the writer). The kingdom
+     * whose file failed is marked dirty there too, since markDirty isn't safe off the server thread.
+     */
+    private void retrySave(FileConfiguration kingdomsConfig, File kingdomsFile, Kingdom kingdom) {
+        if (plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (kingdom != null) kingdom.markDirty();
+                saveKingdoms(kingdomsConfig, kingdomsFile, true);
+            });
+        }
+    }
+
+    /**
+     * Write a kingdom into a section (the root of its own file). Only values and copies are stored,
+     * so the section is a snapshot that does not change with the kingdom.
+     */
+    private void writeKingdom(org.bukkit.configuration.ConfigurationSection section, Kingdom kingdom) {
+        section.set("king", kingdom.getKing());
+        section.set("members", new ArrayList<>(kingdom.getMembers())); // Copies; the snapshot is written on another thread
+        section.set("currentClaimChunks", kingdom.getCurrentClaimChunks());
+        section.set("xp", kingdom.getXp());
+        section.set("level", kingdom.getLevel());
+        section.set("createdAt", kingdom.getCreatedAt());
+        section.set("totalChallengesCompleted", kingdom.getTotalChallengesCompleted());
+        section.set("alliances", new ArrayList<>(kingdom.getAlliances()));
+        
+        // Save member contributions
+        for (Map.Entry<String, Integer> entry : kingdom.getMemberContributions().entrySet()) {
+            section.set("memberContributions." + entry.getKey(), entry.getValue());
+        }
+        
+        // Save member roles
+        for (Map.Entry<String, com.excrele.kingdoms.model.MemberRole> entry : kingdom.getMemberRoles().entrySet()) {
+            section.set("memberRoles." + entry.getKey(), entry.getValue().name());
+        }
+
+        // Save spawn location (backward compatibility)
+        if (kingdom.getSpawn() != null) {
+            Location spawn = kingdom.getSpawn();
+            if (spawn.getWorld() != null) {
+                section.set("spawn.world", spawn.getWorld().getName());
+                section.set("spawn.x", spawn.getX());
+                section.set("spawn.y", spawn.getY());
+                section.set("spawn.z", spawn.getZ());
+                section.set("spawn.yaw", spawn.getYaw());
+                section.set("spawn.pitch", spawn.getPitch());
+            }
+        }
+        
+        // Save multiple spawn points
+        for (Map.Entry<String, Location> entry : kingdom.getSpawns().entrySet()) {
+            Location spawnLoc = entry.getValue();
+            if (spawnLoc != null && spawnLoc.getWorld() != null) {
+                String spawnKey = entry.getKey();
+                section.set("spawns." + spawnKey + ".world", spawnLoc.getWorld().getName());
+                section.set("spawns." + spawnKey + ".x", spawnLoc.getX());
+                section.set("spawns." + spawnKey + ".y", spawnLoc.getY());
+                section.set("spawns." + spawnKey + ".z", spawnLoc.getZ());
+                section.set("spawns." + spawnKey + ".yaw", spawnLoc.getYaw());
+                section.set("spawns." + spawnKey + ".pitch", spawnLoc.getPitch());
+            }
+        }
+
+        // Save plot types
+        for (Map.Entry<String, LongObjectHashMap<String>> worldEntry : kingdom.getPlotTypes().entrySet()) {
+            String worldName = worldEntry.getKey();
+            worldEntry.getValue().forEach((key, plotType) ->
+                section.set("plotTypes." + chunkKey(worldName, key), plotType));
+        }
+
+        // Save per-chunk flags
+        for (Map.Entry<String, LongObjectHashMap<Map<String, String>>> worldEntry : kingdom.getChunkFlags().entrySet()) {
+            String worldName = worldEntry.getKey();
+            worldEntry.getValue().forEach((key, flags) -> {
+                String chunkKey = chunkKey(worldName, key);
+                for (Map.Entry<String, String> flag : flags.entrySet()) {
+                    section.set("chunkFlags." + chunkKey + "." + flag.getKey(), flag.getValue());
+                }
+            });
+        }
+
+        // Save claims (with REGION storage they are in the region files instead)
+        if (regionStore != null) return;
+        List<List<String>> claimList = new ArrayList<>();
+        for (ClaimGroup tier : kingdom.getClaims()) {
+            List<String> chunks = new ArrayList<>(tier.size());
+            tier.forEach((worldName, chunkX, chunkZ) -> chunks.add(worldName + ":" + chunkX + ":" + chunkZ));
+            claimList.add(chunks);
+        }
+        section.set("claims", claimList);
+    }
+
+    /**
+     * Get the file a kingdom is stored in
+     */
+    public File getKingdomFile(String kingdomName) {
+        return new File(kingdomsFolder, kingdomName + ".yml");
+    }
+
+    private static String chunkKey(String worldName, long packedChunk) {
+        return worldName + ":" + ClaimIndex.unpackX(packedChunk) + ":" + ClaimIndex.unpackZ(packedChunk);
+    }
+
+    public void addKingdom(Kingdom kingdom) {
+        kingdoms.put(kingdom.getName(), kingdom);
+        claimIndex.registerKingdom(kingdom);
+        if (plugin.getEnhancedLeaderboardManager() != null) {
+            plugin.getEnhancedLeaderboardManager().kingdomAdded(kingdom);
+        }
+        if (plugin.getReadModel() != null) {
+            plugin.getReadModel().kingdomAdded(kingdom);
+        }
+    }
     public Kingdom getKingdom(String name) { 
         // Try cache first
         if (plugin.getDataCache() != null) {
@@ -364,81 +663,191 @@ public class KingdomManager {
     }
     public Map<String, Kingdom> getKingdoms() { return kingdoms; }
     public Kingdom getKingdomByChunk(Chunk chunk) {
-        // Try cache first
-        Kingdom cached = claimCache.get(chunk);
-        if (cached != null) {
-            return cached;
-        }
-        
-        // Fall back to map lookup
-        String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        Kingdom kingdom = claimedChunks.get(key);
-        
-        // Update cache
-        if (kingdom != null) {
-            claimCache.put(chunk, kingdom);
-        }
-        
-        return kingdom;
+        return getKingdomAt(chunk.getWorld(), chunk.getX(), chunk.getZ());
     }
-    public Map<String, Kingdom> getClaimedChunks() { return claimedChunks; }
-    public void setPlayerKingdom(String player, String kingdomName) { playerToKingdom.put(player, kingdomName); }
-    public String getKingdomOfPlayer(String player) { 
-        // Try cache first
-        if (plugin.getDataCache() != null) {
-            String cached = plugin.getDataCache().getCachedPlayerKingdom(player);
-            if (cached != null) {
-                return cached;
+    
+    /**
+     * Get the kingdom owning a chunk by coordinates (does not load the chunk)
+     */
+    public Kingdom getKingdomAt(World world, int chunkX, int chunkZ) {
+        if (world == null) return null;
+        return claimCache.get(world.getName(), chunkX, chunkZ);
+    }
+    
+    /**
+     * Get the kingdom owning a chunk by world name and coordinates
+     */
+    public Kingdom getKingdomAt(String worldName, int chunkX, int chunkZ) {
+        if (worldName == null) return null;
+        return claimCache.get(worldName, chunkX, chunkZ);
+    }
+    
+    /**
+     * Get the kingdom owning the chunk that contains a block position
+     */
+    public Kingdom getKingdomAtBlock(World world, int blockX, int blockZ) {
+        return getKingdomAt(world, blockX >> 4, blockZ >> 4);
+    }
+    
+    public Kingdom getKingdomAt(Block block) {
+        return getKingdomAtBlock(block.getWorld(), block.getX(), block.getZ());
+    }
+    
+    public Kingdom getKingdomAt(Location location) {
+        return getKingdomAtBlock(location.getWorld(), location.getBlockX(), location.getBlockZ());
+    }
+    
+    public boolean isChunkClaimed(World world, int chunkX, int chunkZ) {
+        return world != null && claimIndex.isClaimed(world.getName(), chunkX, chunkZ);
+    }
+    
+    public boolean isChunkClaimed(Chunk chunk) {
+        return isChunkClaimed(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+    
+    /**
+     * Get ownership of an inclusive chunk rectangle as a compact grid (does not load chunks)
+     */
+    public ClaimGrid getClaimGrid(World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        return getClaimGrid(world.getName(), minChunkX, minChunkZ, maxChunkX, maxChunkZ);
+    }
+    
+    public ClaimGrid getClaimGrid(String worldName, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        return ClaimGrid.build(claimIndex, worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ);
+    }
+    
+    /**
+     * Get ownership of the square of chunks within a radius of a center chunk
+     */
+    public ClaimGrid getClaimGrid(World world, int centerChunkX, int centerChunkZ, int radius) {
+        return getClaimGrid(world, centerChunkX - radius, centerChunkZ - radius, centerChunkX + radius, centerChunkZ + radius);
+    }
+    
+    public ClaimIndex getClaimIndex() { return claimIndex; }
+
+    /**
+     * Claim region files, or null unless claims are stored in them
+     */
+    public ClaimRegionStore getRegionStore() { return regionStore; }
+
+    /**
+     * Add claims read from another storage backend (chunkKey "world:x:z" -> kingdom name) to their
+     * kingdoms' main claim group. Chunks already claimed and unknown kingdoms are skipped.
+     * @return number of chunks claimed
+     */
+    public int importClaims(Map<String, String> claims) {
+        int imported = 0;
+        for (Map.Entry<String, String> entry : claims.entrySet()) {
+            Kingdom kingdom = kingdoms.get(entry.getValue());
+            String[] coords = entry.getKey().split(":");
+            if (kingdom == null || coords.length < 3) continue;
+            try {
+                int chunkX = Integer.parseInt(coords[1]);
+                int chunkZ = Integer.parseInt(coords[2]);
+                if (claimIndex.isClaimed(coords[0], chunkX, chunkZ)) continue;
+                if (kingdom.getClaims().isEmpty()) kingdom.getClaims().add(new ClaimGroup());
+                claimChunk(kingdom, coords[0], chunkX, chunkZ, kingdom.getClaims().get(0));
+                imported++;
+            } catch (NumberFormatException e) {
+                if (plugin.getLogger().isLoggable(java.util.logging.Level.WARNING)) {
+                    plugin.getLogger().warning("Invalid chunk key in imported claims: " + entry.getKey());
+                }
             }
         }
-        
-        String kingdomName = playerToKingdom.get(player);
-        
-        // Cache the result
-        if (kingdomName != null && plugin.getDataCache() != null) {
-            plugin.getDataCache().cachePlayerKingdom(player, kingdomName);
+        return imported;
+    }
+    public void setPlayerKingdom(String player, String kingdomName) {
+        playerToKingdom.put(PlayerIds.idOf(player), kingdomName);
+        invalidateProtection(player);
+    }
+    /**
+     * Kingdom of a player by name, resolved through the player's id like Kingdom.hasMember
+     */
+    public String getKingdomOfPlayer(String player) {
+        return getKingdomOfPlayer(PlayerIds.find(player));
+    }
+    public String getKingdomOfPlayer(int playerId) {
+        return playerId != PlayerIds.UNKNOWN ? playerToKingdom.get(playerId) : null;
+    }
+    public void removePlayerKingdom(String player) {
+        int playerId = PlayerIds.find(player);
+        if (playerId != PlayerIds.UNKNOWN) playerToKingdom.remove(playerId);
+        invalidateProtection(player);
+    }
+    
+    private void invalidateProtection(String player) {
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidatePlayer(player);
+        }
+    }
+    
+    private void invalidateProtection(String worldName, int chunkX, int chunkZ) {
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidateChunk(worldName, chunkX, chunkZ);
         }
-        
-        return kingdomName;
     }
-    public void removePlayerKingdom(String player) { playerToKingdom.remove(player); }
 
-    public void claimChunk(Kingdom kingdom, Chunk chunk, List<Chunk> claim) {
-        String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        claimedChunks.put(key, kingdom);
-        claimCache.put(chunk, kingdom); // Update cache
-        claim.add(chunk);
+    public void claimChunk(Kingdom kingdom, String worldName, int chunkX, int chunkZ, ClaimGroup claim) {
+        claimIndex.claim(worldName, chunkX, chunkZ, kingdom);
+        claimCache.remove(worldName, chunkX, chunkZ); // Update cache
+        claim.add(worldName, chunkX, chunkZ);
+        writeRegionClaim(kingdom, worldName, chunkX, chunkZ);
+        invalidateProtection(worldName, chunkX, chunkZ);
         kingdom.setCurrentClaimChunks(kingdom.getCurrentClaimChunks() + 1);
     }
 
+    /**
+     * Reassign an already claimed chunk to another kingdom (used when merging)
+     */
+    public void transferChunk(String worldName, int chunkX, int chunkZ, Kingdom newOwner) {
+        claimIndex.claim(worldName, chunkX, chunkZ, newOwner);
+        claimCache.remove(worldName, chunkX, chunkZ);
+        newOwner.markDirty();
+        writeRegionClaim(newOwner, worldName, chunkX, chunkZ);
+        invalidateProtection(worldName, chunkX, chunkZ);
+    }
+
     public void unclaimChunk(Chunk chunk) {
-        String key = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        Kingdom kingdom = claimedChunks.get(key);
+        unclaimChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+
+    public void unclaimChunk(String worldName, int chunkX, int chunkZ) {
+        Kingdom kingdom = claimIndex.unclaim(worldName, chunkX, chunkZ);
         if (kingdom != null) {
             kingdom.setCurrentClaimChunks(kingdom.getCurrentClaimChunks() - 1);
-            kingdom.getChunkFlags().remove(chunk); // Remove chunk flags
-            kingdom.getPlotTypes().remove(chunk); // Remove plot type
+            kingdom.clearPlotData(worldName, chunkX, chunkZ); // Remove chunk flags and plot type
             
             // Update data cache
             if (plugin.getDataCache() != null) {
                 plugin.getDataCache().cacheKingdom(kingdom);
             }
         }
-        claimedChunks.remove(key);
-        claimCache.remove(chunk); // Remove from cache
+        if (regionStore != null) regionStore.clearClaim(worldName, chunkX, chunkZ);
+        claimCache.remove(worldName, chunkX, chunkZ); // Remove from cache
+        invalidateProtection(worldName, chunkX, chunkZ);
     }
 
     public void dissolveKingdom(String kingdomName) {
         Kingdom kingdom = kingdoms.get(kingdomName);
-        for (List<Chunk> claim : kingdom.getClaims()) {
-            for (Chunk chunk : claim) {
-                unclaimChunk(chunk);
-            }
+        for (ClaimGroup claim : kingdom.getClaims()) {
+            claim.forEach(this::unclaimChunk);
         }
         for (String member : kingdom.getMembers()) {
-            playerToKingdom.remove(member);
+            playerToKingdom.remove(PlayerIds.find(member));
         }
-        playerToKingdom.remove(kingdom.getKing());
+        playerToKingdom.remove(PlayerIds.find(kingdom.getKing()));
         kingdoms.remove(kingdomName);
+        removedKingdoms.add(kingdomName);
+        claimIndex.unregisterKingdom(kingdomName);
+        claimCache.clear(); // Kingdom ids may be reused
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidateAll();
+        }
+        if (plugin.getEnhancedLeaderboardManager() != null) {
+            plugin.getEnhancedLeaderboardManager().kingdomRemoved(kingdomName);
+        }
+        if (plugin.getReadModel() != null) {
+            plugin.getReadModel().kingdomRemoved(kingdomName);
+        }
     }
-}
\ No newline at end of file
+}
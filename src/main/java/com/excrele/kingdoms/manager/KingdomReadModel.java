@@ -0,0 +1,185 @@
+package com.excrele.kingdoms.manager;
+
+import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.model.MemberRole;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable copy of membership, roles, alliances and the kingdom fields placeholders show, for
+ * code that runs off the server thread (async chat, placeholders). Kingdoms report membership
+ * changes as they happen and any other change through their version; the server thread publishes
+ * a new snapshot once per tick when something changed, so readers see a consistent state through
+ * one volatile read and never touch the live, unsynchronized kingdom objects.
+ */
+public class KingdomReadModel {
+    /**
+     * One kingdom as of the last publish. online holds the king and members who were online then,
+     * version the kingdom's version it was copied at.
+     */
+    public record KingdomView(String name, String king, List<String> members, Map<String, MemberRole> roles,
+                              List<String> alliances, List<Player> online, int version, int level, int xp,
+                              int claims, int maxClaims, int challenges, long createdAt,
+                              Map<String, Integer> contributions, Map<String, Integer> claimsByWorld) {
+        public MemberRole getRole(String player) {
+            if (player.equals(king)) return MemberRole.KING;
+            return roles.getOrDefault(player, MemberRole.MEMBER);
+        }
+
+        public boolean isAllied(String kingdomName) {
+            return alliances.contains(kingdomName);
+        }
+
+        public int getContribution(String player) {
+            return contributions.getOrDefault(player, 0);
+        }
+
+        public int getClaimsIn(String worldName) {
+            return claimsByWorld.getOrDefault(worldName, 0);
+        }
+    }
+
+    /**
+     * Every kingdom view plus a player -> kingdom index, published together
+     */
+    public record Snapshot(Map<String, KingdomView> kingdoms, Map<String, String> playerKingdoms) {
+        public KingdomView getKingdom(String kingdomName) {
+            return kingdoms.get(kingdomName);
+        }
+
+        public KingdomView getKingdomOf(String player) {
+            String kingdomName = playerKingdoms.get(player);
+            return kingdomName != null ? kingdoms.get(kingdomName) : null;
+        }
+    }
+
+    private final KingdomsPlugin plugin;
+    private final Set<String> changedKingdoms; // Changed since the last publish
+    private volatile Snapshot snapshot;
+    private org.bukkit.scheduler.BukkitTask publishTask;
+    private long publishes;
+
+    public KingdomReadModel(KingdomsPlugin plugin) {
+        this.plugin = plugin;
+        this.changedKingdoms = ConcurrentHashMap.newKeySet();
+        this.snapshot = new Snapshot(Map.of(), Map.of());
+        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
+            kingdomAdded(kingdom);
+        }
+        publish();
+        publishTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                publish();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * The latest snapshot. Safe from any thread.
+     */
+    public Snapshot get() {
+        return snapshot;
+    }
+
+    /**
+     * Start following a kingdom's membership
+     */
+    public void kingdomAdded(Kingdom kingdom) {
+        kingdom.setMembershipListener(changed -> changedKingdoms.add(changed.getName()));
+        changedKingdoms.add(kingdom.getName());
+    }
+
+    public void kingdomRemoved(String kingdomName) {
+        changedKingdoms.add(kingdomName);
+    }
+
+    /**
+     * A player joined or left the server, so their kingdom's online list is stale (server thread)
+     */
+    public void playerChanged(String playerName) {
+        String kingdomName = plugin.getKingdomManager().getKingdomOfPlayer(playerName);
+        if (kingdomName != null) changedKingdoms.add(kingdomName);
+    }
+
+    /**
+     * Copy changed kingdoms into a new snapshot and swap it in (server thread)
+     */
+    public void publish() {
+        Snapshot current = snapshot;
+        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
+            KingdomView published = current.kingdoms().get(kingdom.getName());
+            if (published != null && published.version() != kingdom.getVersion()) changedKingdoms.add(kingdom.getName());
+        }
+        if (changedKingdoms.isEmpty()) return;
+        Map<String, KingdomView> kingdoms = new HashMap<>(current.kingdoms());
+        Map<String, String> playerKingdoms = new HashMap<>(current.playerKingdoms());
+        Map<String, Kingdom> live = plugin.getKingdomManager().getKingdoms();
+        Iterator<String> iterator = changedKingdoms.iterator();
+        while (iterator.hasNext()) {
+            String kingdomName = iterator.next();
+            iterator.remove();
+            KingdomView previous = kingdoms.remove(kingdomName);
+            if (previous != null) {
+                playerKingdoms.remove(previous.king(), kingdomName);
+                for (String member : previous.members()) {
+                    playerKingdoms.remove(member, kingdomName);
+                }
+            }
+            Kingdom kingdom = live.get(kingdomName);
+            if (kingdom == null) continue;
+            KingdomView view = view(kingdom);
+            kingdoms.put(kingdomName, view);
+            playerKingdoms.put(view.king(), kingdomName);
+            for (String member : view.members()) {
+                playerKingdoms.put(member, kingdomName);
+            }
+        }
+        snapshot = new Snapshot(Map.copyOf(kingdoms), Map.copyOf(playerKingdoms));
+        publishes++;
+    }
+
+    public void shutdown() {
+        if (publishTask != null) {
+            publishTask.cancel();
+            publishTask = null;
+        }
+    }
+
+    /**
+     * Snapshots published since startup
+     */
+    public long getPublishCount() {
+        return publishes;
+    }
+
+    private KingdomView view(Kingdom kingdom) {
+        List<Player> online = new ArrayList<>();
+        Player king = plugin.getServer().getPlayerExact(kingdom.getKing());
+        if (king != null) online.add(king);
+        for (String member : kingdom.getMembers()) {
+            Player player = plugin.getServer().getPlayerExact(member);
+            if (player != null && !member.equals(kingdom.getKing())) online.add(player);
+        }
+        int version = kingdom.getVersion(); // Read first so a change during the copy publishes again
+        Map<String, Integer> claimsByWorld = new HashMap<>();
+        for (com.excrele.kingdoms.model.ClaimGroup group : kingdom.getClaims()) {
+            for (String worldName : group.getWorldNames()) {
+                claimsByWorld.merge(worldName, group.getChunks(worldName).size(), Integer::sum);
+            }
+        }
+        return new KingdomView(kingdom.getName(), kingdom.getKing(), List.copyOf(kingdom.getMembers()),
+            Map.copyOf(kingdom.getMemberRoles()), List.copyOf(kingdom.getAlliances()), List.copyOf(online),
+            version, kingdom.getLevel(), kingdom.getXp(), kingdom.getCurrentClaimChunks(), kingdom.getMaxClaimChunks(),
+            kingdom.getTotalChallengesCompleted(), kingdom.getCreatedAt(), Map.copyOf(kingdom.getMemberContributions()),
+            Map.copyOf(claimsByWorld));
+    }
+}
@@ -14,60 +14,104 @@ import java.util.stream.Collectors;
  */
 public class MailManager {
     private final KingdomsPlugin plugin;
-    // recipient -> List of Mail
+    // recipient -> List of Mail, for online players only; dropped on logout
     private final Map<String, List<Mail>> inboxes;
-    // sender -> List of Mail (sent mail)
+    // sender -> List of Mail (mail sent this session)
     private final Map<String, List<Mail>> sentMail;
+    // Players whose stored mail is cached in inboxes
+    private final Set<String> loadedMailboxes;
+    // Players whose stored mail is being read -> that read's token, so a stale read is ignored
+    private final Map<String, Object> loadingMailboxes;
     
     public MailManager(KingdomsPlugin plugin) {
         this.plugin = plugin;
         this.inboxes = new ConcurrentHashMap<>();
         this.sentMail = new ConcurrentHashMap<>();
-        loadAllMail();
+        this.loadedMailboxes = ConcurrentHashMap.newKeySet();
+        this.loadingMailboxes = new ConcurrentHashMap<>();
     }
     
     /**
-     * Load all mail from storage
+     * Get a player's inbox. Online players' mail is read in the background and cached until they
+     * log out; until it arrives the inbox only holds mail received since. Storage is never read
+     * on the calling thread, so an offline player's inbox is empty here.
      */
-    private void loadAllMail() {
-        // Load from storage adapters
-        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-            // Load mail for all members including king
-            for (String member : kingdom.getMembers()) {
-                loadPlayerMail(member);
-            }
-            loadPlayerMail(kingdom.getKing());
+    private List<Mail> inbox(String playerName) {
+        if (!loadedMailboxes.contains(playerName)) {
+            if (!isOnline(playerName)) return new ArrayList<>();
+            loadMailbox(playerName, null);
         }
+        return inboxes.computeIfAbsent(playerName, k -> new ArrayList<>());
     }
     
     /**
-     * Load mail for a specific player
+     * Read a player's stored mail on their mailbox lane, after every save queued before it, then
+     * cache it on the server thread and run the callback. Does nothing if a read is in flight.
      */
-    private void loadPlayerMail(String playerName) {
-        List<Map<String, Object>> mailData = plugin.getStorageManager().getAdapter().loadPlayerMail(playerName);
-        if (mailData != null && !mailData.isEmpty()) {
-            List<Mail> playerInbox = new ArrayList<>();
-            for (Map<String, Object> data : mailData) {
-                String mailId = (String) data.get("mailId");
-                String recipient = (String) data.get("recipient");
-                String sender = (String) data.get("sender");
-                String kingdomName = (String) data.get("kingdomName");
-                String subject = (String) data.get("subject");
-                String message = (String) data.get("message");
-                long sentAt = ((Number) data.getOrDefault("sentAt", System.currentTimeMillis() / 1000)).longValue();
-                boolean read = (Boolean) data.getOrDefault("read", false);
-                long readAt = ((Number) data.getOrDefault("readAt", 0)).longValue();
-                boolean deleted = (Boolean) data.getOrDefault("deleted", false);
-                
-                Mail mail = new Mail(mailId, recipient, sender, kingdomName, subject, message, sentAt, read, readAt, deleted);
-                if (!deleted) {
-                    playerInbox.add(mail);
-                }
+    private void loadMailbox(String playerName, Runnable then) {
+        Object token = new Object();
+        if (loadingMailboxes.putIfAbsent(playerName, token) != null) return;
+        plugin.getStorageManager().getAdapter().loadPlayerMailAsync(playerName).whenComplete((mailData, error) -> {
+            if (error != null) {
+                loadingMailboxes.remove(playerName, token);
+                plugin.getLogger().warning("Failed to load mail for " + playerName + ": " + error.getMessage());
+                return;
+            }
+            if (!plugin.isEnabled()) return;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                // Dropped if they logged out meanwhile; a new login starts its own read
+                if (!loadingMailboxes.remove(playerName, token) || !isOnline(playerName)) return;
+                loadPlayerMail(playerName, mailData);
+                if (then != null) then.run();
+            });
+        });
+    }
+    
+    /**
+     * Add a player's stored mail to their inbox (once; later calls are ignored)
+     */
+    private void loadPlayerMail(String playerName, List<Map<String, Object>> mailData) {
+        if (!loadedMailboxes.add(playerName)) return;
+        List<Mail> playerInbox = toMail(mailData);
+        if (!playerInbox.isEmpty()) {
+            List<Mail> inbox = inboxes.computeIfAbsent(playerName, k -> new ArrayList<>());
+            Set<String> received = new HashSet<>();
+            for (Mail mail : inbox) {
+                received.add(mail.getMailId());
             }
-            if (!playerInbox.isEmpty()) {
-                inboxes.put(playerName, playerInbox);
+            playerInbox.removeIf(mail -> received.contains(mail.getMailId()));
+            inbox.addAll(0, playerInbox); // Stored mail is older
+        }
+    }
+    
+    /**
+     * Convert stored mail, skipping deleted mail
+     */
+    private List<Mail> toMail(List<Map<String, Object>> mailData) {
+        List<Mail> mailList = new ArrayList<>();
+        if (mailData == null) return mailList;
+        for (Map<String, Object> data : mailData) {
+            String mailId = (String) data.get("mailId");
+            String recipient = (String) data.get("recipient");
+            String sender = (String) data.get("sender");
+            String kingdomName = (String) data.get("kingdomName");
+            String subject = (String) data.get("subject");
+            String message = (String) data.get("message");
+            long sentAt = ((Number) data.getOrDefault("sentAt", System.currentTimeMillis() / 1000)).longValue();
+            boolean read = (Boolean) data.getOrDefault("read", false);
+            long readAt = ((Number) data.getOrDefault("readAt", 0)).longValue();
+            boolean deleted = (Boolean) data.getOrDefault("deleted", false);
+            
+            if (!deleted) {
+                mailList.add(new Mail(mailId, recipient, sender, kingdomName, subject, message, sentAt, read, readAt, deleted));
             }
         }
+        return mailList;
+    }
+    
+    private boolean isOnline(String playerName) {
+        Player player = plugin.getServer().getPlayerExact(playerName);
+        return player != null && player.isOnline();
     }
     
     /**
@@ -98,8 +142,10 @@ public class MailManager {
         // Create mail
         Mail mail = new Mail(recipient, sender, senderKingdom, subject, message);
         
-        // Add to inbox
-        inboxes.computeIfAbsent(recipient, k -> new ArrayList<>()).add(mail);
+        // Add to inbox if it is cached; an offline recipient reads it from storage at login
+        if (loadedMailboxes.contains(recipient) || isOnline(recipient)) {
+            inbox(recipient).add(mail);
+        }
         
         // Add to sent mail
         sentMail.computeIfAbsent(sender, k -> new ArrayList<>()).add(mail);
@@ -156,15 +202,33 @@ public class MailManager {
      * Get unread mail count for a player
      */
     public int getUnreadCount(String playerName) {
-        List<Mail> inbox = inboxes.getOrDefault(playerName, new ArrayList<>());
+        List<Mail> inbox = inbox(playerName);
         return (int) inbox.stream().filter(m -> !m.isRead() && !m.isDeleted()).count();
     }
     
+    /**
+     * Get the number of mail a player has (excluding deleted)
+     */
+    public int getMailCount(String playerName) {
+        return (int) inbox(playerName).stream().filter(m -> !m.isDeleted()).count();
+    }
+    
+    /**
+     * Get one page of a player's mail, newest first
+     * @param page 1-based page number
+     */
+    public List<Mail> getMailPage(String playerName, int page, int pageSize) {
+        int offset = (Math.max(1, page) - 1) * pageSize;
+        List<Mail> mail = getPlayerMail(playerName);
+        int from = Math.min(offset, mail.size());
+        return mail.subList(from, Math.min(from + pageSize, mail.size()));
+    }
+    
     /**
      * Get all mail for a player (excluding deleted)
      */
     public List<Mail> getPlayerMail(String playerName) {
-        List<Mail> inbox = inboxes.getOrDefault(playerName, new ArrayList<>());
+        List<Mail> inbox = inbox(playerName);
         return inbox.stream()
             .filter(m -> !m.isDeleted())
             .sorted((a, b) -> Long.compare(b.getSentAt(), a.getSentAt())) // Newest first
@@ -175,7 +239,7 @@ public class MailManager {
      * Get unread mail for a player
      */
     public List<Mail> getUnreadMail(String playerName) {
-        List<Mail> inbox = inboxes.getOrDefault(playerName, new ArrayList<>());
+        List<Mail> inbox = inbox(playerName);
         return inbox.stream()
             .filter(m -> !m.isRead() && !m.isDeleted())
             .sorted((a, b) -> Long.compare(b.getSentAt(), a.getSentAt()))
@@ -197,8 +261,7 @@ public class MailManager {
      * Mark mail as read
      */
     public boolean markAsRead(String playerName, String mailId) {
-        List<Mail> inbox = inboxes.get(playerName);
-        if (inbox == null) return false;
+        List<Mail> inbox = inbox(playerName);
         
         for (Mail mail : inbox) {
             if (mail.getMailId().equals(mailId) && mail.getRecipient().equals(playerName)) {
@@ -214,8 +277,7 @@ public class MailManager {
      * Mark all mail as read for a player
      */
     public int markAllAsRead(String playerName) {
-        List<Mail> inbox = inboxes.get(playerName);
-        if (inbox == null) return 0;
+        List<Mail> inbox = inbox(playerName);
         
         int count = 0;
         for (Mail mail : inbox) {
@@ -241,8 +303,7 @@ public class MailManager {
      * Delete mail (soft delete)
      */
     public boolean deleteMail(String playerName, String mailId) {
-        List<Mail> inbox = inboxes.get(playerName);
-        if (inbox == null) return false;
+        List<Mail> inbox = inbox(playerName);
         
         for (Mail mail : inbox) {
             if (mail.getMailId().equals(mailId) && mail.getRecipient().equals(playerName)) {
@@ -260,8 +321,7 @@ public class MailManager {
      * Delete all read mail for a player
      */
     public int deleteAllRead(String playerName) {
-        List<Mail> inbox = inboxes.get(playerName);
-        if (inbox == null) return 0;
+        List<Mail> inbox = inbox(playerName);
         
         int count = 0;
         List<Mail> toRemove = new ArrayList<>();
@@ -282,8 +342,7 @@ public class MailManager {
      * Get a specific mail by ID
      */
     public Mail getMail(String playerName, String mailId) {
-        List<Mail> inbox = inboxes.get(playerName);
-        if (inbox == null) return null;
+        List<Mail> inbox = inbox(playerName);
         
         return inbox.stream()
             .filter(m -> m.getMailId().equals(mailId) && !m.isDeleted())
@@ -295,6 +354,26 @@ public class MailManager {
      * Deliver pending mail to a player when they log in
      */
     public void deliverPendingMail(Player player) {
+        String playerName = player.getName();
+        if (!loadedMailboxes.contains(playerName)) {
+            // Read their mail off the server thread, then notify
+            loadMailbox(playerName, () -> notifyUnread(player));
+            return;
+        }
+        notifyUnread(player);
+    }
+    
+    /**
+     * Drop a player's cached mail when they log out; it is already saved
+     */
+    public void unloadMailbox(String playerName) {
+        loadingMailboxes.remove(playerName);
+        loadedMailboxes.remove(playerName);
+        inboxes.remove(playerName);
+        sentMail.remove(playerName);
+    }
+    
+    private void notifyUnread(Player player) {
         String playerName = player.getName();
         int unreadCount = getUnreadCount(playerName);
         
@@ -310,7 +389,7 @@ public class MailManager {
      * Save mail to storage
      */
     private void saveMail(Mail mail) {
-        plugin.getStorageManager().getAdapter().saveMail(
+        plugin.getStorageManager().getAdapter().saveMailAsync(
             mail.getMailId(),
             mail.getRecipient(),
             mail.getSender(),
@@ -17,6 +17,7 @@ public class OutpostManager {
     private final KingdomsPlugin plugin;
     private final Map<String, Outpost> outposts; // outpost ID -> outpost
     private final Map<String, List<String>> kingdomOutposts; // kingdom -> outpost IDs
+    private final Map<String, Map<Long, Outpost>> outpostsByChunk; // world name -> packed chunk -> outpost
     private final double defaultMaintenanceCost;
     private final int minDistanceFromMainClaim; // Minimum chunks away from main claim
     
@@ -24,6 +25,7 @@ public class OutpostManager {
         this.plugin = plugin;
         this.outposts = new ConcurrentHashMap<>();
         this.kingdomOutposts = new ConcurrentHashMap<>();
+        this.outpostsByChunk = new ConcurrentHashMap<>();
         this.defaultMaintenanceCost = plugin.getConfig().getDouble("outposts.maintenance_cost", 100.0);
         this.minDistanceFromMainClaim = plugin.getConfig().getInt("outposts.min_distance", 10);
     }
@@ -50,6 +52,8 @@ public class OutpostManager {
         outpost.setMaintenanceCost(defaultMaintenanceCost);
         
         outposts.put(outpostId, outpost);
+        outpostsByChunk.computeIfAbsent(chunk.getWorld().getName(), k -> new ConcurrentHashMap<>())
+            .put(com.excrele.kingdoms.util.ClaimIndex.pack(chunk.getX(), chunk.getZ()), outpost);
         kingdomOutposts.computeIfAbsent(kingdom.getName(), k -> new ArrayList<>()).add(outpostId);
         
         return outpost;
@@ -76,6 +80,10 @@ public class OutpostManager {
         }
         
         outposts.remove(outpostId);
+        Map<Long, Outpost> worldOutposts = outpostsByChunk.get(outpost.getChunk().getWorld().getName());
+        if (worldOutposts != null) {
+            worldOutposts.remove(com.excrele.kingdoms.util.ClaimIndex.pack(outpost.getChunk().getX(), outpost.getChunk().getZ()), outpost);
+        }
         return true;
     }
     
@@ -90,12 +98,15 @@ public class OutpostManager {
      * Get an outpost by chunk
      */
     public Outpost getOutpostByChunk(Chunk chunk) {
-        for (Outpost outpost : outposts.values()) {
-            if (outpost.getChunk().equals(chunk)) {
-                return outpost;
-            }
-        }
-        return null;
+        return getOutpostAt(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+    
+    /**
+     * Get the outpost at chunk coordinates, or null
+     */
+    public Outpost getOutpostAt(String worldName, int chunkX, int chunkZ) {
+        Map<Long, Outpost> worldOutposts = outpostsByChunk.get(worldName);
+        return worldOutposts != null ? worldOutposts.get(com.excrele.kingdoms.util.ClaimIndex.pack(chunkX, chunkZ)) : null;
     }
     
     /**
@@ -249,20 +260,21 @@ public class OutpostManager {
      * Check if a chunk is far enough from the main claim
      */
     private boolean isFarEnoughFromMainClaim(Kingdom kingdom, Chunk chunk) {
-        List<List<org.bukkit.Chunk>> claims = kingdom.getClaims();
+        List<com.excrele.kingdoms.model.ClaimGroup> claims = kingdom.getClaims();
         if (claims.isEmpty()) {
             return true; // No main claim yet
         }
         
         // Check distance to first claim (main claim)
-        List<org.bukkit.Chunk> mainClaim = claims.get(0);
-        for (org.bukkit.Chunk mainChunk : mainClaim) {
-            if (mainChunk.getWorld().equals(chunk.getWorld())) {
-                int distance = Math.max(Math.abs(chunk.getX() - mainChunk.getX()), 
-                                       Math.abs(chunk.getZ() - mainChunk.getZ()));
-                if (distance < minDistanceFromMainClaim) {
-                    return false;
-                }
+        com.excrele.kingdoms.util.LongHashSet mainClaim = claims.get(0).getChunks(chunk.getWorld().getName());
+        if (mainClaim == null) {
+            return true; // Main claim is in another world
+        }
+        for (long key : mainClaim.toArray()) {
+            int distance = Math.max(Math.abs(chunk.getX() - com.excrele.kingdoms.util.ClaimIndex.unpackX(key)), 
+                                   Math.abs(chunk.getZ() - com.excrele.kingdoms.util.ClaimIndex.unpackZ(key)));
+            if (distance < minDistanceFromMainClaim) {
+                return false;
             }
         }
         
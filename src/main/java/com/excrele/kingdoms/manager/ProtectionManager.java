@@ -0,0 +1,275 @@
+package com.excrele.kingdoms.manager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.entity.Player;
+
+import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.model.ProtectionFlag;
+import com.excrele.kingdoms.model.TrustPermission;
+import com.excrele.kingdoms.model.War;
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.LongIntHashMap;
+
+/**
+ * Compiled protection engine used by the protection listeners.
+ * Chunk flags are compiled into int masks (see {@link ProtectionFlag}) and each player's
+ * relationship and trust towards a kingdom is cached per kingdom id, so an allow/deny
+ * decision is a few array reads. Caches are invalidated incrementally when flags, claims,
+ * membership, trusts, alliances or wars change.
+ */
+public class ProtectionManager {
+    private static final int NOT_COMPILED = -1;
+    private static final int ALL_TRUST = -1; // TrustPermission.ALL grants every permission
+
+    public enum Relation { KING, MEMBER, ENEMY, ALLY, NEUTRAL }
+
+    public enum Decision {
+        ALLOW,
+        DENY_TERRITORY, // Player has no rights in this kingdom
+        DENY_PLOT       // Player is a member but the plot flags forbid it
+    }
+
+    /**
+     * Cached relations of one player, indexed by kingdom id
+     */
+    private static final class PlayerRelations {
+        private Relation[] relations = new Relation[16];
+        private int[] trustMasks = new int[16];
+        private int[] epochs = new int[16]; // Kingdom epoch the slot was computed at (+1, 0 = empty)
+        private long[] validUntil = new long[16]; // Seconds; wars expire on their own
+
+        private void ensureCapacity(int id) {
+            if (id >= relations.length) {
+                int size = Math.max(relations.length * 2, id + 1);
+                relations = Arrays.copyOf(relations, size);
+                trustMasks = Arrays.copyOf(trustMasks, size);
+                epochs = Arrays.copyOf(epochs, size);
+                validUntil = Arrays.copyOf(validUntil, size);
+            }
+        }
+    }
+
+    private final KingdomsPlugin plugin;
+    private final Map<String, LongIntHashMap> chunkMasks; // world name -> packed chunk -> compiled flags
+    private final Map<String, PlayerRelations> players; // player name -> relations
+    private int[] kingdomEpochs; // kingdom id -> epoch, bumped when its alliances or wars change
+
+    public ProtectionManager(KingdomsPlugin plugin) {
+        this.plugin = plugin;
+        this.chunkMasks = new HashMap<>();
+        this.players = new HashMap<>();
+        this.kingdomEpochs = new int[64];
+    }
+
+    // Chunk flags
+
+    /**
+     * Get the compiled flag mask of a chunk owned by the given kingdom
+     */
+    public int getChunkMask(Kingdom kingdom, String worldName, int chunkX, int chunkZ) {
+        LongIntHashMap masks = chunkMasks.computeIfAbsent(worldName, k -> new LongIntHashMap(256, NOT_COMPILED));
+        long key = ClaimIndex.pack(chunkX, chunkZ);
+        int mask = masks.get(key);
+        if (mask == NOT_COMPILED) {
+            Map<String, String> flags = kingdom.getPlotFlags(worldName, chunkX, chunkZ);
+            mask = flags.isEmpty() ? ProtectionFlag.DEFAULT_MASK : ProtectionFlag.compile(flags);
+            masks.put(key, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Check a flag that does not depend on the player (explosion, fire-spread, mob-spawning, ...)
+     */
+    public boolean isAllowed(Kingdom kingdom, String worldName, int chunkX, int chunkZ, ProtectionFlag flag) {
+        return flag.isAllowed(getChunkMask(kingdom, worldName, chunkX, chunkZ));
+    }
+
+    /**
+     * Check if a flag is explicitly switched off (level NOBODY) in a chunk
+     */
+    public boolean isDenied(Kingdom kingdom, String worldName, int chunkX, int chunkZ, ProtectionFlag flag) {
+        return flag.level(getChunkMask(kingdom, worldName, chunkX, chunkZ)) == ProtectionFlag.NOBODY;
+    }
+
+    // Player decisions
+
+    /**
+     * Decide if a player may break (or place) blocks in a claimed chunk
+     */
+    public Decision checkBlockChange(Player player, Kingdom kingdom, String worldName, int chunkX, int chunkZ, boolean breaking) {
+        int id = idOf(kingdom);
+        PlayerRelations entry = resolve(player.getName(), kingdom, id);
+        Relation relation = entry.relations[id];
+        if (relation != Relation.KING && relation != Relation.MEMBER) {
+            // Trusted players and allied kingdoms may build
+            if (hasTrust(entry, id, TrustPermission.BUILD) || relation == Relation.ALLY) {
+                return Decision.ALLOW;
+            }
+            return Decision.DENY_TERRITORY;
+        }
+        ProtectionFlag flag = breaking ? ProtectionFlag.BREAK : ProtectionFlag.BUILD;
+        int level = flag.level(getChunkMask(kingdom, worldName, chunkX, chunkZ));
+        if (level == ProtectionFlag.KING && relation != Relation.KING) {
+            return Decision.DENY_PLOT;
+        }
+        return Decision.ALLOW;
+    }
+
+    /**
+     * Decide if a player may use redstone components in a claimed chunk
+     */
+    public Decision checkRedstone(Player player, Kingdom kingdom, String worldName, int chunkX, int chunkZ) {
+        int id = idOf(kingdom);
+        PlayerRelations entry = resolve(player.getName(), kingdom, id);
+        Relation relation = entry.relations[id];
+        if (relation != Relation.KING && relation != Relation.MEMBER) {
+            return hasTrust(entry, id, TrustPermission.REDSTONE) ? Decision.ALLOW : Decision.DENY_TERRITORY;
+        }
+        return isDenied(kingdom, worldName, chunkX, chunkZ, ProtectionFlag.REDSTONE) ? Decision.DENY_PLOT : Decision.ALLOW;
+    }
+
+    /**
+     * Decide if a player may open containers and doors in a kingdom's territory
+     */
+    public Decision checkContainer(Player player, Kingdom kingdom) {
+        int id = idOf(kingdom);
+        PlayerRelations entry = resolve(player.getName(), kingdom, id);
+        Relation relation = entry.relations[id];
+        if (relation == Relation.KING || relation == Relation.MEMBER || relation == Relation.ALLY
+            || hasTrust(entry, id, TrustPermission.INTERACT) || hasTrust(entry, id, TrustPermission.CONTAINER)) {
+            return Decision.ALLOW;
+        }
+        return Decision.DENY_TERRITORY;
+    }
+
+    /**
+     * Check a member/trust toggle flag (animal-breed, crop-trample, piston) for a player
+     */
+    public boolean canUse(Player player, Kingdom kingdom, String worldName, int chunkX, int chunkZ,
+                          ProtectionFlag flag, TrustPermission permission) {
+        int level = flag.level(getChunkMask(kingdom, worldName, chunkX, chunkZ));
+        if (level == ProtectionFlag.EVERYONE) return true;
+        if (level == ProtectionFlag.NOBODY) return false;
+        int id = idOf(kingdom);
+        PlayerRelations entry = resolve(player.getName(), kingdom, id);
+        Relation relation = entry.relations[id];
+        return relation == Relation.KING || relation == Relation.MEMBER || hasTrust(entry, id, permission);
+    }
+
+    /**
+     * Get a player's cached relationship to a kingdom
+     */
+    public Relation getRelation(String playerName, Kingdom kingdom) {
+        int id = idOf(kingdom);
+        return resolve(playerName, kingdom, id).relations[id];
+    }
+
+    // Invalidation
+
+    /**
+     * Flags or ownership of a chunk changed
+     */
+    public void invalidateChunk(String worldName, int chunkX, int chunkZ) {
+        LongIntHashMap masks = chunkMasks.get(worldName);
+        if (masks != null) {
+            masks.remove(ClaimIndex.pack(chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * A player's membership or trusts changed (or the player left the server)
+     */
+    public void invalidatePlayer(String playerName) {
+        players.remove(playerName);
+    }
+
+    /**
+     * Alliances or wars between two kingdoms changed
+     */
+    public void invalidateRelations(String kingdom1, String kingdom2) {
+        bumpEpoch(kingdom1);
+        bumpEpoch(kingdom2);
+    }
+
+    /**
+     * Drop everything (kingdom ids may be reused after a kingdom is dissolved)
+     */
+    public void invalidateAll() {
+        chunkMasks.clear();
+        players.clear();
+        Arrays.fill(kingdomEpochs, 0);
+    }
+
+    private void bumpEpoch(String kingdomName) {
+        int id = plugin.getKingdomManager().getClaimIndex().getKingdomId(kingdomName);
+        if (id == ClaimIndex.NO_KINGDOM) return;
+        ensureEpochCapacity(id);
+        kingdomEpochs[id]++;
+    }
+
+    private void ensureEpochCapacity(int id) {
+        if (id >= kingdomEpochs.length) {
+            kingdomEpochs = Arrays.copyOf(kingdomEpochs, Math.max(kingdomEpochs.length * 2, id + 1));
+        }
+    }
+
+    private int idOf(Kingdom kingdom) {
+        return plugin.getKingdomManager().getClaimIndex().registerKingdom(kingdom);
+    }
+
+    private static boolean hasTrust(PlayerRelations entry, int id, TrustPermission permission) {
+        return (entry.trustMasks[id] & (1 << permission.ordinal())) != 0;
+    }
+
+    /**
+     * Get the player's entry with the slot for this kingdom up to date
+     */
+    private PlayerRelations resolve(String playerName, Kingdom kingdom, int id) {
+        PlayerRelations entry = players.computeIfAbsent(playerName, k -> new PlayerRelations());
+        entry.ensureCapacity(id);
+        ensureEpochCapacity(id);
+        int epoch = kingdomEpochs[id] + 1;
+        if (entry.epochs[id] != epoch
+            || (entry.validUntil[id] != Long.MAX_VALUE && System.currentTimeMillis() / 1000 >= entry.validUntil[id])) {
+            compute(entry, id, playerName, kingdom);
+            entry.epochs[id] = epoch;
+        }
+        return entry;
+    }
+
+    private void compute(PlayerRelations entry, int id, String playerName, Kingdom kingdom) {
+        KingdomManager kingdomManager = plugin.getKingdomManager();
+        String kingdomName = kingdom.getName();
+        String ownKingdom = kingdomManager.getKingdomOfPlayer(playerName);
+
+        Relation relation;
+        long validUntil = Long.MAX_VALUE;
+        War war = ownKingdom != null && plugin.getWarManager() != null
+            ? plugin.getWarManager().getWar(ownKingdom, kingdomName) : null;
+        if (kingdomName.equals(ownKingdom)) {
+            relation = kingdom.isKing(com.excrele.kingdoms.util.PlayerIds.find(playerName)) ? Relation.KING : Relation.MEMBER;
+        } else if (war != null) {
+            relation = Relation.ENEMY;
+            validUntil = war.getEndTime(); // Re-check once the war runs out
+        } else {
+            Kingdom own = ownKingdom != null ? kingdomManager.getKingdom(ownKingdom) : null;
+            relation = own != null && own.isAllied(kingdomName) ? Relation.ALLY : Relation.NEUTRAL;
+        }
+
+        int trust = 0;
+        if (plugin.getTrustManager() != null) {
+            for (TrustPermission permission : plugin.getTrustManager().getTrusts(kingdomName, playerName)) {
+                trust |= permission == TrustPermission.ALL ? ALL_TRUST : 1 << permission.ordinal();
+            }
+        }
+
+        entry.relations[id] = relation;
+        entry.trustMasks[id] = trust;
+        entry.validUntil[id] = validUntil;
+    }
+}
@@ -114,11 +114,8 @@ public class RaidManager {
         double bankBalance = plugin.getBankManager().getBalance(targetKingdom.getName());
         double stealAmount = bankBalance * 0.01; // 1% per second of presence
         
-        if (stealAmount > 0 && bankBalance >= stealAmount) {
-            // Transfer to raiding kingdom
-            plugin.getBankManager().withdraw(targetKingdom.getName(), stealAmount);
-            plugin.getBankManager().deposit(raid.getRaidingKingdom(), stealAmount);
-            
+        // Transfer to raiding kingdom
+        if (stealAmount > 0 && plugin.getBankManager().transfer(targetKingdom.getName(), raid.getRaidingKingdom(), stealAmount)) {
             raid.addResourcesStolen(1);
             saveRaid(raid);
             
@@ -242,7 +239,7 @@ public class RaidManager {
     }
     
     private void saveRaid(Raid raid) {
-        plugin.getStorageManager().getAdapter().saveRaid(
+        plugin.getStorageManager().getAdapter().saveRaidAsync(
             raid.getRaidId(),
             raid.getRaidingKingdom(),
             raid.getTargetKingdom(),
@@ -152,15 +152,15 @@ public class ResourceManager {
             return false;
         }
         
-        // Execute trade
+        // Execute trade; payment first so a failed transfer leaves the resources untouched
+        if (!plugin.getBankManager().transfer(toKingdom, fromKingdom, price)) {
+            return false;
+        }
         kingdomResources.computeIfAbsent(fromKingdom, k -> new ConcurrentHashMap<>())
             .put(material.name(), available - amount);
         kingdomResources.computeIfAbsent(toKingdom, k -> new ConcurrentHashMap<>())
             .put(material.name(), getResourceAmount(toKingdom, material.name()) + amount);
         
-        plugin.getBankManager().withdraw(toKingdom, price);
-        plugin.getBankManager().deposit(fromKingdom, price);
-        
         saveResource(fromKingdom, material.name());
         saveResource(toKingdom, material.name());
         
@@ -268,7 +268,7 @@ public class ResourceManager {
     
     private void saveResource(String kingdomName, String resourceType) {
         int amount = getResourceAmount(kingdomName, resourceType);
-        plugin.getStorageManager().getAdapter().saveKingdomResource(
+        plugin.getStorageManager().getAdapter().saveKingdomResourceAsync(
             kingdomName, resourceType, amount
         );
     }
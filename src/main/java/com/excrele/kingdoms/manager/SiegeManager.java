@@ -116,7 +116,7 @@ public class SiegeManager {
         if (siege.isComplete()) {
             completeSiege(siege);
         } else {
-            saveSiege(siege);
+            queueSave(siege);
         }
     }
     
@@ -137,7 +137,7 @@ public class SiegeManager {
         // Reduce progress (defense reduces attack progress)
         siege.addProgress(-2); // Defense is twice as effective
         
-        saveSiege(siege);
+        queueSave(siege);
     }
     
     /**
@@ -280,8 +280,15 @@ public class SiegeManager {
         return worldName + ":" + x + ":" + z;
     }
     
+    /**
+     * Save progress on the next write-behind flush (contributions arrive every second per player)
+     */
+    private void queueSave(Siege siege) {
+        plugin.getStorageManager().getWriteBehind().markDirty("siege:" + siege.getSiegeId(), () -> saveSiege(siege));
+    }
+    
     private void saveSiege(Siege siege) {
-        plugin.getStorageManager().getAdapter().saveSiege(
+        plugin.getStorageManager().getAdapter().saveSiegeAsync(
             siege.getSiegeId(),
             siege.getWarId(),
             siege.getAttackingKingdom(),
@@ -4,49 +4,107 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.bukkit.Chunk;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.ClaimAnalytics;
+import com.excrele.kingdoms.model.ClaimGroup;
 import com.excrele.kingdoms.model.Kingdom;
 import com.excrele.kingdoms.model.KingdomHistory;
 import com.excrele.kingdoms.model.PlayerActivity;
+import com.excrele.kingdoms.storage.StorageAdapter;
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.LongObjectHashMap;
 
 /**
  * Manages advanced statistics and analytics for kingdoms
  */
 public class StatisticsManager {
     private final KingdomsPlugin plugin;
-    // chunkKey -> ClaimAnalytics
+    // chunkKey -> aggregated ClaimAnalytics (written by the aggregator, read anywhere)
     private final Map<String, ClaimAnalytics> claimAnalytics;
+    // world name -> packed chunk -> live counters (server thread only)
+    private final Map<String, LongObjectHashMap<ChunkCounters>> counters;
+    private final Queue<ChunkCounters> newCounters; // Created since the last aggregation
+    private final Queue<ChunkCounters> idleCounters; // Dropped by the aggregator, still to leave counters
+    private final List<ChunkCounters> trackedCounters; // Aggregator only
+    private org.bukkit.scheduler.BukkitTask aggregatorTask;
+    private long aggregations;
     // kingdomName -> KingdomHistory
     private final Map<String, KingdomHistory> kingdomHistories;
     // kingdomName -> daily growth data
     private final Map<String, List<GrowthData>> growthData;
+    // Kingdoms whose stored history and growth data are in memory; read on first access, not at startup
+    private final Set<String> loadedKingdoms;
+    private final Set<String> loadingKingdoms; // Read queued on the storage executor
     
     public StatisticsManager(KingdomsPlugin plugin) {
         this.plugin = plugin;
-        this.claimAnalytics = new HashMap<>();
-        this.kingdomHistories = new HashMap<>();
-        this.growthData = new HashMap<>();
-        loadAllData();
+        this.claimAnalytics = new ConcurrentHashMap<>();
+        this.counters = new HashMap<>();
+        this.newCounters = new ConcurrentLinkedQueue<>();
+        this.trackedCounters = new ArrayList<>();
+        this.idleCounters = new ConcurrentLinkedQueue<>();
+        this.kingdomHistories = new ConcurrentHashMap<>();
+        this.growthData = new ConcurrentHashMap<>();
+        this.loadedKingdoms = ConcurrentHashMap.newKeySet();
+        this.loadingKingdoms = ConcurrentHashMap.newKeySet();
+        startAggregator();
     }
     
-    private void loadAllData() {
-        // Load kingdom histories and growth data
-        for (String kingdomName : plugin.getKingdomManager().getKingdoms().keySet()) {
-            loadKingdomHistory(kingdomName);
-            loadGrowthData(kingdomName);
+    /**
+     * Stored history and growth rows of one kingdom, as read by the storage executor
+     */
+    private record StoredStatistics(List<Map<String, Object>> history, List<Map<String, Object>> growth) {}
+    
+    /**
+     * Start reading a kingdom's stored history and growth data the first time either is needed.
+     * The queries run on the storage executor (after writes already queued for the kingdom) and the
+     * rows are merged in on the server thread ahead of anything recorded meanwhile; until then
+     * callers only see what was recorded since startup.
+     */
+    private void ensureLoaded(String kingdomName) {
+        if (loadedKingdoms.contains(kingdomName) || !loadingKingdoms.add(kingdomName)) return;
+        StorageAdapter adapter = plugin.getStorageManager().getAdapter();
+        CompletableFuture<StoredStatistics> load = adapter
+            .supplyAsync("history:" + kingdomName, () -> adapter.loadKingdomHistory(kingdomName))
+            .thenCombine(adapter.supplyAsync("growth:" + kingdomName, () -> adapter.loadGrowthData(kingdomName)),
+                StoredStatistics::new);
+        if (load.isDone() && !load.isCompletedExceptionally() && plugin.getServer().isPrimaryThread()) {
+            hydrate(kingdomName, load.join()); // File storage reads inline
+            return;
         }
+        load.whenComplete((stored, error) -> {
+            if (!plugin.isEnabled()) return;
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (error != null) {
+                    plugin.getLogger().warning("Failed to load statistics for " + kingdomName + ": " + error.getMessage());
+                    hydrate(kingdomName, new StoredStatistics(null, null)); // Don't query again on every access
+                } else {
+                    hydrate(kingdomName, stored);
+                }
+            });
+        });
     }
     
-    private void loadKingdomHistory(String kingdomName) {
-        List<Map<String, Object>> historyData = plugin.getStorageManager().getAdapter().loadKingdomHistory(kingdomName);
-        if (historyData != null) {
-            KingdomHistory history = getKingdomHistory(kingdomName);
-            for (Map<String, Object> entryData : historyData) {
+    /**
+     * Put stored rows in front of the entries recorded while they loaded, then mark the kingdom
+     * loaded (server thread)
+     */
+    private void hydrate(String kingdomName, StoredStatistics stored) {
+        KingdomHistory history = kingdomHistories.computeIfAbsent(kingdomName, k -> new KingdomHistory(kingdomName));
+        List<KingdomHistory.HistoryEntry> recorded = new ArrayList<>(history.getEntries());
+        history.getEntries().clear();
+        if (stored.history() != null) {
+            for (Map<String, Object> entryData : stored.history()) {
                 try {
                     KingdomHistory.HistoryType type = KingdomHistory.HistoryType.valueOf((String) entryData.get("type"));
                     KingdomHistory.HistoryEntry entry = new KingdomHistory.HistoryEntry(
@@ -61,13 +119,13 @@ public class StatisticsManager {
                 }
             }
         }
-    }
-    
-    private void loadGrowthData(String kingdomName) {
-        List<Map<String, Object>> growthDataList = plugin.getStorageManager().getAdapter().loadGrowthData(kingdomName);
-        if (growthDataList != null) {
-            List<GrowthData> data = new ArrayList<>();
-            for (Map<String, Object> entry : growthDataList) {
+        for (KingdomHistory.HistoryEntry entry : recorded) {
+            history.addEntry(entry);
+        }
+        
+        List<GrowthData> data = new ArrayList<>();
+        if (stored.growth() != null) {
+            for (Map<String, Object> entry : stored.growth()) {
                 GrowthData gd = new GrowthData();
                 gd.timestamp = ((Number) entry.get("timestamp")).longValue();
                 gd.level = ((Number) entry.get("level")).intValue();
@@ -77,53 +135,239 @@ public class StatisticsManager {
                 gd.alliances = ((Number) entry.get("alliances")).intValue();
                 data.add(gd);
             }
-            growthData.put(kingdomName, data);
         }
+        List<GrowthData> recordedGrowth = growthData.get(kingdomName);
+        if (recordedGrowth != null) data.addAll(recordedGrowth);
+        long cutoff = System.currentTimeMillis() / 1000 - (90 * 86400);
+        data.removeIf(g -> g.timestamp < cutoff);
+        growthData.put(kingdomName, data);
+        
+        loadedKingdoms.add(kingdomName);
+        loadingKingdoms.remove(kingdomName);
     }
     
     // Claim Analytics
+
+    /**
+     * Live counters of one chunk. Event handlers only bump these; the aggregator folds them
+     * into the chunk's {@link ClaimAnalytics}.
+     */
+    private static final class ChunkCounters {
+        private final String worldName; // Coordinates only, so unloaded chunks aren't kept reachable
+        private final int chunkX;
+        private final int chunkZ;
+        private final String kingdomName;
+        private final LongAdder visits = new LongAdder();
+        private final LongAdder blockInteractions = new LongAdder();
+        private final LongAdder entityInteractions = new LongAdder();
+        private final Map<String, LongAdder> visitsByPlayer = new ConcurrentHashMap<>();
+        private volatile long lastActivity;
+
+        private ChunkCounters(String worldName, int chunkX, int chunkZ, String kingdomName) {
+            this.worldName = worldName;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.kingdomName = kingdomName;
+        }
+    }
+
+    /**
+     * Get the aggregated analytics of a chunk (null if no activity has been aggregated yet)
+     */
     public ClaimAnalytics getClaimAnalytics(Chunk chunk) {
-        String key = getChunkKey(chunk);
-        return claimAnalytics.computeIfAbsent(key, k -> 
-            new ClaimAnalytics(chunk, plugin.getKingdomManager().getKingdomByChunk(chunk) != null ? 
-                plugin.getKingdomManager().getKingdomByChunk(chunk).getName() : null));
+        return findClaimAnalytics(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
     }
     
-    public void recordClaimVisit(Chunk chunk, String playerName) {
-        ClaimAnalytics analytics = getClaimAnalytics(chunk);
-        if (analytics != null) {
-            analytics.incrementVisits(playerName);
+    /**
+     * Get aggregated analytics for a chunk without creating an entry (null if nothing was recorded)
+     */
+    public ClaimAnalytics findClaimAnalytics(String worldName, int chunkX, int chunkZ) {
+        return claimAnalytics.get(worldName + ":" + chunkX + ":" + chunkZ);
+    }
+    
+    /**
+     * Get the recorded analytics of every chunk a kingdom claims (chunks with no activity are skipped)
+     */
+    public List<ClaimAnalytics> getKingdomClaimAnalytics(Kingdom kingdom) {
+        List<ClaimAnalytics> result = new ArrayList<>();
+        for (ClaimGroup claimGroup : kingdom.getClaims()) {
+            claimGroup.forEach((worldName, chunkX, chunkZ) -> {
+                ClaimAnalytics analytics = findClaimAnalytics(worldName, chunkX, chunkZ);
+                if (analytics != null) {
+                    result.add(analytics);
+                }
+            });
         }
+        return result;
+    }
+    
+    public void recordClaimVisit(Chunk chunk, String playerName) {
+        ChunkCounters counters = getCounters(chunk);
+        if (counters == null) return;
+        counters.visits.increment();
+        // Bumped inside the map so the aggregator can't drop the adder between lookup and increment
+        counters.visitsByPlayer.compute(playerName, (k, adder) -> {
+            if (adder == null) adder = new LongAdder();
+            adder.increment();
+            return adder;
+        });
+        counters.lastActivity = System.currentTimeMillis() / 1000;
     }
     
     public void recordBlockInteraction(Chunk chunk) {
-        ClaimAnalytics analytics = getClaimAnalytics(chunk);
-        if (analytics != null) {
-            analytics.incrementBlockInteractions();
-            saveClaimAnalytics(analytics);
-        }
+        ChunkCounters counters = getCounters(chunk);
+        if (counters == null) return;
+        counters.blockInteractions.increment();
+        counters.lastActivity = System.currentTimeMillis() / 1000;
     }
     
     public void recordEntityInteraction(Chunk chunk) {
-        ClaimAnalytics analytics = getClaimAnalytics(chunk);
-        if (analytics != null) {
-            analytics.incrementEntityInteractions();
-            saveClaimAnalytics(analytics);
+        ChunkCounters counters = getCounters(chunk);
+        if (counters == null) return;
+        counters.entityInteractions.increment();
+        counters.lastActivity = System.currentTimeMillis() / 1000;
+    }
+    
+    /**
+     * Get the counters of a chunk (server thread), or null if no kingdom claims it. New counters
+     * are handed to the aggregator.
+     */
+    private ChunkCounters getCounters(Chunk chunk) {
+        String worldName = chunk.getWorld().getName();
+        LongObjectHashMap<ChunkCounters> worldCounters = counters.get(worldName);
+        long key = ClaimIndex.pack(chunk.getX(), chunk.getZ());
+        ChunkCounters chunkCounters = worldCounters != null ? worldCounters.get(key) : null;
+        if (chunkCounters == null) {
+            Kingdom kingdom = plugin.getKingdomManager().getKingdomAt(worldName, chunk.getX(), chunk.getZ());
+            if (kingdom == null) return null; // Only claimed chunks have analytics
+            if (worldCounters == null) {
+                worldCounters = new LongObjectHashMap<>();
+                counters.put(worldName, worldCounters);
+            }
+            chunkCounters = new ChunkCounters(worldName, chunk.getX(), chunk.getZ(), kingdom.getName());
+            worldCounters.put(key, chunkCounters);
+            newCounters.offer(chunkCounters);
         }
+        return chunkCounters;
     }
     
-    private void saveClaimAnalytics(ClaimAnalytics analytics) {
-        String chunkKey = getChunkKey(analytics.getChunk());
-        plugin.getStorageManager().getAdapter().saveClaimAnalytics(
-            chunkKey,
-            analytics.getKingdomName(),
-            analytics.getClaimedAt(),
-            analytics.getLastActivity(),
-            analytics.getPlayerVisits(),
-            analytics.getBlockInteractions(),
-            analytics.getEntityInteractions(),
-            analytics.getEstimatedValue()
-        );
+    /**
+     * Forget counters the aggregator found idle (server thread). Counters bumped since that
+     * pass are handed back to the aggregator instead.
+     */
+    private void dropIdleCounters() {
+        ChunkCounters idle;
+        while ((idle = idleCounters.poll()) != null) {
+            if (idle.visits.sum() > 0 || idle.blockInteractions.sum() > 0 || idle.entityInteractions.sum() > 0) {
+                newCounters.offer(idle);
+                continue;
+            }
+            LongObjectHashMap<ChunkCounters> worldCounters = counters.get(idle.worldName);
+            if (worldCounters == null) continue;
+            long key = ClaimIndex.pack(idle.chunkX, idle.chunkZ);
+            if (worldCounters.get(key) == idle) {
+                worldCounters.remove(key);
+                if (worldCounters.isEmpty()) counters.remove(idle.worldName);
+            }
+        }
+    }
+    
+    /**
+     * Start folding counters into analytics off the server thread every interval
+     */
+    private void startAggregator() {
+        long intervalTicks = Math.max(1L, plugin.getConfig().getLong("statistics.aggregate-interval", 30L)) * 20L;
+        aggregatorTask = new org.bukkit.scheduler.BukkitRunnable() {
+            @Override
+            public void run() {
+                List<ClaimAnalytics> changed = aggregate();
+                if (!plugin.isEnabled()) return;
+                if (!changed.isEmpty()) {
+                    // Storage adapters are driven from the server thread
+                    plugin.getServer().getScheduler().runTask(plugin, () -> saveClaimAnalytics(changed));
+                }
+                if (!idleCounters.isEmpty()) {
+                    plugin.getServer().getScheduler().runTask(plugin, StatisticsManager.this::dropIdleCounters);
+                }
+            }
+        }.runTaskTimerAsynchronously(plugin, intervalTicks, intervalTicks);
+    }
+    
+    /**
+     * Fold all counters into the aggregated analytics and return the chunks that changed.
+     * Counters with no activity for a whole pass stop being tracked and are queued for removal.
+     */
+    private synchronized List<ClaimAnalytics> aggregate() {
+        ChunkCounters added;
+        while ((added = newCounters.poll()) != null) {
+            trackedCounters.add(added);
+        }
+        List<ClaimAnalytics> changed = new ArrayList<>();
+        int kept = 0; // Active counters are compacted to the front
+        for (int i = 0; i < trackedCounters.size(); i++) {
+            ChunkCounters chunkCounters = trackedCounters.get(i);
+            int visits = (int) chunkCounters.visits.sumThenReset();
+            int blocks = (int) chunkCounters.blockInteractions.sumThenReset();
+            int entities = (int) chunkCounters.entityInteractions.sumThenReset();
+            Map<String, Integer> playerVisits = drainPlayerVisits(chunkCounters);
+            if (visits == 0 && blocks == 0 && entities == 0 && playerVisits.isEmpty()) {
+                idleCounters.offer(chunkCounters);
+                continue;
+            }
+            trackedCounters.set(kept++, chunkCounters);
+            ClaimAnalytics analytics = claimAnalytics.computeIfAbsent(
+                chunkCounters.worldName + ":" + chunkCounters.chunkX + ":" + chunkCounters.chunkZ,
+                k -> new ClaimAnalytics(chunkCounters.worldName, chunkCounters.chunkX, chunkCounters.chunkZ,
+                    chunkCounters.kingdomName));
+            analytics.addActivity(visits, blocks, entities, chunkCounters.lastActivity);
+            playerVisits.forEach(analytics::addPlayerVisits);
+            changed.add(analytics);
+        }
+        trackedCounters.subList(kept, trackedCounters.size()).clear();
+        aggregations++;
+        return changed;
+    }
+    
+    /**
+     * Take the per-player visits counted since the last pass. Players who didn't visit during
+     * the pass are removed, so the map only holds recent visitors.
+     */
+    private static Map<String, Integer> drainPlayerVisits(ChunkCounters chunkCounters) {
+        Map<String, Integer> drained = new HashMap<>();
+        for (String playerName : chunkCounters.visitsByPlayer.keySet()) {
+            chunkCounters.visitsByPlayer.computeIfPresent(playerName, (k, adder) -> {
+                int visits = (int) adder.sumThenReset();
+                if (visits == 0) return null;
+                drained.put(playerName, visits);
+                return adder;
+            });
+        }
+        return drained;
+    }
+    
+    private void saveClaimAnalytics(List<ClaimAnalytics> batch) {
+        plugin.getStorageManager().getAdapter().saveClaimAnalyticsAsync(batch);
+    }
+    
+    /**
+     * Aggregate and save what is left, then stop the aggregator (server thread, on disable)
+     */
+    public void shutdown() {
+        if (aggregatorTask != null) {
+            aggregatorTask.cancel();
+            aggregatorTask = null;
+        }
+        List<ClaimAnalytics> changed = aggregate();
+        if (!changed.isEmpty()) {
+            saveClaimAnalytics(changed);
+        }
+    }
+    
+    /**
+     * Number of aggregation passes so far
+     */
+    public synchronized long getAggregationCount() {
+        return aggregations;
     }
     
     // Kingdom Health Score
@@ -160,14 +404,14 @@ public class StatisticsManager {
         int totalMembers = kingdom.getMembers().size() + 1; // +1 for king
         
         for (String member : kingdom.getMembers()) {
-            PlayerActivity activity = plugin.getActivityManager().getActivity(member);
+            PlayerActivity activity = plugin.getActivityManager().getCachedActivity(member);
             if (activity != null && activity.getDaysSinceLastLogin() <= 7) {
                 activeMembers++;
             }
         }
         
         // Check king activity
-        PlayerActivity kingActivity = plugin.getActivityManager().getActivity(kingdom.getKing());
+        PlayerActivity kingActivity = plugin.getActivityManager().getCachedActivity(kingdom.getKing());
         if (kingActivity != null && kingActivity.getDaysSinceLastLogin() <= 7) {
             activeMembers++;
         }
@@ -182,21 +426,19 @@ public class StatisticsManager {
         Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
         if (kingdom == null) return 0.0;
         
-        for (List<Chunk> claimGroup : kingdom.getClaims()) {
-            for (Chunk chunk : claimGroup) {
-                ClaimAnalytics analytics = getClaimAnalytics(chunk);
-                if (analytics != null) {
-                    totalScore += analytics.getActivityScore();
-                    claimCount++;
-                }
-            }
+        for (ClaimAnalytics analytics : getKingdomClaimAnalytics(kingdom)) {
+            totalScore += analytics.getActivityScore();
+        }
+        // Chunks without recorded analytics count with a score of zero
+        for (ClaimGroup claimGroup : kingdom.getClaims()) {
+            claimCount += claimGroup.size();
         }
         
         return claimCount > 0 ? Math.min(100.0, totalScore / claimCount * 10) : 0.0;
     }
     
     public double calculateGrowthScore(String kingdomName) {
-        List<GrowthData> data = growthData.get(kingdomName);
+        List<GrowthData> data = getGrowthData(kingdomName);
         if (data == null || data.size() < 2) return 50.0; // Neutral if no data
         
         // Calculate average growth rate over last 7 days
@@ -245,13 +487,8 @@ public class StatisticsManager {
         // Calculate claim activity for this player
         int claimVisits = 0;
         if (kingdom != null) {
-            for (List<Chunk> claimGroup : kingdom.getClaims()) {
-                for (Chunk chunk : claimGroup) {
-                    ClaimAnalytics claimAnalytics = getClaimAnalytics(chunk);
-                    if (claimAnalytics != null) {
-                        claimVisits += claimAnalytics.getActivityByPlayer().getOrDefault(playerName, 0);
-                    }
-                }
+            for (ClaimAnalytics claimAnalytics : getKingdomClaimAnalytics(kingdom)) {
+                claimVisits += claimAnalytics.getActivityByPlayer().getOrDefault(playerName, 0);
             }
         }
         analytics.put("claimVisits", claimVisits);
@@ -272,6 +509,7 @@ public class StatisticsManager {
         data.members = kingdom.getMembers().size() + 1;
         data.alliances = kingdom.getAlliances().size();
         
+        ensureLoaded(kingdomName);
         growthData.computeIfAbsent(kingdomName, k -> new ArrayList<>()).add(data);
         
         // Keep only last 90 days of data
@@ -279,15 +517,17 @@ public class StatisticsManager {
         growthData.get(kingdomName).removeIf(g -> g.timestamp < cutoff);
         
         // Save to storage
-        plugin.getStorageManager().getAdapter().saveGrowthData(kingdomName, data.timestamp, data.level, data.xp, data.claims, data.members, data.alliances);
+        plugin.getStorageManager().getAdapter().saveGrowthDataAsync(kingdomName, data.timestamp, data.level, data.xp, data.claims, data.members, data.alliances);
     }
     
     public List<GrowthData> getGrowthData(String kingdomName) {
+        ensureLoaded(kingdomName);
         return growthData.getOrDefault(kingdomName, new ArrayList<>());
     }
     
     // Historical Data
     public KingdomHistory getKingdomHistory(String kingdomName) {
+        ensureLoaded(kingdomName);
         return kingdomHistories.computeIfAbsent(kingdomName, k -> new KingdomHistory(kingdomName));
     }
     
@@ -297,33 +537,23 @@ public class StatisticsManager {
         history.addEntry(entry);
         
         // Save to storage
-        plugin.getStorageManager().getAdapter().saveKingdomHistory(kingdomName, entry.getTimestamp(), type.name(), description, actor);
+        plugin.getStorageManager().getAdapter().saveKingdomHistoryAsync(kingdomName, entry.getTimestamp(), type.name(), description, actor);
     }
     
-    // Activity Heatmap
-    public Map<Chunk, Double> generateActivityHeatmap(String kingdomName) {
-        Map<Chunk, Double> heatmap = new HashMap<>();
+    // Activity Heatmap (claims with recorded analytics only, so no chunks are loaded)
+    public Map<ClaimAnalytics, Double> generateActivityHeatmap(String kingdomName) {
+        Map<ClaimAnalytics, Double> heatmap = new HashMap<>();
         
         Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
         if (kingdom == null) return heatmap;
         
-        for (List<Chunk> claimGroup : kingdom.getClaims()) {
-            for (Chunk chunk : claimGroup) {
-                ClaimAnalytics analytics = getClaimAnalytics(chunk);
-                if (analytics != null) {
-                    heatmap.put(chunk, analytics.getActivityScore());
-                }
-            }
+        for (ClaimAnalytics analytics : getKingdomClaimAnalytics(kingdom)) {
+            heatmap.put(analytics, analytics.getActivityScore());
         }
         
         return heatmap;
     }
     
-    // Helper methods
-    private String getChunkKey(Chunk chunk) {
-        return chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-    }
-    
     public static class GrowthData {
         public long timestamp;
         public int level;
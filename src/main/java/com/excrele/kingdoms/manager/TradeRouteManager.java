@@ -113,8 +113,7 @@ public class TradeRouteManager {
         }
         
         // Execute transfer
-        if (plugin.getBankManager().withdraw(fromKingdom, amount)) {
-            plugin.getBankManager().deposit(toKingdom, amount);
+        if (plugin.getBankManager().transfer(fromKingdom, toKingdom, amount)) {
             
             // Update route statistics
             route.addTradeVolume(amount);
@@ -17,11 +17,16 @@ public class TrustManager {
     }
 
     private void loadAllTrusts() {
-        // Load trusts from storage
+        // Load trusts from storage (bulk loaded at startup)
         try {
-            for (String kingdomName : plugin.getKingdomManager().getKingdoms().keySet()) {
-                Map<String, List<String>> trusts = plugin.getStorageManager().getAdapter().loadTrusts(kingdomName);
-                for (Map.Entry<String, List<String>> entry : trusts.entrySet()) {
+            Set<String> kingdomNames = plugin.getKingdomManager().getKingdoms().keySet();
+            Map<String, Map<String, List<String>>> allTrusts = plugin.getStartupLoader() != null
+                ? plugin.getStartupLoader().getTrusts() : null;
+            if (allTrusts == null) allTrusts = plugin.getStorageManager().getAdapter().loadAllTrusts(kingdomNames);
+            for (Map.Entry<String, Map<String, List<String>>> kingdomEntry : allTrusts.entrySet()) {
+                String kingdomName = kingdomEntry.getKey();
+                if (!kingdomNames.contains(kingdomName)) continue;
+                for (Map.Entry<String, List<String>> entry : kingdomEntry.getValue().entrySet()) {
                     Set<TrustPermission> perms = new HashSet<>();
                     for (String permStr : entry.getValue()) {
                         TrustPermission perm = TrustPermission.fromKey(permStr);
@@ -41,16 +46,18 @@ public class TrustManager {
         kingdomTrusts.computeIfAbsent(kingdomName, k -> new HashMap<>())
             .computeIfAbsent(player, k -> new HashSet<>())
             .add(permission);
+        invalidateProtection(player);
         
         // Save to storage
-        plugin.getStorageManager().getAdapter().saveTrust(kingdomName, player, permission.getKey());
+        plugin.getStorageManager().getAdapter().saveTrustAsync(kingdomName, player, permission.getKey());
     }
 
     public void untrustPlayer(String kingdomName, String player) {
         Map<String, Set<TrustPermission>> kingdom = kingdomTrusts.get(kingdomName);
         if (kingdom != null) {
             kingdom.remove(player);
-            plugin.getStorageManager().getAdapter().deleteTrust(kingdomName, player);
+            invalidateProtection(player);
+            plugin.getStorageManager().getAdapter().deleteTrustAsync(kingdomName, player);
         }
     }
 
@@ -60,20 +67,27 @@ public class TrustManager {
             Set<TrustPermission> perms = kingdom.get(player);
             if (perms != null) {
                 perms.remove(permission);
+                invalidateProtection(player);
                 if (perms.isEmpty()) {
                     kingdom.remove(player);
-                    plugin.getStorageManager().getAdapter().deleteTrust(kingdomName, player);
+                    plugin.getStorageManager().getAdapter().deleteTrustAsync(kingdomName, player);
                 } else {
                     // Re-save all permissions
-                    plugin.getStorageManager().getAdapter().deleteTrust(kingdomName, player);
+                    plugin.getStorageManager().getAdapter().deleteTrustAsync(kingdomName, player);
                     for (TrustPermission perm : perms) {
-                        plugin.getStorageManager().getAdapter().saveTrust(kingdomName, player, perm.getKey());
+                        plugin.getStorageManager().getAdapter().saveTrustAsync(kingdomName, player, perm.getKey());
                     }
                 }
             }
         }
     }
 
+    private void invalidateProtection(String player) {
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidatePlayer(player);
+        }
+    }
+
     public boolean hasTrust(String kingdomName, String player, TrustPermission permission) {
         Map<String, Set<TrustPermission>> kingdom = kingdomTrusts.get(kingdomName);
         if (kingdom == null) return false;
@@ -39,11 +39,12 @@ public class VaultManager {
      * Check if player can access vault
      */
     public boolean canAccessVault(Player player, Kingdom kingdom) {
-        if (player.getName().equals(kingdom.getKing())) {
+        int playerId = com.excrele.kingdoms.util.PlayerIds.idOf(player);
+        if (kingdom.isKing(playerId)) {
             return true; // King always has access
         }
         
-        if (kingdom.getMembers().contains(player.getName())) {
+        if (kingdom.hasMember(playerId)) {
             // All members can access, but you could restrict based on role
             return true;
         }
@@ -95,6 +96,13 @@ public class VaultManager {
         }
     }
     
+    /**
+     * Whether a kingdom's vault is already in memory (getVault would not have to load it)
+     */
+    public boolean isLoaded(String kingdomName) {
+        return vaults.containsKey(kingdomName);
+    }
+    
     /**
      * Get vault size (number of slots)
      */
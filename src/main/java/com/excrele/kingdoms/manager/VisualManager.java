@@ -79,13 +79,15 @@ public class VisualManager {
         } else {
             // Show borders for all chunks player is near
             Chunk currentChunk = player.getLocation().getChunk();
+            com.excrele.kingdoms.util.ClaimGrid grid = plugin.getKingdomManager().getClaimGrid(
+                currentChunk.getWorld(), currentChunk.getX(), currentChunk.getZ(), 5);
             for (int x = -5; x <= 5; x++) {
                 for (int z = -5; z <= 5; z++) {
-                    Chunk nearby = currentChunk.getWorld().getChunkAt(
-                        currentChunk.getX() + x, currentChunk.getZ() + z);
-                    Kingdom kingdom = plugin.getKingdomManager().getKingdomByChunk(nearby);
-                    if (kingdom != null) {
-                        showBorder(player, nearby);
+                    int chunkX = currentChunk.getX() + x;
+                    int chunkZ = currentChunk.getZ() + z;
+                    if (grid.isClaimed(chunkX, chunkZ)) {
+                        // Only claimed chunks need a Chunk handle for border particles
+                        showBorder(player, currentChunk.getWorld().getChunkAt(chunkX, chunkZ));
                     }
                 }
             }
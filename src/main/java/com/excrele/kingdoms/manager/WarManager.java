@@ -64,11 +64,17 @@ public class WarManager {
         
         War war = new War(declaringKingdom, targetKingdom, duration, reason, declaredBy);
         activeWars.put(war.getWarId(), war);
+        if (plugin.getKingdomScheduler() != null) {
+            plugin.getKingdomScheduler().wake(com.excrele.kingdoms.task.AutoFeaturesTask.WARS, war.getEndTime() * 1000);
+        }
         kingdomWars.computeIfAbsent(declaringKingdom, k -> new ArrayList<>()).add(war.getWarId());
         kingdomWars.computeIfAbsent(targetKingdom, k -> new ArrayList<>()).add(war.getWarId());
+        if (plugin.getProtectionManager() != null) {
+            plugin.getProtectionManager().invalidateRelations(declaringKingdom, targetKingdom);
+        }
         
         // Save to storage
-        plugin.getStorageManager().getAdapter().saveWar(
+        plugin.getStorageManager().getAdapter().saveWarAsync(
             war.getWarId(),
             declaringKingdom,
             targetKingdom,
@@ -116,7 +122,10 @@ public class WarManager {
         War war = activeWars.get(warId);
         if (war != null) {
             war.setActive(false);
-            plugin.getStorageManager().getAdapter().saveWar(
+            if (plugin.getProtectionManager() != null) {
+                plugin.getProtectionManager().invalidateRelations(war.getKingdom1(), war.getKingdom2());
+            }
+            plugin.getStorageManager().getAdapter().saveWarAsync(
                 warId,
                 war.getKingdom1(),
                 war.getKingdom2(),
@@ -154,6 +163,17 @@ public class WarManager {
         }
     }
 
+    /**
+     * When the next active war ends (epoch millis), or Long.MAX_VALUE if there are none
+     */
+    public long getNextExpiry() {
+        long next = Long.MAX_VALUE;
+        for (War war : activeWars.values()) {
+            next = Math.min(next, war.getEndTime() * 1000);
+        }
+        return next;
+    }
+
     public boolean canAttack(Player attacker, Player defender) {
         String attackerKingdom = plugin.getKingdomManager().getKingdomOfPlayer(attacker.getName());
         String defenderKingdom = plugin.getKingdomManager().getKingdomOfPlayer(defender.getName());
@@ -1,9 +1,10 @@
 package com.excrele.kingdoms.manager;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.ClaimGroup;
 import com.excrele.kingdoms.model.Kingdom;
 import com.excrele.kingdoms.model.WorldConfig;
-import org.bukkit.Chunk;
+import com.excrele.kingdoms.util.LongHashSet;
 import org.bukkit.World;
 
 import java.util.HashMap;
@@ -139,18 +140,40 @@ public class WorldManager {
     }
     
     /**
-     * Get number of claims a kingdom has in a specific world
+     * Get number of claims a kingdom has in a specific world (kept by the claim index)
      */
     public int getClaimsInWorld(Kingdom kingdom, World world) {
-        int count = 0;
-        for (List<Chunk> claim : kingdom.getClaims()) {
-            for (Chunk chunk : claim) {
-                if (chunk.getWorld().equals(world)) {
-                    count++;
+        return plugin.getKingdomManager().getClaimIndex().getClaimCount(world.getName(), kingdom.getName());
+    }
+    
+    /**
+     * Compare the claim index's per-world counts with the claims each kingdom loaded from storage,
+     * logging any difference. Returns the number of mismatched kingdom/world pairs.
+     */
+    public int verifyClaimCounts() {
+        com.excrele.kingdoms.util.ClaimIndex claimIndex = plugin.getKingdomManager().getClaimIndex();
+        int mismatches = 0;
+        for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
+            Map<String, Integer> stored = new HashMap<>();
+            for (ClaimGroup claim : kingdom.getClaims()) {
+                for (String worldName : claim.getWorldNames()) {
+                    LongHashSet chunks = claim.getChunks(worldName);
+                    stored.merge(worldName, chunks != null ? chunks.size() : 0, Integer::sum);
+                }
+            }
+            for (String worldName : claimIndex.getWorldNames()) {
+                stored.putIfAbsent(worldName, 0); // Indexed claims the kingdom doesn't list
+            }
+            for (Map.Entry<String, Integer> entry : stored.entrySet()) {
+                int indexed = claimIndex.getClaimCount(entry.getKey(), kingdom.getName());
+                if (indexed != entry.getValue()) {
+                    mismatches++;
+                    plugin.getLogger().warning("Kingdom " + kingdom.getName() + " has " + entry.getValue() + " stored claims in "
+                        + entry.getKey() + " but " + indexed + " in the claim index");
                 }
             }
         }
-        return count;
+        return mismatches;
     }
     
     /**
@@ -1,25 +1,31 @@
 package com.excrele.kingdoms.model;
 
-import java.util.HashMap;
 import java.util.Map;
-import org.bukkit.Chunk;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Tracks analytics for a claim/chunk
+ * Tracks analytics for a claim/chunk.
+ * Updated by the statistics aggregator thread and read by the server thread, so fields are volatile.
  */
 public class ClaimAnalytics {
-    private Chunk chunk;
+    private final String worldName; // Coordinates only, so unloaded chunks aren't kept reachable
+    private final int chunkX;
+    private final int chunkZ;
+    private final String chunkKey; // world:x:z
     private String kingdomName;
-    private long claimedAt;
-    private long lastActivity;
-    private int playerVisits; // Number of unique player visits
-    private int blockInteractions; // Blocks broken/placed
-    private int entityInteractions; // Entities killed/spawned
-    private double estimatedValue;
+    private volatile long claimedAt;
+    private volatile long lastActivity;
+    private volatile int playerVisits; // Number of unique player visits
+    private volatile int blockInteractions; // Blocks broken/placed
+    private volatile int entityInteractions; // Entities killed/spawned
+    private volatile double estimatedValue;
     private Map<String, Integer> activityByPlayer; // Player -> visit count
     
-    public ClaimAnalytics(Chunk chunk, String kingdomName) {
-        this.chunk = chunk;
+    public ClaimAnalytics(String worldName, int chunkX, int chunkZ, String kingdomName) {
+        this.worldName = worldName;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.chunkKey = worldName + ":" + chunkX + ":" + chunkZ;
         this.kingdomName = kingdomName;
         this.claimedAt = System.currentTimeMillis() / 1000;
         this.lastActivity = this.claimedAt;
@@ -27,10 +33,13 @@ public class ClaimAnalytics {
         this.blockInteractions = 0;
         this.entityInteractions = 0;
         this.estimatedValue = 0.0;
-        this.activityByPlayer = new HashMap<>();
+        this.activityByPlayer = new ConcurrentHashMap<>();
     }
     
-    public Chunk getChunk() { return chunk; }
+    public String getWorldName() { return worldName; }
+    public int getChunkX() { return chunkX; }
+    public int getChunkZ() { return chunkZ; }
+    public String getChunkKey() { return chunkKey; }
     public String getKingdomName() { return kingdomName; }
     public long getClaimedAt() { return claimedAt; }
     public void setClaimedAt(long claimedAt) { this.claimedAt = claimedAt; }
@@ -56,6 +65,19 @@ public class ClaimAnalytics {
     public void setEstimatedValue(double estimatedValue) { this.estimatedValue = estimatedValue; }
     public Map<String, Integer> getActivityByPlayer() { return activityByPlayer; }
     
+    /**
+     * Fold in counts gathered since the last aggregation (single writer: the aggregator)
+     */
+    public void addActivity(int visits, int blocks, int entities, long lastActivity) {
+        this.playerVisits += visits;
+        this.blockInteractions += blocks;
+        this.entityInteractions += entities;
+        if (lastActivity > this.lastActivity) this.lastActivity = lastActivity;
+    }
+    public void addPlayerVisits(String playerName, int visits) {
+        activityByPlayer.merge(playerName, visits, Integer::sum);
+    }
+    
     public double getActivityScore() {
         // Calculate activity score based on various factors
         long daysSinceClaim = (System.currentTimeMillis() / 1000 - claimedAt) / 86400;
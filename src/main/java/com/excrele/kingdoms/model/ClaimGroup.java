@@ -0,0 +1,110 @@
+package com.excrele.kingdoms.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.LongHashSet;
+
+/**
+ * A connected group of claimed chunks, stored as packed chunk coordinates per world.
+ * Holds no Chunk or World references, so unloaded chunks are never kept alive.
+ */
+public class ClaimGroup {
+    private final Map<String, LongHashSet> chunks; // world name -> packed chunk keys
+    private int size;
+
+    /**
+     * Functional callback for iterating chunk coordinates
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(String worldName, int chunkX, int chunkZ);
+    }
+
+    public ClaimGroup() {
+        this.chunks = new HashMap<>(2);
+        this.size = 0;
+    }
+
+    public boolean contains(String worldName, int chunkX, int chunkZ) {
+        LongHashSet set = chunks.get(worldName);
+        return set != null && set.contains(ClaimIndex.pack(chunkX, chunkZ));
+    }
+
+    /**
+     * Add a chunk, returning true if it was not already in the group
+     */
+    public boolean add(String worldName, int chunkX, int chunkZ) {
+        if (chunks.computeIfAbsent(worldName, k -> new LongHashSet()).add(ClaimIndex.pack(chunkX, chunkZ))) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove a chunk, returning true if it was in the group
+     */
+    public boolean remove(String worldName, int chunkX, int chunkZ) {
+        LongHashSet set = chunks.get(worldName);
+        if (set == null || !set.remove(ClaimIndex.pack(chunkX, chunkZ))) return false;
+        if (set.isEmpty()) chunks.remove(worldName);
+        size--;
+        return true;
+    }
+
+    /**
+     * Check if any of the 8 neighbouring chunks belongs to this group
+     */
+    public boolean isAdjacent(String worldName, int chunkX, int chunkZ) {
+        LongHashSet set = chunks.get(worldName);
+        if (set == null) return false;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if ((dx != 0 || dz != 0) && set.contains(ClaimIndex.pack(chunkX + dx, chunkZ + dz))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move every chunk of another group into this one
+     */
+    public void addAll(ClaimGroup other) {
+        other.forEach(this::add);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Set<String> getWorldNames() {
+        return Collections.unmodifiableSet(chunks.keySet());
+    }
+
+    /**
+     * Get the packed chunk keys of this group in a world (may be null)
+     */
+    public LongHashSet getChunks(String worldName) {
+        return chunks.get(worldName);
+    }
+
+    /**
+     * Visit every chunk in the group. The group must not be modified during iteration.
+     */
+    public void forEach(ChunkConsumer consumer) {
+        for (Map.Entry<String, LongHashSet> entry : chunks.entrySet()) {
+            String worldName = entry.getKey();
+            entry.getValue().forEach(key -> consumer.accept(worldName, ClaimIndex.unpackX(key), ClaimIndex.unpackZ(key)));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.excrele.kingdoms.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -8,13 +10,20 @@ import java.util.Map;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.IntHashSet;
+import com.excrele.kingdoms.util.LongObjectHashMap;
+import com.excrele.kingdoms.util.PlayerIds;
+
 public class Kingdom {
     private final String name;
     private final String king;
+    private int kingId;
     private final List<String> members;
-    private final Map<Chunk, String> plotTypes;
-    private final Map<Chunk, Map<String, String>> chunkFlags; // Per-chunk flags
-    private final List<List<Chunk>> claims;
+    private final List<String> membersView; // Read-only, so every edit goes through addMember/removeMember
+    private final Map<String, LongObjectHashMap<String>> plotTypes; // world name -> packed chunk -> plot type
+    private final Map<String, LongObjectHashMap<Map<String, String>>> chunkFlags; // Per-chunk flags, keyed like plotTypes
+    private final List<ClaimGroup> claims;
     private int currentClaimChunks;
     private int xp;
     private int level;
@@ -25,15 +34,25 @@ public class Kingdom {
     private final List<String> alliances; // List of allied kingdom names
     private long createdAt; // Kingdom creation timestamp
     private int totalChallengesCompleted; // Total challenges completed by all members
+    private volatile boolean dirty; // Changed since it was last saved (set again on the server thread if a write fails)
+    private volatile int version; // Bumped on every change so cached views can tell they are stale
+    private final IntHashSet memberIds; // Player ids of the members list, for O(1) membership checks
+    private int memberIdsEpoch; // PlayerIds.epoch() when kingId and memberIds were last resolved
+    private java.util.function.Consumer<Kingdom> scoreListener; // Told when a leaderboard score may have changed
+    private java.util.function.Consumer<Kingdom> membershipListener; // Told when members, roles or alliances may have changed
 
     public Kingdom(String name, String king) {
         this.name = name;
         this.king = king;
+        this.kingId = PlayerIds.idOf(king);
         this.members = new ArrayList<>();
+        this.membersView = Collections.unmodifiableList(members);
+        this.memberIds = new IntHashSet();
+        this.memberIdsEpoch = PlayerIds.epoch();
         this.plotTypes = new HashMap<>();
         this.chunkFlags = new HashMap<>();
         this.claims = new ArrayList<>();
-        this.claims.add(new ArrayList<>());
+        this.claims.add(new ClaimGroup());
         this.currentClaimChunks = 0;
         this.xp = 0;
         this.level = 1;
@@ -45,31 +64,141 @@ public class Kingdom {
         this.alliances = new ArrayList<>();
         this.createdAt = System.currentTimeMillis() / 1000;
         this.totalChallengesCompleted = 0;
+        this.dirty = true; // New kingdoms have never been saved
     }
 
     public String getName() { return name; }
     public String getKing() { return king; }
-    public List<String> getMembers() { return members; }
-    public void addMember(String player) { members.add(player); }
+    public List<String> getMembers() { return membersView; }
+    public void addMember(String player) {
+        syncMemberIds();
+        members.add(player);
+        memberIds.add(PlayerIds.idOf(player));
+        changed();
+        scoresChanged();
+        membershipChanged();
+    }
+    public boolean removeMember(String player) {
+        syncMemberIds();
+        boolean removed = members.remove(player);
+        if (removed && !members.contains(player)) memberIds.remove(PlayerIds.find(player));
+        changed();
+        scoresChanged();
+        membershipChanged();
+        return removed;
+    }
+    /**
+     * Add members read from storage (no change notifications)
+     */
+    public void loadMembers(Collection<String> players) {
+        syncMemberIds();
+        for (String player : players) {
+            members.add(player);
+            memberIds.add(PlayerIds.idOf(player));
+        }
+    }
+    /**
+     * Whether a player is in the members list (the king is not), by name or any earlier name
+     */
+    public boolean hasMember(String player) {
+        return hasMember(PlayerIds.find(player));
+    }
+    public boolean hasMember(int playerId) {
+        if (playerId == PlayerIds.UNKNOWN) return false;
+        if (memberIdsEpoch == PlayerIds.epoch()) return memberIds.contains(playerId);
+        for (String member : members) { // A name moved since the last sync; answer the way the sync will
+            if (PlayerIds.find(member) == playerId) return true;
+        }
+        return false;
+    }
+    public boolean isKing(int playerId) {
+        if (memberIdsEpoch == PlayerIds.epoch()) return playerId == kingId;
+        return playerId != PlayerIds.UNKNOWN && PlayerIds.find(king) == playerId;
+    }
+
+    /**
+     * Resolve the king's and members' ids again if a name moved to another id since the last sync
+     * (server thread; KingdomManager does this for every kingdom when PlayerIds.epoch() moves)
+     */
+    public void syncMemberIds() {
+        int epoch = PlayerIds.epoch();
+        if (memberIdsEpoch == epoch) return;
+        kingId = PlayerIds.idOf(king);
+        memberIds.clear();
+        for (String member : members) {
+            memberIds.add(PlayerIds.idOf(member));
+        }
+        memberIdsEpoch = epoch;
+    }
     public List<String> getAllMembers() {
         List<String> all = new ArrayList<>(members);
         all.add(king);
         return all;
     }
-    public Map<Chunk, String> getPlotTypes() { return plotTypes; }
-    public void setPlotType(Chunk chunk, String type) { plotTypes.put(chunk, type); }
+    public Map<String, LongObjectHashMap<String>> getPlotTypes() { return plotTypes; }
+    public void setPlotType(Chunk chunk, String type) { setPlotType(chunk.getWorld().getName(), chunk.getX(), chunk.getZ(), type); }
+    public void setPlotType(String worldName, int chunkX, int chunkZ, String type) {
+        plotTypes.computeIfAbsent(worldName, k -> new LongObjectHashMap<>()).put(ClaimIndex.pack(chunkX, chunkZ), type);
+        changed();
+    }
+    public String getPlotType(String worldName, int chunkX, int chunkZ) {
+        LongObjectHashMap<String> types = plotTypes.get(worldName);
+        return types != null ? types.get(ClaimIndex.pack(chunkX, chunkZ)) : null;
+    }
     public Map<String, String> getFlags() { return new HashMap<>(); } // Deprecated, use chunkFlags
-    public Map<Chunk, Map<String, String>> getChunkFlags() { return chunkFlags; }
+    public Map<String, LongObjectHashMap<Map<String, String>>> getChunkFlags() { return chunkFlags; }
     public Map<String, String> getPlotFlags() { return new HashMap<>(); } // Deprecated
-    public Map<String, String> getPlotFlags(Chunk chunk) { return chunkFlags.computeIfAbsent(chunk, k -> new HashMap<>()); }
-    public List<List<Chunk>> getClaims() { return claims; }
+    /**
+     * Get the flags of a chunk for reading (empty and unmodifiable if none are set)
+     */
+    public Map<String, String> getPlotFlags(Chunk chunk) { return getPlotFlags(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()); }
+    public Map<String, String> getPlotFlags(String worldName, int chunkX, int chunkZ) {
+        LongObjectHashMap<Map<String, String>> flags = chunkFlags.get(worldName);
+        Map<String, String> chunkFlagMap = flags != null ? flags.get(ClaimIndex.pack(chunkX, chunkZ)) : null;
+        return chunkFlagMap != null ? chunkFlagMap : Collections.emptyMap();
+    }
+    /**
+     * Get the mutable flags of a chunk, creating them if needed (marks the kingdom dirty)
+     */
+    public Map<String, String> getOrCreatePlotFlags(String worldName, int chunkX, int chunkZ) {
+        LongObjectHashMap<Map<String, String>> flags = chunkFlags.computeIfAbsent(worldName, k -> new LongObjectHashMap<>());
+        long key = ClaimIndex.pack(chunkX, chunkZ);
+        Map<String, String> chunkFlagMap = flags.get(key);
+        if (chunkFlagMap == null) {
+            chunkFlagMap = new HashMap<>();
+            flags.put(key, chunkFlagMap);
+        }
+        changed();
+        return chunkFlagMap;
+    }
+    /**
+     * Drop the plot type and flags of a chunk (when it is unclaimed)
+     */
+    public void clearPlotData(String worldName, int chunkX, int chunkZ) {
+        long key = ClaimIndex.pack(chunkX, chunkZ);
+        LongObjectHashMap<String> types = plotTypes.get(worldName);
+        if (types != null) types.remove(key);
+        LongObjectHashMap<Map<String, String>> flags = chunkFlags.get(worldName);
+        if (flags != null) flags.remove(key);
+        changed();
+    }
+    public List<ClaimGroup> getClaims() { return claims; }
+    /**
+     * Get the claim group holding a chunk, or null if the kingdom does not own it
+     */
+    public ClaimGroup getClaimGroup(String worldName, int chunkX, int chunkZ) {
+        for (ClaimGroup group : claims) {
+            if (group.contains(worldName, chunkX, chunkZ)) return group;
+        }
+        return null;
+    }
     public int getCurrentClaimChunks() { return currentClaimChunks; }
-    public void setCurrentClaimChunks(int currentClaimChunks) { this.currentClaimChunks = currentClaimChunks; }
+    public void setCurrentClaimChunks(int currentClaimChunks) { this.currentClaimChunks = currentClaimChunks; changed(); }
     public int getXp() { return xp; }
-    public void addXp(int amount) { this.xp += amount; }
-    public void setXp(int xp) { this.xp = xp; }
+    public void addXp(int amount) { this.xp += amount; changed(); scoresChanged(); }
+    public void setXp(int xp) { this.xp = xp; changed(); scoresChanged(); }
     public int getLevel() { return level; }
-    public void setLevel(int level) { this.level = level; }
+    public void setLevel(int level) { this.level = level; changed(); scoresChanged(); }
     public int getMaxClaimChunks() { return 10 + 5 * level; }
     public Location getSpawn() { 
         // Backward compatibility: return main spawn or first spawn in map
@@ -84,6 +213,7 @@ public class Kingdom {
         // Also set as "main" spawn point
         if (spawns == null) spawns = new HashMap<>();
         spawns.put("main", spawn);
+        changed();
     }
     
     // Multiple spawn points support
@@ -102,6 +232,7 @@ public class Kingdom {
         if (name.equalsIgnoreCase("main")) {
             this.spawn = location;
         }
+        changed();
     }
     public void removeSpawn(String name) {
         if (spawns == null) return;
@@ -110,6 +241,7 @@ public class Kingdom {
         if (name.equalsIgnoreCase("main") && spawn != null) {
             spawn = null;
         }
+        changed();
     }
     public Location getSpawn(String name) {
         if (spawns == null) return null;
@@ -118,15 +250,17 @@ public class Kingdom {
     public Map<String, Integer> getMemberContributions() { return memberContributions; }
     public void addContribution(String player, int amount) {
         memberContributions.put(player, memberContributions.getOrDefault(player, 0) + amount);
+        changed();
+        scoresChanged();
     }
     public int getContribution(String player) {
         return memberContributions.getOrDefault(player, 0);
     }
     public long getCreatedAt() { return createdAt; }
-    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; changed(); }
     public int getTotalChallengesCompleted() { return totalChallengesCompleted; }
-    public void incrementChallengesCompleted() { this.totalChallengesCompleted++; }
-    public void setTotalChallengesCompleted(int count) { this.totalChallengesCompleted = count; }
+    public void incrementChallengesCompleted() { this.totalChallengesCompleted++; changed(); scoresChanged(); }
+    public void setTotalChallengesCompleted(int count) { this.totalChallengesCompleted = count; changed(); scoresChanged(); }
     public Map<String, MemberRole> getMemberRoles() { return memberRoles; }
     public MemberRole getRole(String player) {
         if (player.equals(king)) return MemberRole.KING;
@@ -135,6 +269,8 @@ public class Kingdom {
     public void setRole(String player, MemberRole role) {
         if (player.equals(king) && role != MemberRole.KING) return; // Can't change king's role
         memberRoles.put(player, role);
+        changed();
+        membershipChanged();
     }
     public boolean hasPermission(String player, String permission) {
         MemberRole role = getRole(player);
@@ -155,12 +291,62 @@ public class Kingdom {
     public void addAlliance(String kingdomName) {
         if (!alliances.contains(kingdomName)) {
             alliances.add(kingdomName);
+            changed();
+            membershipChanged();
         }
     }
     public void removeAlliance(String kingdomName) {
-        alliances.remove(kingdomName);
+        if (alliances.remove(kingdomName)) {
+            changed();
+            membershipChanged();
+        }
     }
     public boolean isAllied(String kingdomName) {
         return alliances.contains(kingdomName);
     }
+
+    // Persistence tracking
+
+    /**
+     * Flag the kingdom for the next save. Needed after changing the maps returned by getters directly.
+     */
+    public void markDirty() {
+        changed();
+        scoresChanged();
+        membershipChanged();
+    }
+    public boolean isDirty() { return dirty; }
+    public void clearDirty() { dirty = false; }
+
+    /**
+     * Change counter: differs from an earlier read if anything changed in between
+     */
+    public int getVersion() { return version; }
+
+    private void changed() {
+        dirty = true;
+        version++;
+    }
+
+    // Leaderboard tracking
+
+    /**
+     * Listen for changes to level, XP, members, contributions and challenges
+     */
+    public void setScoreListener(java.util.function.Consumer<Kingdom> scoreListener) { this.scoreListener = scoreListener; }
+
+    private void scoresChanged() {
+        if (scoreListener != null) scoreListener.accept(this);
+    }
+
+    // Read model tracking
+
+    /**
+     * Listen for changes to the member list, roles and alliances
+     */
+    public void setMembershipListener(java.util.function.Consumer<Kingdom> membershipListener) { this.membershipListener = membershipListener; }
+
+    private void membershipChanged() {
+        if (membershipListener != null) membershipListener.accept(this);
+    }
 }
\ No newline at end of file
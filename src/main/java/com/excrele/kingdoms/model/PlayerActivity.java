@@ -71,6 +71,20 @@ public class PlayerActivity {
     public long getLastStreakDay() { return lastStreakDay; }
     public void setLastStreakDay(long day) { this.lastStreakDay = day; }
     
+    /**
+     * Copy of the current values, for writing off the server thread
+     */
+    public PlayerActivity snapshot() {
+        PlayerActivity copy = new PlayerActivity(playerName, kingdomName);
+        copy.lastLogin = lastLogin;
+        copy.totalPlaytime = totalPlaytime;
+        copy.lastContribution = lastContribution;
+        copy.contributions = contributions;
+        copy.contributionStreak = contributionStreak;
+        copy.lastStreakDay = lastStreakDay;
+        return copy;
+    }
+    
     /**
      * Get days since last login
      */
@@ -0,0 +1,83 @@
+package com.excrele.kingdoms.model;
+
+import java.util.Map;
+
+/**
+ * Per-chunk protection flags and how their string values compile into access levels.
+ * Each flag occupies two bits of a compiled chunk mask.
+ */
+public enum ProtectionFlag {
+    BUILD("build", "members", Kind.ROLE),
+    BREAK("break", "members", Kind.ROLE),
+    REDSTONE("redstone", "members", Kind.TOGGLE),
+    PISTON("piston", "members", Kind.TOGGLE),
+    ANIMAL_BREED("animal-breed", "members", Kind.TOGGLE),
+    CROP_TRAMPLE("crop-trample", "true", Kind.TOGGLE),
+    EXPLOSION("explosion", "false", Kind.SWITCH),
+    FIRE_SPREAD("fire-spread", "false", Kind.SWITCH),
+    MOB_SPAWNING("mob-spawning", "true", Kind.SWITCH),
+    MOB_GRIEF("mob-grief", "false", Kind.SWITCH),
+    PVP("pvp", "false", Kind.SWITCH);
+
+    // Access levels stored in the two bits of each flag
+    public static final int EVERYONE = 0;
+    public static final int MEMBERS = 1;
+    public static final int KING = 2;
+    public static final int NOBODY = 3;
+
+    /** Compiled mask of a chunk with no flags set */
+    public static final int DEFAULT_MASK = compile(null);
+
+    private enum Kind {
+        ROLE,   // "king" / "members" / anything else = everyone
+        TOGGLE, // "true" = everyone, "false" = nobody, otherwise members (and trusted players)
+        SWITCH  // "true" = allowed, otherwise denied
+    }
+
+    private final String key;
+    private final String defaultValue;
+    private final Kind kind;
+
+    ProtectionFlag(String key, String defaultValue, Kind kind) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.kind = kind;
+    }
+
+    public String getKey() { return key; }
+
+    /**
+     * Read this flag's access level from a compiled chunk mask
+     */
+    public int level(int mask) {
+        return (mask >>> (ordinal() * 2)) & 3;
+    }
+
+    /**
+     * Check a SWITCH-style flag (explosion, pvp, ...) in a compiled chunk mask
+     */
+    public boolean isAllowed(int mask) {
+        return level(mask) == EVERYONE;
+    }
+
+    private int parse(String value) {
+        return switch (kind) {
+            case ROLE -> value.equals("king") ? KING : value.equals("members") ? MEMBERS : EVERYONE;
+            case TOGGLE -> value.equalsIgnoreCase("true") ? EVERYONE
+                : value.equalsIgnoreCase("false") ? NOBODY : MEMBERS;
+            case SWITCH -> value.equalsIgnoreCase("true") ? EVERYONE : NOBODY;
+        };
+    }
+
+    /**
+     * Compile a chunk's string flags (null for none) into a mask
+     */
+    public static int compile(Map<String, String> flags) {
+        int mask = 0;
+        for (ProtectionFlag flag : values()) {
+            String value = flags != null ? flags.getOrDefault(flag.key, flag.defaultValue) : flag.defaultValue;
+            mask |= flag.parse(value) << (flag.ordinal() * 2);
+        }
+        return mask;
+    }
+}
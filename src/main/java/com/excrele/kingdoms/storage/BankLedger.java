@@ -0,0 +1,218 @@
+package com.excrele.kingdoms.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Kingdom bank balances as fixed-point cents. Every mutation holds the lock stripe of each account
+ * it touches (two for a transfer, taken in stripe order), so a transfer is all-or-nothing and
+ * callers on any thread see consistent balances; reads are a single volatile load. Each committed
+ * operation is queued for an append-only journal, bank/journal-&lt;date&gt;.log, which flush()
+ * writes in batches. Balances themselves are still persisted through the storage adapter.
+ */
+public class BankLedger {
+    private static final int STRIPES = 64; // Power of two
+
+    private static final class Account {
+        private volatile long cents; // Written under the account's stripe
+    }
+
+    private final File folder;
+    private final Logger logger;
+    private final Map<String, Account> accounts;
+    private final Object[] stripes;
+    private final Queue<String> journal; // Committed operations waiting to be written
+    private final Object journalLock = new Object(); // Orders journal writes
+    private final AtomicLong sequence;
+    private final AtomicLong pending;
+    private final AtomicLong transactions;
+    private long flushes; // Guarded by journalLock
+
+    public BankLedger(File folder, Logger logger) {
+        this.folder = folder;
+        this.logger = logger;
+        this.accounts = new ConcurrentHashMap<>();
+        this.stripes = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        this.journal = new ConcurrentLinkedQueue<>();
+        this.sequence = new AtomicLong();
+        this.pending = new AtomicLong();
+        this.transactions = new AtomicLong();
+    }
+
+    /**
+     * Convert an amount to cents, rounding to the nearest cent
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    public long getBalance(String account) {
+        Account entry = accounts.get(account);
+        return entry != null ? entry.cents : 0L;
+    }
+
+    /**
+     * Set a balance loaded from storage (not journaled)
+     */
+    public void load(String account, long cents) {
+        synchronized (stripe(account)) {
+            account(account).cents = cents;
+        }
+    }
+
+    public boolean deposit(String account, long cents) {
+        if (cents <= 0) return false;
+        synchronized (stripe(account)) {
+            Account entry = account(account);
+            long balance;
+            try {
+                balance = Math.addExact(entry.cents, cents);
+            } catch (ArithmeticException e) {
+                return false;
+            }
+            entry.cents = balance;
+            record("D", account, "-", cents, balance, 0L);
+        }
+        return true;
+    }
+
+    /**
+     * Take cents out of an account if it holds enough
+     */
+    public boolean withdraw(String account, long cents) {
+        if (cents <= 0) return false;
+        synchronized (stripe(account)) {
+            Account entry = accounts.get(account);
+            if (entry == null || entry.cents < cents) return false;
+            entry.cents -= cents;
+            record("W", account, "-", cents, entry.cents, 0L);
+        }
+        return true;
+    }
+
+    /**
+     * Move cents between two accounts atomically: both balances change or neither does
+     */
+    public boolean transfer(String from, String to, long cents) {
+        if (cents <= 0) return false;
+        if (from.equals(to)) return getBalance(from) >= cents;
+        Object first = stripe(from);
+        Object second = stripe(to);
+        if (stripeIndex(from) > stripeIndex(to)) {
+            Object swap = first;
+            first = second;
+            second = swap;
+        }
+        synchronized (first) {
+            synchronized (second) {
+                Account source = accounts.get(from);
+                if (source == null || source.cents < cents) return false;
+                Account target = account(to);
+                long balance;
+                try {
+                    balance = Math.addExact(target.cents, cents);
+                } catch (ArithmeticException e) {
+                    return false;
+                }
+                source.cents -= cents;
+                target.cents = balance;
+                record("T", from, to, cents, source.cents, balance);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append queued operations to today's journal. Safe to call from any thread.
+     */
+    public void flush() {
+        synchronized (journalLock) {
+            if (journal.isEmpty()) return;
+            StringBuilder lines = new StringBuilder();
+            int count = 0;
+            String line;
+            while ((line = journal.poll()) != null) {
+                lines.append(line).append('\n');
+                count++;
+            }
+            pending.addAndGet(-count);
+            flushes++;
+            try {
+                if (!folder.isDirectory() && !folder.mkdirs()) {
+                    throw new IOException("Could not create " + folder.getPath());
+                }
+                File file = new File(folder, "journal-" + LocalDate.now() + ".log");
+                try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(lines.toString());
+                }
+            } catch (IOException e) {
+                logger.severe("Failed to write bank journal (" + count + " entries): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Operations waiting to be journaled
+     */
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Operations committed since startup
+     */
+    public long getTransactionCount() {
+        return transactions.get();
+    }
+
+    public long getFlushCount() {
+        synchronized (journalLock) {
+            return flushes;
+        }
+    }
+
+    public int getAccountCount() {
+        return accounts.size();
+    }
+
+    private Account account(String account) {
+        return accounts.computeIfAbsent(account, k -> new Account());
+    }
+
+    private int stripeIndex(String account) {
+        int hash = account.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private Object stripe(String account) {
+        return stripes[stripeIndex(account)];
+    }
+
+    // Called under the stripe lock(s), so an account's entries are queued in commit order.
+    // Kingdom names can't contain tabs or line breaks, so fields are written as-is.
+    private void record(String type, String account, String counterparty, long cents, long balance, long counterBalance) {
+        journal.add(System.currentTimeMillis() + "\t" + sequence.incrementAndGet() + "\t" + type + "\t" + account
+            + "\t" + counterparty + "\t" + cents + "\t" + balance + "\t" + counterBalance);
+        pending.incrementAndGet();
+        transactions.incrementAndGet();
+    }
+}
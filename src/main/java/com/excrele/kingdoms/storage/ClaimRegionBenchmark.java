@@ -0,0 +1,84 @@
+package com.excrele.kingdoms.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import com.excrele.kingdoms.model.ClaimGroup;
+import com.excrele.kingdoms.model.Kingdom;
+
+/**
+ * Compares loading claims from region files with parsing the same claims from YAML
+ * claim lists ("world:x:z" strings), as the kingdom files store them without REGION storage.
+ */
+public final class ClaimRegionBenchmark {
+    private static final int ROUNDS = 3; // Best of, so the first round can warm up
+
+    public record Result(int regionClaims, double regionMillis, int yamlClaims, double yamlMillis) {}
+
+    private ClaimRegionBenchmark() {
+    }
+
+    /**
+     * Serialize every kingdom's claims the way the kingdom files do (server thread)
+     */
+    public static String captureYaml(Collection<Kingdom> kingdoms) {
+        YamlConfiguration config = new YamlConfiguration();
+        int index = 0;
+        for (Kingdom kingdom : kingdoms) {
+            List<List<String>> claimList = new ArrayList<>();
+            for (ClaimGroup tier : kingdom.getClaims()) {
+                List<String> chunks = new ArrayList<>(tier.size());
+                tier.forEach((worldName, chunkX, chunkZ) -> chunks.add(worldName + ":" + chunkX + ":" + chunkZ));
+                claimList.add(chunks);
+            }
+            config.set("k" + index++ + ".claims", claimList); // Names may contain the path separator
+        }
+        return config.saveToString();
+    }
+
+    /**
+     * Time a scan of the region files against parsing the captured YAML. Safe off the server thread.
+     */
+    public static Result run(ClaimRegionStore store, String claimsYaml) throws IOException, InvalidConfigurationException {
+        int regionClaims = 0;
+        long regionNanos = Long.MAX_VALUE;
+        int yamlClaims = 0;
+        long yamlNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            regionClaims = store.scan((worldName, chunkX, chunkZ, kingdomName, group) -> { });
+            regionNanos = Math.min(regionNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            yamlClaims = parseYaml(claimsYaml);
+            yamlNanos = Math.min(yamlNanos, System.nanoTime() - start);
+        }
+        return new Result(regionClaims, regionNanos / 1_000_000.0, yamlClaims, yamlNanos / 1_000_000.0);
+    }
+
+    private static int parseYaml(String claimsYaml) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(claimsYaml);
+        int count = 0;
+        for (String name : config.getKeys(false)) {
+            List<?> claimList = config.getList(name + ".claims");
+            if (claimList == null) continue;
+            for (Object tier : claimList) {
+                if (!(tier instanceof List<?> chunks)) continue;
+                for (Object chunkKey : chunks) {
+                    String[] coords = String.valueOf(chunkKey).split(":");
+                    if (coords.length < 3) continue;
+                    Integer.parseInt(coords[1]);
+                    Integer.parseInt(coords[2]);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,305 @@
+package com.excrele.kingdoms.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import com.excrele.kingdoms.util.AtomicFiles;
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.LongObjectHashMap;
+
+/**
+ * Binary claim storage: one memory-mapped file per world per 32x32 chunk region
+ * (regions/&lt;world&gt;/r.&lt;rx&gt;.&lt;rz&gt;.kcr). Each chunk has a fixed 8-byte slot holding the owning
+ * kingdom's palette id (0 = unclaimed) and the index of its claim group, so loading is a scan of
+ * ints and a claim or unclaim rewrites one slot in place. Kingdom names are kept once in
+ * regions/kingdoms.palette, one per line (line n = id n).
+ * Mutations happen on the server thread; {@link #force()} may run on any thread.
+ */
+public class ClaimRegionStore {
+    public static final int REGION_SHIFT = 5; // 32x32 chunks per file
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final int REGION_MASK = REGION_SIZE - 1;
+    private static final int MAGIC = 0x4B435231; // "KCR1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8; // magic + version
+    private static final int SLOT_BYTES = 8; // kingdom id + claim group index
+    private static final int FILE_BYTES = HEADER_BYTES + REGION_SIZE * REGION_SIZE * SLOT_BYTES;
+    private static final String PALETTE_FILE = "kingdoms.palette";
+
+    /**
+     * Receives every claimed slot during a scan
+     */
+    @FunctionalInterface
+    public interface ClaimVisitor {
+        void accept(String worldName, int chunkX, int chunkZ, String kingdomName, int group);
+    }
+
+    private final File folder;
+    private final Logger logger;
+    private final Map<String, LongObjectHashMap<MappedByteBuffer>> regions; // world -> packed region -> mapping
+    private final List<MappedByteBuffer> mapped; // Every open mapping, for force() from the writer thread
+    private final List<String> palette; // id - 1 -> kingdom name
+    private final Map<String, Integer> paletteIds;
+    private long slotWrites;
+    private volatile long lastLoadMillis;
+
+    public ClaimRegionStore(File folder, Logger logger) {
+        this.folder = folder;
+        this.logger = logger;
+        this.regions = new HashMap<>();
+        this.mapped = new CopyOnWriteArrayList<>();
+        this.palette = new ArrayList<>();
+        this.paletteIds = new HashMap<>();
+    }
+
+    /**
+     * Whether claims have ever been written to this folder
+     */
+    public static boolean exists(File folder) {
+        return new File(folder, PALETTE_FILE).isFile();
+    }
+
+    public boolean exists() {
+        return exists(folder);
+    }
+
+    /**
+     * Map every region file and report its claims. Files stay mapped for later writes.
+     * @return number of claims visited
+     */
+    public int load(ClaimVisitor visitor) throws IOException {
+        long start = System.nanoTime();
+        loadPalette();
+        int count = 0;
+        for (RegionFile region : listRegionFiles()) {
+            try {
+                MappedByteBuffer buffer = region(region.worldName, region.regionX, region.regionZ, true);
+                count += scan(buffer, region, visitor);
+            } catch (IOException e) {
+                logger.severe("Failed to load claim region " + region.file.getPath() + ": " + e.getMessage());
+            }
+        }
+        lastLoadMillis = (System.nanoTime() - start) / 1_000_000L;
+        return count;
+    }
+
+    /**
+     * Read every region file through a separate read-only mapping, leaving the live mappings
+     * untouched. Safe off the server thread.
+     * @return number of claims visited
+     */
+    public int scan(ClaimVisitor visitor) throws IOException {
+        List<String> names = readPalette();
+        int count = 0;
+        for (RegionFile region : listRegionFiles()) {
+            try (FileChannel channel = FileChannel.open(region.file.toPath(), StandardOpenOption.READ)) {
+                if (channel.size() != FILE_BYTES) continue;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_BYTES);
+                count += scan(buffer, region, names, visitor);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Store a chunk's owner and claim group; unchanged slots are not rewritten
+     */
+    public void setClaim(String worldName, int chunkX, int chunkZ, String kingdomName, int group) throws IOException {
+        MappedByteBuffer buffer = region(worldName, chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT, false);
+        int offset = slotOffset(chunkX, chunkZ);
+        int id = paletteId(kingdomName);
+        if (buffer.getInt(offset) == id && buffer.getInt(offset + 4) == group) return;
+        buffer.putInt(offset, id);
+        buffer.putInt(offset + 4, group);
+        slotWrites++;
+    }
+
+    /**
+     * Clear a chunk's slot. Regions that were never written are not created.
+     */
+    public void clearClaim(String worldName, int chunkX, int chunkZ) {
+        LongObjectHashMap<MappedByteBuffer> worldRegions = regions.get(worldName);
+        if (worldRegions == null) return;
+        MappedByteBuffer buffer = worldRegions.get(ClaimIndex.pack(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+        if (buffer == null) return;
+        int offset = slotOffset(chunkX, chunkZ);
+        if (buffer.getInt(offset) == 0) return;
+        buffer.putLong(offset, 0L);
+        slotWrites++;
+    }
+
+    /**
+     * Flush written slots to disk
+     */
+    public void force() {
+        for (MappedByteBuffer buffer : mapped) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Flush and drop every mapping
+     */
+    public void close() {
+        force();
+        mapped.clear();
+        regions.clear(); // Unmapped once collected
+    }
+
+    public int getRegionCount() {
+        return mapped.size();
+    }
+
+    public int getPaletteSize() {
+        return palette.size();
+    }
+
+    /**
+     * Slots rewritten since startup
+     */
+    public long getSlotWriteCount() {
+        return slotWrites;
+    }
+
+    /**
+     * Time the last {@link #load} took
+     */
+    public long getLastLoadMillis() {
+        return lastLoadMillis;
+    }
+
+    public File getFolder() {
+        return folder;
+    }
+
+    private int scan(MappedByteBuffer buffer, RegionFile region, ClaimVisitor visitor) {
+        return scan(buffer, region, palette, visitor);
+    }
+
+    private int scan(MappedByteBuffer buffer, RegionFile region, List<String> names, ClaimVisitor visitor) {
+        if (buffer.getInt(0) != MAGIC) {
+            logger.warning("Skipping " + region.file.getPath() + ": not a claim region file");
+            return 0;
+        }
+        int count = 0;
+        int baseX = region.regionX << REGION_SHIFT;
+        int baseZ = region.regionZ << REGION_SHIFT;
+        for (int slot = 0; slot < REGION_SIZE * REGION_SIZE; slot++) {
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            int id = buffer.getInt(offset);
+            if (id <= 0) continue;
+            if (id > names.size()) {
+                logger.warning("Unknown kingdom id " + id + " in " + region.file.getPath());
+                continue;
+            }
+            visitor.accept(region.worldName, baseX + (slot & REGION_MASK), baseZ + (slot >> REGION_SHIFT),
+                names.get(id - 1), buffer.getInt(offset + 4));
+            count++;
+        }
+        return count;
+    }
+
+    private static int slotOffset(int chunkX, int chunkZ) {
+        return HEADER_BYTES + (((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK)) * SLOT_BYTES;
+    }
+
+    private MappedByteBuffer region(String worldName, int regionX, int regionZ, boolean existing) throws IOException {
+        LongObjectHashMap<MappedByteBuffer> worldRegions = regions.computeIfAbsent(worldName, w -> new LongObjectHashMap<>());
+        long key = ClaimIndex.pack(regionX, regionZ);
+        MappedByteBuffer buffer = worldRegions.get(key);
+        if (buffer != null) return buffer;
+
+        File worldFolder = new File(folder, worldName);
+        if (!existing && !worldFolder.isDirectory() && !worldFolder.mkdirs()) {
+            throw new IOException("Could not create " + worldFolder.getPath());
+        }
+        File file = new File(worldFolder, "r." + regionX + "." + regionZ + ".kcr");
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size != 0 && size != FILE_BYTES) {
+                throw new IOException(file.getPath() + " has an unexpected size: " + size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES); // Stays valid after the channel closes
+            if (size == 0) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+            } else if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(file.getPath() + " is not a claim region file");
+            }
+        }
+        worldRegions.put(key, buffer);
+        mapped.add(buffer);
+        return buffer;
+    }
+
+    private int paletteId(String kingdomName) throws IOException {
+        Integer id = paletteIds.get(kingdomName);
+        if (id != null) return id;
+        palette.add(kingdomName);
+        try {
+            // Written before any slot refers to the new id
+            if (!folder.isDirectory() && !folder.mkdirs()) {
+                throw new IOException("Could not create " + folder.getPath());
+            }
+            AtomicFiles.write(new File(folder, PALETTE_FILE), String.join("\n", palette) + "\n");
+        } catch (IOException e) {
+            palette.remove(palette.size() - 1);
+            throw e;
+        }
+        paletteIds.put(kingdomName, palette.size());
+        return palette.size();
+    }
+
+    private void loadPalette() throws IOException {
+        palette.clear();
+        paletteIds.clear();
+        palette.addAll(readPalette());
+        for (int i = 0; i < palette.size(); i++) {
+            paletteIds.put(palette.get(i), i + 1);
+        }
+    }
+
+    private List<String> readPalette() throws IOException {
+        File file = new File(folder, PALETTE_FILE);
+        if (!file.isFile()) return new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) names.add(line);
+        }
+        return names;
+    }
+
+    private List<RegionFile> listRegionFiles() {
+        List<RegionFile> files = new ArrayList<>();
+        File[] worldFolders = folder.listFiles(File::isDirectory);
+        if (worldFolders == null) return files;
+        for (File worldFolder : worldFolders) {
+            File[] regionFiles = worldFolder.listFiles((dir, name) -> name.startsWith("r.") && name.endsWith(".kcr"));
+            if (regionFiles == null) continue;
+            for (File file : regionFiles) {
+                String[] parts = file.getName().split("\\.");
+                if (parts.length != 4) continue;
+                try {
+                    files.add(new RegionFile(file, worldFolder.getName(), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                } catch (NumberFormatException e) {
+                    logger.warning("Skipping unrecognized region file " + file.getPath());
+                }
+            }
+        }
+        return files;
+    }
+
+    private record RegionFile(File file, String worldName, int regionX, int regionZ) {}
+}
@@ -0,0 +1,265 @@
+package com.excrele.kingdoms.storage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool with a per-connection prepared statement cache.
+ * Connections handed out are proxies: closing one returns it to the pool, and closing a
+ * statement prepared from it only clears its parameters so the next caller can reuse it.
+ * Borrowing is reentrant per thread, so nested borrows share one connection. A cached statement
+ * is only handed to one caller at a time: a nested borrow preparing the same SQL while the outer
+ * one is still open gets a private statement, so it can't reset the outer one's results.
+ */
+public class ConnectionPool {
+    private static final long VALIDATE_AFTER_IDLE_MS = 30000L;
+    private static final int VALIDATE_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Opens new physical connections
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private static final class PooledConnection {
+        private Connection raw;
+        private Map<String, PreparedStatement> statements;
+        private final Set<PreparedStatement> inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+        private Connection proxy;
+        private long lastUsed;
+        private int depth; // Nested borrows by the owning thread
+    }
+
+    private final ConnectionFactory factory;
+    private final Logger logger;
+    private final BlockingQueue<PooledConnection> idle;
+    private final PooledConnection[] all;
+    private final ThreadLocal<PooledConnection> held;
+    private final int statementCacheSize;
+    private final long borrowTimeoutMs;
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, Logger logger, int size, int statementCacheSize, long borrowTimeoutMs) throws SQLException {
+        this.factory = factory;
+        this.logger = logger;
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.all = new PooledConnection[size];
+        this.held = new ThreadLocal<>();
+        this.statementCacheSize = statementCacheSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        for (int i = 0; i < size; i++) {
+            PooledConnection pooled = new PooledConnection();
+            open(pooled);
+            all[i] = pooled;
+            idle.add(pooled);
+        }
+    }
+
+    /**
+     * Borrow a connection; close it to give it back
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        PooledConnection pooled = held.get();
+        if (pooled != null) {
+            pooled.depth++;
+            return pooled.proxy;
+        }
+        try {
+            pooled = idle.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        if (pooled == null) throw new SQLException("Timed out waiting for a pooled connection");
+        try {
+            if (System.currentTimeMillis() - pooled.lastUsed > VALIDATE_AFTER_IDLE_MS
+                && !pooled.raw.isValid(VALIDATE_TIMEOUT_SECONDS)) {
+                discard(pooled);
+                open(pooled);
+            }
+        } catch (SQLException e) {
+            idle.offer(pooled);
+            throw e;
+        }
+        pooled.depth = 1;
+        held.set(pooled);
+        return pooled.proxy;
+    }
+
+    public int getSize() {
+        return all.length;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Close every connection. Callers must have finished all work first.
+     */
+    public void close() {
+        closed = true;
+        for (PooledConnection pooled : all) {
+            if (pooled != null) discard(pooled);
+        }
+        idle.clear();
+    }
+
+    private void release(PooledConnection pooled) {
+        if (--pooled.depth > 0) return;
+        held.remove();
+        pooled.inUse.clear(); // Statements left open by the borrower are free again
+        pooled.lastUsed = System.currentTimeMillis();
+        try {
+            if (!pooled.raw.getAutoCommit()) {
+                pooled.raw.rollback(); // Never hand out a half-finished transaction
+                pooled.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warning("Failed to reset pooled connection: " + e.getMessage());
+        }
+        if (closed) {
+            discard(pooled);
+        } else {
+            idle.offer(pooled);
+        }
+    }
+
+    private void open(PooledConnection pooled) throws SQLException {
+        pooled.raw = factory.open();
+        pooled.lastUsed = System.currentTimeMillis();
+        pooled.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= statementCacheSize) return false;
+                // One still in use is closed when its caller closes it
+                if (!pooled.inUse.contains(eldest.getValue())) closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+        pooled.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new ConnectionHandler(pooled));
+    }
+
+    private void discard(PooledConnection pooled) {
+        if (pooled.statements != null) {
+            for (PreparedStatement statement : pooled.statements.values()) {
+                closeQuietly(statement);
+            }
+            pooled.statements.clear();
+        }
+        pooled.inUse.clear();
+        try {
+            if (pooled.raw != null && !pooled.raw.isClosed()) pooled.raw.close();
+        } catch (SQLException e) {
+            logger.warning("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Connection is going away anyway
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+
+        private ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release(pooled);
+                    return null;
+                case "isClosed":
+                    return closed || pooled.raw.isClosed();
+                case "prepareStatement":
+                    if (args.length == 1) return prepare((String) args[0]);
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return ConnectionPool.invoke(pooled.raw, method, args);
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = pooled.statements.get(sql);
+            if (statement != null && pooled.inUse.contains(statement)) {
+                // An outer borrow still has it open; closing this one really closes it
+                return wrap(sql, pooled.raw.prepareStatement(sql), false);
+            }
+            if (statement == null || statement.isClosed()) {
+                statement = pooled.raw.prepareStatement(sql);
+                pooled.statements.put(sql, statement);
+            }
+            pooled.inUse.add(statement);
+            return wrap(sql, statement, true);
+        }
+
+        private PreparedStatement wrap(String sql, PreparedStatement statement, boolean cached) {
+            boolean[] released = new boolean[1];
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (p, m, a) -> {
+                    if (m.getName().equals("close")) {
+                        if (released[0]) return null;
+                        released[0] = true;
+                        if (!cached) {
+                            statement.close();
+                            return null;
+                        }
+                        pooled.inUse.remove(statement);
+                        if (pooled.statements.get(sql) != statement) {
+                            statement.close(); // Evicted from the cache while in use
+                            return null;
+                        }
+                        // Keep the statement cached; just reset it for the next caller
+                        statement.clearParameters();
+                        statement.clearBatch();
+                        return null;
+                    }
+                    if (m.getName().equals("isClosed")) return released[0] || statement.isClosed();
+                    if (m.getName().equals("getConnection")) return pooled.proxy;
+                    return ConnectionPool.invoke(statement, m, a);
+                });
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.excrele.kingdoms.storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import com.excrele.kingdoms.util.AtomicFiles;
+
+/**
+ * Per-player append-only mail files for YAML storage (mail/&lt;player&gt;.log).
+ * Every save appends the mail's full state as one tab-separated line and a delete appends a
+ * tombstone, so writing never rewrites the file; reading replays it with the last line per mail
+ * winning. A file is compacted once most of its lines are superseded. Reads and writes only
+ * touch the one player's file, so cost follows that player's mail rather than all mail.
+ */
+public class MailLog {
+    private static final String RECORD = "M";
+    private static final String TOMBSTONE = "D";
+    private static final int COMPACT_MIN_LINES = 64;
+
+    private final File folder;
+    private final Logger logger;
+
+    public MailLog(File folder, Logger logger) {
+        this.folder = folder;
+        this.logger = logger;
+    }
+
+    /**
+     * Append a mail's current state to its recipient's file
+     */
+    public synchronized void save(Map<String, Object> mail) {
+        String recipient = (String) mail.get("recipient");
+        List<String> fields = new ArrayList<>();
+        fields.add(RECORD);
+        fields.add((String) mail.get("mailId"));
+        fields.add(recipient);
+        fields.add((String) mail.get("sender"));
+        fields.add((String) mail.get("kingdomName"));
+        fields.add((String) mail.get("subject"));
+        fields.add((String) mail.get("message"));
+        fields.add(String.valueOf(mail.get("sentAt")));
+        fields.add(Boolean.TRUE.equals(mail.get("read")) ? "1" : "0");
+        fields.add(String.valueOf(mail.get("readAt")));
+        fields.add(Boolean.TRUE.equals(mail.get("deleted")) ? "1" : "0");
+        append(recipient, encode(fields));
+    }
+
+    /**
+     * Remove a mail from its recipient's file
+     */
+    public synchronized void delete(String recipient, String mailId) {
+        if (!file(recipient).isFile()) return;
+        append(recipient, encode(List.of(TOMBSTONE, mailId)));
+    }
+
+    /**
+     * All of a player's stored mail, including soft-deleted mail, newest first
+     */
+    public synchronized List<Map<String, Object>> load(String recipient) {
+        List<Map<String, Object>> mail = new ArrayList<>(read(recipient).values());
+        mail.sort(Comparator.comparingLong((Map<String, Object> m) -> (Long) m.get("sentAt")).reversed());
+        return mail;
+    }
+
+    private File file(String recipient) {
+        return new File(folder, recipient + ".log");
+    }
+
+    private void append(String recipient, String line) {
+        try {
+            if (!folder.isDirectory() && !folder.mkdirs()) {
+                throw new IOException("Could not create " + folder.getPath());
+            }
+            try (Writer writer = Files.newBufferedWriter(file(recipient).toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            logger.severe("Failed to write mail for " + recipient + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replay a player's file: mailId -> latest state. Compacts the file when it is mostly history.
+     */
+    private Map<String, Map<String, Object>> read(String recipient) {
+        Map<String, Map<String, Object>> mail = new LinkedHashMap<>();
+        File file = file(recipient);
+        if (!file.isFile()) return mail;
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                lines++;
+                List<String> fields = decode(line);
+                if (fields.size() >= 2 && fields.get(0).equals(TOMBSTONE)) {
+                    mail.remove(fields.get(1));
+                } else if (fields.size() >= 11 && fields.get(0).equals(RECORD)) {
+                    mail.put(fields.get(1), toMail(fields));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.severe("Failed to read mail for " + recipient + ": " + e.getMessage());
+            return mail;
+        }
+        if (lines >= COMPACT_MIN_LINES && lines > mail.size() * 2) {
+            compact(recipient, mail);
+        }
+        return mail;
+    }
+
+    /**
+     * Rewrite a file with one line per live mail; deleted mail is dropped
+     */
+    private void compact(String recipient, Map<String, Map<String, Object>> mail) {
+        StringBuilder contents = new StringBuilder();
+        for (Map<String, Object> entry : mail.values()) {
+            if (Boolean.TRUE.equals(entry.get("deleted"))) continue;
+            List<String> fields = new ArrayList<>();
+            fields.add(RECORD);
+            fields.add((String) entry.get("mailId"));
+            fields.add((String) entry.get("recipient"));
+            fields.add((String) entry.get("sender"));
+            fields.add((String) entry.get("kingdomName"));
+            fields.add((String) entry.get("subject"));
+            fields.add((String) entry.get("message"));
+            fields.add(String.valueOf(entry.get("sentAt")));
+            fields.add(Boolean.TRUE.equals(entry.get("read")) ? "1" : "0");
+            fields.add(String.valueOf(entry.get("readAt")));
+            fields.add("0");
+            contents.append(encode(fields)).append('\n');
+        }
+        try {
+            AtomicFiles.write(file(recipient), contents.toString());
+        } catch (IOException e) {
+            logger.warning("Failed to compact mail for " + recipient + ": " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> toMail(List<String> fields) {
+        Map<String, Object> mail = new HashMap<>();
+        mail.put("mailId", fields.get(1));
+        mail.put("recipient", fields.get(2));
+        mail.put("sender", fields.get(3));
+        mail.put("kingdomName", fields.get(4));
+        mail.put("subject", fields.get(5));
+        mail.put("message", fields.get(6));
+        mail.put("sentAt", Long.parseLong(fields.get(7)));
+        mail.put("read", fields.get(8).equals("1"));
+        mail.put("readAt", Long.parseLong(fields.get(9)));
+        mail.put("deleted", fields.get(10).equals("1"));
+        return mail;
+    }
+
+    // Fields are tab-separated; backslash, tab and line breaks inside a field are escaped
+    private static String encode(List<String> fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) line.append('\t');
+            String field = fields.get(i) != null ? fields.get(i) : "";
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+        }
+        return line.toString();
+    }
+
+    private static List<String> decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                field.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
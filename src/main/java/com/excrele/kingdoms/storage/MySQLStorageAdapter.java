@@ -2,17 +2,22 @@ package com.excrele.kingdoms.storage;
 
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.model.PlayerActivity;
 import org.bukkit.Chunk;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * MySQL storage adapter (optional - requires MySQL connector)
  */
 public class MySQLStorageAdapter implements StorageAdapter {
+    private static final int ACTIVITY_LOAD_BATCH = 500; // Players per IN (...) query
     private final KingdomsPlugin plugin;
-    private Connection connection;
+    private ConnectionPool pool;
+    private StorageExecutor executor;
     private String host, database, username, password;
     private int port;
 
@@ -30,7 +35,12 @@ public class MySQLStorageAdapter implements StorageAdapter {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
             String url = "jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=false&allowPublicKeyRetrieval=true";
-            connection = DriverManager.getConnection(url, username, password);
+            pool = new ConnectionPool(() -> DriverManager.getConnection(url, username, password), plugin.getLogger(),
+                plugin.getConfig().getInt("storage.pool.size", 4),
+                plugin.getConfig().getInt("storage.pool.statement-cache", 64),
+                plugin.getConfig().getLong("storage.pool.borrow-timeout", 10000L));
+            executor = new StorageExecutor("Kingdoms-MySQL", plugin.getConfig().getInt("storage.pool.writer-threads", 2),
+                plugin.getConfig().getInt("storage.pool.lane-capacity", 10000), plugin.getLogger());
             createTables();
             plugin.getLogger().info("MySQL connection established!");
         } catch (ClassNotFoundException e) {
@@ -44,7 +54,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     }
 
     private void createTables() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
             // Kingdoms table
             stmt.executeUpdate("CREATE TABLE IF NOT EXISTS kingdoms (" +
                 "name VARCHAR(255) PRIMARY KEY, " +
@@ -155,6 +166,11 @@ public class MySQLStorageAdapter implements StorageAdapter {
             } catch (SQLException e) {
                 // Column already exists, ignore
             }
+            try {
+                stmt.executeUpdate("CREATE INDEX idx_last_login ON player_activity (last_login)"); // Inactivity scans
+            } catch (SQLException e) {
+                // Index already exists, ignore
+            }
             
             // Achievements table
             stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_achievements (" +
@@ -192,7 +208,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public void saveKingdom(Kingdom kingdom) {
-        try {
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false); // Members and alliances are replaced as one unit
             // Save kingdom
             try (PreparedStatement stmt = connection.prepareStatement(
                 "INSERT INTO kingdoms (name, king, xp, level, current_claim_chunks, created_at, total_challenges_completed) " +
@@ -245,6 +262,7 @@ public class MySQLStorageAdapter implements StorageAdapter {
                 }
                 stmt.executeBatch();
             }
+            connection.commit();
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to save kingdom to MySQL: " + e.getMessage());
         }
@@ -252,7 +270,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public Kingdom loadKingdom(String name) {
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT * FROM kingdoms WHERE name=?")) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT * FROM kingdoms WHERE name=?")) {
             stmt.setString(1, name);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (!rs.next()) return null;
@@ -304,7 +323,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public List<String> loadAllKingdomNames() {
         List<String> names = new ArrayList<>();
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT name FROM kingdoms")) {
             while (rs.next()) {
                 names.add(rs.getString("name"));
@@ -317,7 +337,7 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public void deleteKingdom(String name) {
-        try {
+        try (Connection connection = pool.getConnection()) {
             try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM kingdoms WHERE name=?")) {
                 stmt.setString(1, name);
                 stmt.executeUpdate();
@@ -331,7 +351,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public void saveClaim(String kingdomName, Chunk chunk, String claimId) {
         String chunkKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO claims (chunk_key, kingdom_name, claim_id) VALUES (?, ?, ?) " +
             "ON DUPLICATE KEY UPDATE kingdom_name=?, claim_id=?")) {
             stmt.setString(1, chunkKey);
@@ -348,7 +369,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public void deleteClaim(String kingdomName, Chunk chunk) {
         String chunkKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM claims WHERE chunk_key=?")) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("DELETE FROM claims WHERE chunk_key=?")) {
             stmt.setString(1, chunkKey);
             stmt.executeUpdate();
         } catch (SQLException e) {
@@ -359,7 +381,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public Map<String, String> loadAllClaims() {
         Map<String, String> claims = new HashMap<>();
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT chunk_key, kingdom_name FROM claims")) {
             while (rs.next()) {
                 claims.put(rs.getString("chunk_key"), rs.getString("kingdom_name"));
@@ -372,7 +395,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public void saveTrust(String kingdomName, String player, String permission) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT IGNORE INTO trusts (kingdom_name, player, permission) VALUES (?, ?, ?)")) {
             stmt.setString(1, kingdomName);
             stmt.setString(2, player);
@@ -385,7 +409,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public void deleteTrust(String kingdomName, String player) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "DELETE FROM trusts WHERE kingdom_name=? AND player=?")) {
             stmt.setString(1, kingdomName);
             stmt.setString(2, player);
@@ -398,7 +423,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public Map<String, List<String>> loadTrusts(String kingdomName) {
         Map<String, List<String>> trusts = new HashMap<>();
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "SELECT player, permission FROM trusts WHERE kingdom_name=?")) {
             stmt.setString(1, kingdomName);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -414,9 +440,29 @@ public class MySQLStorageAdapter implements StorageAdapter {
         return trusts;
     }
 
+    @Override
+    public Map<String, Map<String, List<String>>> loadAllTrusts(Set<String> kingdomNames) {
+        Map<String, Map<String, List<String>>> trusts = new HashMap<>();
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT kingdom_name, player, permission FROM trusts")) {
+            while (rs.next()) {
+                String kingdomName = rs.getString("kingdom_name");
+                if (!kingdomNames.contains(kingdomName)) continue;
+                trusts.computeIfAbsent(kingdomName, k -> new HashMap<>())
+                    .computeIfAbsent(rs.getString("player"), k -> new ArrayList<>())
+                    .add(rs.getString("permission"));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load trusts from MySQL: " + e.getMessage());
+        }
+        return trusts;
+    }
+
     @Override
     public void saveWar(String warId, String kingdom1, String kingdom2, long startTime, long endTime, boolean active) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO wars (war_id, kingdom1, kingdom2, start_time, end_time, active) " +
             "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
             "kingdom1=?, kingdom2=?, start_time=?, end_time=?, active=?")) {
@@ -439,7 +485,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public Map<String, Object> loadWar(String warId) {
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT * FROM wars WHERE war_id=?")) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT * FROM wars WHERE war_id=?")) {
             stmt.setString(1, warId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (!rs.next()) return null;
@@ -461,7 +508,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public List<Map<String, Object>> loadActiveWars() {
         List<Map<String, Object>> wars = new ArrayList<>();
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT * FROM wars WHERE active=1")) {
             while (rs.next()) {
                 Map<String, Object> war = new HashMap<>();
@@ -481,7 +529,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public void saveBankBalance(String kingdomName, double balance) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO kingdom_bank (kingdom_name, balance) VALUES (?, ?) " +
             "ON DUPLICATE KEY UPDATE balance=?")) {
             stmt.setString(1, kingdomName);
@@ -495,7 +544,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
 
     @Override
     public double loadBankBalance(String kingdomName) {
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT balance FROM kingdom_bank WHERE kingdom_name=?")) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT balance FROM kingdom_bank WHERE kingdom_name=?")) {
             stmt.setString(1, kingdomName);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -508,9 +558,26 @@ public class MySQLStorageAdapter implements StorageAdapter {
         return 0.0;
     }
 
+    @Override
+    public Map<String, Double> loadAllBankBalances(Set<String> kingdomNames) {
+        Map<String, Double> balances = new HashMap<>();
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT kingdom_name, balance FROM kingdom_bank")) {
+            while (rs.next()) {
+                String kingdomName = rs.getString("kingdom_name");
+                if (kingdomNames.contains(kingdomName)) balances.put(kingdomName, rs.getDouble("balance"));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load bank balances from MySQL: " + e.getMessage());
+        }
+        return balances;
+    }
+
     @Override
     public void savePlayerActivity(String player, String kingdomName, long lastLogin, long playtime) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO player_activity (player, kingdom_name, last_login, playtime) VALUES (?, ?, ?, ?) " +
             "ON DUPLICATE KEY UPDATE kingdom_name=?, last_login=?, playtime=?")) {
             stmt.setString(1, player);
@@ -529,7 +596,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public void savePlayerActivity(String player, String kingdomName, long lastLogin, long playtime, 
                                      long lastContribution, int contributions, int contributionStreak, long lastStreakDay) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO player_activity (player, kingdom_name, last_login, playtime, last_contribution, contributions, contribution_streak, last_streak_day) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
             "ON DUPLICATE KEY UPDATE kingdom_name=?, last_login=?, playtime=?, last_contribution=?, contributions=?, contribution_streak=?, last_streak_day=?")) {
             stmt.setString(1, player);
@@ -553,30 +621,58 @@ public class MySQLStorageAdapter implements StorageAdapter {
         }
     }
 
+    @Override
+    public void savePlayerActivities(Collection<PlayerActivity> batch) {
+        if (batch.isEmpty()) return;
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false); // One transaction for the whole batch
+            try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO player_activity (player, kingdom_name, last_login, playtime, last_contribution, contributions, contribution_streak, last_streak_day) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE kingdom_name=?, last_login=?, playtime=?, last_contribution=?, contributions=?, contribution_streak=?, last_streak_day=?")) {
+                for (PlayerActivity activity : batch) {
+                    stmt.setString(1, activity.getPlayerName());
+                    stmt.setString(2, activity.getKingdomName());
+                    stmt.setLong(3, activity.getLastLogin());
+                    stmt.setLong(4, activity.getTotalPlaytime());
+                    stmt.setLong(5, activity.getLastContribution());
+                    stmt.setInt(6, activity.getContributions());
+                    stmt.setInt(7, activity.getContributionStreak());
+                    stmt.setLong(8, activity.getLastStreakDay());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to save player activity to MySQL: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<String> loadInactivePlayers(long lastLoginBefore) {
+        List<String> players = new ArrayList<>();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT player FROM player_activity WHERE last_login < ?")) {
+            stmt.setLong(1, lastLoginBefore);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    players.add(rs.getString("player"));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load inactive players from MySQL: " + e.getMessage());
+        }
+        return players;
+    }
+
     @Override
     public Map<String, Object> loadPlayerActivity(String player) {
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT * FROM player_activity WHERE player=?")) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT * FROM player_activity WHERE player=?")) {
             stmt.setString(1, player);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (!rs.next()) return null;
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("kingdom", rs.getString("kingdom_name"));
-                activity.put("lastLogin", rs.getLong("last_login"));
-                activity.put("playtime", rs.getLong("playtime"));
-                try {
-                    activity.put("lastContribution", rs.getLong("last_contribution"));
-                    activity.put("contributions", rs.getInt("contributions"));
-                    activity.put("contributionStreak", rs.getInt("contribution_streak"));
-                    activity.put("lastStreakDay", rs.getLong("last_streak_day"));
-                } catch (SQLException e) {
-                    // Columns might not exist in old databases
-                    long currentDay = System.currentTimeMillis() / 1000 / (24 * 60 * 60);
-                    activity.put("lastContribution", System.currentTimeMillis() / 1000);
-                    activity.put("contributions", 0);
-                    activity.put("contributionStreak", 0);
-                    activity.put("lastStreakDay", currentDay);
-                }
-                return activity;
+                return readActivity(rs);
             }
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to load player activity from MySQL: " + e.getMessage());
@@ -584,6 +680,55 @@ public class MySQLStorageAdapter implements StorageAdapter {
         }
     }
 
+    @Override
+    public Map<String, Map<String, Object>> loadAllPlayerActivity(Set<String> players) {
+        Map<String, Map<String, Object>> activities = new HashMap<>();
+        if (players.isEmpty()) return activities;
+        List<String> pending = new ArrayList<>(players);
+        try (Connection connection = pool.getConnection()) {
+            // Only the requested rows, a bounded number of parameters per query
+            for (int from = 0; from < pending.size(); from += ACTIVITY_LOAD_BATCH) {
+                List<String> chunk = pending.subList(from, Math.min(from + ACTIVITY_LOAD_BATCH, pending.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "SELECT * FROM player_activity WHERE player IN (" + placeholders + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            activities.put(rs.getString("player"), readActivity(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load player activity from MySQL: " + e.getMessage());
+        }
+        return activities;
+    }
+
+    private Map<String, Object> readActivity(ResultSet rs) throws SQLException {
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("kingdom", rs.getString("kingdom_name"));
+        activity.put("lastLogin", rs.getLong("last_login"));
+        activity.put("playtime", rs.getLong("playtime"));
+        try {
+            activity.put("lastContribution", rs.getLong("last_contribution"));
+            activity.put("contributions", rs.getInt("contributions"));
+            activity.put("contributionStreak", rs.getInt("contribution_streak"));
+            activity.put("lastStreakDay", rs.getLong("last_streak_day"));
+        } catch (SQLException e) {
+            // Columns might not exist in old databases
+            long currentDay = System.currentTimeMillis() / 1000 / (24 * 60 * 60);
+            activity.put("lastContribution", System.currentTimeMillis() / 1000);
+            activity.put("contributions", 0);
+            activity.put("contributionStreak", 0);
+            activity.put("lastStreakDay", currentDay);
+        }
+        return activity;
+    }
+
     @Override
     public List<Map<String, Object>> loadMemberHistory(String kingdomName) {
         // TODO: Implement member history loading from database
@@ -720,7 +865,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public void savePlayerAchievement(String kingdomName, String playerName, String achievementId, String achievementName, 
                                       String description, long unlockedAt, String unlockedBy, int progress, int target, boolean completed) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO player_achievements (kingdom_name, player, achievement_id, achievement_name, description, unlocked_at, unlocked_by, progress, target, completed) " +
             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
             "ON DUPLICATE KEY UPDATE achievement_name=?, description=?, unlocked_at=?, unlocked_by=?, progress=?, target=?, completed=?")) {
@@ -750,7 +896,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public List<Map<String, Object>> loadPlayerAchievements(String kingdomName, String playerName) {
         List<Map<String, Object>> achievements = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "SELECT * FROM player_achievements WHERE kingdom_name=? AND player=?")) {
             stmt.setString(1, kingdomName);
             stmt.setString(2, playerName);
@@ -777,7 +924,8 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public void saveMail(String mailId, String recipient, String sender, String kingdomName, String subject, 
                          String message, long sentAt, boolean read, long readAt, boolean deleted) {
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "INSERT INTO kingdom_mail (mail_id, recipient, sender, kingdom_name, subject, message, sent_at, read, read_at, deleted) " +
             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
             "ON DUPLICATE KEY UPDATE recipient=?, sender=?, kingdom_name=?, subject=?, message=?, sent_at=?, read=?, read_at=?, deleted=?")) {
@@ -809,23 +957,13 @@ public class MySQLStorageAdapter implements StorageAdapter {
     @Override
     public List<Map<String, Object>> loadPlayerMail(String playerName) {
         List<Map<String, Object>> mailList = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
             "SELECT * FROM kingdom_mail WHERE recipient=? ORDER BY sent_at DESC")) {
             stmt.setString(1, playerName);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, Object> mail = new HashMap<>();
-                    mail.put("mailId", rs.getString("mail_id"));
-                    mail.put("recipient", rs.getString("recipient"));
-                    mail.put("sender", rs.getString("sender"));
-                    mail.put("kingdomName", rs.getString("kingdom_name"));
-                    mail.put("subject", rs.getString("subject"));
-                    mail.put("message", rs.getString("message"));
-                    mail.put("sentAt", rs.getLong("sent_at"));
-                    mail.put("read", rs.getBoolean("read"));
-                    mail.put("readAt", rs.getLong("read_at"));
-                    mail.put("deleted", rs.getBoolean("deleted"));
-                    mailList.add(mail);
+                    mailList.add(readMail(rs));
                 }
             }
         } catch (SQLException e) {
@@ -834,11 +972,28 @@ public class MySQLStorageAdapter implements StorageAdapter {
         return mailList;
     }
 
+    private Map<String, Object> readMail(ResultSet rs) throws SQLException {
+        Map<String, Object> mail = new HashMap<>();
+        mail.put("mailId", rs.getString("mail_id"));
+        mail.put("recipient", rs.getString("recipient"));
+        mail.put("sender", rs.getString("sender"));
+        mail.put("kingdomName", rs.getString("kingdom_name"));
+        mail.put("subject", rs.getString("subject"));
+        mail.put("message", rs.getString("message"));
+        mail.put("sentAt", rs.getLong("sent_at"));
+        mail.put("read", rs.getBoolean("read"));
+        mail.put("readAt", rs.getLong("read_at"));
+        mail.put("deleted", rs.getBoolean("deleted"));
+        return mail;
+    }
+
     @Override
-    public void deleteMail(String mailId) {
-        try (PreparedStatement stmt = connection.prepareStatement(
-            "DELETE FROM kingdom_mail WHERE mail_id=?")) {
+    public void deleteMail(String recipient, String mailId) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+            "DELETE FROM kingdom_mail WHERE mail_id=? AND recipient=?")) {
             stmt.setString(1, mailId);
+            stmt.setString(2, recipient);
             stmt.executeUpdate();
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to delete mail from MySQL: " + e.getMessage());
@@ -967,24 +1122,39 @@ public class MySQLStorageAdapter implements StorageAdapter {
         return new ArrayList<>();
     }
 
+    @Override
+    public CompletableFuture<Void> runAsync(String key, Runnable task) {
+        return executor.run(key, task);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> supplyAsync(String key, Supplier<T> task) {
+        return executor.supply(key, task);
+    }
+
+    @Override
+    public void drain() {
+        executor.drain(plugin.getConfig().getLong("storage.pool.drain-timeout", 30000L));
+    }
+
+    @Override
+    public StorageExecutor getExecutor() {
+        return executor;
+    }
+
     @Override
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to close MySQL connection: " + e.getMessage());
+        if (executor != null) {
+            drain(); // Finish queued writes before the connections go away
+        }
+        if (pool != null) {
+            pool.close();
         }
     }
 
     @Override
     public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+        return pool != null && !pool.isClosed();
     }
 }
 
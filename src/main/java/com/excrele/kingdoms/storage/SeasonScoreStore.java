@@ -0,0 +1,307 @@
+package com.excrele.kingdoms.storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import com.excrele.kingdoms.util.AtomicFiles;
+import com.excrele.kingdoms.util.RankIndex;
+
+/**
+ * Seasonal leaderboard points: a kingdom x column matrix of counters with one ranking per
+ * column, journaled to seasons/&lt;seasonId&gt;.log. Awarding points only touches memory; flush()
+ * appends one line with the full row of every kingdom that changed, so replay keeps the last
+ * line per kingdom. The journal is rewritten once most of its lines are superseded, and the
+ * file of an ended season stays behind as its results.
+ */
+public class SeasonScoreStore {
+    private static final String TOMBSTONE = "D";
+    private static final int COMPACT_MIN_LINES = 64;
+
+    private final File folder;
+    private final Logger logger;
+    private final int columns;
+    private final Object journalLock = new Object(); // Orders journal writes; taken before this
+
+    // Guarded by this
+    private String seasonId;
+    private final Map<String, Integer> rows; // kingdom name -> row
+    private final Deque<Integer> freeRows;
+    private String[] names; // row -> kingdom name
+    private int[][] scores; // [row][column]
+    private final BitSet dirty; // Rows changed since the last flush
+    private final Set<String> removed; // Kingdoms dropped since the last flush
+    private final RankIndex[] rankings;
+    private int nextRow;
+    private int journalLines;
+    private long flushes;
+
+    public SeasonScoreStore(File folder, int columns, Logger logger) {
+        this.folder = folder;
+        this.logger = logger;
+        this.columns = columns;
+        this.rows = new HashMap<>();
+        this.freeRows = new ArrayDeque<>();
+        this.names = new String[16];
+        this.scores = new int[16][columns];
+        this.dirty = new BitSet();
+        this.removed = new LinkedHashSet<>();
+        this.rankings = new RankIndex[columns];
+        for (int i = 0; i < columns; i++) {
+            rankings[i] = new RankIndex();
+        }
+    }
+
+    /**
+     * Switch to a season, flushing the previous one and replaying the new season's journal
+     */
+    public void open(String seasonId) {
+        synchronized (journalLock) {
+            flush();
+            synchronized (this) {
+                this.seasonId = seasonId;
+                rows.clear();
+                freeRows.clear();
+                Arrays.fill(names, null);
+                for (int[] row : scores) Arrays.fill(row, 0);
+                dirty.clear();
+                removed.clear();
+                for (RankIndex ranking : rankings) ranking.clear();
+                nextRow = 0;
+                journalLines = replay();
+            }
+        }
+    }
+
+    /**
+     * Whether the open season has a journal on disk
+     */
+    public synchronized boolean exists() {
+        return seasonId != null && file(seasonId).isFile();
+    }
+
+    /**
+     * Add points to a kingdom's counter
+     */
+    public synchronized void add(String kingdomName, int column, int points) {
+        if (points == 0) return;
+        int row = rowOf(kingdomName);
+        scores[row][column] += points;
+        if (scores[row][column] != 0) {
+            rankings[column].put(kingdomName, scores[row][column], 0);
+        } else {
+            rankings[column].remove(kingdomName); // Back to no points, as replay() would leave it
+        }
+        dirty.set(row);
+    }
+
+    public synchronized int get(String kingdomName, int column) {
+        Integer row = rows.get(kingdomName);
+        return row != null ? scores[row][column] : 0;
+    }
+
+    /**
+     * Drop a kingdom from the season
+     */
+    public synchronized void remove(String kingdomName) {
+        Integer row = rows.remove(kingdomName);
+        if (row == null) return;
+        for (RankIndex ranking : rankings) ranking.remove(kingdomName);
+        names[row] = null;
+        Arrays.fill(scores[row], 0);
+        dirty.clear(row);
+        freeRows.push(row);
+        removed.add(kingdomName);
+    }
+
+    /**
+     * Highest counters in a column, best first (kingdoms without points in it are left out)
+     */
+    public synchronized List<Map.Entry<String, Integer>> top(int column, int limit) {
+        List<Map.Entry<String, Integer>> top = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : rankings[column].top(limit)) {
+            top.add(Map.entry(entry.getKey(), entry.getValue().intValue()));
+        }
+        return top;
+    }
+
+    /**
+     * A kingdom's competition rank in a column, or 0 if it has no points there
+     */
+    public synchronized int rank(String kingdomName, int column) {
+        return rankings[column].rank(kingdomName);
+    }
+
+    /**
+     * Number of kingdoms with points in a column
+     */
+    public synchronized int size(int column) {
+        return rankings[column].size();
+    }
+
+    /**
+     * Write changed rows to the journal. Safe to call from any thread. If the write fails, the
+     * rows and removals stay pending for the next flush.
+     */
+    public void flush() {
+        synchronized (journalLock) {
+            String flushSeason;
+            List<String> lines = new ArrayList<>();
+            boolean compact;
+            BitSet flushedRows;
+            Set<String> flushedRemovals;
+            int previousLines;
+            synchronized (this) {
+                if (seasonId == null || (dirty.isEmpty() && removed.isEmpty())) return;
+                flushSeason = seasonId;
+                flushedRows = (BitSet) dirty.clone();
+                flushedRemovals = new LinkedHashSet<>(removed);
+                previousLines = journalLines;
+                int pending = dirty.cardinality() + removed.size();
+                compact = journalLines + pending >= COMPACT_MIN_LINES && journalLines + pending > rows.size() * 2;
+                if (compact) {
+                    for (int row : rows.values()) lines.add(encode(row));
+                    journalLines = lines.size();
+                } else {
+                    for (String kingdomName : removed) lines.add(TOMBSTONE + "\t" + kingdomName);
+                    for (int row = dirty.nextSetBit(0); row >= 0; row = dirty.nextSetBit(row + 1)) {
+                        lines.add(encode(row));
+                    }
+                    journalLines += lines.size();
+                }
+                dirty.clear();
+                removed.clear();
+                flushes++;
+            }
+            if (write(flushSeason, lines, compact)) return;
+            synchronized (this) {
+                // Still the same season: open() takes journalLock before switching
+                journalLines = previousLines;
+                dirty.or(flushedRows); // A freed row may have been reused; rewriting it is harmless
+                for (int row = dirty.nextSetBit(0); row >= 0; row = dirty.nextSetBit(row + 1)) {
+                    if (names[row] == null) dirty.clear(row);
+                }
+                for (String kingdomName : flushedRemovals) {
+                    if (!rows.containsKey(kingdomName)) removed.add(kingdomName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows waiting to be flushed
+     */
+    public synchronized int getPendingCount() {
+        return dirty.cardinality() + removed.size();
+    }
+
+    public synchronized long getFlushCount() {
+        return flushes;
+    }
+
+    private int rowOf(String kingdomName) {
+        Integer existing = rows.get(kingdomName);
+        if (existing != null) return existing;
+        int row = freeRows.isEmpty() ? nextRow++ : freeRows.pop();
+        if (row >= names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+            int previous = scores.length;
+            scores = Arrays.copyOf(scores, names.length);
+            for (int i = previous; i < scores.length; i++) {
+                scores[i] = new int[columns];
+            }
+        }
+        names[row] = kingdomName;
+        rows.put(kingdomName, row);
+        return row;
+    }
+
+    // Kingdom names can't contain tabs or line breaks, so fields are written as-is
+    private String encode(int row) {
+        StringBuilder line = new StringBuilder(names[row]);
+        for (int value : scores[row]) {
+            line.append('\t').append(value);
+        }
+        return line.toString();
+    }
+
+    private File file(String season) {
+        return new File(folder, season + ".log");
+    }
+
+    /**
+     * Load the open season's journal into memory and return its line count
+     */
+    private int replay() {
+        File file = file(seasonId);
+        if (!file.isFile()) return 0;
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                lines++;
+                String[] fields = line.split("\t");
+                if (fields[0].equals(TOMBSTONE) && fields.length == 2) {
+                    remove(fields[1]);
+                    continue;
+                }
+                int row = rowOf(fields[0]);
+                for (int column = 0; column < columns && column + 1 < fields.length; column++) {
+                    scores[row][column] = Integer.parseInt(fields[column + 1]);
+                    if (scores[row][column] != 0) {
+                        rankings[column].put(fields[0], scores[row][column], 0);
+                    } else {
+                        rankings[column].remove(fields[0]);
+                    }
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.severe("Failed to read season scores for " + seasonId + ": " + e.getMessage());
+        }
+        removed.clear(); // Tombstones replayed above are already on disk
+        return lines;
+    }
+
+    /**
+     * Write journal lines, returning false if they couldn't be written
+     */
+    private boolean write(String season, List<String> lines, boolean compact) {
+        StringBuilder contents = new StringBuilder();
+        for (String line : lines) {
+            contents.append(line).append('\n');
+        }
+        try {
+            if (!folder.isDirectory() && !folder.mkdirs()) {
+                throw new IOException("Could not create " + folder.getPath());
+            }
+            if (compact) {
+                AtomicFiles.write(file(season), contents.toString());
+                return true;
+            }
+            try (Writer writer = Files.newBufferedWriter(file(season).toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(contents.toString());
+            }
+            return true;
+        } catch (IOException e) {
+            logger.severe("Failed to save season scores for " + season + " (kept for the next flush): " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.excrele.kingdoms.storage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Bulk-loads the tables every manager needs at startup, one set-based query per table, in
+ * parallel on a small loader pool while the server thread keeps constructing managers.
+ * Managers take their result when they are built; a failed load returns null and the
+ * manager falls back to loading directly.
+ */
+public class StartupLoader {
+    private final Logger logger;
+    private final ExecutorService pool;
+    private final CompletableFuture<Map<String, Map<String, List<String>>>> trusts;
+    private final CompletableFuture<Map<String, Double>> bankBalances;
+
+    /**
+     * Start loading
+     * @param kingdomNames kingdoms loaded from disk
+     */
+    public StartupLoader(StorageAdapter adapter, Set<String> kingdomNames, int threads, Logger logger) {
+        this.logger = logger;
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "Kingdoms-Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.trusts = load("trusts", () -> adapter.loadAllTrusts(kingdomNames));
+        this.bankBalances = load("bank balances", () -> adapter.loadAllBankBalances(kingdomNames));
+        pool.shutdown(); // Threads exit once these finish
+    }
+
+    /**
+     * kingdom -> player -> permissions, or null if the load failed
+     */
+    public Map<String, Map<String, List<String>>> getTrusts() {
+        return join("trusts", trusts);
+    }
+
+    /**
+     * kingdom -> balance (kingdoms without a stored balance are absent), or null if the load failed
+     */
+    public Map<String, Double> getBankBalances() {
+        return join("bank balances", bankBalances);
+    }
+
+    private <T> CompletableFuture<T> load(String name, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T result = query.get();
+            logger.info("Loaded " + name + " in " + (System.nanoTime() - start) / 1_000_000L + "ms");
+            return result;
+        }, pool);
+    }
+
+    private <T> T join(String name, CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.severe("Failed to bulk load " + name + ": " + e.getCause().getMessage());
+        }
+        return null;
+    }
+}
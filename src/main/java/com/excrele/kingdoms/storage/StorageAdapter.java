@@ -1,11 +1,18 @@
 package com.excrele.kingdoms.storage;
 
+import com.excrele.kingdoms.model.ClaimAnalytics;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.model.PlayerActivity;
 import org.bukkit.Chunk;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Abstract storage adapter interface for different storage backends
@@ -44,6 +51,14 @@ public interface StorageAdapter {
         savePlayerActivity(player, kingdomName, lastLogin, playtime);
     }
     Map<String, Object> loadPlayerActivity(String player);
+    default void savePlayerActivities(Collection<PlayerActivity> batch) {
+        for (PlayerActivity activity : batch) {
+            savePlayerActivity(activity.getPlayerName(), activity.getKingdomName(), activity.getLastLogin(),
+                activity.getTotalPlaytime(), activity.getLastContribution(), activity.getContributions(),
+                activity.getContributionStreak(), activity.getLastStreakDay());
+        }
+    }
+    List<String> loadInactivePlayers(long lastLoginBefore); // Players whose last login is older than this
     List<Map<String, Object>> loadMemberHistory(String kingdomName); // member join/leave history
     
     // Vault operations
@@ -74,6 +89,16 @@ public interface StorageAdapter {
     // Statistics operations
     void saveClaimAnalytics(String chunkKey, String kingdomName, long claimedAt, long lastActivity, int playerVisits, int blockInteractions, int entityInteractions, double estimatedValue);
     Map<String, Object> loadClaimAnalytics(String chunkKey);
+    /**
+     * Save the analytics of several chunks at once (adapters that rewrite a whole file override this to write it once)
+     */
+    default void saveClaimAnalytics(Collection<ClaimAnalytics> batch) {
+        for (ClaimAnalytics analytics : batch) {
+            saveClaimAnalytics(analytics.getChunkKey(), analytics.getKingdomName(), analytics.getClaimedAt(),
+                analytics.getLastActivity(), analytics.getPlayerVisits(), analytics.getBlockInteractions(),
+                analytics.getEntityInteractions(), analytics.getEstimatedValue());
+        }
+    }
     
     void saveKingdomHistory(String kingdomName, long timestamp, String type, String description, String actor);
     List<Map<String, Object>> loadKingdomHistory(String kingdomName);
@@ -90,7 +115,7 @@ public interface StorageAdapter {
     void saveMail(String mailId, String recipient, String sender, String kingdomName, String subject, 
                   String message, long sentAt, boolean read, long readAt, boolean deleted);
     List<Map<String, Object>> loadPlayerMail(String playerName);
-    void deleteMail(String mailId);
+    void deleteMail(String recipient, String mailId);
     
     // Siege operations
     void saveSiege(String siegeId, String warId, String attackingKingdom, String defendingKingdom,
@@ -150,6 +175,117 @@ public interface StorageAdapter {
     void deleteKingdomBanner(String bannerId);
     List<Map<String, Object>> loadKingdomBanners();
     
+    // Bulk loads for startup: one query per table instead of one per kingdom or player.
+    // Results may include entries outside the requested names; callers filter them.
+    default Map<String, Map<String, List<String>>> loadAllTrusts(Set<String> kingdomNames) { // kingdom -> player -> permissions
+        Map<String, Map<String, List<String>>> trusts = new HashMap<>();
+        for (String kingdomName : kingdomNames) {
+            Map<String, List<String>> kingdomTrusts = loadTrusts(kingdomName);
+            if (!kingdomTrusts.isEmpty()) trusts.put(kingdomName, kingdomTrusts);
+        }
+        return trusts;
+    }
+    default Map<String, Double> loadAllBankBalances(Set<String> kingdomNames) {
+        Map<String, Double> balances = new HashMap<>();
+        for (String kingdomName : kingdomNames) {
+            balances.put(kingdomName, loadBankBalance(kingdomName));
+        }
+        return balances;
+    }
+    default Map<String, Map<String, Object>> loadAllPlayerActivity(Set<String> players) { // player -> activity (absent if none)
+        Map<String, Map<String, Object>> activities = new HashMap<>();
+        for (String player : players) {
+            Map<String, Object> activity = loadPlayerActivity(player);
+            if (activity != null) activities.put(player, activity);
+        }
+        return activities;
+    }
+    
+    // Asynchronous access
+    // Tasks sharing a key run in submission order. File-based adapters run them inline.
+    default CompletableFuture<Void> runAsync(String key, Runnable task) {
+        task.run();
+        return CompletableFuture.completedFuture(null);
+    }
+    default <T> CompletableFuture<T> supplyAsync(String key, Supplier<T> task) {
+        return CompletableFuture.completedFuture(task.get());
+    }
+    default void drain() {} // Block until queued async work is written
+    default StorageExecutor getExecutor() { return null; } // Null when writes run inline
+    
+    default CompletableFuture<Void> saveBankBalanceAsync(String kingdomName, double balance) {
+        return runAsync("bank:" + kingdomName, () -> saveBankBalance(kingdomName, balance));
+    }
+    default CompletableFuture<Void> saveTrustAsync(String kingdomName, String player, String permission) {
+        return runAsync("trust:" + kingdomName + ":" + player, () -> saveTrust(kingdomName, player, permission));
+    }
+    default CompletableFuture<Void> deleteTrustAsync(String kingdomName, String player) {
+        return runAsync("trust:" + kingdomName + ":" + player, () -> deleteTrust(kingdomName, player));
+    }
+    default CompletableFuture<Void> saveWarAsync(String warId, String kingdom1, String kingdom2, long startTime, long endTime, boolean active) {
+        return runAsync("war:" + warId, () -> saveWar(warId, kingdom1, kingdom2, startTime, endTime, active));
+    }
+    default CompletableFuture<Void> savePlayerActivityAsync(String player, String kingdomName, long lastLogin, long playtime,
+                                                            long lastContribution, int contributions, int contributionStreak, long lastStreakDay) {
+        return runAsync("activity", () -> savePlayerActivity(player, kingdomName, lastLogin, playtime,
+            lastContribution, contributions, contributionStreak, lastStreakDay));
+    }
+    // Activity reads and writes share one lane, so a read sees every batch queued before it
+    default CompletableFuture<Map<String, Object>> loadPlayerActivityAsync(String player) {
+        return supplyAsync("activity", () -> loadPlayerActivity(player));
+    }
+    default CompletableFuture<Map<String, Map<String, Object>>> loadAllPlayerActivityAsync(Set<String> players) {
+        return supplyAsync("activity", () -> loadAllPlayerActivity(players));
+    }
+    default CompletableFuture<Void> savePlayerActivitiesAsync(Collection<PlayerActivity> batch) {
+        return runAsync("activity", () -> savePlayerActivities(batch));
+    }
+    default CompletableFuture<List<String>> loadInactivePlayersAsync(long lastLoginBefore) {
+        return supplyAsync("activity", () -> loadInactivePlayers(lastLoginBefore)); // After batches queued before it
+    }
+    default CompletableFuture<Void> saveClaimAnalyticsAsync(String chunkKey, String kingdomName, long claimedAt, long lastActivity,
+                                                            int playerVisits, int blockInteractions, int entityInteractions, double estimatedValue) {
+        return runAsync("analytics:" + chunkKey, () -> saveClaimAnalytics(chunkKey, kingdomName, claimedAt, lastActivity,
+            playerVisits, blockInteractions, entityInteractions, estimatedValue));
+    }
+    default CompletableFuture<Void> saveClaimAnalyticsAsync(Collection<ClaimAnalytics> batch) {
+        return runAsync("analytics", () -> saveClaimAnalytics(batch));
+    }
+    default CompletableFuture<Void> saveKingdomHistoryAsync(String kingdomName, long timestamp, String type, String description, String actor) {
+        return runAsync("history:" + kingdomName, () -> saveKingdomHistory(kingdomName, timestamp, type, description, actor));
+    }
+    default CompletableFuture<Void> saveGrowthDataAsync(String kingdomName, long timestamp, int level, int xp, int claims, int members, int alliances) {
+        return runAsync("growth:" + kingdomName, () -> saveGrowthData(kingdomName, timestamp, level, xp, claims, members, alliances));
+    }
+    default CompletableFuture<Void> savePlayerAchievementAsync(String kingdomName, String playerName, String achievementId, String achievementName,
+                                                               String description, long unlockedAt, String unlockedBy, int progress, int target, boolean completed) {
+        return runAsync("achievement:" + kingdomName + ":" + playerName, () -> savePlayerAchievement(kingdomName, playerName,
+            achievementId, achievementName, description, unlockedAt, unlockedBy, progress, target, completed));
+    }
+    default CompletableFuture<Void> saveMailAsync(String mailId, String recipient, String sender, String kingdomName, String subject,
+                                                  String message, long sentAt, boolean read, long readAt, boolean deleted) {
+        // Same key as the mailbox reads, so a read sees every save queued before it
+        return runAsync("mailbox:" + recipient, () -> saveMail(mailId, recipient, sender, kingdomName, subject, message, sentAt, read, readAt, deleted));
+    }
+    default CompletableFuture<List<Map<String, Object>>> loadPlayerMailAsync(String playerName) {
+        return supplyAsync("mailbox:" + playerName, () -> loadPlayerMail(playerName));
+    }
+    default CompletableFuture<Void> saveSiegeAsync(String siegeId, String warId, String attackingKingdom, String defendingKingdom,
+                                                   String worldName, int chunkX, int chunkZ, long startTime, long endTime,
+                                                   int attackProgress, boolean active) {
+        return runAsync("siege:" + siegeId, () -> saveSiege(siegeId, warId, attackingKingdom, defendingKingdom,
+            worldName, chunkX, chunkZ, startTime, endTime, attackProgress, active));
+    }
+    default CompletableFuture<Void> saveRaidAsync(String raidId, String raidingKingdom, String targetKingdom,
+                                                  String worldName, int chunkX, int chunkZ, long startTime, long endTime,
+                                                  int resourcesStolen, boolean active) {
+        return runAsync("raid:" + raidId, () -> saveRaid(raidId, raidingKingdom, targetKingdom,
+            worldName, chunkX, chunkZ, startTime, endTime, resourcesStolen, active));
+    }
+    default CompletableFuture<Void> saveKingdomResourceAsync(String kingdomName, String resourceType, int amount) {
+        return runAsync("resource:" + kingdomName + ":" + resourceType, () -> saveKingdomResource(kingdomName, resourceType, amount));
+    }
+    
     // Initialize and cleanup
     void initialize();
     void close();
@@ -0,0 +1,159 @@
+package com.excrele.kingdoms.storage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs storage work off the server thread on a fixed set of writer lanes.
+ * Each key always maps to the same single-threaded lane, so writes for one key
+ * (a kingdom's bank, a player's activity, ...) are applied in submission order.
+ * Each lane holds at most {@code capacity} queued tasks; once a lane is that far behind,
+ * submitters wait for room rather than letting the backlog grow without bound. Tasks queued
+ * from a lane thread itself skip the wait, so a task can't deadlock on its own lane.
+ */
+public class StorageExecutor {
+    private static final long STALL_WARNING_INTERVAL_MS = 10000L;
+
+    private final ExecutorService[] lanes;
+    private final Semaphore[] room;
+    private final ThreadLocal<Boolean> onLane;
+    private final Logger logger;
+    private final AtomicInteger pending;
+    private final AtomicLong completed;
+    private final AtomicLong failed;
+    private final AtomicLong stalls;
+    private final AtomicLong lastStallWarning;
+
+    public StorageExecutor(String name, int threads, int capacity, Logger logger) {
+        this.lanes = new ExecutorService[Math.max(1, threads)];
+        this.room = new Semaphore[lanes.length];
+        this.onLane = ThreadLocal.withInitial(() -> false);
+        this.logger = logger;
+        this.pending = new AtomicInteger();
+        this.completed = new AtomicLong();
+        this.failed = new AtomicLong();
+        this.stalls = new AtomicLong();
+        this.lastStallWarning = new AtomicLong();
+        for (int i = 0; i < lanes.length; i++) {
+            String threadName = name + "-" + i;
+            room[i] = new Semaphore(Math.max(1, capacity));
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(() -> {
+                    onLane.set(true);
+                    r.run();
+                }, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Run a task on the lane for a key
+     */
+    public CompletableFuture<Void> run(String key, Runnable task) {
+        return supply(key, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a task returning a value on the lane for a key
+     */
+    public <T> CompletableFuture<T> supply(String key, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        int index = lane(key);
+        boolean bounded = !onLane.get();
+        if (bounded) awaitRoom(index);
+        pending.incrementAndGet();
+        try {
+            lanes[index].execute(() -> {
+                try {
+                    future.complete(task.get());
+                    completed.incrementAndGet();
+                } catch (Throwable t) {
+                    failed.incrementAndGet();
+                    logger.severe("Storage task for " + key + " failed: " + t.getMessage());
+                    future.completeExceptionally(t);
+                } finally {
+                    pending.decrementAndGet();
+                    if (bounded) room[index].release();
+                }
+            });
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            // Shutting down; run inline so the write is not lost
+            pending.decrementAndGet();
+            if (bounded) room[index].release();
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Stop accepting work and wait for everything queued to finish
+     */
+    public void drain(long timeoutMs) {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            for (ExecutorService lane : lanes) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !lane.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    logger.warning("Storage writes still pending after " + timeoutMs + "ms: " + pending.get());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Times a submitter had to wait for a full lane
+     */
+    public long getStallCount() {
+        return stalls.get();
+    }
+
+    private void awaitRoom(int index) {
+        if (room[index].tryAcquire()) return;
+        stalls.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long last = lastStallWarning.get();
+        if (now - last >= STALL_WARNING_INTERVAL_MS && lastStallWarning.compareAndSet(last, now)) {
+            logger.warning("Storage lane " + index + " is full (" + pending.get() + " tasks pending); waiting for it to catch up");
+        }
+        room[index].acquireUninterruptibly();
+    }
+
+    private int lane(String key) {
+        int hash = key != null ? key.hashCode() : 0;
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+}
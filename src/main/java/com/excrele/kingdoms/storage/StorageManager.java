@@ -9,9 +9,13 @@ public class StorageManager {
     private final KingdomsPlugin plugin;
     private StorageAdapter adapter;
     private StorageType storageType;
+    private final WriteBehindBuffer writeBehind;
+    private ClaimRegionStore claimRegions; // Only with REGION storage
 
     public StorageManager(KingdomsPlugin plugin) {
         this.plugin = plugin;
+        this.writeBehind = new WriteBehindBuffer(plugin,
+            plugin.getConfig().getInt("storage.write-behind.max-pending", 1000));
         initializeStorage();
     }
 
@@ -26,29 +30,11 @@ public class StorageManager {
         }
 
         try {
-            switch (storageType) {
-                case MYSQL:
-                    String host = plugin.getConfig().getString("storage.mysql.host", "localhost");
-                    int port = plugin.getConfig().getInt("storage.mysql.port", 3306);
-                    String database = plugin.getConfig().getString("storage.mysql.database", "kingdoms");
-                    String username = plugin.getConfig().getString("storage.mysql.username", "root");
-                    String password = plugin.getConfig().getString("storage.mysql.password", "");
-                    adapter = new MySQLStorageAdapter(plugin, host, port, database, username, password);
-                    adapter.initialize();
-                    plugin.getLogger().info("Using MySQL storage");
-                    break;
-                case SQLITE:
-                    adapter = new SQLiteStorageAdapter(plugin);
-                    adapter.initialize();
-                    plugin.getLogger().info("Using SQLite storage");
-                    break;
-                case YAML:
-                default:
-                    adapter = new YamlStorageAdapter(plugin);
-                    adapter.initialize();
-                    plugin.getLogger().info("Using YAML storage");
-                    break;
+            adapter = openAdapter(storageType);
+            if (storageType == StorageType.REGION) {
+                claimRegions = new ClaimRegionStore(new java.io.File(plugin.getDataFolder(), "regions"), plugin.getLogger());
             }
+            plugin.getLogger().info("Using " + storageType + " storage");
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to initialize " + storageType + " storage: " + e.getMessage());
             plugin.getLogger().severe("Falling back to YAML storage");
@@ -58,6 +44,34 @@ public class StorageManager {
         }
     }
 
+    /**
+     * Create and initialize an adapter for a storage type (REGION keeps everything but claims in YAML).
+     * Also used to read another backend when importing claims; the caller closes it.
+     */
+    public StorageAdapter openAdapter(StorageType type) {
+        StorageAdapter created;
+        switch (type) {
+            case MYSQL:
+                String host = plugin.getConfig().getString("storage.mysql.host", "localhost");
+                int port = plugin.getConfig().getInt("storage.mysql.port", 3306);
+                String database = plugin.getConfig().getString("storage.mysql.database", "kingdoms");
+                String username = plugin.getConfig().getString("storage.mysql.username", "root");
+                String password = plugin.getConfig().getString("storage.mysql.password", "");
+                created = new MySQLStorageAdapter(plugin, host, port, database, username, password);
+                break;
+            case SQLITE:
+                created = new SQLiteStorageAdapter(plugin);
+                break;
+            case YAML:
+            case REGION:
+            default:
+                created = new YamlStorageAdapter(plugin);
+                break;
+        }
+        created.initialize();
+        return created;
+    }
+
     public StorageAdapter getAdapter() {
         return adapter;
     }
@@ -66,10 +80,28 @@ public class StorageManager {
         return storageType;
     }
 
+    /**
+     * Buffer that merges repeated writes to the same entity between flushes
+     */
+    public WriteBehindBuffer getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Binary claim region files, or null unless the storage type is REGION
+     */
+    public ClaimRegionStore getClaimRegions() {
+        return claimRegions;
+    }
+
     public void close() {
+        writeBehind.flush(); // Buffered writes go out before the adapter drains and closes
         if (adapter != null) {
             adapter.close();
         }
+        if (claimRegions != null) {
+            claimRegions.close();
+        }
     }
 }
 
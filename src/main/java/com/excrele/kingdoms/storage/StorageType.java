@@ -3,6 +3,7 @@ package com.excrele.kingdoms.storage;
 public enum StorageType {
     YAML,
     MYSQL,
-    SQLITE
+    SQLITE,
+    REGION // YAML, with claims in binary region files
 }
 
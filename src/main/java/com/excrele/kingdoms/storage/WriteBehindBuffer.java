@@ -0,0 +1,112 @@
+package com.excrele.kingdoms.storage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Write-behind buffer for high-frequency storage writes.
+ * Callers mark an entity dirty with a flush action; repeated marks for the same key before
+ * the next flush are merged, and the action runs once per flush to write the entity's state
+ * as it is at flush time. Flushes run on the server thread, so flush actions may read live
+ * game state and hand a value snapshot to the adapter's async writes.
+ */
+public class WriteBehindBuffer {
+    private final Plugin plugin;
+    private final Logger logger;
+    private final int maxPending;
+    private Map<String, Runnable> dirty; // key -> flush action, in first-marked order
+    private long marked;
+    private long merged;
+    private long flushed;
+    private long flushes;
+    private boolean flushScheduled; // A size-cap flush is queued for the server thread
+
+    public WriteBehindBuffer(Plugin plugin, int maxPending) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.maxPending = Math.max(1, maxPending);
+        this.dirty = new LinkedHashMap<>();
+    }
+
+    /**
+     * Mark an entity dirty. The flush action of the first mark since the last flush is kept.
+     * Reaching the size cap flushes right away on the server thread, or schedules the flush
+     * there when marked from another thread.
+     */
+    public void markDirty(String key, Runnable flushAction) {
+        boolean onServerThread = plugin.getServer().isPrimaryThread();
+        synchronized (this) {
+            marked++;
+            if (dirty.putIfAbsent(key, flushAction) != null) {
+                merged++;
+                return;
+            }
+            if (dirty.size() < maxPending) return;
+            if (!onServerThread) {
+                if (flushScheduled || !plugin.isEnabled()) return; // Shutdown flushes what is left
+                flushScheduled = true;
+            }
+        }
+        if (onServerThread) {
+            flush(); // Size cap reached; don't wait for the timer
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    /**
+     * Write every dirty entity now
+     */
+    public void flush() {
+        Map<String, Runnable> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (dirty.isEmpty()) return;
+            batch = dirty;
+            dirty = new LinkedHashMap<>();
+            flushes++;
+        }
+        for (Map.Entry<String, Runnable> entry : batch.entrySet()) {
+            try {
+                entry.getValue().run();
+            } catch (Exception e) {
+                logger.severe("Failed to flush " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        synchronized (this) {
+            flushed += batch.size();
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Total marks, including merged ones
+     */
+    public synchronized long getMarkedCount() {
+        return marked;
+    }
+
+    /**
+     * Marks absorbed by an already-dirty entity (writes saved)
+     */
+    public synchronized long getMergedCount() {
+        return merged;
+    }
+
+    /**
+     * Entity writes actually issued
+     */
+    public synchronized long getFlushedCount() {
+        return flushed;
+    }
+
+    public synchronized long getFlushCount() {
+        return flushes;
+    }
+}
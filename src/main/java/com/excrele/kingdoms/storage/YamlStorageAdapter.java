@@ -1,7 +1,11 @@
 package com.excrele.kingdoms.storage;
 
 import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.model.ClaimAnalytics;
 import com.excrele.kingdoms.model.Kingdom;
+import com.excrele.kingdoms.model.PlayerActivity;
+import com.excrele.kingdoms.util.ClaimIndex;
+import com.excrele.kingdoms.util.LongObjectHashMap;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -23,6 +27,7 @@ public class YamlStorageAdapter implements StorageAdapter {
     private File bankFile;
     private FileConfiguration activityConfig;
     private File activityFile;
+    private MailLog mailLog;
 
     public YamlStorageAdapter(KingdomsPlugin plugin) {
         this.plugin = plugin;
@@ -52,6 +57,9 @@ public class YamlStorageAdapter implements StorageAdapter {
         warsConfig = YamlConfiguration.loadConfiguration(warsFile);
         bankConfig = YamlConfiguration.loadConfiguration(bankFile);
         activityConfig = YamlConfiguration.loadConfiguration(activityFile);
+        
+        mailLog = new MailLog(new File(plugin.getDataFolder(), "mail"), plugin.getLogger());
+        migrateLegacyMail();
     }
 
     @Override
@@ -91,25 +99,31 @@ public class YamlStorageAdapter implements StorageAdapter {
         
         // Save plot types
         kingdomsConfig.set(path + ".plotTypes", null);
-        for (Map.Entry<Chunk, String> entry : kingdom.getPlotTypes().entrySet()) {
-            Chunk chunk = entry.getKey();
-            String chunkKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-            kingdomsConfig.set(path + ".plotTypes." + chunkKey, entry.getValue());
+        for (Map.Entry<String, LongObjectHashMap<String>> worldEntry : kingdom.getPlotTypes().entrySet()) {
+            String worldName = worldEntry.getKey();
+            worldEntry.getValue().forEach((key, plotType) ->
+                kingdomsConfig.set(path + ".plotTypes." + chunkKey(worldName, key), plotType));
         }
         
         // Save chunk flags
         kingdomsConfig.set(path + ".chunkFlags", null);
-        for (Map.Entry<Chunk, Map<String, String>> entry : kingdom.getChunkFlags().entrySet()) {
-            Chunk chunk = entry.getKey();
-            String chunkKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-            for (Map.Entry<String, String> flag : entry.getValue().entrySet()) {
-                kingdomsConfig.set(path + ".chunkFlags." + chunkKey + "." + flag.getKey(), flag.getValue());
-            }
+        for (Map.Entry<String, LongObjectHashMap<Map<String, String>>> worldEntry : kingdom.getChunkFlags().entrySet()) {
+            String worldName = worldEntry.getKey();
+            worldEntry.getValue().forEach((key, flags) -> {
+                String chunkKey = chunkKey(worldName, key);
+                for (Map.Entry<String, String> flag : flags.entrySet()) {
+                    kingdomsConfig.set(path + ".chunkFlags." + chunkKey + "." + flag.getKey(), flag.getValue());
+                }
+            });
         }
         
         saveFile(kingdomsConfig, kingdomsFile);
     }
 
+    private static String chunkKey(String worldName, long packedChunk) {
+        return worldName + ":" + ClaimIndex.unpackX(packedChunk) + ":" + ClaimIndex.unpackZ(packedChunk);
+    }
+
     @Override
     public Kingdom loadKingdom(String name) {
         String path = "kingdoms." + name;
@@ -119,7 +133,7 @@ public class YamlStorageAdapter implements StorageAdapter {
         if (kingName == null) return null;
         
         Kingdom kingdom = new Kingdom(name, kingName);
-        kingdom.getMembers().addAll(kingdomsConfig.getStringList(path + ".members"));
+        kingdom.loadMembers(kingdomsConfig.getStringList(path + ".members"));
         kingdom.setCurrentClaimChunks(kingdomsConfig.getInt(path + ".currentClaimChunks"));
         kingdom.addXp(kingdomsConfig.getInt(path + ".xp"));
         kingdom.setLevel(kingdomsConfig.getInt(path + ".level", 1));
@@ -307,6 +321,32 @@ public class YamlStorageAdapter implements StorageAdapter {
         saveFile(activityConfig, activityFile);
     }
 
+    @Override
+    public void savePlayerActivities(Collection<PlayerActivity> batch) {
+        for (PlayerActivity activity : batch) {
+            String path = "activity." + activity.getPlayerName();
+            activityConfig.set(path + ".kingdom", activity.getKingdomName());
+            activityConfig.set(path + ".lastLogin", activity.getLastLogin());
+            activityConfig.set(path + ".playtime", activity.getTotalPlaytime());
+            activityConfig.set(path + ".lastContribution", activity.getLastContribution());
+            activityConfig.set(path + ".contributions", activity.getContributions());
+            activityConfig.set(path + ".contributionStreak", activity.getContributionStreak());
+            activityConfig.set(path + ".lastStreakDay", activity.getLastStreakDay());
+        }
+        saveFile(activityConfig, activityFile); // One write for the whole batch
+    }
+
+    @Override
+    public List<String> loadInactivePlayers(long lastLoginBefore) {
+        List<String> players = new ArrayList<>();
+        org.bukkit.configuration.ConfigurationSection section = activityConfig.getConfigurationSection("activity");
+        if (section == null) return players;
+        for (String player : section.getKeys(false)) {
+            if (section.getLong(player + ".lastLogin") < lastLoginBefore) players.add(player);
+        }
+        return players;
+    }
+
     @Override
     public Map<String, Object> loadPlayerActivity(String player) {
         String path = "activity." + player;
@@ -602,6 +642,21 @@ public class YamlStorageAdapter implements StorageAdapter {
     // Statistics operations
     @Override
     public void saveClaimAnalytics(String chunkKey, String kingdomName, long claimedAt, long lastActivity, int playerVisits, int blockInteractions, int entityInteractions, double estimatedValue) {
+        setClaimAnalytics(chunkKey, kingdomName, claimedAt, lastActivity, playerVisits, blockInteractions, entityInteractions, estimatedValue);
+        saveFile(kingdomsConfig, kingdomsFile);
+    }
+
+    @Override
+    public void saveClaimAnalytics(Collection<ClaimAnalytics> batch) {
+        for (ClaimAnalytics analytics : batch) {
+            setClaimAnalytics(analytics.getChunkKey(), analytics.getKingdomName(), analytics.getClaimedAt(),
+                analytics.getLastActivity(), analytics.getPlayerVisits(), analytics.getBlockInteractions(),
+                analytics.getEntityInteractions(), analytics.getEstimatedValue());
+        }
+        saveFile(kingdomsConfig, kingdomsFile); // One write for the whole batch
+    }
+
+    private void setClaimAnalytics(String chunkKey, String kingdomName, long claimedAt, long lastActivity, int playerVisits, int blockInteractions, int entityInteractions, double estimatedValue) {
         String path = "analytics.claims." + chunkKey;
         kingdomsConfig.set(path + ".kingdomName", kingdomName);
         kingdomsConfig.set(path + ".claimedAt", claimedAt);
@@ -610,7 +665,6 @@ public class YamlStorageAdapter implements StorageAdapter {
         kingdomsConfig.set(path + ".blockInteractions", blockInteractions);
         kingdomsConfig.set(path + ".entityInteractions", entityInteractions);
         kingdomsConfig.set(path + ".estimatedValue", estimatedValue);
-        saveFile(kingdomsConfig, kingdomsFile);
     }
 
     @Override
@@ -748,76 +802,64 @@ public class YamlStorageAdapter implements StorageAdapter {
     @Override
     public void saveMail(String mailId, String recipient, String sender, String kingdomName, String subject, 
                          String message, long sentAt, boolean read, long readAt, boolean deleted) {
-        File mailFile = new File(plugin.getDataFolder(), "mail.yml");
-        FileConfiguration mailConfig = YamlConfiguration.loadConfiguration(mailFile);
-        
-        String path = "mail." + recipient + "." + mailId;
-        mailConfig.set(path + ".mailId", mailId);
-        mailConfig.set(path + ".recipient", recipient);
-        mailConfig.set(path + ".sender", sender);
-        mailConfig.set(path + ".kingdomName", kingdomName);
-        mailConfig.set(path + ".subject", subject);
-        mailConfig.set(path + ".message", message);
-        mailConfig.set(path + ".sentAt", sentAt);
-        mailConfig.set(path + ".read", read);
-        mailConfig.set(path + ".readAt", readAt);
-        mailConfig.set(path + ".deleted", deleted);
-        
-        saveFile(mailConfig, mailFile);
+        Map<String, Object> mail = new HashMap<>();
+        mail.put("mailId", mailId);
+        mail.put("recipient", recipient);
+        mail.put("sender", sender);
+        mail.put("kingdomName", kingdomName);
+        mail.put("subject", subject);
+        mail.put("message", message);
+        mail.put("sentAt", sentAt);
+        mail.put("read", read);
+        mail.put("readAt", readAt);
+        mail.put("deleted", deleted);
+        mailLog.save(mail);
     }
 
     @Override
     public List<Map<String, Object>> loadPlayerMail(String playerName) {
-        List<Map<String, Object>> mailList = new ArrayList<>();
-        File mailFile = new File(plugin.getDataFolder(), "mail.yml");
-        if (!mailFile.exists()) return mailList;
-        
-        FileConfiguration mailConfig = YamlConfiguration.loadConfiguration(mailFile);
-        String path = "mail." + playerName;
-        
-        if (mailConfig.contains(path)) {
-            org.bukkit.configuration.ConfigurationSection playerSection = mailConfig.getConfigurationSection(path);
-            if (playerSection != null) {
-                for (String mailId : playerSection.getKeys(false)) {
-                    Map<String, Object> mail = new HashMap<>();
-                    mail.put("mailId", mailConfig.getString(path + "." + mailId + ".mailId"));
-                    mail.put("recipient", mailConfig.getString(path + "." + mailId + ".recipient"));
-                    mail.put("sender", mailConfig.getString(path + "." + mailId + ".sender"));
-                    mail.put("kingdomName", mailConfig.getString(path + "." + mailId + ".kingdomName"));
-                    mail.put("subject", mailConfig.getString(path + "." + mailId + ".subject"));
-                    mail.put("message", mailConfig.getString(path + "." + mailId + ".message"));
-                    mail.put("sentAt", mailConfig.getLong(path + "." + mailId + ".sentAt", System.currentTimeMillis() / 1000));
-                    mail.put("read", mailConfig.getBoolean(path + "." + mailId + ".read", false));
-                    mail.put("readAt", mailConfig.getLong(path + "." + mailId + ".readAt", 0));
-                    mail.put("deleted", mailConfig.getBoolean(path + "." + mailId + ".deleted", false));
-                    mailList.add(mail);
-                }
-            }
-        }
-        return mailList;
+        return mailLog.load(playerName);
     }
 
     @Override
-    public void deleteMail(String mailId) {
+    public void deleteMail(String recipient, String mailId) {
+        mailLog.delete(recipient, mailId);
+    }
+
+    /**
+     * Move mail from the old single mail.yml into per-player logs, once
+     */
+    private void migrateLegacyMail() {
         File mailFile = new File(plugin.getDataFolder(), "mail.yml");
         if (!mailFile.exists()) return;
         
         FileConfiguration mailConfig = YamlConfiguration.loadConfiguration(mailFile);
-        
-        // Find and delete mail by ID
-        if (mailConfig.contains("mail")) {
-            org.bukkit.configuration.ConfigurationSection mailSection = mailConfig.getConfigurationSection("mail");
-            if (mailSection != null) {
-                for (String recipient : mailSection.getKeys(false)) {
+        org.bukkit.configuration.ConfigurationSection mailSection = mailConfig.getConfigurationSection("mail");
+        int migrated = 0;
+        if (mailSection != null) {
+            for (String recipient : mailSection.getKeys(false)) {
+                org.bukkit.configuration.ConfigurationSection playerSection = mailSection.getConfigurationSection(recipient);
+                if (playerSection == null) continue;
+                for (String mailId : playerSection.getKeys(false)) {
                     String path = "mail." + recipient + "." + mailId;
-                    if (mailConfig.contains(path)) {
-                        mailConfig.set(path, null);
-                        saveFile(mailConfig, mailFile);
-                        break;
-                    }
+                    saveMail(mailId, recipient,
+                        mailConfig.getString(path + ".sender"),
+                        mailConfig.getString(path + ".kingdomName"),
+                        mailConfig.getString(path + ".subject"),
+                        mailConfig.getString(path + ".message"),
+                        mailConfig.getLong(path + ".sentAt", System.currentTimeMillis() / 1000),
+                        mailConfig.getBoolean(path + ".read", false),
+                        mailConfig.getLong(path + ".readAt", 0),
+                        mailConfig.getBoolean(path + ".deleted", false));
+                    migrated++;
                 }
             }
         }
+        if (mailFile.renameTo(new File(plugin.getDataFolder(), "mail.yml.migrated"))) {
+            plugin.getLogger().info("Migrated " + migrated + " mail to per-player mail logs");
+        } else {
+            plugin.getLogger().warning("Migrated mail.yml but could not rename it; it will be migrated again next start");
+        }
     }
 
     @Override
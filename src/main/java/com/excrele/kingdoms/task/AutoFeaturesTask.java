@@ -3,115 +3,111 @@ package com.excrele.kingdoms.task;
 import com.excrele.kingdoms.KingdomsPlugin;
 import com.excrele.kingdoms.model.Kingdom;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
-public class AutoFeaturesTask extends BukkitRunnable {
-    private int tickCount = 0;
+/**
+ * The automatic kingdom jobs, registered on the {@link KingdomScheduler}. Jobs that settle
+ * individual items (wars, auctions, loans, ...) run when the earliest one is due and otherwise at
+ * their old polling interval; the rest run on a fixed period.
+ */
+public class AutoFeaturesTask {
+    // Job names, used by managers to wake a job when they add an item
+    public static final String WARS = "wars";
+    public static final String CLAIM_MARKET = "claim-market";
+    public static final String LOANS = "loans";
+    public static final String SALARIES = "salaries";
+    public static final String INVESTMENTS = "investments";
+    public static final String REPARATIONS = "reparations";
+    public static final String CEASEFIRES = "ceasefires";
+    public static final String EVENT_REMINDERS = "event-reminders";
+    public static final String FARMS = "farms";
 
-    @Override
-    public void run() {
-        tickCount++;
-        KingdomsPlugin plugin = KingdomsPlugin.getInstance();
-        
-        // Check if auto-features are enabled
+    private static final long SECOND = 1000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    /**
+     * Register the enabled jobs. Config switches are read once here.
+     */
+    public void schedule(KingdomsPlugin plugin, KingdomScheduler scheduler) {
         if (!plugin.getConfig().getBoolean("economy.auto_features.enabled", true)) {
             return;
         }
 
-        // Auto-level-up check (every 5 seconds)
-        if (tickCount % 100 == 0) {
-            checkAutoLevelUp(plugin);
+        if (plugin.getConfig().getBoolean("economy.auto_features.auto_levelup", false)) {
+            scheduler.every("auto-levelup", 5 * SECOND, () -> checkAutoLevelUp(plugin));
         }
+        scheduler.every("inactive-members", 5 * MINUTE, () -> checkAutoKickInactive(plugin));
 
-        // Auto-kick inactive members (every 5 minutes)
-        if (tickCount % 6000 == 0) {
-            checkAutoKickInactive(plugin);
-        }
-        
-        // Auto-claim adjacent chunks (every 10 minutes)
-        if (tickCount % 12000 == 0 && plugin.getAutomatedKingdomManager() != null) {
-            for (Kingdom kingdom : plugin.getKingdomManager().getKingdoms().values()) {
-                plugin.getAutomatedKingdomManager().autoClaimAdjacentChunks(kingdom);
-            }
-        }
-        
-        // Auto-disband inactive kingdoms (once per day)
-        if (tickCount % 172800 == 0 && plugin.getAutomatedKingdomManager() != null) {
-            plugin.getAutomatedKingdomManager().autoDisbandInactiveKingdoms();
-        }
-        
-        // Auto-merge small kingdoms (once per day)
-        if (tickCount % 172800 == 0 && plugin.getAutomatedKingdomManager() != null) {
-            plugin.getAutomatedKingdomManager().autoMergeSmallKingdoms();
+        if (plugin.getAutomatedKingdomManager() != null) {
+            // Per-kingdom work is spread over ticks by the sliced executor
+            scheduler.every("auto-claim", 10 * MINUTE, () -> plugin.getSlicedExecutor().submit("auto-claim",
+                plugin.getKingdomManager().getKingdoms().keySet(), kingdomName -> {
+                    Kingdom kingdom = plugin.getKingdomManager().getKingdom(kingdomName);
+                    if (kingdom != null) plugin.getAutomatedKingdomManager().autoClaimAdjacentChunks(kingdom);
+                }));
+            scheduler.every("disband-inactive", DAY, () -> plugin.getAutomatedKingdomManager().autoDisbandInactiveKingdoms());
+            scheduler.every("merge-kingdoms", DAY, () -> plugin.getAutomatedKingdomManager().autoMergeSmallKingdoms());
         }
 
-        // Check for expired wars (every 30 seconds)
-        if (tickCount % 600 == 0) {
-            plugin.getWarManager().checkExpiredWars();
-        }
-        
-        // Check for expired auctions and rents (every 30 seconds)
-        if (tickCount % 600 == 0) {
+        scheduler.deadline(WARS, 30 * SECOND, plugin.getWarManager()::getNextExpiry,
+            () -> plugin.getWarManager().checkExpiredWars());
+        scheduler.deadline(CLAIM_MARKET, 30 * SECOND, plugin.getClaimEconomyManager()::getNextExpiry, () -> {
             plugin.getClaimEconomyManager().checkExpiredAuctions();
             plugin.getClaimEconomyManager().checkExpiredRents();
+        });
+
+        if (plugin.getAdvancedEconomyManager() != null) {
+            scheduler.deadline(LOANS, 5 * MINUTE, plugin.getAdvancedEconomyManager()::getNextLoanPayment,
+                () -> plugin.getAdvancedEconomyManager().processLoanPayments());
+            scheduler.deadline(SALARIES, HOUR, plugin.getAdvancedEconomyManager()::getNextSalaryPayment,
+                () -> plugin.getAdvancedEconomyManager().processSalaryPayments());
+            scheduler.deadline(INVESTMENTS, 5 * MINUTE, plugin.getAdvancedEconomyManager()::getNextInvestmentMaturity,
+                () -> plugin.getAdvancedEconomyManager().processInvestments());
         }
-        
-        // Process loan payments (every 5 minutes)
-        if (tickCount % 6000 == 0 && plugin.getAdvancedEconomyManager() != null) {
-            plugin.getAdvancedEconomyManager().processLoanPayments();
-        }
-        
-        // Process salary payments (every hour)
-        if (tickCount % 72000 == 0 && plugin.getAdvancedEconomyManager() != null) {
-            plugin.getAdvancedEconomyManager().processSalaryPayments();
-        }
-        
-        // Process investments (every 5 minutes)
-        if (tickCount % 6000 == 0 && plugin.getAdvancedEconomyManager() != null) {
-            plugin.getAdvancedEconomyManager().processInvestments();
-        }
-        
-        // Process war reparations (every hour)
-        if (tickCount % 72000 == 0 && plugin.getEnhancedWarManager() != null) {
-            plugin.getEnhancedWarManager().processReparationPayments();
+
+        if (plugin.getEnhancedWarManager() != null) {
+            scheduler.deadline(REPARATIONS, HOUR, plugin.getEnhancedWarManager()::getNextReparationDue,
+                () -> plugin.getEnhancedWarManager().processReparationPayments());
+            scheduler.deadline(CEASEFIRES, 5 * MINUTE, plugin.getEnhancedWarManager()::getNextCeasefireExpiry,
+                () -> plugin.getEnhancedWarManager().checkExpiredCeasefires());
         }
-        
-        // Check expired ceasefires (every 5 minutes)
-        if (tickCount % 6000 == 0 && plugin.getEnhancedWarManager() != null) {
-            plugin.getEnhancedWarManager().checkExpiredCeasefires();
+
+        if (plugin.getReputationManager() != null) {
+            scheduler.every("reputation-decay", DAY, () -> plugin.getReputationManager().processReputationDecay());
         }
-        
-        // Process reputation decay (once per day)
-        if (tickCount % 172800 == 0 && plugin.getReputationManager() != null) {
-            plugin.getReputationManager().processReputationDecay();
+
+        scheduler.deadline(EVENT_REMINDERS, MINUTE, plugin.getCommunicationManager()::getNextReminder,
+            () -> plugin.getCommunicationManager().checkUpcomingEvents());
+
+        scheduler.every("growth-snapshots", DAY, () -> plugin.getSlicedExecutor().submit("growth-snapshots",
+            plugin.getKingdomManager().getKingdoms().keySet(), plugin.getStatisticsManager()::recordGrowthSnapshot));
+
+        if (plugin.getAdvancedFeaturesManager() != null) {
+            scheduler.deadline(FARMS, 5 * MINUTE, () -> nextHarvest(plugin), () -> processFarms(plugin));
         }
-        
-        // Check for upcoming events (every 60 seconds)
-        if (tickCount % 1200 == 0) {
-            plugin.getCommunicationManager().checkUpcomingEvents();
+
+        if (plugin.getDataCache() != null) {
+            scheduler.every("cache-cleanup", 5 * MINUTE, () -> plugin.getDataCache().cleanExpired());
         }
-        
-        // Record growth snapshots (once per day)
-        if (tickCount % 172800 == 0) { // 24 hours = 172800 ticks (at 20 TPS)
-            for (String kingdomName : plugin.getKingdomManager().getKingdoms().keySet()) {
-                plugin.getStatisticsManager().recordGrowthSnapshot(kingdomName);
+    }
+
+    /**
+     * When the next active farm can be harvested (epoch millis), or Long.MAX_VALUE if none can
+     */
+    private long nextHarvest(KingdomsPlugin plugin) {
+        long next = Long.MAX_VALUE;
+        for (String kingdomName : plugin.getKingdomManager().getKingdoms().keySet()) {
+            java.util.Map<String, com.excrele.kingdoms.model.KingdomFarm> farms =
+                plugin.getAdvancedFeaturesManager().getFarms(kingdomName);
+            if (farms == null) continue;
+            for (com.excrele.kingdoms.model.KingdomFarm farm : farms.values()) {
+                if (farm.isActive()) {
+                    next = Math.min(next, (farm.getLastHarvest() + farm.getHarvestInterval()) * 1000);
+                }
             }
         }
-        
-        // Process farms (every 5 minutes)
-        if (tickCount % 6000 == 0 && plugin.getAdvancedFeaturesManager() != null) {
-            processFarms(plugin);
-        }
-        
-        // Clean cache (every 5 minutes)
-        if (tickCount % 6000 == 0 && plugin.getDataCache() != null) {
-            plugin.getDataCache().cleanExpired();
-        }
-        
-        // Optimize chunk loading (every 2 minutes)
-        if (tickCount % 2400 == 0 && plugin.getChunkOptimizer() != null) {
-            plugin.getChunkOptimizer().unloadDistantChunks();
-        }
+        return next;
     }
     
     private void processFarms(KingdomsPlugin plugin) {
@@ -5,7 +5,7 @@ import com.excrele.kingdoms.util.SaveQueue;
 import org.bukkit.scheduler.BukkitRunnable;
 
 /**
- * Periodic task to process batched save operations
+ * Periodic task that captures deferred saves; the save queue's writer thread writes them
  */
 public class BatchSaveTask extends BukkitRunnable {
     private final KingdomsPlugin plugin;
@@ -34,7 +34,7 @@ public class BatchSaveTask extends BukkitRunnable {
     }
     
     /**
-     * Force immediate save
+     * Capture all deferred saves now
      */
     public void saveNow() {
         saveQueue.processQueue();
@@ -0,0 +1,220 @@
+package com.excrele.kingdoms.task;
+
+import com.excrele.kingdoms.KingdomsPlugin;
+import com.excrele.kingdoms.util.AtomicFiles;
+import com.excrele.kingdoms.util.SaveQueue;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs periodic kingdom jobs by wall-clock deadline. Jobs sit in a min-heap keyed by the epoch
+ * millisecond they are next due, and each check only looks at the head of the heap, so nothing
+ * runs until something is due. A job with a deadline source runs when its earliest item (auction,
+ * loan payment, ...) is due, or after its period at the latest; managers call {@link #wake} when
+ * they add an item that is due sooner. Last-run times are kept in scheduler.yml so hourly and
+ * daily jobs keep their cadence across restarts. Server thread only.
+ */
+public class KingdomScheduler {
+    private static final long CHECK_INTERVAL = 10L; // ticks
+    private static final long PERSIST_PERIOD = 3600000L; // Jobs this slow save their last run immediately
+
+    /**
+     * One scheduled job and its run metrics. Times are epoch milliseconds, durations nanoseconds.
+     */
+    public static final class Job {
+        private final String name;
+        private final long period;
+        private final LongSupplier nextDue; // Earliest pending item, Long.MAX_VALUE for none; may be null
+        private final Runnable action;
+        private long dueAt;
+        private long lastRun;
+        private long runs;
+        private long totalNanos;
+        private long maxNanos;
+        private long totalLateness;
+        private long maxLateness;
+
+        private Job(String name, long period, LongSupplier nextDue, Runnable action) {
+            this.name = name;
+            this.period = period;
+            this.nextDue = nextDue;
+            this.action = action;
+        }
+
+        public String getName() { return name; }
+        public long getPeriod() { return period; }
+        public long getDueAt() { return dueAt; }
+        public long getLastRun() { return lastRun; }
+        public long getRuns() { return runs; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxNanos() { return maxNanos; }
+        public long getMaxLateness() { return maxLateness; }
+
+        public double getAverageMillis() {
+            return runs == 0 ? 0.0 : totalNanos / (double) runs / 1_000_000.0;
+        }
+
+        public double getAverageLateness() {
+            return runs == 0 ? 0.0 : totalLateness / (double) runs;
+        }
+    }
+
+    private final KingdomsPlugin plugin;
+    private final File file;
+    private final SaveQueue saveQueue;
+    private final Map<String, Job> jobs;
+    private final PriorityQueue<Job> queue;
+    private final YamlConfiguration lastRuns; // Loaded from scheduler.yml
+    private org.bukkit.scheduler.BukkitTask task;
+    private long checks;
+
+    public KingdomScheduler(KingdomsPlugin plugin, SaveQueue saveQueue) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "scheduler.yml");
+        this.saveQueue = saveQueue;
+        this.jobs = new LinkedHashMap<>();
+        this.queue = new PriorityQueue<>(Comparator.comparingLong(job -> job.dueAt));
+        this.lastRuns = YamlConfiguration.loadConfiguration(file);
+    }
+
+    /**
+     * Run a job every period milliseconds
+     */
+    public void every(String name, long period, Runnable action) {
+        register(name, period, null, action);
+    }
+
+    /**
+     * Run a job when nextDue says its earliest item is due, and at least every period milliseconds
+     * (items that were due but couldn't be settled, such as a loan payment with an empty bank, are
+     * retried on the period)
+     */
+    public void deadline(String name, long period, LongSupplier nextDue, Runnable action) {
+        register(name, period, nextDue, action);
+    }
+
+    private void register(String name, long period, LongSupplier nextDue, Runnable action) {
+        Job job = new Job(name, period, nextDue, action);
+        long now = System.currentTimeMillis();
+        job.lastRun = lastRuns.getLong(name, 0L);
+        job.dueAt = job.lastRun > 0 ? Math.max(now, job.lastRun + period) : now + period;
+        if (nextDue != null) {
+            job.dueAt = Math.min(job.dueAt, Math.max(now, nextDue.getAsLong())); // Items that fell due while offline
+        }
+        Job previous = jobs.put(name, job);
+        if (previous != null) queue.remove(previous);
+        queue.add(job);
+    }
+
+    /**
+     * Bring a job forward so it runs no later than dueAt (epoch milliseconds)
+     */
+    public void wake(String name, long dueAt) {
+        Job job = jobs.get(name);
+        if (job == null || dueAt >= job.dueAt) return;
+        if (queue.remove(job)) {
+            job.dueAt = dueAt;
+            queue.add(job);
+        } else {
+            job.dueAt = dueAt; // Running now; kept when it is rescheduled
+        }
+    }
+
+    public void start() {
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                runDueJobs();
+            }
+        }.runTaskTimer(plugin, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    private void runDueJobs() {
+        checks++;
+        long now = System.currentTimeMillis();
+        boolean persist = false;
+        Job job;
+        while ((job = queue.peek()) != null && job.dueAt <= now) {
+            queue.poll();
+            long lateness = now - job.dueAt;
+            job.dueAt = Long.MAX_VALUE;
+            long start = System.nanoTime();
+            try {
+                job.action.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().warning("Scheduled job " + job.name + " failed: " + e.getMessage());
+            }
+            long elapsed = System.nanoTime() - start;
+            job.runs++;
+            job.totalNanos += elapsed;
+            job.maxNanos = Math.max(job.maxNanos, elapsed);
+            job.totalLateness += lateness;
+            job.maxLateness = Math.max(job.maxLateness, lateness);
+            job.lastRun = now;
+            lastRuns.set(job.name, now);
+            persist |= job.period >= PERSIST_PERIOD;
+            // now + 1 so a job that wakes itself waits for the next check
+            job.dueAt = Math.max(now + 1, Math.min(job.dueAt, nextDeadline(job, now)));
+            queue.add(job);
+        }
+        if (persist) save(false);
+    }
+
+    private long nextDeadline(Job job, long now) {
+        long next = now + job.period;
+        if (job.nextDue != null) {
+            long due = job.nextDue.getAsLong();
+            if (due > now && due < next) next = due;
+        }
+        return next;
+    }
+
+    /**
+     * Stop checking and write last-run times
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        save(true);
+    }
+
+    private void save(boolean now) {
+        String contents = lastRuns.saveToString();
+        SaveQueue.WriteTask write = () -> AtomicFiles.write(file, contents);
+        if (!now && saveQueue != null) {
+            saveQueue.submit(file.getName(), write);
+            return;
+        }
+        try {
+            write.write();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Jobs in registration order
+     */
+    public List<Job> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Heap checks since startup
+     */
+    public long getCheckCount() {
+        return checks;
+    }
+}
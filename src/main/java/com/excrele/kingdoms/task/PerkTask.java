@@ -28,10 +28,10 @@ public class PerkTask extends BukkitRunnable {
             // Check if player is in a claimed chunk
             org.bukkit.Location playerLoc = player.getLocation();
             if (playerLoc == null) continue;
-            Chunk currentChunk = playerLoc.getChunk();
-            if (KingdomsPlugin.getInstance().getKingdomManager().getKingdomByChunk(currentChunk) != kingdom) {
+            if (KingdomsPlugin.getInstance().getKingdomManager().getKingdomAt(playerLoc) != kingdom) {
                 continue; // Player not in their kingdom's claimed territory
             }
+            Chunk currentChunk = playerLoc.getChunk();
 
             int level = kingdom.getLevel();
             if (level <= 0) continue;
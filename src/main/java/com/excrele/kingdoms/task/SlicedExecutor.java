@@ -0,0 +1,222 @@
+package com.excrele.kingdoms.task;
+
+import com.excrele.kingdoms.KingdomsPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Spreads long maintenance jobs over several ticks. A job is a resumable sequence of small steps;
+ * each tick the executor runs steps until its microsecond budget is spent, taking turns between
+ * jobs, and continues where it stopped on the next tick. Server thread only.
+ */
+public class SlicedExecutor {
+    /**
+     * A resumable job
+     */
+    public interface Work {
+        /**
+         * Do one unit of work. Returns false when that was the last one (or there was none).
+         */
+        boolean step();
+
+        /**
+         * Units left, as far as the job knows
+         */
+        int remaining();
+    }
+
+    /**
+     * A submitted job and its progress. Durations are nanoseconds.
+     */
+    public static final class Job {
+        private final String name;
+        private final Work work;
+        private final long startedAt;
+        private long finishedAt;
+        private long processed;
+        private int ticks;
+        private long totalNanos;
+        private long maxTickNanos;
+
+        private Job(String name, Work work) {
+            this.name = name;
+            this.work = work;
+            this.startedAt = System.currentTimeMillis();
+        }
+
+        public String getName() { return name; }
+        public long getStartedAt() { return startedAt; }
+        public long getFinishedAt() { return finishedAt; }
+        public boolean isFinished() { return finishedAt > 0; }
+        public long getProcessed() { return processed; }
+        public int getBacklog() { return isFinished() ? 0 : work.remaining(); }
+        public int getTicks() { return ticks; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxTickNanos() { return maxTickNanos; }
+
+        public double getAverageTickMicros() {
+            return ticks == 0 ? 0.0 : totalNanos / (double) ticks / 1000.0;
+        }
+    }
+
+    private final KingdomsPlugin plugin; // Null when driven directly, as in tests
+    private final Logger logger;
+    private final long budgetNanos;
+    private final Deque<Job> active;
+    private final Map<String, Job> recent; // name -> latest run, active or finished
+    private org.bukkit.scheduler.BukkitTask task;
+    private long busyTicks;
+    private long overBudgetTicks;
+
+    public SlicedExecutor(KingdomsPlugin plugin) {
+        this(plugin, plugin.getLogger(), plugin.getConfig().getLong("performance.tick-budget-micros", 2000L));
+    }
+
+    SlicedExecutor(Logger logger, long budgetMicros) {
+        this(null, logger, budgetMicros);
+    }
+
+    private SlicedExecutor(KingdomsPlugin plugin, Logger logger, long budgetMicros) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.budgetNanos = Math.max(100L, budgetMicros) * 1000L;
+        this.active = new ArrayDeque<>();
+        this.recent = new LinkedHashMap<>();
+    }
+
+    /**
+     * Queue a job unless one with the same name is still running. Returns whether it was queued.
+     */
+    public boolean submit(String name, Work work) {
+        if (isRunning(name)) return false;
+        Job job = new Job(name, work);
+        active.add(job);
+        recent.remove(name);
+        recent.put(name, job);
+        return true;
+    }
+
+    /**
+     * Queue a job that runs action once for each item. The items are copied first, so the action
+     * should check that an item still applies when its turn comes.
+     */
+    public <T> boolean submit(String name, Collection<? extends T> items, Consumer<? super T> action) {
+        List<T> copy = new ArrayList<>(items);
+        Iterator<T> iterator = copy.iterator();
+        return submit(name, new Work() {
+            private int left = copy.size();
+
+            @Override
+            public boolean step() {
+                if (!iterator.hasNext()) return false;
+                left--;
+                action.accept(iterator.next());
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int remaining() {
+                return left;
+            }
+        });
+    }
+
+    public boolean isRunning(String name) {
+        Job job = recent.get(name);
+        return job != null && !job.isFinished();
+    }
+
+    public void start() {
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    void tick() {
+        if (active.isEmpty()) return;
+        busyTicks++;
+        long tickStart = System.nanoTime();
+        long deadline = tickStart + budgetNanos;
+        int turns = active.size();
+        boolean first = true;
+        // Each job gets a turn in queue order; whoever is cut off goes first next tick
+        while (turns-- > 0 && (first || System.nanoTime() < deadline)) {
+            Job job = active.poll();
+            long jobStart = System.nanoTime();
+            boolean more;
+            do {
+                try {
+                    more = job.work.step();
+                } catch (RuntimeException e) {
+                    logger.warning("Sliced job " + job.name + " failed: " + e.getMessage());
+                    more = false;
+                }
+                job.processed++;
+            } while (more && System.nanoTime() < deadline);
+            first = false;
+            long elapsed = System.nanoTime() - jobStart;
+            job.ticks++;
+            job.totalNanos += elapsed;
+            job.maxTickNanos = Math.max(job.maxTickNanos, elapsed);
+            if (more) {
+                active.add(job);
+            } else {
+                job.finishedAt = System.currentTimeMillis();
+            }
+        }
+        if (System.nanoTime() - tickStart > budgetNanos) overBudgetTicks++;
+    }
+
+    /**
+     * Stop running; unfinished jobs are dropped and run again on their next schedule
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        active.clear();
+    }
+
+    /**
+     * Latest run of every job name, running jobs included
+     */
+    public List<Job> getJobs() {
+        return new ArrayList<>(recent.values());
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public long getBudgetMicros() {
+        return budgetNanos / 1000L;
+    }
+
+    /**
+     * Ticks that ran any work
+     */
+    public long getBusyTicks() {
+        return busyTicks;
+    }
+
+    /**
+     * Ticks where a single step pushed the work past the budget
+     */
+    public long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+}
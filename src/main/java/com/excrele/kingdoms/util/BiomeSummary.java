@@ -0,0 +1,131 @@
+package com.excrele.kingdoms.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The biome at the centre of each recorded chunk, so claim valuation can read it without loading
+ * terrain. Biome keys are interned into a small table and each world maps packed chunk
+ * coordinates to a table index. Persisted to a binary file between runs. Server thread only.
+ */
+public class BiomeSummary {
+    private static final int FORMAT = 1;
+    private static final int UNKNOWN = 0;
+
+    private final Map<String, LongIntHashMap> worlds; // world name -> packed chunk -> biome index + 1
+    private final List<String> biomes; // index -> biome key
+    private final Map<String, Integer> biomeIndex; // biome key -> index
+    private boolean changed;
+
+    public BiomeSummary() {
+        this.worlds = new HashMap<>();
+        this.biomes = new ArrayList<>();
+        this.biomeIndex = new HashMap<>();
+    }
+
+    /**
+     * Record a chunk's biome key (e.g. minecraft:plains)
+     */
+    public void record(String worldName, int chunkX, int chunkZ, String biomeKey) {
+        Integer index = biomeIndex.get(biomeKey);
+        if (index == null) {
+            index = biomes.size();
+            biomes.add(biomeKey);
+            biomeIndex.put(biomeKey, index);
+        }
+        LongIntHashMap chunks = worlds.computeIfAbsent(worldName, k -> new LongIntHashMap(256, UNKNOWN));
+        if (chunks.put(ClaimIndex.pack(chunkX, chunkZ), index + 1) != index + 1) changed = true;
+    }
+
+    /**
+     * Biome key of a chunk, or null if it was never recorded
+     */
+    public String getBiome(String worldName, int chunkX, int chunkZ) {
+        LongIntHashMap chunks = worlds.get(worldName);
+        if (chunks == null) return null;
+        int value = chunks.get(ClaimIndex.pack(chunkX, chunkZ));
+        return value != UNKNOWN ? biomes.get(value - 1) : null;
+    }
+
+    public boolean contains(String worldName, int chunkX, int chunkZ) {
+        LongIntHashMap chunks = worlds.get(worldName);
+        return chunks != null && chunks.containsKey(ClaimIndex.pack(chunkX, chunkZ));
+    }
+
+    public int size() {
+        int size = 0;
+        for (LongIntHashMap chunks : worlds.values()) {
+            size += chunks.size();
+        }
+        return size;
+    }
+
+    /**
+     * Read a file written by save. A missing or unreadable file leaves the summary empty.
+     */
+    public void load(File file, Logger logger) {
+        if (!file.isFile()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FORMAT) return;
+            int biomeCount = in.readInt();
+            List<String> keys = new ArrayList<>(biomeCount);
+            for (int i = 0; i < biomeCount; i++) {
+                keys.add(in.readUTF());
+            }
+            int worldCount = in.readInt();
+            for (int w = 0; w < worldCount; w++) {
+                String worldName = in.readUTF();
+                int chunkCount = in.readInt();
+                for (int c = 0; c < chunkCount; c++) {
+                    long key = in.readLong();
+                    int biome = in.readInt();
+                    if (biome >= 0 && biome < keys.size()) {
+                        record(worldName, ClaimIndex.unpackX(key), ClaimIndex.unpackZ(key), keys.get(biome));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to read " + file.getName() + ", biomes will be recorded again: " + e.getMessage());
+        }
+        changed = false;
+    }
+
+    /**
+     * Write the summary if anything was recorded since the last load or save
+     */
+    public void save(File file, Logger logger) {
+        if (!changed) return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT);
+            out.writeInt(biomes.size());
+            for (String biome : biomes) {
+                out.writeUTF(biome);
+            }
+            out.writeInt(worlds.size());
+            for (Map.Entry<String, LongIntHashMap> entry : worlds.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (long key : entry.getValue().keys()) {
+                    out.writeLong(key);
+                    out.writeInt(entry.getValue().get(key) - 1);
+                }
+            }
+            out.flush();
+            AtomicFiles.write(file, bytes.toByteArray());
+            changed = false;
+        } catch (IOException e) {
+            logger.severe("Failed to save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+}
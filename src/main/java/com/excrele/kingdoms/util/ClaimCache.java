@@ -1,79 +1,92 @@
 package com.excrele.kingdoms.util;
 
 import com.excrele.kingdoms.model.Kingdom;
-import org.bukkit.Chunk;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
- * LRU cache for claim lookups to improve performance
+ * Direct-mapped cache in front of the claim index.
+ * Slots hold packed chunk keys and kingdom ids, so hits and misses never allocate.
  */
 public class ClaimCache {
-    private final Map<String, Kingdom> cache;
-    private final int maxSize;
-    
-    public ClaimCache(int maxSize) {
-        this.maxSize = maxSize;
-        // LinkedHashMap with access order for LRU behavior
-        this.cache = new LinkedHashMap<String, Kingdom>(maxSize, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Kingdom> eldest) {
-                return size() > ClaimCache.this.maxSize;
-            }
-        };
-    }
-    
-    /**
-     * Get kingdom for a chunk from cache
-     */
-    public Kingdom get(Chunk chunk) {
-        String key = getChunkKey(chunk);
-        return cache.get(key);
+    private static final int EMPTY = -1;
+
+    private final ClaimIndex index;
+    private final String[] worldNames;
+    private final long[] keys;
+    private final int[] kingdomIds;
+    private final int mask;
+
+    public ClaimCache(ClaimIndex index, int maxSize) {
+        this.index = index;
+        int capacity = Integer.highestOneBit(Math.max(maxSize - 1, 1)) << 1;
+        this.worldNames = new String[capacity];
+        this.keys = new long[capacity];
+        this.kingdomIds = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(kingdomIds, EMPTY);
     }
-    
+
     /**
-     * Put a chunk-kingdom mapping in cache
+     * Get kingdom for a chunk, falling back to the claim index on a miss
      */
-    public void put(Chunk chunk, Kingdom kingdom) {
-        String key = getChunkKey(chunk);
-        cache.put(key, kingdom);
+    public Kingdom get(String worldName, int chunkX, int chunkZ) {
+        long key = ClaimIndex.pack(chunkX, chunkZ);
+        int slot = slot(worldName, key);
+        int id = kingdomIds[slot];
+        if (id == EMPTY || keys[slot] != key || !worldName.equals(worldNames[slot])) {
+            id = index.getKingdomIdAt(worldName, chunkX, chunkZ);
+            worldNames[slot] = worldName;
+            keys[slot] = key;
+            kingdomIds[slot] = id;
+        }
+        return index.getKingdom(id);
     }
-    
+
     /**
      * Remove a chunk from cache
      */
-    public void remove(Chunk chunk) {
-        String key = getChunkKey(chunk);
-        cache.remove(key);
+    public void remove(String worldName, int chunkX, int chunkZ) {
+        long key = ClaimIndex.pack(chunkX, chunkZ);
+        int slot = slot(worldName, key);
+        if (keys[slot] == key && worldName.equals(worldNames[slot])) {
+            kingdomIds[slot] = EMPTY;
+            worldNames[slot] = null;
+        }
     }
-    
+
     /**
      * Clear the entire cache
      */
     public void clear() {
-        cache.clear();
+        Arrays.fill(kingdomIds, EMPTY);
+        Arrays.fill(worldNames, null);
     }
-    
+
     /**
      * Invalidate cache for all chunks in a world
      */
     public void invalidateWorld(String worldName) {
-        cache.entrySet().removeIf(entry -> entry.getKey().startsWith(worldName + ":"));
+        for (int i = 0; i < worldNames.length; i++) {
+            if (worldName.equals(worldNames[i])) {
+                kingdomIds[i] = EMPTY;
+                worldNames[i] = null;
+            }
+        }
     }
-    
+
     /**
      * Get cache size
      */
     public int size() {
-        return cache.size();
+        int size = 0;
+        for (int id : kingdomIds) {
+            if (id != EMPTY) size++;
+        }
+        return size;
     }
-    
-    /**
-     * Generate chunk key for caching
-     */
-    private String getChunkKey(Chunk chunk) {
-        return chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
+
+    private int slot(String worldName, long key) {
+        return (LongIntHashMap.mix(key) ^ worldName.hashCode()) & mask;
     }
 }
-
@@ -0,0 +1,116 @@
+package com.excrele.kingdoms.util;
+
+import com.excrele.kingdoms.model.Kingdom;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of chunk ownership over a rectangle of chunk coordinates.
+ * Tiles are stored as a row-major int grid of indexes into a small kingdom palette,
+ * so building and reading the grid never loads chunks.
+ */
+public class ClaimGrid {
+    private static final Kingdom[] EMPTY_PALETTE = new Kingdom[] { null };
+
+    private final String worldName;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int width;
+    private final int depth;
+    private final int[] tiles; // 0 = unclaimed, otherwise index into palette
+    private final Kingdom[] palette;
+
+    ClaimGrid(String worldName, int minChunkX, int minChunkZ, int width, int depth, int[] tiles, Kingdom[] palette) {
+        this.worldName = worldName;
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.width = width;
+        this.depth = depth;
+        this.tiles = tiles;
+        this.palette = palette.length == 0 ? EMPTY_PALETTE : palette;
+    }
+
+    /**
+     * Build an ownership grid for the inclusive chunk rectangle from the claim index
+     */
+    public static ClaimGrid build(ClaimIndex index, String worldName, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        int width = Math.max(0, maxChunkX - minChunkX + 1);
+        int depth = Math.max(0, maxChunkZ - minChunkZ + 1);
+        int[] tiles = new int[width * depth];
+        LongIntHashMap claims = index.getWorldClaims(worldName);
+        if (claims == null || claims.isEmpty()) {
+            return new ClaimGrid(worldName, minChunkX, minChunkZ, width, depth, tiles, EMPTY_PALETTE);
+        }
+
+        // Map sparse kingdom ids to a dense palette local to this grid
+        LongIntHashMap paletteIndex = new LongIntHashMap(8, 0);
+        Kingdom[] palette = new Kingdom[8];
+        int paletteSize = 1;
+        for (int dz = 0; dz < depth; dz++) {
+            int row = dz * width;
+            for (int dx = 0; dx < width; dx++) {
+                int id = claims.get(ClaimIndex.pack(minChunkX + dx, minChunkZ + dz));
+                if (id == ClaimIndex.NO_KINGDOM) continue;
+                int entry = paletteIndex.get(id);
+                if (entry == 0) {
+                    if (paletteSize == palette.length) {
+                        palette = Arrays.copyOf(palette, palette.length * 2);
+                    }
+                    entry = paletteSize++;
+                    palette[entry] = index.getKingdom(id);
+                    paletteIndex.put(id, entry);
+                }
+                tiles[row + dx] = entry;
+            }
+        }
+        return new ClaimGrid(worldName, minChunkX, minChunkZ, width, depth, tiles,
+            Arrays.copyOf(palette, paletteSize));
+    }
+
+    public String getWorldName() { return worldName; }
+    public int getMinChunkX() { return minChunkX; }
+    public int getMinChunkZ() { return minChunkZ; }
+    public int getMaxChunkX() { return minChunkX + width - 1; }
+    public int getMaxChunkZ() { return minChunkZ + depth - 1; }
+    public int getWidth() { return width; }
+    public int getDepth() { return depth; }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return chunkX >= minChunkX && chunkX < minChunkX + width
+            && chunkZ >= minChunkZ && chunkZ < minChunkZ + depth;
+    }
+
+    /**
+     * Get the owner of a chunk inside the grid, or null if unclaimed or outside the grid
+     */
+    public Kingdom getKingdom(int chunkX, int chunkZ) {
+        if (!contains(chunkX, chunkZ)) return null;
+        return palette[tiles[(chunkZ - minChunkZ) * width + (chunkX - minChunkX)]];
+    }
+
+    public boolean isClaimed(int chunkX, int chunkZ) {
+        return contains(chunkX, chunkZ) && tiles[(chunkZ - minChunkZ) * width + (chunkX - minChunkX)] != 0;
+    }
+
+    /**
+     * Check if a chunk is owned by the given kingdom
+     */
+    public boolean isOwnedBy(int chunkX, int chunkZ, Kingdom kingdom) {
+        return kingdom != null && getKingdom(chunkX, chunkZ) == kingdom;
+    }
+
+    /**
+     * Number of distinct kingdoms present in the grid
+     */
+    public int getKingdomCount() {
+        return palette.length - 1;
+    }
+
+    public int getClaimedCount() {
+        int count = 0;
+        for (int tile : tiles) {
+            if (tile != 0) count++;
+        }
+        return count;
+    }
+}
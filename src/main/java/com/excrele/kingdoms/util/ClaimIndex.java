@@ -0,0 +1,392 @@
+package com.excrele.kingdoms.util;
+
+import com.excrele.kingdoms.model.Kingdom;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Spatial index of claimed chunks.
+ * Each world maps packed chunk coordinates to a dense kingdom id, and ids resolve
+ * through a flat kingdom table, so ownership lookups never allocate.
+ * A coarse region grid (REGION_SIZE x REGION_SIZE chunks) tracks which kingdoms occupy
+ * each region, so proximity queries only inspect tiles in regions that can match.
+ * Per-world claim counts are kept for every kingdom id, so world limits never walk a kingdom's claims.
+ * Area counts use a summed-area table per occupied region, built on demand and dropped when the
+ * region's claims change; each change also bumps the region's version so callers can cache
+ * results derived from an area.
+ */
+public class ClaimIndex {
+    public static final int NO_KINGDOM = 0;
+    private static final int REGION_SHIFT = 4; // 16x16 chunk regions
+    private static final int MIXED_REGION = -1; // Region holds claims of more than one kingdom
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final int TABLE_SIZE = REGION_SIZE + 1; // Summed-area tables have a zero row and column
+
+    /**
+     * Nearest claim found by a proximity query
+     */
+    public record NearbyClaim(Kingdom kingdom, int distance) {}
+
+    private final Map<String, LongIntHashMap> worlds; // world name -> packed chunk -> kingdom id
+    private final Map<String, LongIntHashMap> regionCounts; // world name -> packed region -> claimed chunks
+    private final Map<String, LongIntHashMap> regionOwners; // world name -> packed region -> kingdom id or MIXED_REGION
+    private final Map<String, LongObjectHashMap<int[]>> regionTables; // world name -> packed region -> summed-area table
+    private final Map<String, LongIntHashMap> regionVersions; // world name -> packed region -> claim changes
+    private final Map<String, int[]> kingdomCounts; // world name -> kingdom id -> claimed chunks
+    private final Map<String, Integer> kingdomIds; // kingdom name -> id
+    private final Deque<Integer> freeIds;
+    private Kingdom[] kingdomTable; // id -> kingdom (slot 0 is always empty)
+    private int nextId;
+    private int totalClaims;
+
+    public ClaimIndex() {
+        this.worlds = new HashMap<>();
+        this.regionCounts = new HashMap<>();
+        this.regionOwners = new HashMap<>();
+        this.regionTables = new HashMap<>();
+        this.regionVersions = new HashMap<>();
+        this.kingdomCounts = new HashMap<>();
+        this.kingdomIds = new HashMap<>();
+        this.freeIds = new ArrayDeque<>();
+        this.kingdomTable = new Kingdom[64];
+        this.nextId = 1;
+        this.totalClaims = 0;
+    }
+
+    /**
+     * Pack chunk coordinates into a single long key
+     */
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int unpackZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Register a kingdom and return its id (existing id if already registered)
+     */
+    public int registerKingdom(Kingdom kingdom) {
+        Integer existing = kingdomIds.get(kingdom.getName());
+        if (existing != null) {
+            kingdomTable[existing] = kingdom;
+            return existing;
+        }
+        int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+        if (id >= kingdomTable.length) {
+            kingdomTable = Arrays.copyOf(kingdomTable, kingdomTable.length * 2);
+        }
+        kingdomTable[id] = kingdom;
+        kingdomIds.put(kingdom.getName(), id);
+        return id;
+    }
+
+    /**
+     * Remove a kingdom and any claims still pointing at it
+     */
+    public void unregisterKingdom(String kingdomName) {
+        Integer id = kingdomIds.remove(kingdomName);
+        if (id == null) return;
+        for (Map.Entry<String, LongIntHashMap> entry : worlds.entrySet()) {
+            LongIntHashMap claims = entry.getValue();
+            for (long key : claims.keys()) {
+                if (claims.get(key) == id) {
+                    claims.remove(key);
+                    regionRemoved(entry.getKey(), unpackX(key), unpackZ(key));
+                    totalClaims--;
+                }
+            }
+        }
+        for (int[] counts : kingdomCounts.values()) {
+            if (id < counts.length) counts[id] = 0;
+        }
+        kingdomTable[id] = null;
+        freeIds.push(id);
+    }
+
+    /**
+     * Get the id of a kingdom, or NO_KINGDOM if unregistered
+     */
+    public int getKingdomId(String kingdomName) {
+        Integer id = kingdomIds.get(kingdomName);
+        return id != null ? id : NO_KINGDOM;
+    }
+
+    /**
+     * Resolve a kingdom id
+     */
+    public Kingdom getKingdom(int id) {
+        if (id <= NO_KINGDOM || id >= kingdomTable.length) return null;
+        return kingdomTable[id];
+    }
+
+    /**
+     * Get the id of the kingdom owning a chunk, or NO_KINGDOM
+     */
+    public int getKingdomIdAt(String worldName, int chunkX, int chunkZ) {
+        LongIntHashMap claims = worlds.get(worldName);
+        if (claims == null) return NO_KINGDOM;
+        return claims.get(pack(chunkX, chunkZ));
+    }
+
+    /**
+     * Get the kingdom owning a chunk, or null if unclaimed
+     */
+    public Kingdom getKingdomAt(String worldName, int chunkX, int chunkZ) {
+        return getKingdom(getKingdomIdAt(worldName, chunkX, chunkZ));
+    }
+
+    public boolean isClaimed(String worldName, int chunkX, int chunkZ) {
+        return getKingdomIdAt(worldName, chunkX, chunkZ) != NO_KINGDOM;
+    }
+
+    /**
+     * Assign a chunk to a kingdom, returning the previous owner
+     */
+    public Kingdom claim(String worldName, int chunkX, int chunkZ, Kingdom kingdom) {
+        int id = registerKingdom(kingdom);
+        LongIntHashMap claims = worlds.computeIfAbsent(worldName, k -> new LongIntHashMap(256, NO_KINGDOM));
+        int previous = claims.put(pack(chunkX, chunkZ), id);
+        if (previous == NO_KINGDOM) totalClaims++;
+        if (previous != id) {
+            count(worldName, id, 1);
+            if (previous != NO_KINGDOM) count(worldName, previous, -1);
+        }
+        regionClaimed(worldName, chunkX, chunkZ, id, previous == NO_KINGDOM);
+        return getKingdom(previous);
+    }
+
+    /**
+     * Release a chunk, returning the previous owner
+     */
+    public Kingdom unclaim(String worldName, int chunkX, int chunkZ) {
+        LongIntHashMap claims = worlds.get(worldName);
+        if (claims == null) return null;
+        int previous = claims.remove(pack(chunkX, chunkZ));
+        if (previous != NO_KINGDOM) {
+            totalClaims--;
+            count(worldName, previous, -1);
+            regionRemoved(worldName, chunkX, chunkZ);
+        }
+        return getKingdom(previous);
+    }
+
+    /**
+     * Find the nearest chunk within a Chebyshev radius that is claimed by a kingdom other
+     * than the given one (null if none). Only regions holding foreign claims are scanned,
+     * so the cost depends on the radius, not on the number of claims in the world.
+     */
+    public NearbyClaim findNearestForeignClaim(String worldName, int chunkX, int chunkZ, int radius, Kingdom kingdom) {
+        LongIntHashMap claims = worlds.get(worldName);
+        if (claims == null || claims.isEmpty() || radius < 0) return null;
+        LongIntHashMap owners = regionOwners.get(worldName);
+        int ownId = kingdom != null ? getKingdomId(kingdom.getName()) : NO_KINGDOM;
+        int minX = chunkX - radius;
+        int minZ = chunkZ - radius;
+        int maxX = chunkX + radius;
+        int maxZ = chunkZ + radius;
+
+        int bestId = NO_KINGDOM;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int regionX = minX >> REGION_SHIFT; regionX <= maxX >> REGION_SHIFT; regionX++) {
+            for (int regionZ = minZ >> REGION_SHIFT; regionZ <= maxZ >> REGION_SHIFT; regionZ++) {
+                int owner = owners.get(pack(regionX, regionZ));
+                if (owner == NO_KINGDOM || (owner == ownId && ownId != NO_KINGDOM)) continue; // Empty or only ours
+
+                // Scan the part of the region that overlaps the search square
+                int fromX = Math.max(minX, regionX << REGION_SHIFT);
+                int toX = Math.min(maxX, ((regionX + 1) << REGION_SHIFT) - 1);
+                int fromZ = Math.max(minZ, regionZ << REGION_SHIFT);
+                int toZ = Math.min(maxZ, ((regionZ + 1) << REGION_SHIFT) - 1);
+                for (int x = fromX; x <= toX; x++) {
+                    for (int z = fromZ; z <= toZ; z++) {
+                        int distance = Math.max(Math.abs(x - chunkX), Math.abs(z - chunkZ));
+                        if (distance >= bestDistance) continue;
+                        int id = claims.get(pack(x, z));
+                        if (id != NO_KINGDOM && id != ownId) {
+                            bestId = id;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return bestId != NO_KINGDOM ? new NearbyClaim(getKingdom(bestId), bestDistance) : null;
+    }
+
+    /**
+     * Check if any of the 8 chunks around a chunk is claimed by the given kingdom
+     */
+    public boolean isAdjacentTo(String worldName, int chunkX, int chunkZ, Kingdom kingdom) {
+        LongIntHashMap claims = worlds.get(worldName);
+        int id = getKingdomId(kingdom.getName());
+        if (claims == null || id == NO_KINGDOM) return false;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if ((dx != 0 || dz != 0) && claims.get(pack(chunkX + dx, chunkZ + dz)) == id) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of claimed chunks in a rectangle of chunks (inclusive bounds)
+     */
+    public int countClaimsInArea(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        LongIntHashMap counts = regionCounts.get(worldName);
+        if (counts == null) return 0;
+        int total = 0;
+        for (int regionX = minX >> REGION_SHIFT; regionX <= maxX >> REGION_SHIFT; regionX++) {
+            for (int regionZ = minZ >> REGION_SHIFT; regionZ <= maxZ >> REGION_SHIFT; regionZ++) {
+                long region = pack(regionX, regionZ);
+                if (counts.get(region) == 0) continue;
+                int[] table = regionTable(worldName, region, regionX, regionZ);
+                // Overlap of the rectangle with this region, in region-local coordinates
+                int fromX = Math.max(minX - (regionX << REGION_SHIFT), 0);
+                int toX = Math.min(maxX - (regionX << REGION_SHIFT), REGION_SIZE - 1) + 1;
+                int fromZ = Math.max(minZ - (regionZ << REGION_SHIFT), 0);
+                int toZ = Math.min(maxZ - (regionZ << REGION_SHIFT), REGION_SIZE - 1) + 1;
+                total += table[toX * TABLE_SIZE + toZ] - table[fromX * TABLE_SIZE + toZ]
+                    - table[toX * TABLE_SIZE + fromZ] + table[fromX * TABLE_SIZE + fromZ];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * A number that changes whenever a chunk in a region overlapping the rectangle is claimed or
+     * released (ownership transfers don't count). Versions only grow, so their sum works as a stamp.
+     */
+    public long getAreaVersion(String worldName, int minX, int minZ, int maxX, int maxZ) {
+        LongIntHashMap versions = regionVersions.get(worldName);
+        if (versions == null) return 0;
+        long stamp = 0;
+        for (int regionX = minX >> REGION_SHIFT; regionX <= maxX >> REGION_SHIFT; regionX++) {
+            for (int regionZ = minZ >> REGION_SHIFT; regionZ <= maxZ >> REGION_SHIFT; regionZ++) {
+                stamp += versions.get(pack(regionX, regionZ));
+            }
+        }
+        return stamp;
+    }
+
+    private int[] regionTable(String worldName, long region, int regionX, int regionZ) {
+        LongObjectHashMap<int[]> tables = regionTables.computeIfAbsent(worldName, k -> new LongObjectHashMap<>());
+        int[] table = tables.get(region);
+        if (table != null) return table;
+        LongIntHashMap claims = worlds.get(worldName);
+        table = new int[TABLE_SIZE * TABLE_SIZE];
+        int baseX = regionX << REGION_SHIFT;
+        int baseZ = regionZ << REGION_SHIFT;
+        for (int x = 1; x < TABLE_SIZE; x++) {
+            for (int z = 1; z < TABLE_SIZE; z++) {
+                int claimed = claims.get(pack(baseX + x - 1, baseZ + z - 1)) != NO_KINGDOM ? 1 : 0;
+                table[x * TABLE_SIZE + z] = claimed + table[(x - 1) * TABLE_SIZE + z]
+                    + table[x * TABLE_SIZE + z - 1] - table[(x - 1) * TABLE_SIZE + z - 1];
+            }
+        }
+        tables.put(region, table);
+        return table;
+    }
+
+    private void regionChanged(String worldName, long region) {
+        LongObjectHashMap<int[]> tables = regionTables.get(worldName);
+        if (tables != null) tables.remove(region);
+        LongIntHashMap versions = regionVersions.computeIfAbsent(worldName, k -> new LongIntHashMap(64, 0));
+        versions.put(region, versions.get(region) + 1);
+    }
+
+    private void regionClaimed(String worldName, int chunkX, int chunkZ, int id, boolean newClaim) {
+        long region = pack(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        if (newClaim) {
+            regionChanged(worldName, region);
+            LongIntHashMap counts = regionCounts.computeIfAbsent(worldName, k -> new LongIntHashMap(64, 0));
+            counts.put(region, counts.get(region) + 1);
+        }
+        LongIntHashMap owners = regionOwners.computeIfAbsent(worldName, k -> new LongIntHashMap(64, NO_KINGDOM));
+        int owner = owners.get(region);
+        if (owner == NO_KINGDOM) {
+            owners.put(region, id);
+        } else if (owner != id) {
+            owners.put(region, MIXED_REGION); // Stays mixed until the region empties
+        }
+    }
+
+    private void regionRemoved(String worldName, int chunkX, int chunkZ) {
+        long region = pack(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        regionChanged(worldName, region);
+        LongIntHashMap counts = regionCounts.get(worldName);
+        if (counts == null) return;
+        int count = counts.get(region) - 1;
+        if (count <= 0) {
+            counts.remove(region);
+            regionOwners.get(worldName).remove(region);
+        } else {
+            counts.put(region, count);
+        }
+    }
+
+    /**
+     * Get the raw claim map for a world (may be null)
+     */
+    public LongIntHashMap getWorldClaims(String worldName) {
+        return worlds.get(worldName);
+    }
+
+    public Set<String> getWorldNames() {
+        return Collections.unmodifiableSet(worlds.keySet());
+    }
+
+    public int getClaimCount(String worldName) {
+        LongIntHashMap claims = worlds.get(worldName);
+        return claims != null ? claims.size() : 0;
+    }
+
+    /**
+     * Number of chunks a kingdom has claimed in a world
+     */
+    public int getClaimCount(String worldName, String kingdomName) {
+        int id = getKingdomId(kingdomName);
+        if (id == NO_KINGDOM) return 0;
+        int[] counts = kingdomCounts.get(worldName);
+        return counts != null && id < counts.length ? counts[id] : 0;
+    }
+
+    private void count(String worldName, int id, int delta) {
+        int[] counts = kingdomCounts.get(worldName);
+        if (counts == null || id >= counts.length) {
+            counts = counts == null ? new int[kingdomTable.length] : Arrays.copyOf(counts, kingdomTable.length);
+            kingdomCounts.put(worldName, counts);
+        }
+        counts[id] += delta;
+    }
+
+    public int size() {
+        return totalClaims;
+    }
+
+    public void clear() {
+        worlds.clear();
+        regionCounts.clear();
+        regionOwners.clear();
+        regionTables.clear(); // Versions are kept so stamps taken before never match again
+        kingdomCounts.clear();
+        kingdomIds.clear();
+        freeIds.clear();
+        Arrays.fill(kingdomTable, null);
+        nextId = 1;
+        totalClaims = 0;
+    }
+}
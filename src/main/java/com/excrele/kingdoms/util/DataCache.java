@@ -11,7 +11,6 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DataCache {
     private final Map<String, Kingdom> kingdomCache; // kingdomName -> Kingdom
     private final Map<String, String> playerKingdomCache; // playerName -> kingdomName
-    private final Map<String, Double> bankBalanceCache; // kingdomName -> balance
     private final Map<String, Integer> kingdomLevelCache; // kingdomName -> level
     private final Map<String, Integer> kingdomXpCache; // kingdomName -> xp
     private final Map<String, Long> cacheTimestamps; // key -> last access time
@@ -20,7 +19,6 @@ public class DataCache {
     public DataCache(long cacheExpiryTime) {
         this.kingdomCache = new ConcurrentHashMap<>();
         this.playerKingdomCache = new ConcurrentHashMap<>();
-        this.bankBalanceCache = new ConcurrentHashMap<>();
         this.kingdomLevelCache = new ConcurrentHashMap<>();
         this.kingdomXpCache = new ConcurrentHashMap<>();
         this.cacheTimestamps = new ConcurrentHashMap<>();
@@ -69,25 +67,6 @@ public class DataCache {
         return playerKingdomCache.get(playerName);
     }
     
-    /**
-     * Cache bank balance
-     */
-    public void cacheBankBalance(String kingdomName, double balance) {
-        bankBalanceCache.put(kingdomName, balance);
-        updateTimestamp("bank:" + kingdomName);
-    }
-    
-    /**
-     * Get cached bank balance
-     */
-    public Double getCachedBankBalance(String kingdomName) {
-        if (isExpired("bank:" + kingdomName)) {
-            bankBalanceCache.remove(kingdomName);
-            return null;
-        }
-        return bankBalanceCache.get(kingdomName);
-    }
-    
     /**
      * Invalidate kingdom cache
      */
@@ -95,9 +74,7 @@ public class DataCache {
         kingdomCache.remove(kingdomName);
         kingdomLevelCache.remove(kingdomName);
         kingdomXpCache.remove(kingdomName);
-        bankBalanceCache.remove(kingdomName);
         cacheTimestamps.remove("kingdom:" + kingdomName);
-        cacheTimestamps.remove("bank:" + kingdomName);
     }
     
     /**
@@ -114,7 +91,6 @@ public class DataCache {
     public void clearAll() {
         kingdomCache.clear();
         playerKingdomCache.clear();
-        bankBalanceCache.clear();
         kingdomLevelCache.clear();
         kingdomXpCache.clear();
         cacheTimestamps.clear();
@@ -141,9 +117,6 @@ public class DataCache {
             } else if (key.startsWith("player:")) {
                 String playerName = key.substring(7);
                 invalidatePlayer(playerName);
-            } else if (key.startsWith("bank:")) {
-                String kingdomName = key.substring(5);
-                bankBalanceCache.remove(kingdomName);
             }
         }
     }
@@ -155,8 +128,7 @@ public class DataCache {
         Map<String, Integer> stats = new HashMap<>();
         stats.put("kingdoms", kingdomCache.size());
         stats.put("players", playerKingdomCache.size());
-        stats.put("balances", bankBalanceCache.size());
-        stats.put("total", kingdomCache.size() + playerKingdomCache.size() + bankBalanceCache.size());
+        stats.put("total", kingdomCache.size() + playerKingdomCache.size());
         return stats;
     }
     
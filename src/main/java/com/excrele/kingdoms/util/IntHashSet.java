@@ -0,0 +1,169 @@
+package com.excrele.kingdoms.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive int values.
+ * Shares the probing and deletion scheme of {@link LongIntHashMap}.
+ */
+public class IntHashSet {
+    private static final int FREE_KEY = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasFreeKey; // The value 0 is stored outside the table
+
+    /**
+     * Functional callback for iterating values without boxing
+     */
+    @FunctionalInterface
+    public interface IntConsumer {
+        void accept(int value);
+    }
+
+    public IntHashSet(int expectedSize) {
+        int capacity = LongIntHashMap.tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        allocate(capacity);
+    }
+
+    public IntHashSet() {
+        this(16);
+    }
+
+    public boolean contains(int key) {
+        if (key == FREE_KEY) return hasFreeKey;
+        int pos = LongIntHashMap.mix(key) & mask;
+        int current;
+        while ((current = keys[pos]) != FREE_KEY) {
+            if (current == key) return true;
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Add a value, returning true if it was not already present
+     */
+    public boolean add(int key) {
+        if (key == FREE_KEY) {
+            if (hasFreeKey) return false;
+            hasFreeKey = true;
+            size++;
+            return true;
+        }
+        int pos = LongIntHashMap.mix(key) & mask;
+        int current;
+        while ((current = keys[pos]) != FREE_KEY) {
+            if (current == key) return false;
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        if (++size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a value, returning true if it was present
+     */
+    public boolean remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) return false;
+            hasFreeKey = false;
+            size--;
+            return true;
+        }
+        int pos = LongIntHashMap.mix(key) & mask;
+        int current;
+        while ((current = keys[pos]) != FREE_KEY) {
+            if (current == key) {
+                size--;
+                shiftKeys(pos);
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    /**
+     * Visit every value. The set must not be modified during iteration.
+     */
+    public void forEach(IntConsumer consumer) {
+        if (hasFreeKey) consumer.accept(FREE_KEY);
+        for (int key : keys) {
+            if (key != FREE_KEY) consumer.accept(key);
+        }
+    }
+
+    /**
+     * Copy all values into a new array
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int index = 0;
+        if (hasFreeKey) result[index++] = FREE_KEY;
+        for (int key : keys) {
+            if (key != FREE_KEY) result[index++] = key;
+        }
+        return result;
+    }
+
+    private void shiftKeys(int pos) {
+        int last;
+        int slot;
+        int current;
+        while (true) {
+            last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if ((current = keys[pos]) == FREE_KEY) {
+                    keys[last] = FREE_KEY;
+                    return;
+                }
+                slot = LongIntHashMap.mix(current) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = current;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        allocate(newCapacity);
+        for (int key : oldKeys) {
+            if (key != FREE_KEY) {
+                int pos = LongIntHashMap.mix(key) & mask;
+                while (keys[pos] != FREE_KEY) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+}
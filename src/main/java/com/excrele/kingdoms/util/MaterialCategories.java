@@ -0,0 +1,93 @@
+package com.excrele.kingdoms.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Precomputed protection categories of every material, built once from config.yml.
+ * Categories are bits in an int array indexed by material ordinal, so classifying a
+ * block is one array read with no string work.
+ */
+public class MaterialCategories {
+    public static final int REDSTONE = 1;
+    public static final int CONTAINER = 1 << 1;
+    public static final int DOOR = 1 << 2;
+    public static final int CROP = 1 << 3;
+    public static final int WORKSTATION = 1 << 4;
+
+    /** Blocks that foreign players may not open or use */
+    public static final int INTERACT_PROTECTED = CONTAINER | DOOR | WORKSTATION;
+
+    private static final String[] NAMES = {"redstone", "container", "door", "crop", "workstation"};
+
+    // Defaults match the old name checks; "*" matches any text
+    private static final Map<String, List<String>> DEFAULTS = Map.of(
+        "redstone", List.of("*REDSTONE*", "*REPEATER*", "*COMPARATOR*", "*LEVER*", "*BUTTON*",
+            "*PRESSURE_PLATE*", "*TRIPWIRE*", "*DAYLIGHT_DETECTOR*", "*OBSERVER*", "*DISPENSER*",
+            "*DROPPER*", "*HOPPER*"),
+        "container", List.of("*CHEST*", "*BARREL*", "*SHULKER_BOX*"),
+        "door", List.of("*DOOR*"),
+        "crop", List.of("FARMLAND", "WHEAT", "CARROTS", "POTATOES", "BEETROOTS", "MELON_STEM", "PUMPKIN_STEM"),
+        "workstation", List.of("*FURNACE*", "*ANVIL*")
+    );
+
+    private final int[] categories;
+    private final Map<String, Material> byName;
+
+    /**
+     * Build the table from the "protection.materials" section (null for defaults)
+     */
+    public MaterialCategories(ConfigurationSection section) {
+        Material[] materials = Material.values();
+        this.categories = new int[materials.length];
+        this.byName = new HashMap<>(materials.length * 2);
+        for (Material material : materials) {
+            byName.put(material.name(), material);
+        }
+        for (int i = 0; i < NAMES.length; i++) {
+            List<String> patterns = section != null && section.isList(NAMES[i])
+                ? section.getStringList(NAMES[i]) : DEFAULTS.get(NAMES[i]);
+            for (String pattern : patterns) {
+                String upper = pattern.toUpperCase(Locale.ROOT);
+                for (Material material : materials) {
+                    if (!material.name().startsWith("LEGACY_") && matches(upper, material.name())) {
+                        categories[material.ordinal()] |= 1 << i;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a material belongs to any of the given categories
+     */
+    public boolean is(Material material, int category) {
+        return (categories[material.ordinal()] & category) != 0;
+    }
+
+    public int getCategories(Material material) {
+        return categories[material.ordinal()];
+    }
+
+    /**
+     * Resolve a material by name, ignoring case (null if unknown)
+     */
+    public Material getMaterial(String name) {
+        return name != null ? byName.get(name.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    private static boolean matches(String pattern, String name) {
+        boolean prefix = pattern.startsWith("*");
+        boolean suffix = pattern.endsWith("*") && pattern.length() > 1;
+        String text = pattern.substring(prefix ? 1 : 0, pattern.length() - (suffix ? 1 : 0));
+        if (prefix && suffix) return name.contains(text);
+        if (prefix) return name.endsWith(text);
+        if (suffix) return name.startsWith(text);
+        return name.equals(text);
+    }
+}
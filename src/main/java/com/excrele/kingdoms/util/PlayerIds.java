@@ -0,0 +1,183 @@
+package com.excrele.kingdoms.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+/**
+ * Process-wide registry giving every player a dense int id, so membership can be held in
+ * primitive sets and checked without comparing names. Ids are assigned per run; what persists
+ * (players.yml) is each UUID with every name it has used, so a renamed player keeps the id
+ * their old name has in name-keyed storage. Names seen before their UUID (members loaded from
+ * storage) get an id straight away and are bound to the UUID when the player joins.
+ * Lookups are lock-free; assignments are synchronized.
+ */
+public final class PlayerIds {
+    public static final int UNKNOWN = 0;
+
+    private static final Map<String, Integer> byName = new ConcurrentHashMap<>();
+    private static final Map<UUID, Integer> byUuid = new ConcurrentHashMap<>();
+    private static UUID[] uuids = new UUID[64]; // id -> UUID, null until bound; guarded by the class
+    private static String[] names = new String[64]; // id -> latest name
+    private static int nextId = 1;
+    private static volatile int epoch; // Bumped whenever a name moves to another id
+    private static volatile boolean changed;
+
+    private PlayerIds() {
+    }
+
+    /**
+     * Id of a player name, assigning one if the name is new
+     */
+    public static int idOf(String name) {
+        Integer id = byName.get(name);
+        return id != null ? id : assign(name);
+    }
+
+    /**
+     * Id of an online player by UUID (bound on join, so renames are already resolved)
+     */
+    public static int idOf(Player player) {
+        Integer id = byUuid.get(player.getUniqueId());
+        return id != null ? id : bind(player.getUniqueId(), player.getName());
+    }
+
+    /**
+     * Id of a player name, or UNKNOWN if the name was never seen. Never assigns.
+     */
+    public static int find(String name) {
+        Integer id = byName.get(name);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Changes whenever a name that had an id is handed to another id (a new UUID took the name).
+     * Sets of ids built from names are stale once it moves.
+     */
+    public static int epoch() {
+        return epoch;
+    }
+
+    public static synchronized String nameOf(int id) {
+        return id > UNKNOWN && id < nextId ? names[id] : null;
+    }
+
+    public static synchronized UUID uuidOf(int id) {
+        return id > UNKNOWN && id < nextId ? uuids[id] : null;
+    }
+
+    /**
+     * Record that a UUID uses a name. A name first seen without its UUID is adopted; a new name
+     * for a known UUID (a rename) becomes an alias of the existing id.
+     */
+    public static synchronized int bind(UUID uuid, String name) {
+        Integer known = byUuid.get(uuid);
+        if (known != null) {
+            if (!name.equals(names[known])) {
+                Integer previous = byName.put(name, known); // Takes the name over from any player who used it before
+                if (previous != null && previous.intValue() != known) epoch++;
+                names[known] = name;
+                changed = true;
+            }
+            return known;
+        }
+        Integer id = byName.get(name);
+        if (id == null || uuids[id] != null) {
+            boolean taken = id != null;
+            id = assign(name);
+            byName.put(name, id); // The name may have belonged to another UUID
+            if (taken) epoch++;
+        }
+        uuids[id] = uuid;
+        byUuid.put(uuid, id);
+        changed = true;
+        return id;
+    }
+
+    /**
+     * Number of ids handed out
+     */
+    public static synchronized int size() {
+        return nextId - 1;
+    }
+
+    /**
+     * Number of ids bound to a UUID
+     */
+    public static int boundCount() {
+        return byUuid.size();
+    }
+
+    private static synchronized int assign(String name) {
+        Integer existing = byName.get(name);
+        if (existing != null && uuids[existing] == null) return existing;
+        int id = nextId++;
+        if (id >= names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+            uuids = Arrays.copyOf(uuids, names.length);
+        }
+        names[id] = name;
+        byName.putIfAbsent(name, id);
+        return id;
+    }
+
+    /**
+     * Read UUIDs and their names (oldest first) from players.yml. Call before kingdoms load.
+     */
+    public static void load(File file, Logger logger) {
+        if (!file.isFile()) return;
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        for (String key : config.getKeys(false)) {
+            try {
+                UUID uuid = UUID.fromString(key);
+                for (String name : config.getStringList(key)) {
+                    bind(uuid, name);
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid UUID in " + file.getName() + ": " + key);
+            }
+        }
+        changed = false;
+    }
+
+    /**
+     * Write players.yml through the save queue if a binding changed since the last save (server thread)
+     */
+    public static void save(File file, SaveQueue saveQueue, Logger logger) {
+        if (!changed) return;
+        changed = false;
+        YamlConfiguration snapshot = new YamlConfiguration();
+        synchronized (PlayerIds.class) {
+            Map<Integer, List<String>> aliases = new java.util.HashMap<>();
+            for (Map.Entry<String, Integer> entry : byName.entrySet()) {
+                if (uuids[entry.getValue()] == null || entry.getKey().equals(names[entry.getValue()])) continue;
+                aliases.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+            }
+            for (Map.Entry<UUID, Integer> entry : byUuid.entrySet()) {
+                List<String> used = aliases.getOrDefault(entry.getValue(), new ArrayList<>());
+                used.add(names[entry.getValue()]); // Current name last
+                snapshot.set(entry.getKey().toString(), used);
+            }
+        }
+        SaveQueue.WriteTask write = () -> AtomicFiles.write(file, snapshot.saveToString());
+        if (saveQueue != null) {
+            saveQueue.submit(file.getName(), write);
+            return;
+        }
+        try {
+            write.write();
+        } catch (IOException e) {
+            changed = true;
+            logger.severe("Failed to save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+}
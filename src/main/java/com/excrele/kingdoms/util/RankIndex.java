@@ -0,0 +1,188 @@
+package com.excrele.kingdoms.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order-statistic index of named scores: a treap kept in leaderboard order (highest score first,
+ * ties broken by a secondary score, then by name) where every node knows the size of its subtree.
+ * Updating a score, finding a name's rank and reading the top k are O(log n), O(log n) and
+ * O(log n + k), so nothing is sorted per request. Not thread-safe.
+ */
+public class RankIndex {
+    private static final class Node {
+        final String name;
+        final long primary;
+        final long secondary;
+        final int priority;
+        int size = 1;
+        Node left; // Higher in the ranking
+        Node right; // Lower in the ranking
+
+        Node(String name, long primary, long secondary, int priority) {
+            this.name = name;
+            this.primary = primary;
+            this.secondary = secondary;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<String, Node> nodes;
+    private Node root;
+    private int seed;
+
+    public RankIndex() {
+        this.nodes = new HashMap<>();
+        this.seed = 0x2545F491;
+    }
+
+    /**
+     * Set a name's score, inserting it if new. An unchanged score is not re-indexed.
+     */
+    public void put(String name, long primary, long secondary) {
+        Node existing = nodes.get(name);
+        if (existing != null) {
+            if (existing.primary == primary && existing.secondary == secondary) return;
+            root = delete(root, existing);
+        }
+        Node node = new Node(name, primary, secondary, nextPriority());
+        nodes.put(name, node);
+        Node[] parts = split(root, node);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    public boolean remove(String name) {
+        Node node = nodes.remove(name);
+        if (node == null) return false;
+        root = delete(root, node);
+        return true;
+    }
+
+    public boolean contains(String name) {
+        return nodes.containsKey(name);
+    }
+
+    /**
+     * Competition rank: 1 + the number of names with a strictly higher score, so ties share a rank.
+     * 0 if the name isn't indexed.
+     */
+    public int rank(String name) {
+        Node target = nodes.get(name);
+        if (target == null) return 0;
+        int higher = 0;
+        Node node = root;
+        while (node != null) {
+            if (compareScore(node, target.primary, target.secondary) > 0) {
+                higher += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return higher + 1;
+    }
+
+    /**
+     * The first {@code limit} names in ranking order with their primary score
+     */
+    public List<Map.Entry<String, Long>> top(int limit) {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size())));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && top.size() < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            top.add(Map.entry(node.name, node.primary));
+            node = node.right;
+        }
+        return top;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    // Ranking order: higher primary, then higher secondary, then name
+    private static int compare(Node a, Node b) {
+        int byScore = compareScore(a, b.primary, b.secondary);
+        if (byScore != 0) return -byScore;
+        return a.name.compareTo(b.name);
+    }
+
+    // > 0 if the node's score is higher than (primary, secondary)
+    private static int compareScore(Node node, long primary, long secondary) {
+        int byPrimary = Long.compare(node.primary, primary);
+        return byPrimary != 0 ? byPrimary : Long.compare(node.secondary, secondary);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    /**
+     * Split into nodes ranked before {@code key} and the rest
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) return new Node[2];
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node before, Node after) {
+        if (before == null) return after;
+        if (after == null) return before;
+        if (before.priority > after.priority) {
+            before.right = merge(before.right, after);
+            update(before);
+            return before;
+        }
+        after.left = merge(before, after.left);
+        update(after);
+        return after;
+    }
+
+    private static Node delete(Node node, Node target) {
+        if (node == null) return null;
+        if (node == target) return merge(node.left, node.right);
+        if (compare(target, node) < 0) {
+            node.left = delete(node.left, target);
+        } else {
+            node.right = delete(node.right, target);
+        }
+        update(node);
+        return node;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13; // xorshift
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
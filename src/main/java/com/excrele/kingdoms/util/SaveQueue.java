@@ -1,67 +1,327 @@
 package com.excrele.kingdoms.util;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
 
 /**
- * Queue for batched save operations
+ * Persistence pipeline for file saves.
+ * The server thread captures a snapshot of the state to save and submits it as a {@link WriteTask};
+ * a dedicated writer thread serializes and writes it. Tasks are keyed by target (usually a file):
+ * a task that is still waiting is replaced by a newer one for the same target, so a burst of saves
+ * writes each file once. Deferred saves ({@link #enqueue}) are captured in batches by
+ * {@link #processQueue()}, which is skipped while the writer is behind. Submitting never blocks:
+ * since each target has at most one waiting write, the backlog is bounded by the number of
+ * distinct targets even when it runs past {@code capacity}.
  */
 public class SaveQueue {
-    private final ConcurrentLinkedQueue<Runnable> saveQueue;
-    private volatile boolean processing;
-    
-    public SaveQueue() {
-        this.saveQueue = new ConcurrentLinkedQueue<>();
-        this.processing = false;
+    /**
+     * Serializes and writes one captured snapshot. Runs on the writer thread, so it must
+     * not touch live game state.
+     */
+    @FunctionalInterface
+    public interface WriteTask {
+        void write() throws IOException;
+    }
+
+    private static final class QueuedWrite {
+        private final WriteTask task;
+        private final long submittedAt;
+
+        private QueuedWrite(WriteTask task, long submittedAt) {
+            this.task = task;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    private final Logger logger;
+    private final int capacity;
+    private final Map<String, Runnable> pending; // Deferred captures, server thread only
+    private final LinkedHashMap<String, QueuedWrite> writes; // Captured, waiting for the writer; guarded by this
+    private final Thread writer;
+    private boolean running;
+    private String writingTarget; // Target the writer is writing right now, or null
+
+    // Metrics, guarded by this
+    private long submitted;
+    private long collapsed;
+    private long merged;
+    private long written;
+    private long failed;
+    private long deferred;
+    private long overflowed;
+    private long totalWriteNanos;
+    private long maxWriteNanos;
+    private long totalLatencyNanos;
+
+    /**
+     * @param capacity captured writes the writer may fall behind by before batches are deferred
+     */
+    public SaveQueue(Logger logger, int capacity) {
+        this.logger = logger;
+        this.capacity = Math.max(1, capacity);
+        this.pending = new LinkedHashMap<>();
+        this.writes = new LinkedHashMap<>();
+        this.running = true;
+        this.writer = new Thread(this::runWriter, "Kingdoms-SaveWriter");
+        this.writer.setDaemon(true);
+        this.writer.start();
     }
-    
+
+    /**
+     * Defer a save. The capture runs on the server thread at the next {@link #processQueue()} and
+     * should {@link #submit} its snapshot; repeated enqueues for the same key run it once.
+     */
+    public void enqueue(String key, Runnable capture) {
+        if (pending.putIfAbsent(key, capture) != null) {
+            synchronized (this) {
+                merged++;
+            }
+        }
+    }
+
     /**
-     * Add a save operation to the queue
+     * Hand a captured snapshot to the writer. A waiting write for the same target is replaced.
+     * Never waits for the writer (this runs on the server thread); after {@link #shutdown} the
+     * write runs on the calling thread.
      */
-    public void enqueue(Runnable saveOperation) {
-        saveQueue.offer(saveOperation);
+    public void submit(String target, WriteTask task) {
+        synchronized (this) {
+            submitted++;
+            if (writes.containsKey(target)) {
+                writes.put(target, new QueuedWrite(task, System.nanoTime())); // Keeps its place in line
+                collapsed++;
+                return;
+            }
+            if (running) {
+                if (writes.size() >= capacity) overflowed++; // processQueue() holds back batches meanwhile
+                writes.put(target, new QueuedWrite(task, System.nanoTime()));
+                notifyAll();
+                return;
+            }
+        }
+        execute(target, new QueuedWrite(task, System.nanoTime()));
     }
-    
+
     /**
-     * Process all queued save operations
+     * Capture all deferred saves (server thread). Skipped while the writer is over half its
+     * capacity behind; the saves stay deferred until it catches up.
      */
     public void processQueue() {
-        if (processing) return; // Prevent concurrent processing
-        processing = true;
-        
-        try {
-            Runnable operation;
-            int processed = 0;
-            while ((operation = saveQueue.poll()) != null) {
-                try {
-                    operation.run();
-                    processed++;
-                } catch (Exception e) {
-                    // Log error but continue processing
-                    System.err.println("Error processing save queue operation: " + e.getMessage());
-                    e.printStackTrace();
+        if (pending.isEmpty()) return;
+        synchronized (this) {
+            if (running && writes.size() > capacity / 2) {
+                deferred++;
+                return;
+            }
+        }
+        captureAll();
+    }
+
+    /**
+     * Capture every deferred save, wait for the writer to finish and stop it. Writes it didn't get
+     * to are then written on the calling thread, once the writer has stopped.
+     */
+    public void shutdown(long timeoutMs) {
+        captureAll();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (this) {
+            try {
+                while (!writes.isEmpty() || writingTarget != null) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        logger.warning("Saves still pending after " + timeoutMs + "ms: " + writes.size());
+                        break;
+                    }
+                    wait(remaining);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            
-            if (processed > 0) {
-                System.out.println("Processed " + processed + " queued save operations");
+            running = false;
+            notifyAll();
+        }
+        // The writer finishes the write it is on, then exits; an older copy of a file must not
+        // land after the newer one written below
+        String stuck = stopWriter(timeoutMs);
+        Map<String, QueuedWrite> leftover;
+        synchronized (this) {
+            leftover = new LinkedHashMap<>(writes);
+            writes.clear();
+        }
+        for (Map.Entry<String, QueuedWrite> entry : leftover.entrySet()) {
+            if (entry.getKey().equals(stuck)) {
+                logger.severe("Not saving " + stuck + ": the writer is still writing it");
+                continue;
+            }
+            execute(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Wait for the writer thread to exit, interrupting it if it takes too long
+     * @return the target it is still writing if it never exited, else null
+     */
+    private String stopWriter(long timeoutMs) {
+        try {
+            writer.join(Math.max(1L, timeoutMs));
+            if (writer.isAlive()) {
+                writer.interrupt();
+                writer.join(Math.max(1L, timeoutMs));
             }
-        } finally {
-            processing = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) return null;
+        synchronized (this) {
+            return writingTarget;
         }
     }
-    
+
     /**
-     * Get the current queue size
+     * Deferred saves not yet captured
      */
     public int size() {
-        return saveQueue.size();
+        return pending.size();
+    }
+
+    /**
+     * Captured writes waiting for the writer
+     */
+    public synchronized int getBacklog() {
+        return writes.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getSubmittedCount() {
+        return submitted;
+    }
+
+    /**
+     * Writes replaced by a newer snapshot of the same target before they ran
+     */
+    public synchronized long getCollapsedCount() {
+        return collapsed;
+    }
+
+    /**
+     * Deferred saves absorbed by one already pending
+     */
+    public synchronized long getMergedCount() {
+        return merged;
+    }
+
+    public synchronized long getWrittenCount() {
+        return written;
+    }
+
+    public synchronized long getFailedCount() {
+        return failed;
+    }
+
+    /**
+     * Batches postponed because the writer was behind
+     */
+    public synchronized long getDeferredCount() {
+        return deferred;
+    }
+
+    /**
+     * Submissions queued while the writer was already {@code capacity} writes behind
+     */
+    public synchronized long getOverflowCount() {
+        return overflowed;
+    }
+
+    /**
+     * Average time spent serializing and writing one target
+     */
+    public synchronized double getAverageWriteMillis() {
+        long count = written + failed;
+        return count > 0 ? totalWriteNanos / 1_000_000.0 / count : 0.0;
+    }
+
+    public synchronized double getMaxWriteMillis() {
+        return maxWriteNanos / 1_000_000.0;
+    }
+
+    /**
+     * Average time from submit until the write finished
+     */
+    public synchronized double getAverageLatencyMillis() {
+        long count = written + failed;
+        return count > 0 ? totalLatencyNanos / 1_000_000.0 / count : 0.0;
     }
-    
+
     /**
-     * Clear the queue
+     * Clear deferred saves without running them
      */
     public void clear() {
-        saveQueue.clear();
+        pending.clear();
+    }
+
+    private void captureAll() {
+        while (!pending.isEmpty()) {
+            Iterator<Map.Entry<String, Runnable>> iterator = pending.entrySet().iterator();
+            Map.Entry<String, Runnable> entry = iterator.next();
+            iterator.remove(); // Before running, so a capture may enqueue again
+            try {
+                entry.getValue().run();
+            } catch (Exception e) {
+                logger.severe("Failed to capture save " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            String target;
+            QueuedWrite write;
+            synchronized (this) {
+                while (running && writes.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) return;
+                Iterator<Map.Entry<String, QueuedWrite>> iterator = writes.entrySet().iterator();
+                Map.Entry<String, QueuedWrite> entry = iterator.next();
+                iterator.remove();
+                target = entry.getKey();
+                write = entry.getValue();
+                writingTarget = target;
+            }
+            execute(target, write);
+            synchronized (this) {
+                writingTarget = null;
+                notifyAll();
+            }
+        }
     }
-}
 
+    private void execute(String target, QueuedWrite write) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            write.task.write();
+            ok = true;
+        } catch (Exception e) {
+            ok = false;
+            logger.severe("Failed to save " + target + ": " + e.getMessage());
+        }
+        long end = System.nanoTime();
+        synchronized (this) {
+            if (ok) written++; else failed++;
+            totalWriteNanos += end - start;
+            maxWriteNanos = Math.max(maxWriteNanos, end - start);
+            totalLatencyNanos += end - write.submittedAt;
+        }
+    }
+}
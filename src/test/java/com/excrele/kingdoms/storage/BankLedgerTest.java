@@ -0,0 +1,129 @@
+package com.excrele.kingdoms.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Fuzzes {@link BankLedger}: sequential operations against a plain balance map, and concurrent
+ * transfers that must neither create nor lose money
+ */
+class BankLedgerTest {
+    private static final Logger LOGGER = Logger.getLogger(BankLedgerTest.class.getName());
+    private static final int ACCOUNTS = 40; // Fewer than the lock stripes, so some share a stripe
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void matchesBalanceMap() {
+        BankLedger ledger = new BankLedger(folder.toFile(), LOGGER);
+        Map<String, Long> reference = new HashMap<>();
+        Random random = new Random(0xBA2CL);
+        for (int i = 0; i < 20000; i++) {
+            String account = "k" + random.nextInt(ACCOUNTS);
+            long cents = random.nextInt(5000) - 500; // Some invalid amounts
+            long balance = reference.getOrDefault(account, 0L);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    boolean expected = cents > 0;
+                    assertEquals(expected, ledger.deposit(account, cents));
+                    if (expected) reference.put(account, balance + cents);
+                }
+                case 1 -> {
+                    boolean expected = cents > 0 && balance >= cents;
+                    assertEquals(expected, ledger.withdraw(account, cents));
+                    if (expected) reference.put(account, balance - cents);
+                }
+                default -> {
+                    String to = "k" + random.nextInt(ACCOUNTS);
+                    boolean expected = cents > 0 && balance >= cents;
+                    assertEquals(expected, ledger.transfer(account, to, cents));
+                    if (expected && !to.equals(account)) {
+                        reference.put(account, balance - cents);
+                        reference.put(to, reference.getOrDefault(to, 0L) + cents);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals((long) reference.getOrDefault("k" + i, 0L), ledger.getBalance("k" + i), "k" + i);
+        }
+        assertFalse(ledger.deposit("k0", Long.MAX_VALUE)); // Overflow is refused, not wrapped
+    }
+
+    @Test
+    void concurrentTransfersConserveMoney() throws Exception {
+        BankLedger ledger = new BankLedger(folder.toFile(), LOGGER);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ledger.load("k" + i, 10_000);
+        }
+        int threads = 8;
+        int transfersPerThread = 20000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        String from = "k" + random.nextInt(ACCOUNTS);
+                        String to = "k" + random.nextInt(ACCOUNTS);
+                        ledger.transfer(from, to, 1 + random.nextInt(3000));
+                        if (i % 1000 == 0) ledger.flush(); // Journal writes race the transfers
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) throw new AssertionError(failure.get());
+
+        long total = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long balance = ledger.getBalance("k" + i);
+            assertTrue(balance >= 0, "k" + i + " went negative");
+            total += balance;
+        }
+        assertEquals(ACCOUNTS * 10_000L, total);
+
+        // Every committed transfer reaches the journal exactly once
+        ledger.flush();
+        assertEquals(0, ledger.getPendingCount());
+        long lines = 0;
+        for (File file : folder.toFile().listFiles()) {
+            lines += lines(file.toPath());
+        }
+        assertEquals(ledger.getTransactionCount(), lines);
+    }
+
+    private static long lines(Path file) throws IOException {
+        try (var stream = Files.lines(file)) {
+            return stream.count();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.excrele.kingdoms.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link ConnectionPool} over fake JDBC connections: statement caching, nested borrows
+ * on one thread, exhaustion, and concurrent borrowers never sharing an open statement
+ */
+class ConnectionPoolTest {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPoolTest.class.getName());
+
+    /**
+     * State behind one fake physical statement
+     */
+    private static final class FakeStatement {
+        private final String sql;
+        private final Map<Integer, Object> parameters = new HashMap<>();
+        private volatile Thread user; // Thread between setting parameters and closing
+        private boolean closed;
+        private int clears;
+
+        private FakeStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final List<FakeStatement> prepared = new ArrayList<>();
+    private final List<Boolean> rollbacks = new ArrayList<>();
+
+    @Test
+    void reusesCachedStatements() throws SQLException {
+        ConnectionPool pool = pool(1, 8);
+        for (int i = 0; i < 5; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.setString(1, "x" + i);
+                assertSame(connection, statement.getConnection());
+            }
+        }
+        assertEquals(1, prepared.size());
+        assertEquals(5, prepared.get(0).clears);
+        assertFalse(prepared.get(0).closed);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void nestedBorrowGetsItsOwnStatement() throws SQLException {
+        ConnectionPool pool = pool(1, 8);
+        try (Connection outer = pool.getConnection();
+             PreparedStatement outerStatement = outer.prepareStatement("SELECT a")) {
+            outerStatement.setString(1, "outer");
+            try (Connection inner = pool.getConnection()) {
+                assertSame(outer, inner); // Reentrant: same connection
+                try (PreparedStatement innerStatement = inner.prepareStatement("SELECT a")) {
+                    innerStatement.setString(1, "inner");
+                }
+            }
+            assertEquals(2, prepared.size());
+            FakeStatement cached = prepared.get(0);
+            FakeStatement nested = prepared.get(1);
+            assertEquals("outer", cached.parameters.get(1)); // Untouched by the nested close
+            assertEquals(0, cached.clears);
+            assertFalse(cached.closed);
+            assertTrue(nested.closed);
+            assertEquals(0, pool.getIdleCount()); // Still held by the outer borrow
+        }
+        assertEquals(1, prepared.get(0).clears);
+        assertEquals(1, pool.getIdleCount());
+        // The cached statement is free again for the next borrow
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT a")) {
+            statement.setString(1, "again");
+        }
+        assertEquals(2, prepared.size());
+    }
+
+    @Test
+    void evictedStatementClosesWhenReleased() throws SQLException {
+        ConnectionPool pool = pool(1, 1);
+        try (Connection connection = pool.getConnection();
+             PreparedStatement first = connection.prepareStatement("SELECT a")) {
+            first.setString(1, "a");
+            try (PreparedStatement second = connection.prepareStatement("SELECT b")) {
+                second.setString(1, "b");
+            }
+            assertFalse(prepared.get(0).closed); // Evicted but still in use
+        }
+        assertTrue(prepared.get(0).closed);
+        assertFalse(prepared.get(1).closed);
+    }
+
+    @Test
+    void rollsBackUnfinishedTransactions() throws SQLException {
+        ConnectionPool pool = pool(1, 8);
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+        }
+        assertEquals(List.of(true), rollbacks);
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    void borrowTimesOutWhenExhausted() throws Exception {
+        ConnectionPool pool = pool(1, 8);
+        try (Connection held = pool.getConnection()) {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread other = new Thread(() -> {
+                try (Connection connection = pool.getConnection()) {
+                    failure.set(new AssertionError("borrowed a held connection"));
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            other.start();
+            other.join();
+            assertTrue(failure.get() instanceof SQLException, String.valueOf(failure.get()));
+        }
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+    }
+
+    @Test
+    void concurrentBorrowersNeverShareAStatement() throws Exception {
+        ConnectionPool pool = pool(3, 4, 10000L);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            Random random = new Random(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        borrow(pool, random, random.nextInt(3));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) throw new AssertionError(failure.get());
+        assertEquals(3, pool.getIdleCount());
+    }
+
+    // Prepare a few statements, nesting further borrows while they are open
+    private void borrow(ConnectionPool pool, Random random, int depth) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT " + random.nextInt(6))) {
+            statement.setString(1, Thread.currentThread().getName());
+            if (depth > 0) borrow(pool, random, depth - 1);
+            statement.setString(2, Thread.currentThread().getName()); // Fails if someone else took it
+        }
+    }
+
+    private ConnectionPool pool(int size, int statementCacheSize) throws SQLException {
+        return pool(size, statementCacheSize, 50L);
+    }
+
+    private ConnectionPool pool(int size, int statementCacheSize, long borrowTimeoutMs) throws SQLException {
+        return new ConnectionPool(this::connection, LOGGER, size, statementCacheSize, borrowTimeoutMs);
+    }
+
+    private Connection connection() {
+        boolean[] autoCommit = {true};
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "prepareStatement" -> statement((String) args[0]);
+                case "isValid" -> !closed[0];
+                case "isClosed" -> closed[0];
+                case "close" -> closed[0] = true;
+                case "getAutoCommit" -> autoCommit[0];
+                case "setAutoCommit" -> autoCommit[0] = (Boolean) args[0];
+                case "rollback" -> {
+                    synchronized (rollbacks) {
+                        rollbacks.add(!autoCommit[0]);
+                    }
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private PreparedStatement statement(String sql) {
+        FakeStatement fake = new FakeStatement(sql);
+        synchronized (prepared) {
+            prepared.add(fake);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "setString" -> {
+                    if (fake.closed) throw new SQLException("Statement closed: " + fake.sql);
+                    Thread current = Thread.currentThread();
+                    if (fake.user != null && fake.user != current) throw new SQLException("Shared with " + fake.user.getName());
+                    fake.user = current;
+                    yield fake.parameters.put((Integer) args[0], args[1]);
+                }
+                case "clearParameters" -> {
+                    fake.user = null;
+                    fake.parameters.clear();
+                    fake.clears++;
+                    yield null;
+                }
+                case "clearBatch" -> null;
+                case "isClosed" -> fake.closed;
+                case "close" -> {
+                    fake.user = null;
+                    fake.closed = true;
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
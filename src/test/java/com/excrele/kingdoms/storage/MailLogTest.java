@@ -0,0 +1,129 @@
+package com.excrele.kingdoms.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Fuzzes {@link MailLog} against a plain mail map: saves, updates and deletes must replay to the
+ * same mail, across compactions and for text that needs escaping
+ */
+class MailLogTest {
+    private static final Logger LOGGER = Logger.getLogger(MailLogTest.class.getName());
+    private static final String[] PLAYERS = {"alice", "bob", "carol"};
+    private static final String[] TEXT = {"hi", "", "tab\there", "two\nlines", "back\\slash", "cr\r\n", "\\t"};
+
+    @TempDir
+    Path folder;
+
+    private final Random random = new Random(0x3A11L);
+
+    @Test
+    void replayMatchesMemory() throws IOException {
+        Map<String, Map<String, Map<String, Object>>> reference = new HashMap<>();
+        for (String player : PLAYERS) {
+            reference.put(player, new LinkedHashMap<>());
+        }
+        long sentAt = 1_000;
+        int compactions = 0;
+        for (int round = 0; round < 40; round++) {
+            MailLog log = new MailLog(folder.toFile(), LOGGER); // A fresh instance replays from disk
+            for (int i = 0; i < 50; i++) {
+                String player = PLAYERS[random.nextInt(PLAYERS.length)];
+                Map<String, Map<String, Object>> mailbox = reference.get(player);
+                List<String> ids = new ArrayList<>(mailbox.keySet());
+                int action = random.nextInt(4);
+                if (action == 0 && !ids.isEmpty()) {
+                    String mailId = ids.get(random.nextInt(ids.size()));
+                    log.delete(player, mailId);
+                    mailbox.remove(mailId);
+                } else if (action == 1 && !ids.isEmpty()) {
+                    // Mark read or soft-delete an existing mail
+                    Map<String, Object> mail = new HashMap<>(mailbox.get(ids.get(random.nextInt(ids.size()))));
+                    mail.put("read", true);
+                    mail.put("readAt", sentAt);
+                    mail.put("deleted", random.nextInt(4) == 0);
+                    log.save(mail);
+                    mailbox.put((String) mail.get("mailId"), mail);
+                } else {
+                    Map<String, Object> mail = mail(player, "m" + round + "-" + i, sentAt++);
+                    log.save(mail);
+                    mailbox.put((String) mail.get("mailId"), mail);
+                }
+            }
+            for (String player : PLAYERS) {
+                verify(log.load(player), reference.get(player));
+                // Compaction drops soft-deleted mail: one line per live mail means it just ran
+                Path file = new File(folder.toFile(), player + ".log").toPath();
+                if (Files.isRegularFile(file) && Files.readAllLines(file).size() == live(reference.get(player))) {
+                    reference.get(player).values().removeIf(mail -> Boolean.TRUE.equals(mail.get("deleted")));
+                    compactions++;
+                }
+            }
+        }
+        assertTrue(compactions > 0, "never compacted");
+    }
+
+    @Test
+    void deleteOnlyTouchesRecipient() {
+        MailLog log = new MailLog(folder.toFile(), LOGGER);
+        log.save(mail("alice", "same-id", 1));
+        log.save(mail("bob", "other", 2));
+        log.delete("bob", "same-id"); // Not bob's mail
+        log.delete("nobody", "same-id");
+        assertEquals(1, log.load("alice").size());
+        assertEquals(1, log.load("bob").size());
+        assertFalse(new File(folder.toFile(), "nobody.log").exists());
+        log.delete("alice", "same-id");
+        assertTrue(log.load("alice").isEmpty());
+    }
+
+    private Map<String, Object> mail(String recipient, String mailId, long sentAt) {
+        Map<String, Object> mail = new HashMap<>();
+        mail.put("mailId", mailId);
+        mail.put("recipient", recipient);
+        mail.put("sender", PLAYERS[random.nextInt(PLAYERS.length)]);
+        mail.put("kingdomName", "kingdom");
+        mail.put("subject", TEXT[random.nextInt(TEXT.length)]);
+        mail.put("message", TEXT[random.nextInt(TEXT.length)] + TEXT[random.nextInt(TEXT.length)]);
+        mail.put("sentAt", sentAt);
+        mail.put("read", false);
+        mail.put("readAt", 0L);
+        mail.put("deleted", false);
+        return mail;
+    }
+
+    private static int live(Map<String, Map<String, Object>> mailbox) {
+        int live = 0;
+        for (Map<String, Object> mail : mailbox.values()) {
+            if (!Boolean.TRUE.equals(mail.get("deleted"))) live++;
+        }
+        return live;
+    }
+
+    private static void verify(List<Map<String, Object>> loaded, Map<String, Map<String, Object>> expected) {
+        assertEquals(expected.size(), loaded.size());
+        long previous = Long.MAX_VALUE;
+        for (Map<String, Object> mail : loaded) {
+            assertEquals(expected.get(mail.get("mailId")), mail);
+            long sentAt = (Long) mail.get("sentAt");
+            assertTrue(sentAt <= previous, "not newest first");
+            previous = sentAt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.excrele.kingdoms.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Fuzzes {@link SeasonScoreStore} against a plain score map: every flush must leave a journal
+ * that replays to the same scores and rankings, whether it appended or compacted
+ */
+class SeasonScoreStoreTest {
+    private static final int COLUMNS = 3;
+    private static final Logger LOGGER = Logger.getLogger(SeasonScoreStoreTest.class.getName());
+
+    @TempDir
+    Path folder;
+
+    private final Random random = new Random(0x5EA5L);
+
+    @Test
+    void replayMatchesMemory() throws IOException {
+        SeasonScoreStore store = open("s1");
+        Map<String, int[]> reference = new HashMap<>();
+        int maxLines = 0;
+        for (int round = 0; round < 60; round++) {
+            for (int i = 0; i < 40; i++) {
+                String kingdom = "k" + random.nextInt(30);
+                if (random.nextInt(12) == 0) {
+                    store.remove(kingdom);
+                    reference.remove(kingdom);
+                    continue;
+                }
+                int column = random.nextInt(COLUMNS);
+                int points = random.nextInt(21) - 10; // Deductions can bring a counter back to zero
+                store.add(kingdom, column, points);
+                if (points != 0) reference.computeIfAbsent(kingdom, k -> new int[COLUMNS])[column] += points;
+            }
+            verify(store, reference);
+            store.flush();
+            maxLines = Math.max(maxLines, Files.readAllLines(journal("s1")).size());
+            verify(open("s1"), reference);
+        }
+        // Compaction keeps the journal within a small multiple of the live rows
+        assertTrue(maxLines <= 64 + 40 + 30 * 2, "journal grew to " + maxLines + " lines");
+    }
+
+    @Test
+    void seasonsAreSeparate() {
+        SeasonScoreStore store = open("s1");
+        store.add("a", 0, 5);
+        store.open("s2");
+        assertEquals(0, store.get("a", 0));
+        store.add("b", 1, 3);
+        store.open("s1");
+        assertEquals(5, store.get("a", 0));
+        assertEquals(0, store.get("b", 1));
+        store.open("s2");
+        assertEquals(3, store.get("b", 1));
+    }
+
+    @Test
+    void failedFlushIsRetried() throws IOException {
+        SeasonScoreStore store = open("s1");
+        store.add("a", 0, 5);
+        store.add("b", 1, 2);
+        store.flush();
+        store.add("a", 0, 3);
+        store.remove("b");
+        // A directory in place of the journal makes the append fail
+        Files.delete(journal("s1"));
+        Files.createDirectory(journal("s1"));
+        store.flush();
+        Files.delete(journal("s1"));
+        store.flush();
+        SeasonScoreStore replayed = open("s1");
+        assertEquals(8, replayed.get("a", 0));
+        assertEquals(0, replayed.get("b", 1));
+        assertEquals(0, replayed.size(1));
+    }
+
+    private SeasonScoreStore open(String season) {
+        SeasonScoreStore store = new SeasonScoreStore(folder.toFile(), COLUMNS, LOGGER);
+        store.open(season);
+        return store;
+    }
+
+    private Path journal(String season) {
+        return new File(folder.toFile(), season + ".log").toPath();
+    }
+
+    private static void verify(SeasonScoreStore store, Map<String, int[]> reference) {
+        for (int column = 0; column < COLUMNS; column++) {
+            List<Map.Entry<String, Integer>> expected = new ArrayList<>();
+            for (Map.Entry<String, int[]> entry : reference.entrySet()) {
+                assertEquals(entry.getValue()[column], store.get(entry.getKey(), column), entry.getKey());
+                if (entry.getValue()[column] != 0) expected.add(Map.entry(entry.getKey(), entry.getValue()[column]));
+            }
+            // Highest first, ties by name
+            expected.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            assertEquals(expected.size(), store.size(column));
+            assertEquals(expected, store.top(column, expected.size()));
+            for (int i = 0; i < expected.size(); i++) {
+                int rank = 1;
+                while (rank <= i && !expected.get(rank - 1).getValue().equals(expected.get(i).getValue())) rank++;
+                assertEquals(rank, store.rank(expected.get(i).getKey(), column), expected.get(i).getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.excrele.kingdoms.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link StorageExecutor}: per-key ordering under concurrent submitters, and the lane
+ * bound holding back submitters without deadlocking tasks that queue more work
+ */
+class StorageExecutorTest {
+    private static final Logger LOGGER = Logger.getLogger(StorageExecutorTest.class.getName());
+
+    @Test
+    void keepsPerKeyOrder() throws Exception {
+        StorageExecutor executor = new StorageExecutor("test", 3, 64, LOGGER); // Small lanes, so submitters stall
+        Map<String, List<Integer>> applied = new ConcurrentHashMap<>();
+        List<Thread> submitters = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            String owner = "s" + t;
+            Thread submitter = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    // Keys are private to one submitter, so its submission order is the expected order
+                    String key = owner + ":" + random.nextInt(10);
+                    int sequence = i;
+                    futures.add(executor.run(key, () -> applied.computeIfAbsent(key, k -> new ArrayList<>()).add(sequence)));
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        int total = 0;
+        for (Map.Entry<String, List<Integer>> entry : applied.entrySet()) {
+            List<Integer> sequence = entry.getValue();
+            for (int i = 1; i < sequence.size(); i++) {
+                assertTrue(sequence.get(i - 1) < sequence.get(i), entry.getKey() + " out of order");
+            }
+            total += sequence.size();
+        }
+        assertEquals(20000, total);
+        assertEquals(20000L, executor.getCompletedCount());
+        assertEquals(0, executor.getPendingCount());
+        executor.drain(1000L);
+    }
+
+    @Test
+    void fullLaneHoldsBackSubmitters() throws Exception {
+        StorageExecutor executor = new StorageExecutor("test", 1, 2, LOGGER);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        executor.run("k", () -> {
+            await(release);
+            ran.incrementAndGet();
+        });
+        executor.run("k", ran::incrementAndGet);
+        Thread third = new Thread(() -> executor.run("k", ran::incrementAndGet));
+        third.start();
+        third.join(200L);
+        assertTrue(third.isAlive(), "submitted past a full lane");
+        assertEquals(1L, executor.getStallCount());
+        release.countDown();
+        third.join(5000L);
+        executor.drain(5000L);
+        assertEquals(3, ran.get());
+    }
+
+    @Test
+    void laneTasksSkipTheBound() throws Exception {
+        StorageExecutor executor = new StorageExecutor("test", 1, 1, LOGGER);
+        CompletableFuture<CompletableFuture<Integer>> nested = executor.supply("k", () -> executor.supply("k", () -> 7));
+        assertEquals(7, (int) nested.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+        assertEquals(0L, executor.getStallCount());
+        executor.drain(1000L);
+    }
+
+    @Test
+    void failuresCompleteExceptionally() throws Exception {
+        StorageExecutor executor = new StorageExecutor("test", 2, 4, LOGGER);
+        CompletableFuture<Object> failing = executor.supply("k", () -> {
+            throw new IllegalStateException("boom");
+        });
+        try {
+            failing.get(5, TimeUnit.SECONDS);
+            throw new AssertionError("expected a failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+        }
+        assertEquals(1L, executor.getFailedCount());
+        // The lane's slot was given back, and work after a drain still runs, inline
+        assertEquals(1, (int) executor.supply("k", () -> 1).get(5, TimeUnit.SECONDS));
+        executor.drain(1000L);
+        assertEquals(2, (int) executor.supply("k", () -> 2).getNow(-1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
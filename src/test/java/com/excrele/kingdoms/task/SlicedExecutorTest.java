@@ -0,0 +1,116 @@
+package com.excrele.kingdoms.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link SlicedExecutor} by driving its ticks directly: every item runs once and in
+ * order across ticks, jobs take turns when the budget runs out, and a failing step ends only its job
+ */
+class SlicedExecutorTest {
+    private static final Logger LOGGER = Logger.getLogger(SlicedExecutorTest.class.getName());
+
+    @Test
+    void runsEveryItemOnceInOrder() {
+        SlicedExecutor executor = new SlicedExecutor(LOGGER, 100L);
+        Random random = new Random(0x511CL);
+        Map<String, List<Integer>> expected = new HashMap<>();
+        Map<String, List<Integer>> seen = new HashMap<>();
+        for (int j = 0; j < 4; j++) {
+            String name = "job" + j;
+            List<Integer> items = new ArrayList<>();
+            for (int i = random.nextInt(200); i > 0; i--) items.add(random.nextInt());
+            expected.put(name, items);
+            List<Integer> applied = new ArrayList<>();
+            seen.put(name, applied);
+            assertTrue(executor.submit(name, items, item -> {
+                spin(random.nextInt(30_000));
+                applied.add(item);
+            }));
+        }
+        int ticks = 0;
+        while (executor.getActiveCount() > 0) {
+            executor.tick();
+            assertTrue(++ticks < 100_000, "never finished");
+        }
+        assertEquals(expected, seen);
+        assertTrue(ticks > 1, "fit in one tick, so nothing was sliced");
+        for (SlicedExecutor.Job job : executor.getJobs()) {
+            assertTrue(job.isFinished(), job.getName());
+            assertEquals(0, job.getBacklog());
+        }
+    }
+
+    @Test
+    void jobsTakeTurns() {
+        SlicedExecutor executor = new SlicedExecutor(LOGGER, 100L);
+        List<String> order = new ArrayList<>();
+        executor.submit("a", slow("a", 3, order));
+        executor.submit("b", slow("b", 3, order));
+        for (int tick = 0; tick < 6; tick++) {
+            executor.tick();
+        }
+        // Each step overruns the budget, so one job runs per tick and the other goes first next time
+        assertEquals(List.of("a", "b", "a", "b", "a", "b"), order);
+        assertEquals(0, executor.getActiveCount());
+        assertEquals(6L, executor.getBusyTicks());
+        assertEquals(6L, executor.getOverBudgetTicks());
+        executor.tick(); // Idle ticks are not counted
+        assertEquals(6L, executor.getBusyTicks());
+    }
+
+    @Test
+    void failingStepEndsOnlyItsJob() {
+        SlicedExecutor executor = new SlicedExecutor(LOGGER, 100_000L);
+        List<Integer> applied = new ArrayList<>();
+        executor.submit("failing", List.of(1, 2, 3), item -> {
+            if (item == 2) throw new IllegalStateException("boom");
+            applied.add(item);
+        });
+        executor.submit("other", List.of(10, 20), applied::add);
+        assertFalse(executor.submit("failing", List.of(4), applied::add)); // Still running
+        executor.tick();
+        assertEquals(List.of(1, 10, 20), applied);
+        assertEquals(0, executor.getActiveCount());
+        assertFalse(executor.isRunning("failing"));
+        assertTrue(executor.submit("failing", List.of(4), applied::add)); // Finished, so it can run again
+        executor.tick();
+        assertEquals(List.of(1, 10, 20, 4), applied);
+    }
+
+    // A job whose every step takes longer than the minimum budget
+    private static SlicedExecutor.Work slow(String name, int steps, List<String> order) {
+        return new SlicedExecutor.Work() {
+            private int left = steps;
+
+            @Override
+            public boolean step() {
+                spin(300_000);
+                order.add(name);
+                return --left > 0;
+            }
+
+            @Override
+            public int remaining() {
+                return left;
+            }
+        };
+    }
+
+    private static void spin(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
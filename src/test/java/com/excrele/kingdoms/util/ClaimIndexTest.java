@@ -0,0 +1,138 @@
+package com.excrele.kingdoms.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.excrele.kingdoms.model.Kingdom;
+
+/**
+ * Fuzzes the region-pruned queries of {@link ClaimIndex} against brute-force scans of a plain map
+ */
+class ClaimIndexTest {
+    private static final String WORLD = "world";
+    private static final int SPAN = 80; // Claims fall in [-SPAN, SPAN), across many regions
+
+    private final Random random = new Random(0x4B1DL);
+    private final ClaimIndex index = new ClaimIndex();
+    private final Map<Long, Kingdom> reference = new HashMap<>();
+    private final Kingdom[] kingdoms = new Kingdom[5];
+
+    ClaimIndexTest() {
+        for (int i = 0; i < kingdoms.length; i++) {
+            kingdoms[i] = new Kingdom("kingdom" + i, "king" + i);
+        }
+    }
+
+    @Test
+    void queriesMatchBruteForce() {
+        for (int round = 0; round < 40; round++) {
+            mutate(150);
+            for (int query = 0; query < 200; query++) {
+                int x = coordinate();
+                int z = coordinate();
+                Kingdom kingdom = random.nextInt(6) == 0 ? null : kingdoms[random.nextInt(kingdoms.length)];
+                checkNearest(x, z, random.nextInt(24), kingdom);
+                if (kingdom != null) {
+                    assertEquals(adjacent(x, z, kingdom), index.isAdjacentTo(WORLD, x, z, kingdom),
+                        "isAdjacentTo(" + x + ", " + z + ", " + kingdom.getName() + ")");
+                }
+                int minX = coordinate();
+                int minZ = coordinate();
+                int maxX = minX + random.nextInt(40);
+                int maxZ = minZ + random.nextInt(40);
+                assertEquals(count(minX, minZ, maxX, maxZ), index.countClaimsInArea(WORLD, minX, minZ, maxX, maxZ),
+                    "countClaimsInArea(" + minX + ", " + minZ + ", " + maxX + ", " + maxZ + ")");
+            }
+        }
+    }
+
+    @Test
+    void unregisterDropsClaims() {
+        mutate(400);
+        index.unregisterKingdom(kingdoms[0].getName());
+        reference.values().removeIf(owner -> owner == kingdoms[0]);
+        assertEquals(reference.size(), index.size());
+        assertEquals(count(-SPAN, -SPAN, SPAN, SPAN), index.countClaimsInArea(WORLD, -SPAN, -SPAN, SPAN, SPAN));
+        for (int i = 0; i < 200; i++) {
+            checkNearest(coordinate(), coordinate(), random.nextInt(24), kingdoms[1]);
+        }
+    }
+
+    private void mutate(int operations) {
+        for (int i = 0; i < operations; i++) {
+            int x = coordinate();
+            int z = coordinate();
+            long key = ClaimIndex.pack(x, z);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), index.unclaim(WORLD, x, z));
+            } else {
+                Kingdom kingdom = kingdoms[random.nextInt(kingdoms.length)];
+                assertEquals(reference.put(key, kingdom), index.claim(WORLD, x, z, kingdom));
+            }
+        }
+        assertEquals(reference.size(), index.size());
+    }
+
+    private void checkNearest(int x, int z, int radius, Kingdom kingdom) {
+        String call = "findNearestForeignClaim(" + x + ", " + z + ", " + radius + ")";
+        int expected = Integer.MAX_VALUE;
+        for (Map.Entry<Long, Kingdom> entry : reference.entrySet()) {
+            if (entry.getValue() == kingdom) continue;
+            int distance = distance(entry.getKey(), x, z);
+            if (distance <= radius) expected = Math.min(expected, distance);
+        }
+        ClaimIndex.NearbyClaim nearest = index.findNearestForeignClaim(WORLD, x, z, radius, kingdom);
+        if (expected == Integer.MAX_VALUE) {
+            assertNull(nearest, call);
+            return;
+        }
+        assertNotNull(nearest, call);
+        assertEquals(expected, nearest.distance(), call);
+        assertNotEquals(kingdom, nearest.kingdom(), call);
+        // Ties may resolve to any kingdom at that distance, but it must own one of those chunks
+        boolean owns = false;
+        for (Map.Entry<Long, Kingdom> entry : reference.entrySet()) {
+            if (entry.getValue() == nearest.kingdom() && distance(entry.getKey(), x, z) == expected) {
+                owns = true;
+                break;
+            }
+        }
+        assertTrue(owns, call);
+    }
+
+    private boolean adjacent(int x, int z, Kingdom kingdom) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if ((dx != 0 || dz != 0) && reference.get(ClaimIndex.pack(x + dx, z + dz)) == kingdom) return true;
+            }
+        }
+        return false;
+    }
+
+    private int count(int minX, int minZ, int maxX, int maxZ) {
+        int count = 0;
+        for (long key : reference.keySet()) {
+            int x = ClaimIndex.unpackX(key);
+            int z = ClaimIndex.unpackZ(key);
+            if (x >= minX && x <= maxX && z >= minZ && z <= maxZ) count++;
+        }
+        return count;
+    }
+
+    private static int distance(long key, int x, int z) {
+        return Math.max(Math.abs(ClaimIndex.unpackX(key) - x), Math.abs(ClaimIndex.unpackZ(key) - z));
+    }
+
+    private int coordinate() {
+        return random.nextInt(SPAN * 2) - SPAN;
+    }
+}
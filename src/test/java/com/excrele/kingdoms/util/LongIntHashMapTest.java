@@ -0,0 +1,91 @@
+package com.excrele.kingdoms.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fuzzes {@link LongIntHashMap} against a HashMap, with keys packed close together so probe
+ * chains run long and backward-shift deletion has to move entries across them
+ */
+class LongIntHashMapTest {
+    private static final int MISSING = -1;
+
+    private final Random random = new Random(0x51F7L);
+
+    @Test
+    void matchesHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4, MISSING);
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int round = 0; round < 50; round++) {
+            int range = 8 + random.nextInt(512); // Small rounds wrap around tiny tables
+            for (int i = 0; i < 2000; i++) {
+                long key = key(range);
+                switch (random.nextInt(3)) {
+                    case 0 -> assertEquals(orMissing(reference.remove(key)), map.remove(key), "remove " + key);
+                    case 1 -> assertEquals(orMissing(reference.get(key)), map.get(key), "get " + key);
+                    default -> {
+                        int value = random.nextInt(1000);
+                        assertEquals(orMissing(reference.put(key, value)), map.put(key, value), "put " + key);
+                    }
+                }
+            }
+            verify(map, reference);
+            if (random.nextInt(10) == 0) {
+                map.clear();
+                reference.clear();
+                verify(map, reference);
+            }
+        }
+    }
+
+    @Test
+    void drainsToEmpty() {
+        LongIntHashMap map = new LongIntHashMap(4, MISSING);
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long key = key(4096);
+            reference.put(key, i);
+            map.put(key, i);
+        }
+        verify(map, reference);
+        for (long key : map.keys()) {
+            assertEquals((int) reference.remove(key), map.remove(key));
+            assertEquals(reference.size(), map.size());
+            // Every key still present must stay reachable after the shift
+            if (reference.size() % 97 == 0) verify(map, reference);
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    private long key(int range) {
+        // Chunk-style keys in a small square, plus the free key 0 and some wide values
+        return switch (random.nextInt(20)) {
+            case 0 -> 0L;
+            case 1 -> random.nextLong();
+            default -> ClaimIndex.pack(random.nextInt(range) - range / 2, random.nextInt(8) - 4);
+        };
+    }
+
+    private static int orMissing(Integer value) {
+        return value != null ? value : MISSING;
+    }
+
+    private static void verify(LongIntHashMap map, Map<Long, Integer> reference) {
+        assertEquals(reference.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+            assertTrue(map.containsKey(entry.getKey()), "missing " + entry.getKey());
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value), "visited twice " + key));
+        assertEquals(reference, visited);
+        assertEquals(reference.size(), map.keys().length);
+    }
+}
@@ -0,0 +1,88 @@
+package com.excrele.kingdoms.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fuzzes {@link RankIndex} against a plain score map sorted on every check: puts, re-puts and
+ * removes must keep the same ranking order, competition ranks and top lists
+ */
+class RankIndexTest {
+    private final Random random = new Random(0x4A4EL);
+
+    @Test
+    void matchesSortedReference() {
+        RankIndex index = new RankIndex();
+        Map<String, long[]> reference = new HashMap<>();
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 50; i++) {
+                String name = "k" + random.nextInt(120);
+                int action = random.nextInt(10);
+                if (action == 0) {
+                    assertEquals(reference.remove(name) != null, index.remove(name));
+                } else {
+                    // Narrow score ranges, so ties on primary and on both scores are common
+                    long primary = random.nextInt(8);
+                    long secondary = action == 1 ? 0 : random.nextInt(3);
+                    index.put(name, primary, secondary);
+                    reference.put(name, new long[] {primary, secondary});
+                }
+            }
+            verify(index, reference);
+        }
+        index.clear();
+        verify(index, new HashMap<>());
+    }
+
+    @Test
+    void unchangedScoreKeepsPlace() {
+        RankIndex index = new RankIndex();
+        index.put("b", 5, 1);
+        index.put("a", 5, 1);
+        index.put("c", 7, 0);
+        index.put("b", 5, 1);
+        assertEquals(List.of(Map.entry("c", 7L), Map.entry("a", 5L), Map.entry("b", 5L)), index.top(10));
+        assertEquals(2, index.rank("a"));
+        assertEquals(2, index.rank("b")); // Ties share a rank
+        assertEquals(0, index.rank("missing"));
+        assertEquals(List.of(Map.entry("c", 7L)), index.top(1));
+        assertTrue(index.top(0).isEmpty());
+    }
+
+    private static void verify(RankIndex index, Map<String, long[]> reference) {
+        List<Map.Entry<String, long[]>> expected = new ArrayList<>(reference.entrySet());
+        // Highest primary, then highest secondary, then name
+        expected.sort(Comparator.<Map.Entry<String, long[]>>comparingLong(e -> -e.getValue()[0])
+            .thenComparingLong(e -> -e.getValue()[1])
+            .thenComparing(Map.Entry::getKey));
+        assertEquals(expected.size(), index.size());
+        List<Map.Entry<String, Long>> top = index.top(expected.size() + 5);
+        assertEquals(expected.size(), top.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Map.Entry<String, long[]> entry = expected.get(i);
+            assertEquals(entry.getKey(), top.get(i).getKey());
+            assertEquals(entry.getValue()[0], (long) top.get(i).getValue());
+            assertTrue(index.contains(entry.getKey()));
+            int rank = 1;
+            while (rank <= i && !sameScore(expected.get(rank - 1).getValue(), entry.getValue())) rank++;
+            assertEquals(rank, index.rank(entry.getKey()), entry.getKey());
+        }
+        int limit = expected.isEmpty() ? 0 : 1 + expected.size() / 3;
+        assertEquals(top.subList(0, limit), index.top(limit));
+        assertFalse(index.contains("absent"));
+    }
+
+    private static boolean sameScore(long[] a, long[] b) {
+        return a[0] == b[0] && a[1] == b[1];
+    }
+}
@@ -0,0 +1,136 @@
+package com.excrele.kingdoms.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Exercises {@link SaveQueue} with a writer held up on purpose: collapsing per target, submits
+ * that never wait, deferred batches, and shutdown never letting an older snapshot land last
+ */
+class SaveQueueTest {
+    private static final Logger LOGGER = Logger.getLogger(SaveQueueTest.class.getName());
+
+    private final Map<String, Integer> disk = new ConcurrentHashMap<>();
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void lastSnapshotPerTargetWins() throws Exception {
+        SaveQueue queue = new SaveQueue(LOGGER, 256);
+        CountDownLatch release = hold(queue, "held");
+        Random random = new Random(0x5A7EL);
+        int[] latest = new int[8];
+        for (int i = 1; i <= 2000; i++) {
+            int target = random.nextInt(latest.length);
+            latest[target] = i;
+            queue.submit("t" + target, write("t" + target, i));
+        }
+        assertEquals(latest.length, queue.getBacklog()); // One waiting write per target
+        release.countDown();
+        queue.shutdown(5000L);
+        for (int target = 0; target < latest.length; target++) {
+            assertEquals(latest[target], (int) disk.get("t" + target));
+        }
+        assertEquals(2000L - latest.length, queue.getCollapsedCount());
+        assertEquals(1L + latest.length, queue.getWrittenCount());
+    }
+
+    @Test
+    void submitNeverWaitsForTheWriter() throws Exception {
+        SaveQueue queue = new SaveQueue(LOGGER, 2);
+        CountDownLatch release = hold(queue, "held");
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            queue.submit("t" + i, write("t" + i, i));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "submit waited for the writer");
+        assertEquals(48L, queue.getOverflowCount());
+
+        // Deferred captures are held back while the writer is behind
+        queue.enqueue("later", () -> queue.submit("later", write("later", 1)));
+        queue.processQueue();
+        assertEquals(1, queue.size());
+        assertEquals(1L, queue.getDeferredCount());
+
+        release.countDown();
+        queue.shutdown(5000L); // Captures "later" too
+        assertEquals(52, disk.size()); // The held write, 50 submits and the deferred one
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void shutdownLetsTheWriterFinishFirst() throws Exception {
+        SaveQueue queue = new SaveQueue(LOGGER, 16);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit("a", () -> {
+            started.countDown();
+            awaitUninterruptibly(release); // A write that outlives the shutdown timeout
+            log.add("a=old");
+            disk.put("a", 1);
+        });
+        started.await();
+        queue.submit("a", () -> {
+            log.add("a=new");
+            disk.put("a", 2);
+        });
+        Thread releaser = new Thread(() -> {
+            sleep(150L);
+            release.countDown();
+        });
+        releaser.start();
+        queue.shutdown(100L); // Gives up waiting, but must not write "a" around the writer
+        releaser.join();
+        assertEquals(List.of("a=old", "a=new"), log);
+        assertEquals(2, (int) disk.get("a"));
+    }
+
+    // Occupy the writer until the returned latch is released
+    private CountDownLatch hold(SaveQueue queue, String target) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(target, () -> {
+            started.countDown();
+            awaitUninterruptibly(release);
+            disk.put(target, 0);
+        });
+        started.await();
+        return release;
+    }
+
+    private SaveQueue.WriteTask write(String target, int value) {
+        return () -> disk.put(target, value);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}